@@ -0,0 +1,89 @@
+package Controlador;
+
+import Modelo.DatosDePrueba;
+import Modelo.GestorDatos;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Importar y exportar archivos de tareas. Además del tiempo por archivo, el
+ * contador "filas" sale en filas por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RendimientoArchivos {
+
+    @Param({"10000", "100000"})
+    int filas;
+
+    @Param({"CSV", "NDJSON"})
+    FormatoArchivo formato;
+
+    private String contenido;
+    private GestorDatos lleno;
+    private Path destino;
+
+    // Se rehace antes de cada importación: siempre se importa en un gestor vacío
+    private GestorDatos vacio;
+
+    /** Filas procesadas: JMH lo divide por el tiempo (filas por segundo). */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Contador {
+        public long filas;
+    }
+
+    @Setup
+    public void preparar() throws IOException {
+        lleno = DatosDePrueba.gestorCon(filas, 42);
+        destino = Files.createTempFile("todolist-bench", "." + formato.getExtension());
+        // El archivo que se importa es el que genera el exportador con las mismas tareas
+        new ExportadorTareas(lleno).exportar(destino, formato, null);
+        contenido = Files.readString(destino);
+    }
+
+    @Setup(Level.Invocation)
+    public void vaciar() {
+        vacio = DatosDePrueba.gestorCon(0, 0);
+    }
+
+    @TearDown
+    public void borrar() throws IOException {
+        Files.deleteIfExists(destino);
+    }
+
+    @Benchmark
+    public ImportadorTareas.Resultado importar(Contador contador) throws IOException {
+        ImportadorTareas.Resultado r = new ImportadorTareas(vacio).importar(new StringReader(contenido), formato, null);
+        contador.filas += r.getLeidas();
+        return r;
+    }
+
+    @Benchmark
+    public ExportadorTareas.Resultado exportar(Contador contador) throws IOException {
+        ExportadorTareas.Resultado r = new ExportadorTareas(lleno).exportar(destino, formato, null);
+        contador.filas += r.getPendientes() + r.getCompletadas();
+        return r;
+    }
+}
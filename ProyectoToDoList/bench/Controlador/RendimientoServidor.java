@@ -0,0 +1,106 @@
+package Controlador;
+
+import Modelo.DatosDePrueba;
+import Modelo.GestorDatos;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Prueba de carga de la API HTTP por 127.0.0.1 con 16 clientes a la vez.
+ * Throughput da peticiones por segundo y SampleTime la latencia por
+ * percentiles (p50, p99...) de cada tipo de petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class RendimientoServidor {
+
+    private static final int TAMANO = 100_000;
+
+    private GestorDatos gestor;
+    private ServidorTareas servidor;
+    private HttpClient cliente;
+    private String base;
+    private final AtomicInteger hilos = new AtomicInteger();
+
+    /** Cada cliente crea tareas con sus propios nombres. */
+    @State(Scope.Thread)
+    public static class Cliente {
+        String prefijo;
+        int siguiente;
+
+        @Setup
+        public void preparar(RendimientoServidor comun) {
+            prefijo = "Cliente " + comun.hilos.incrementAndGet() + " tarea ";
+        }
+    }
+
+    @Setup
+    public void preparar() throws IOException {
+        gestor = DatosDePrueba.gestorCon(TAMANO, 42);
+        servidor = new ServidorTareas(gestor, 0);
+        servidor.iniciar();
+        base = "http://127.0.0.1:" + servidor.getPuerto() + "/api/";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void detener() {
+        servidor.detener();
+    }
+
+    /** Leer una tarea por id. */
+    @Benchmark
+    public String obtenerTarea(Cliente c) throws Exception {
+        long id = gestor.obtenerPendiente((c.siguiente++ * 7919) % TAMANO).getId();
+        return enviar(HttpRequest.newBuilder(URI.create(base + "tareas/" + id)).GET(), 200);
+    }
+
+    /** Una página de 100 pendientes (lo que pediría una lista en otra aplicación). */
+    @Benchmark
+    public String listarPagina(Cliente c) throws Exception {
+        int desde = (c.siguiente++ * 104_729) % (TAMANO - 100);
+        return enviar(HttpRequest.newBuilder(URI.create(base + "tareas?desde=" + desde + "&cantidad=100")).GET(), 200);
+    }
+
+    /** Crear una tarea y borrarla: dos peticiones que escriben. */
+    @Benchmark
+    public String crearYEliminar(Cliente c) throws Exception {
+        String cuerpo = "{\"titulo\":\"" + c.prefijo + c.siguiente++ + "\",\"categoria\":\"HOY\"}";
+        String creada = enviar(HttpRequest.newBuilder(URI.create(base + "tareas"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo)), 201);
+        Object id = ((Map<?, ?>) Json.leer(creada)).get("id");
+        return enviar(HttpRequest.newBuilder(URI.create(base + "tareas/" + id)).DELETE(), 204);
+    }
+
+    private String enviar(HttpRequest.Builder peticion, int esperado) throws Exception {
+        HttpResponse<String> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != esperado) {
+            throw new IllegalStateException("Respuesta " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return respuesta.body();
+    }
+}
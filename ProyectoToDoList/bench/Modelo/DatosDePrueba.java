@@ -0,0 +1,71 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos inventados para las mediciones: gestores con un número concreto de
+ * tareas y títulos parecidos a los de verdad (varias palabras, con tildes).
+ *
+ * Siempre con semilla: dos ejecuciones con los mismos parámetros miden
+ * exactamente los mismos datos y se pueden comparar.
+ */
+public final class DatosDePrueba {
+
+    private static final String[] PALABRAS = {
+        "comprar", "pan", "llamar", "médico", "revisar", "informe", "pagar", "luz",
+        "enviar", "correo", "reunión", "equipo", "estudiar", "examen", "limpiar", "cocina",
+        "preparar", "presentación", "renovar", "pasaporte", "regar", "plantas", "canción", "año"
+    };
+
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+
+    private DatosDePrueba() {
+    }
+
+    /** Un gestor solo en memoria con "tamano" tareas pendientes. */
+    public static GestorDatos gestorCon(int tamano, long semilla) {
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        llenar(gestor, tamano, semilla);
+        return gestor;
+    }
+
+    /** Agrega "cantidad" tareas pendientes al gestor, por lotes. */
+    public static void llenar(GestorDatos gestor, int cantidad, long semilla) {
+        Random azar = new Random(semilla);
+        List<Tarea> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < cantidad; i++) {
+            lote.add(borrador(azar, titulo(azar, i)));
+            if (lote.size() == 10_000) {
+                gestor.registrarLote(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) gestor.registrarLote(lote);
+    }
+
+    /** Título de unas palabras al azar con un número al final, para que no se repita. */
+    public static String titulo(Random azar, int numero) {
+        StringBuilder sb = new StringBuilder();
+        int palabras = 2 + azar.nextInt(3);
+        for (int i = 0; i < palabras; i++) {
+            String p = PALABRAS[azar.nextInt(PALABRAS.length)];
+            sb.append(i == 0 ? Character.toUpperCase(p.charAt(0)) + p.substring(1) : p).append(' ');
+        }
+        return sb.append(numero).toString();
+    }
+
+    /** Tarea sin id (para registrar) con categoría y fecha al azar; una de cada cinco sin fecha. */
+    public static Tarea borrador(Random azar, String titulo) {
+        LocalDate fecha = azar.nextInt(5) == 0 ? null : LocalDate.now().plusDays(1 + azar.nextInt(730));
+        String descripcion = azar.nextBoolean() ? "" : PALABRAS[azar.nextInt(PALABRAS.length)] + " antes del viernes";
+        return new Tarea(0, titulo, descripcion, CATEGORIAS[azar.nextInt(CATEGORIAS.length)], fecha, 0, 0);
+    }
+
+    /** La fecha de una tarea como la escribe el usuario (dd/MM/yyyy), de hoy a dos años vista. */
+    public static String fechaTexto(Random azar) {
+        return Fechas.formatear(LocalDate.now().plusDays(azar.nextInt(730)));
+    }
+}
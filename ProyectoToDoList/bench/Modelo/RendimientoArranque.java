@@ -0,0 +1,86 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Arrancar desde una instantánea (sin diario que reproducir), separado en
+ * partes: proyectar el archivo, decodificar las pendientes y el arranque
+ * completo, que además llena los índices. La diferencia entre las tres dice
+ * cuánto es disco, cuánto decodificar y cuánto construir la memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RendimientoArranque {
+
+    @Param({"100000", "1000000"})
+    int tamano;
+
+    private Path directorio;
+
+    @Setup
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("rendimiento-arranque");
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        gestor.activarPersistencia(directorio, ModoDurabilidad.POR_LOTES);
+        DatosDePrueba.llenar(gestor, tamano, 42);
+        gestor.cerrar();
+
+        // Al volver a abrir se reproduce el diario y se guarda la instantánea; al cerrar se espera a que termine
+        gestor = GestorDatos.nuevoAislado();
+        gestor.activarPersistencia(directorio, ModoDurabilidad.POR_LOTES);
+        gestor.cerrar();
+    }
+
+    @TearDown
+    public void borrar() throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path p : (Iterable<Path>) archivos.sorted(Comparator.reverseOrder())::iterator) Files.delete(p);
+        }
+    }
+
+    /** Solo proyectar el archivo y leer la cabecera. */
+    @Benchmark
+    public int proyectar() throws IOException {
+        return InstantaneaTareas.abrir(directorio.resolve(GestorDatos.ARCHIVO_INSTANTANEA)).cantidadPendientes();
+    }
+
+    /** Proyectar y decodificar todas las pendientes, sin guardarlas en ningún índice. */
+    @Benchmark
+    public long decodificarPendientes() throws IOException {
+        InstantaneaTareas instantanea = InstantaneaTareas.abrir(directorio.resolve(GestorDatos.ARCHIVO_INSTANTANEA));
+        long suma = 0;
+        for (int i = 0; i < instantanea.cantidadPendientes(); i++) suma += instantanea.pendiente(i).getId();
+        return suma;
+    }
+
+    /** Lo que hace la aplicación al abrir: instantánea, índices y diario vacío. */
+    @Benchmark
+    public int arrancar() throws IOException {
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        gestor.activarPersistencia(directorio, ModoDurabilidad.POR_LOTES);
+        int pendientes = gestor.cantidadPendientes();
+        gestor.cerrar();
+        return pendientes;
+    }
+}
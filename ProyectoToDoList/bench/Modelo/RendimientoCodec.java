@@ -0,0 +1,62 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Codificar y decodificar tareas en binario (diario, instantánea e historial).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendimientoCodec {
+
+    private final CodecTarea codec = new CodecTarea();
+    private final ByteBuffer bufer = ByteBuffer.allocate(64 * 1024);
+    private Tarea[] tareas;
+    private ByteBuffer[] codificadas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        Random azar = new Random(42);
+        tareas = new Tarea[1024];
+        codificadas = new ByteBuffer[1024];
+        for (int i = 0; i < tareas.length; i++) {
+            Tarea b = DatosDePrueba.borrador(azar, DatosDePrueba.titulo(azar, i));
+            tareas[i] = new Tarea(1_000_000L + i, b.getTitulo(), b.getDescripcion(), b.getCategoria(),
+                    b.getFechaVencimiento(), System.currentTimeMillis(), i % 3 == 0 ? System.currentTimeMillis() : 0);
+            codificadas[i] = ByteBuffer.allocate(codec.tamano(tareas[i]));
+            codec.codificar(tareas[i], codificadas[i]);
+            codificadas[i].flip();
+        }
+    }
+
+    @Benchmark
+    public int codificar() {
+        bufer.clear();
+        codec.codificar(tareas[siguiente++ & 1023], bufer);
+        return bufer.position();
+    }
+
+    @Benchmark
+    public Tarea decodificar() {
+        ByteBuffer origen = codificadas[siguiente++ & 1023];
+        origen.rewind();
+        return codec.decodificar(origen);
+    }
+}
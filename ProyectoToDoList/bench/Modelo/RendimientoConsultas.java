@@ -0,0 +1,90 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Consultas que hace la ventana mientras el usuario escribe o filtra:
+ * buscador, sugerencias de título y filtros/calendario de vencimientos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RendimientoConsultas {
+
+    @Param({"100", "10000", "1000000"})
+    int tamano;
+
+    private static final String[] CONSULTAS = { "comp", "pagar luz", "reunión equipo", "cancion", "médico 12" };
+    private static final String[] PREFIJOS = { "C", "Pa", "Reu", "Estudiar ex", "Llamar médico 1" };
+
+    private GestorDatos gestor;
+    private LocalDate hoy;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        gestor = DatosDePrueba.gestorCon(tamano, 42);
+        hoy = LocalDate.now();
+        gestor.buscarPendientes("construir"); // La primera búsqueda construye el índice de palabras
+        gestor.prepararSugerencias(); // Y el árbol de títulos, que si no se construye en segundo plano
+    }
+
+    @Benchmark
+    public List<Tarea> buscarPendientes() {
+        return gestor.buscarPendientes(CONSULTAS[siguiente++ % CONSULTAS.length]);
+    }
+
+    @Benchmark
+    public List<Tarea> sugerirTitulos() {
+        return gestor.sugerirTitulos(PREFIJOS[siguiente++ % PREFIJOS.length], 8);
+    }
+
+    /** Filtro "próximos 7 días", empezando cada vez en un día distinto. */
+    @Benchmark
+    public List<Tarea> vencenEnUnaSemana() {
+        LocalDate desde = hoy.plusDays(siguiente++ % 700);
+        return gestor.pendientesQueVencen(desde, desde.plusDays(7));
+    }
+
+    /** Los números de un mes del calendario. */
+    @Benchmark
+    public int[] calendarioDelMes() {
+        return gestor.contarVencimientosPorDia(hoy.plusDays(siguiente++ % 700), 31);
+    }
+
+    /** Contar (sin copiar) las que vencen en un trimestre. */
+    @Benchmark
+    public int contarTrimestre() {
+        LocalDate desde = hoy.plusDays(siguiente++ % 700);
+        return gestor.contarPendientesQueVencen(desde, desde.plusDays(90));
+    }
+
+    /** Por comparación: lo que costaba filtrar recorriendo todas las pendientes. */
+    @Benchmark
+    public int vencenEnUnaSemanaRecorriendo() {
+        LocalDate desde = hoy.plusDays(siguiente++ % 700);
+        LocalDate hasta = desde.plusDays(7);
+        int cuantas = 0;
+        for (Tarea t : gestor.obtenerPendientes()) {
+            LocalDate f = t.getFechaVencimiento();
+            if (f != null && !f.isBefore(desde) && !f.isAfter(hasta)) cuantas++;
+        }
+        return cuantas;
+    }
+}
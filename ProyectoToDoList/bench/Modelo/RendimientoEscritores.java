@@ -0,0 +1,79 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 32 hilos registrando y eliminando a la vez con la persistencia activada
+ * (diario en disco), en cada modo de durabilidad. Mide operaciones por segundo
+ * entre todos los hilos: cuánto ayuda agrupar las escrituras del diario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class RendimientoEscritores {
+
+    @Param({"POR_OPERACION", "POR_LOTES", "ASINCRONO"})
+    ModoDurabilidad modo;
+
+    private GestorDatos gestor;
+    private Path carpeta;
+    private final AtomicInteger hilos = new AtomicInteger();
+
+    /** Cada hilo usa sus propios nombres para no chocar con los demás. */
+    @State(Scope.Thread)
+    public static class Escritor {
+        String prefijo;
+        int siguiente;
+
+        @Setup
+        public void preparar(RendimientoEscritores comun) {
+            prefijo = "Hilo " + comun.hilos.incrementAndGet() + " tarea ";
+        }
+    }
+
+    @Setup
+    public void preparar() throws IOException {
+        carpeta = Files.createTempDirectory("todolist-bench");
+        gestor = GestorDatos.nuevoAislado();
+        gestor.activarPersistencia(carpeta, modo);
+        DatosDePrueba.llenar(gestor, 10_000, 42);
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        gestor.cerrar();
+        try (Stream<Path> archivos = Files.walk(carpeta)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Tarea registrarYEliminar(Escritor escritor) {
+        Tarea t = gestor.registrarTarea(escritor.prefijo + escritor.siguiente++, "", Categoria.GENERAL, null);
+        gestor.eliminarTareaPendiente(t.getId());
+        return t;
+    }
+}
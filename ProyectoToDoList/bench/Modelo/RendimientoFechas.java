@@ -0,0 +1,85 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validar y convertir las fechas que escribe el usuario (dd/MM/yyyy), como
+ * hacen el controlador y los importadores, y ordenar tareas por fecha.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendimientoFechas {
+
+    private String[] validas;
+    private String[] invalidas;
+    private Tarea[] tareas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        Random azar = new Random(42);
+        validas = new String[1024];
+        invalidas = new String[1024];
+        tareas = new Tarea[1024];
+        for (int i = 0; i < validas.length; i++) {
+            validas[i] = DatosDePrueba.fechaTexto(azar);
+            invalidas[i] = i % 2 == 0 ? "31/02/2030" : validas[i].replace('/', '-');
+            tareas[i] = DatosDePrueba.borrador(azar, "Tarea " + i);
+        }
+    }
+
+    @Benchmark
+    public int diaEpochValida() {
+        return Fechas.diaEpoch(validas[siguiente++ & 1023]);
+    }
+
+    @Benchmark
+    public int diaEpochInvalida() {
+        return Fechas.diaEpoch(invalidas[siguiente++ & 1023]);
+    }
+
+    /** Lo que hace CamposTarea con cada fila importada: validar, mirar que no sea pasada y convertir. */
+    @Benchmark
+    public String validar() {
+        return Fechas.validar(validas[siguiente++ & 1023]);
+    }
+
+    /** Por comparación: el DateTimeFormatter estricto, con excepción si no vale. */
+    @Benchmark
+    public LocalDate formateadorJdkValida() {
+        return LocalDate.parse(validas[siguiente++ & 1023], Fechas.FORMATO);
+    }
+
+    @Benchmark
+    public LocalDate formateadorJdkInvalida() {
+        try {
+            return LocalDate.parse(invalidas[siguiente++ & 1023], Fechas.FORMATO);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /** Una comparación del orden de la lista (categoría > fecha > id). */
+    @Benchmark
+    public int compararTareas() {
+        int i = siguiente++;
+        return tareas[i & 1023].compareTo(tareas[(i * 31 + 7) & 1023]);
+    }
+}
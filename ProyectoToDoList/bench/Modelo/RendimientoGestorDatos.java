@@ -0,0 +1,117 @@
+package Modelo;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operaciones del GestorDatos con listas de 100 a 1 millón de pendientes
+ * (solo en memoria: el coste del disco se mide en RendimientoEscritores).
+ *
+ * Cada medición deja el gestor con el mismo número de pendientes que tenía
+ * (registrar y eliminar, completar y reponer...), así el tamaño no cambia
+ * mientras se mide. Lo único que crece es el historial de completadas
+ * (completarYReponer): se vacía antes de cada iteración para que no se
+ * acumule de una iteración a otra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RendimientoGestorDatos {
+
+    @Param({"100", "10000", "1000000"})
+    int tamano;
+
+    private GestorDatos gestor;
+    private Random azar;
+    private String[] existentes;
+    private String[] nuevos;
+    private int siguiente;
+
+    // El presupuesto de deshacer por defecto de la aplicación, fijo para que no dependa de la propiedad
+    private static final long PRESUPUESTO_DESHACER = 4L * 1024 * 1024;
+
+    @Setup
+    public void preparar() {
+        gestor = DatosDePrueba.gestorCon(tamano, 42);
+        gestor.setPresupuestoDeshacer(PRESUPUESTO_DESHACER);
+        azar = new Random(7);
+        // Títulos preparados de antemano: así no se mide el coste de crearlos
+        existentes = new String[1024];
+        nuevos = new String[1024];
+        for (int i = 0; i < existentes.length; i++) {
+            existentes[i] = gestor.obtenerPendiente(azar.nextInt(tamano)).getTitulo().toUpperCase();
+            nuevos[i] = "No existe " + i;
+        }
+    }
+
+    /**
+     * Vacía el historial de completadas (fuera de la medición). Sin deshacer
+     * por medio, así los segmentos que se fueron a disco se borran de verdad.
+     */
+    @Setup(Level.Iteration)
+    public void vaciarHistorial() {
+        gestor.setPresupuestoDeshacer(0);
+        gestor.vaciarCompletadas();
+        gestor.setPresupuestoDeshacer(PRESUPUESTO_DESHACER);
+    }
+
+    /** Registrar una tarea con fecha y eliminarla (los dos extremos de su vida como pendiente). */
+    @Benchmark
+    public Tarea registrarYEliminar() {
+        Tarea t = gestor.registrarTarea("Medición " + siguiente++, "", Categoria.HOY, null);
+        gestor.eliminarTareaPendiente(t.getId());
+        return t;
+    }
+
+    /** Completar una pendiente al azar y registrar otra igual para que el tamaño no cambie. */
+    @Benchmark
+    public Tarea completarYReponer() {
+        Tarea pendiente = gestor.obtenerPendiente(azar.nextInt(gestor.cantidadPendientes()));
+        gestor.completarTarea(pendiente.getId());
+        return gestor.registrarTarea(pendiente.getTitulo(), pendiente.getDescripcion(),
+                pendiente.getCategoria(), pendiente.getFechaVencimiento());
+    }
+
+    /** Lo que hace el controlador al crear: registrar y buscar en qué fila de la lista ordenada cae. */
+    @Benchmark
+    public int insertarEnOrden() {
+        Tarea t = gestor.registrarTarea("Medición " + siguiente++, "", Categoria.IMPORTANTE, null);
+        int fila = gestor.posicionPendiente(t);
+        gestor.eliminarTareaPendiente(t.getId());
+        return fila;
+    }
+
+    /** Comprobar un nombre que ya existe (escrito en otras mayúsculas). */
+    @Benchmark
+    public boolean esTareaNuevaRepetida() {
+        return gestor.esTareaNueva(existentes[siguiente++ & 1023]);
+    }
+
+    /** Comprobar un nombre que no existe. */
+    @Benchmark
+    public boolean esTareaNuevaDistinta() {
+        return gestor.esTareaNueva(nuevos[siguiente++ & 1023]);
+    }
+
+    /** Leer una fila cualquiera de la lista ordenada (lo que pide la JList al pintar). */
+    @Benchmark
+    public Tarea obtenerPendiente() {
+        // En long y con floorMod: el producto en int se desborda y daría filas negativas
+        return gestor.obtenerPendiente(Math.floorMod(siguiente++ * 7919L, tamano));
+    }
+}
@@ -0,0 +1,99 @@
+package Modelo;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ConjuntoHuellas (memoriaValidacion) frente al HashSet de títulos en
+ * mayúsculas que había antes.
+ *
+ * buscarOriginal mide lo que antes hacía obtenerNombreOriginal: encontrar la
+ * tarea guardada (con su nombre tal como se escribió) a partir de un título
+ * en otras mayúsculas. La memoria de cada estructura se escribe por consola
+ * al preparar (bytes por título).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RendimientoHuellas {
+
+    @Param({"100", "10000", "1000000"})
+    int tamano;
+
+    private ConjuntoHuellas huellas;
+    private HashSet<String> mayusculas;
+    private String[] consultas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        Random azar = new Random(42);
+        Tarea[] tareas = new Tarea[tamano];
+        for (int i = 0; i < tamano; i++) tareas[i] = DatosDePrueba.borrador(azar, DatosDePrueba.titulo(azar, i));
+
+        long antes = memoriaUsada();
+        huellas = new ConjuntoHuellas();
+        for (Tarea t : tareas) huellas.agregar(t);
+        long conHuellas = memoriaUsada() - antes;
+
+        antes = memoriaUsada();
+        mayusculas = new HashSet<>();
+        for (Tarea t : tareas) mayusculas.add(t.getTitulo().toUpperCase());
+        long conHashSet = memoriaUsada() - antes;
+        // Con pocos títulos la diferencia se pierde entre el ruido del recolector
+        if (tamano >= 10_000) {
+            System.out.printf("%nMemoria con %d títulos: ConjuntoHuellas %d bytes/título, HashSet %d bytes/título%n",
+                    tamano, conHuellas / tamano, conHashSet / tamano);
+        }
+
+        // Mitad que existen (en minúsculas) y mitad que no
+        consultas = new String[1024];
+        for (int i = 0; i < consultas.length; i++) {
+            consultas[i] = i % 2 == 0 ? tareas[azar.nextInt(tamano)].getTitulo().toLowerCase() : "No existe " + i;
+        }
+    }
+
+    @Benchmark
+    public boolean contieneHuellas() {
+        return huellas.contiene(consultas[siguiente++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean contieneHashSet() {
+        return mayusculas.contains(consultas[siguiente++ & 1023].toUpperCase());
+    }
+
+    @Benchmark
+    public Tarea buscarOriginal() {
+        return huellas.buscar(consultas[siguiente++ & 1023]);
+    }
+
+    /** Quitar un título y volver a ponerlo (lo que pasa al eliminar y crear). */
+    @Benchmark
+    public boolean quitarYAgregar() {
+        Tarea t = huellas.buscar(consultas[(siguiente++ & 511) * 2]);
+        huellas.quitar(t.getTitulo());
+        return huellas.agregar(t);
+    }
+
+    private static long memoriaUsada() {
+        Runtime r = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return r.totalMemory() - r.freeMemory();
+    }
+}
@@ -0,0 +1,106 @@
+package Modelo;
+
+import java.time.ZoneId;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recordatorios de vencimiento: programar y cancelar con la rueda llena, y
+ * cuánto tarda en llegar un aviso desde que vence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RendimientoRueda {
+
+    // Cuánto falta para el aviso que se mide en retrasoDelAviso
+    private static final long ESPERA_MS = 2;
+
+    @Param({"1000", "1000000"})
+    int programados;
+
+    private RuedaTemporizadores rueda;
+    private Tarea[] otras;
+    private long ahora;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        ahora = System.currentTimeMillis();
+        // Tics de un segundo, como en la aplicación, con avisos repartidos en un año
+        rueda = new RuedaTemporizadores(1000, ahora);
+        for (int i = 0; i < programados; i++) {
+            Tarea t = new Tarea(i + 1, "Tarea " + i, "", Categoria.GENERAL, null, 0, 0);
+            rueda.programar(t, ahora + 1000 + (i * 7919L % 31_536_000L) * 1000);
+        }
+        otras = new Tarea[1024];
+        for (int i = 0; i < otras.length; i++) {
+            otras[i] = new Tarea(programados + 1 + i, "Otra " + i, "", Categoria.GENERAL, null, 0, 0);
+        }
+    }
+
+    /** Programar un aviso y cancelarlo (lo que pasa al crear una tarea y completarla). */
+    @Benchmark
+    public boolean programarYCancelar() {
+        int i = siguiente++;
+        Tarea t = otras[i & 1023];
+        rueda.programar(t, ahora + 60_000 + (i % 86_400) * 1000L);
+        return rueda.cancelar(t.getId());
+    }
+
+    /**
+     * Un RecordatoriosVencimiento de verdad, con su hilo y tics de 1 ms, que
+     * entrega los avisos en una cola.
+     */
+    @State(Scope.Benchmark)
+    public static class ConHilo {
+        final BlockingQueue<Long> entregados = new LinkedBlockingQueue<>();
+        RecordatoriosVencimiento recordatorios;
+        Tarea tarea;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            GestorDatos gestor = GestorDatos.nuevoAislado();
+            // Sin fecha: así no se programa sola; la medición la programa en milisegundos
+            tarea = gestor.registrarTarea("Aviso medido", "", Categoria.GENERAL, null);
+            recordatorios = new RecordatoriosVencimiento(1, System::currentTimeMillis, ZoneId.systemDefault(),
+                    Runnable::run, vencen -> entregados.add(System.nanoTime()));
+            recordatorios.iniciar(gestor);
+        }
+
+        @TearDown(Level.Trial)
+        public void detener() {
+            recordatorios.detener();
+        }
+    }
+
+    /**
+     * Programa un aviso para dentro de ESPERA_MS y espera a que llegue. El
+     * tiempo medido es ESPERA_MS más el retraso: los percentiles por encima de
+     * 2 ms son el retraso (jitter) del hilo de los recordatorios.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long retrasoDelAviso(ConHilo hilo) throws InterruptedException {
+        hilo.recordatorios.programarEn(hilo.tarea, System.currentTimeMillis() + ESPERA_MS);
+        return hilo.entregados.take();
+    }
+}
@@ -0,0 +1,4 @@
+package Controlador.jmh_generated;
+public class RendimientoArchivos_Contador_jmhType extends RendimientoArchivos_Contador_jmhType_B3 {
+}
+
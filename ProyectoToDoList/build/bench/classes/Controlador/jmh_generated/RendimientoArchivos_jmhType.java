@@ -0,0 +1,4 @@
+package Controlador.jmh_generated;
+public class RendimientoArchivos_jmhType extends RendimientoArchivos_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package Controlador.jmh_generated;
+public class RendimientoServidor_Cliente_jmhType extends RendimientoServidor_Cliente_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package Controlador.jmh_generated;
+public class RendimientoServidor_jmhType extends RendimientoServidor_jmhType_B3 {
+}
+
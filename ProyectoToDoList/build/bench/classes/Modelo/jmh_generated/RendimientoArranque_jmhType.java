@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoArranque_jmhType extends RendimientoArranque_jmhType_B3 {
+}
+
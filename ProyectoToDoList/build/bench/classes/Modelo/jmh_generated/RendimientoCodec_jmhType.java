@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoCodec_jmhType extends RendimientoCodec_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoConsultas_jmhType extends RendimientoConsultas_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoEscritores_Escritor_jmhType extends RendimientoEscritores_Escritor_jmhType_B3 {
+}
+
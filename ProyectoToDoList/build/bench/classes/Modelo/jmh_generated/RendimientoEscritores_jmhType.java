@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoEscritores_jmhType extends RendimientoEscritores_jmhType_B3 {
+}
+
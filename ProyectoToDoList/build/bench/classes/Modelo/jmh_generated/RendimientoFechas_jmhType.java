@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoFechas_jmhType extends RendimientoFechas_jmhType_B3 {
+}
+
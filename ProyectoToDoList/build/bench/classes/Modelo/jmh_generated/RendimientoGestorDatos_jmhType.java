@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoGestorDatos_jmhType extends RendimientoGestorDatos_jmhType_B3 {
+}
+
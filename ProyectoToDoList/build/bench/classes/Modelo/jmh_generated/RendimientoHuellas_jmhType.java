@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoHuellas_jmhType extends RendimientoHuellas_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoRueda_ConHilo_jmhType extends RendimientoRueda_ConHilo_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package Modelo.jmh_generated;
+public class RendimientoRueda_jmhType extends RendimientoRueda_jmhType_B3 {
+}
+
@@ -0,0 +1,94 @@
+package Controlador;
+
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.JTextField;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Ayuda mientras se escribe el título de una tarea nueva.
+ *
+ * Con cada tecla avisa si ya hay una tarea pendiente con ese nombre (sin
+ * esperar a pulsar "Crear") y muestra debajo del campo las pendientes cuyo
+ * título empieza igual. Las dos consultas son al GestorDatos y tardan
+ * microsegundos (huellas y TreeSet), así que se hacen directamente en el hilo
+ * de Swing, sin esperas.
+ *
+ * Elegir una sugerencia no copia su nombre (sería una tarea repetida): se la
+ * pasa a quien creó el asistente para que la muestre en la lista.
+ */
+final class AsistenteTitulo {
+
+    private static final int MAXIMO_SUGERENCIAS = 8;
+
+    private final GestorDatos modelo;
+    private final JTextField campo;
+    private final JLabel aviso;
+    private final Consumer<Tarea> alElegir;
+    private final JPopupMenu sugerencias = new JPopupMenu();
+
+    AsistenteTitulo(GestorDatos modelo, JTextField campo, JLabel aviso, Consumer<Tarea> alElegir) {
+        this.modelo = modelo;
+        this.campo = campo;
+        this.aviso = aviso;
+        this.alElegir = alElegir;
+
+        // El menú no debe quitarle el foco al campo: se sigue escribiendo mientras se ve
+        sugerencias.setFocusable(false);
+
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                actualizar();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                actualizar();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                actualizar();
+            }
+        });
+        campo.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                sugerencias.setVisible(false);
+            }
+        });
+    }
+
+    /**
+     * Vuelve a comprobar el texto del campo (también se llama cuando cambian las tareas).
+     */
+    void actualizar() {
+        String titulo = campo.getText().trim();
+
+        // 1. Aviso de nombre repetido (la misma comprobación que se hace al crear)
+        boolean repetido = !titulo.isEmpty() && !modelo.esTareaNueva(titulo);
+        aviso.setText(repetido ? "Ya existe una tarea con ese nombre" : " ");
+
+        // 2. Sugerencias: pendientes que empiezan por lo escrito
+        sugerencias.setVisible(false);
+        sugerencias.removeAll();
+        if (titulo.isEmpty() || !campo.hasFocus()) return;
+        List<Tarea> encontradas = modelo.sugerirTitulos(titulo, MAXIMO_SUGERENCIAS);
+        if (encontradas.isEmpty()) return;
+        for (Tarea tarea : encontradas) {
+            JMenuItem opcion = new JMenuItem(tarea.getTitulo());
+            opcion.addActionListener(e -> alElegir.accept(tarea));
+            sugerencias.add(opcion);
+        }
+        sugerencias.show(campo, 0, campo.getHeight());
+    }
+}
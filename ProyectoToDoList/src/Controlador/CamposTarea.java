@@ -0,0 +1,56 @@
+package Controlador;
+
+import Modelo.Categoria;
+import Modelo.Fechas;
+import Modelo.Tarea;
+import java.time.LocalDate;
+
+/**
+ * Convierte los campos de texto de una tarea que llega de fuera (API,
+ * archivos importados...) en un borrador de Tarea, con las mismas reglas que
+ * la ventana: título obligatorio, textos no más largos de lo que cabe en el
+ * diario y fecha dd/MM/yyyy de hoy en adelante.
+ *
+ * El borrador tiene id 0: el id de verdad lo pone GestorDatos al registrarla.
+ */
+final class CamposTarea {
+
+    private CamposTarea() {
+    }
+
+    /**
+     * @throws IllegalArgumentException con el mensaje para el usuario si algún campo no es válido.
+     */
+    static Tarea borrador(String titulo, String descripcion, String categoria, String fecha) {
+        if (titulo == null || titulo.trim().isEmpty()) throw new IllegalArgumentException("Escribe el nombre de la tarea.");
+        String tituloLimpio = titulo.trim();
+        String descripcionLimpia = descripcion == null ? "" : descripcion.trim();
+        if (tituloLimpio.length() > Tarea.MAXIMO_TITULO) {
+            throw new IllegalArgumentException("El nombre no puede pasar de " + Tarea.MAXIMO_TITULO + " caracteres.");
+        }
+        if (descripcionLimpia.length() > Tarea.MAXIMO_DESCRIPCION) {
+            throw new IllegalArgumentException("La descripción no puede pasar de " + Tarea.MAXIMO_DESCRIPCION + " caracteres.");
+        }
+        String fechaTexto = fecha == null ? "" : fecha.trim();
+        LocalDate vencimiento = null;
+        if (!fechaTexto.isEmpty()) {
+            // Un solo análisis del texto para validar y convertir (los importadores pasan millones)
+            int dia = Fechas.diaEpoch(fechaTexto);
+            if (dia == Fechas.NO_VALIDA) throw new IllegalArgumentException(Fechas.ERROR_FORMATO);
+            if (dia < Fechas.hoy()) throw new IllegalArgumentException(Fechas.ERROR_PASADA);
+            vencimiento = LocalDate.ofEpochDay(dia);
+        }
+
+        return new Tarea(0, tituloLimpio, descripcionLimpia, categoria(categoria), vencimiento, 0, 0);
+    }
+
+    // Acepta el nombre (IMPORTANTE, HOY, GENERAL) o el texto del ComboBox ("Tarea de hoy"...)
+    static Categoria categoria(String valor) {
+        if (valor == null) return Categoria.GENERAL;
+        String limpio = valor.trim();
+        for (Categoria c : Categoria.values()) {
+            if (c.name().equalsIgnoreCase(limpio)) return c;
+        }
+        return Categoria.desdeEtiqueta(limpio);
+    }
+}
@@ -0,0 +1,367 @@
+package Controlador;
+
+import Modelo.Categoria;
+import Modelo.DatosEnUsoException;
+import Modelo.Fechas;
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Línea de órdenes para las tareas guardadas, sin abrir la ventana.
+ *
+ * Trabaja con los mismos datos que ToDoList (la carpeta de
+ * GestorDatos.directorioPorDefecto(), o la de --datos) y con las mismas reglas
+ * (FlujoTareas), pero nunca carga Swing ni AWT: arrancar, hacer el cambio y
+ * guardarlo cuesta lo que tarda la JVM más leer la instantánea.
+ *
+ *   java -cp build/classes Controlador.ConsolaTareas agregar "Pagar la luz" --categoria=HOY --fecha=30/11/2026
+ *   java -cp build/classes Controlador.ConsolaTareas completar 42
+ *   java -cp build/classes Controlador.ConsolaTareas eliminar 42
+ *   java -cp build/classes Controlador.ConsolaTareas listar [--completadas] [--desde=N] [--cantidad=N] [--formato=texto|csv|ndjson]
+ *   java -cp build/classes Controlador.ConsolaTareas buscar "luz" [--completadas] [--formato=...]
+ *   java -cp build/classes Controlador.ConsolaTareas estadisticas
+ *
+ * Los listados se escriben por páginas a medida que se leen (nunca se arma la
+ * lista entera en memoria); en formato texto cada línea es
+ * id, categoría, fecha de vencimiento (o -) y título, separados por tabuladores.
+ *
+ * Casi todo el tiempo de arranque es cargar clases. Con el jar y un archivo
+ * CDS (se crea solo la primera vez) la JVM se ahorra buena parte:
+ *
+ *   java -XX:SharedArchiveFile=consola.jsa -XX:+AutoCreateSharedArchive -XX:TieredStopAtLevel=1 \
+ *        -cp dist/ProyectoToDoList.jar Controlador.ConsolaTareas estadisticas
+ *
+ * Termina con 0 si todo fue bien, 1 si la operación no se pudo hacer (el
+ * motivo sale por la salida de errores) y 2 si la orden está mal escrita.
+ *
+ * El diario no admite dos programas escribiendo a la vez: GestorDatos bloquea
+ * la carpeta de datos y, si ya la tiene otro (la ventana u otra consola), la
+ * orden termina con 1 sin tocar nada. Con la ventana abierta, los cambios se
+ * hacen a través de la API HTTP (ServidorTareas).
+ */
+public final class ConsolaTareas {
+
+    // Tareas que se leen del modelo con cada bloqueo al listar
+    private static final int TAMANO_PAGINA = 1000;
+
+    private static final String USO = String.join("\n",
+            "Uso: ConsolaTareas <orden> [opciones] [--datos=DIRECTORIO]",
+            "  agregar \"título\" [--descripcion=...] [--categoria=IMPORTANTE|HOY|GENERAL] [--fecha=dd/MM/yyyy]",
+            "  completar <id>",
+            "  eliminar <id>",
+            "  listar [--completadas] [--desde=N] [--cantidad=N] [--formato=texto|csv|ndjson]",
+            "  buscar \"texto\" [--completadas] [--formato=texto|csv|ndjson]",
+            "  estadisticas");
+
+    private final GestorDatos modelo;
+    private final Writer salida;
+
+    private ConsolaTareas(GestorDatos modelo, Writer salida) {
+        this.modelo = modelo;
+        this.salida = salida;
+    }
+
+    public static void main(String[] args) {
+        System.exit(ejecutar(args));
+    }
+
+    // Separa la orden, los argumentos sueltos y las opciones --nombre=valor; devuelve el código de salida
+    private static int ejecutar(String[] args) {
+        List<String> sueltos = new ArrayList<>();
+        Map<String, String> opciones = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int igual = arg.indexOf('=');
+                opciones.put(igual < 0 ? arg.substring(2) : arg.substring(2, igual), igual < 0 ? "" : arg.substring(igual + 1));
+            } else {
+                sueltos.add(arg);
+            }
+        }
+        if (sueltos.isEmpty() || opciones.containsKey("ayuda")) {
+            System.err.println(USO);
+            return sueltos.isEmpty() && !opciones.containsKey("ayuda") ? 2 : 0;
+        }
+
+        String datos = opciones.remove("datos");
+        Path directorio = datos != null ? Paths.get(datos) : GestorDatos.directorioPorDefecto();
+        GestorDatos modelo = GestorDatos.getInstancia();
+        Writer salida = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            modelo.activarPersistencia(directorio);
+            try {
+                return new ConsolaTareas(modelo, salida).orden(sueltos.get(0), sueltos.subList(1, sueltos.size()), opciones);
+            } finally {
+                try {
+                    salida.flush();
+                } finally {
+                    // Escribe en disco lo que quede en la cola del diario (aunque la salida falle)
+                    modelo.cerrar();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return 2;
+        } catch (DatosEnUsoException e) {
+            System.err.println("Error: " + e.getMessage() + ".");
+            System.err.println("Si la ventana está abierta, usa la API HTTP (-Dtodolist.api.puerto=...) o ciérrala antes.");
+            return 1;
+        } catch (IOException e) {
+            // Quien leía la salida ya no quiere más (por ejemplo "listar | head"): no es un error
+            if ("Broken pipe".equals(e.getMessage())) return 0;
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private int orden(String orden, List<String> argumentos, Map<String, String> opciones) throws IOException {
+        switch (orden) {
+            case "agregar": return agregar(unico(argumentos, "el título"), opciones);
+            case "completar": return porId(FlujoTareas::completar, id(argumentos), "completada");
+            case "eliminar": return porId(FlujoTareas::eliminar, id(argumentos), "eliminada");
+            case "listar": return listar(opciones);
+            case "buscar": return buscar(unico(argumentos, "el texto a buscar"), opciones);
+            case "estadisticas": return estadisticas();
+            default: throw new IllegalArgumentException("Orden desconocida: " + orden);
+        }
+    }
+
+    // --- CAMBIOS (con las reglas de FlujoTareas) ---
+
+    private int agregar(String titulo, Map<String, String> opciones) throws IOException {
+        VistaConsola vista = new VistaConsola();
+        vista.titulo = titulo;
+        vista.descripcion = opciones.getOrDefault("descripcion", "");
+        vista.categoria = opciones.getOrDefault("categoria", Categoria.GENERAL.name());
+        vista.fecha = opciones.getOrDefault("fecha", "");
+        ResultadoOperacion resultado = new FlujoTareas(modelo, vista).crear();
+        if (!resultado.isHecha()) return 1;
+        // Solo el id: así un script puede guardarlo para completarla después
+        salida.write(resultado.getTarea().getId() + "\n");
+        return 0;
+    }
+
+    private interface Operacion {
+        ResultadoOperacion ejecutar(FlujoTareas flujo);
+    }
+
+    private int porId(Operacion operacion, long id, String hecha) throws IOException {
+        Tarea tarea = modelo.obtenerTarea(id);
+        if (tarea == null) {
+            System.err.println("No hay ninguna tarea pendiente con el id " + id);
+            return 1;
+        }
+        VistaConsola vista = new VistaConsola();
+        vista.seleccionada = tarea;
+        ResultadoOperacion resultado = operacion.ejecutar(new FlujoTareas(modelo, vista));
+        if (!resultado.isHecha()) {
+            if (resultado.getMensaje() == null) System.err.println("La tarea " + id + " ya no estaba pendiente");
+            return 1;
+        }
+        salida.write("Tarea " + hecha + ": " + tarea.getTitulo() + "\n");
+        return 0;
+    }
+
+    /** La consola como vista de FlujoTareas: los datos vienen de la orden y no se pregunta nada. */
+    private static final class VistaConsola implements VistaTareas {
+        String titulo = "";
+        String descripcion = "";
+        String fecha = "";
+        String categoria = "";
+        Tarea seleccionada;
+
+        @Override
+        public String getTitulo() {
+            return titulo;
+        }
+
+        @Override
+        public String getDescripcion() {
+            return descripcion;
+        }
+
+        @Override
+        public String getFecha() {
+            return fecha;
+        }
+
+        @Override
+        public String getCategoria() {
+            return categoria;
+        }
+
+        @Override
+        public Tarea getPendienteSeleccionada() {
+            return seleccionada;
+        }
+
+        @Override
+        public boolean confirmar(ResultadoOperacion.Operacion operacion, String pregunta) {
+            // Escribir la orden ya es la confirmación
+            return true;
+        }
+
+        @Override
+        public void mostrar(ResultadoOperacion resultado) {
+            if (resultado.getMensaje() != null) System.err.println(resultado.getMensaje());
+        }
+    }
+
+    // --- LISTADOS ---
+
+    private int listar(Map<String, String> opciones) throws IOException {
+        FormatoSalida formato = formato(opciones);
+        long desde = numero(opciones, "desde", 0);
+        long cantidad = numero(opciones, "cantidad", Long.MAX_VALUE);
+        List<Tarea> pagina = new ArrayList<>(TAMANO_PAGINA);
+        StringBuilder linea = new StringBuilder(256);
+        formato.cabecera(salida);
+
+        long escritas = 0;
+        if (opciones.containsKey("completadas")) {
+            // De la más antigua a la más nueva, como al exportar
+            long siguiente = desde;
+            while (escritas < cantidad
+                    && modelo.copiarCompletadas(siguiente, (int) Math.min(TAMANO_PAGINA, cantidad - escritas), pagina) > 0) {
+                formato.escribir(pagina, linea, salida);
+                escritas += pagina.size();
+                siguiente += pagina.size();
+                pagina.clear();
+            }
+        } else {
+            // Las pendientes en su orden; la primera página empieza en la posición "desde"
+            Tarea ultima = desde > 0 && desde <= modelo.cantidadPendientes() ? modelo.obtenerPendiente((int) desde - 1) : null;
+            if (desde > modelo.cantidadPendientes()) return 0;
+            while (escritas < cantidad
+                    && modelo.copiarPendientes(ultima, (int) Math.min(TAMANO_PAGINA, cantidad - escritas), pagina) > 0) {
+                formato.escribir(pagina, linea, salida);
+                escritas += pagina.size();
+                ultima = pagina.get(pagina.size() - 1);
+                pagina.clear();
+            }
+        }
+        return 0;
+    }
+
+    private int buscar(String consulta, Map<String, String> opciones) throws IOException {
+        FormatoSalida formato = formato(opciones);
+        List<Tarea> pagina = new ArrayList<>(TAMANO_PAGINA);
+        StringBuilder linea = new StringBuilder(256);
+        formato.cabecera(salida);
+        if (opciones.containsKey("completadas")) {
+            // Del historial llegan números de orden: las tareas se leen por páginas al escribirlas
+            for (int numero : modelo.buscarCompletadas(consulta)) {
+                pagina.add(modelo.obtenerCompletadaPorNumero(numero));
+                if (pagina.size() == TAMANO_PAGINA) {
+                    formato.escribir(pagina, linea, salida);
+                    pagina.clear();
+                }
+            }
+            formato.escribir(pagina, linea, salida);
+        } else {
+            formato.escribir(modelo.buscarPendientes(consulta), linea, salida);
+        }
+        return 0;
+    }
+
+    // --- ESTADÍSTICAS (todo son conteos de los índices, sin recorrer las listas) ---
+
+    private int estadisticas() throws IOException {
+        LocalDate hoy = LocalDate.ofEpochDay(Fechas.hoy());
+        int pendientes = modelo.cantidadPendientes();
+        int conFecha = modelo.contarPendientesQueVencen(null, null);
+        int[] porCategoria = modelo.contarPendientesPorCategoria();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Pendientes:        %,12d%n", pendientes));
+        for (Categoria c : Categoria.values()) {
+            sb.append(String.format("  %-17s%,12d%n", c.getEtiqueta() + ":", porCategoria[c.ordinal()]));
+        }
+        sb.append(String.format("  Vencidas:        %,12d%n", modelo.contarPendientesQueVencen(null, hoy.minusDays(1))));
+        sb.append(String.format("  Vencen hoy:      %,12d%n", modelo.contarPendientesQueVencen(hoy, hoy)));
+        sb.append(String.format("  Próximos 7 días: %,12d%n", modelo.contarPendientesQueVencen(hoy, hoy.plusDays(6))));
+        sb.append(String.format("  Sin fecha:       %,12d%n", pendientes - conFecha));
+        sb.append(String.format("Completadas:       %,12d%n", modelo.cantidadCompletadas()));
+        salida.write(sb.toString());
+        return 0;
+    }
+
+    // --- FORMATOS DE SALIDA ---
+
+    private enum FormatoSalida {
+        TEXTO, CSV, NDJSON;
+
+        void cabecera(Writer salida) throws IOException {
+            if (this == CSV) salida.write("titulo,descripcion,categoria,fecha,estado,creada,completada\n");
+        }
+
+        void escribir(List<Tarea> pagina, StringBuilder linea, Writer salida) throws IOException {
+            if (this != TEXTO) {
+                // Las mismas líneas que la exportación (y que se pueden volver a importar)
+                ExportadorTareas.escribir(pagina, this == CSV ? FormatoArchivo.CSV : FormatoArchivo.NDJSON, linea, salida);
+                return;
+            }
+            for (Tarea t : pagina) {
+                linea.setLength(0);
+                linea.append(t.getId()).append('\t').append(t.getCategoria().name()).append('\t');
+                linea.append(t.getFechaVencimiento() == null ? "-" : Fechas.formatear(t.getFechaVencimiento()));
+                // Un tabulador o salto de línea en el título rompería las columnas
+                linea.append('\t').append(t.getTitulo().replace('\t', ' ').replace('\n', ' ')).append('\n');
+                salida.append(linea);
+            }
+        }
+    }
+
+    // --- ARGUMENTOS ---
+
+    private static FormatoSalida formato(Map<String, String> opciones) {
+        String valor = opciones.getOrDefault("formato", "texto");
+        try {
+            return FormatoSalida.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato desconocido: " + valor + " (texto, csv o ndjson)");
+        }
+    }
+
+    private static String unico(List<String> argumentos, String que) {
+        if (argumentos.size() != 1) throw new IllegalArgumentException("Falta " + que + " (entre comillas si tiene espacios)");
+        return argumentos.get(0);
+    }
+
+    private static long id(List<String> argumentos) {
+        String texto = unico(argumentos, "el id de la tarea");
+        try {
+            return Long.parseLong(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El id tiene que ser un número: " + texto);
+        }
+    }
+
+    private static long numero(Map<String, String> opciones, String nombre, long porDefecto) {
+        String valor = opciones.get(nombre);
+        if (valor == null) return porDefecto;
+        try {
+            long n = Long.parseLong(valor);
+            if (n >= 0) return n;
+        } catch (NumberFormatException e) {
+            // Abajo
+        }
+        throw new IllegalArgumentException("--" + nombre + " tiene que ser un número positivo: " + valor);
+    }
+}
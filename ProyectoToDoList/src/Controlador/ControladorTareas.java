@@ -1,21 +1,47 @@
 package Controlador;
 
+import Modelo.Categoria;
+import Modelo.Fechas;
 import Modelo.GestorDatos;
+import Modelo.OyenteTareas;
+import Modelo.RecordatoriosVencimiento;
+import Modelo.Tarea;
+import Vista.CalendarioVencimientos;
 import Vista.GestionTareas;
+import Vista.ModeloListaTareas;
 import Vista.TareasCompletadas; 
 import java.awt.event.ActionEvent;
+import java.awt.Toolkit;
 import java.awt.event.ActionListener;
-import java.text.ParseException;   
-import java.text.SimpleDateFormat; 
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.io.File;
 import java.time.LocalDate; 
-import java.time.format.DateTimeFormatter; 
-import java.util.ArrayList;
-import javax.swing.DefaultListModel;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.JFileChooser;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 // La clase implementa ActionListener para poder responder a los clics de los botones
 public class ControladorTareas implements ActionListener {
 
+    private static final Logger logger = Logger.getLogger(ControladorTareas.class.getName());
+
     // Variables para controlar las ventanas (Vistas)
     private GestionTareas vistaPrincipal;     
     private TareasCompletadas vistaHistorial;  
@@ -23,12 +49,59 @@ public class ControladorTareas implements ActionListener {
     // Variable para controlar los datos (Modelo)
     private GestorDatos modelo;
     
-    // Modelos visuales que permiten agregar o quitar elementos de las listas en pantalla
-    private DefaultListModel<String> modeloPendientes; 
-    private DefaultListModel<String> modeloCompletadas;
+    // Modelos visuales de las listas en pantalla. No copian las tareas:
+    // le piden al GestorDatos solo las filas que se están viendo
+    private ModeloListaTareas modeloPendientes; 
+    private ModeloListaTareas modeloCompletadas;
+
+    // Hay una recarga de las listas ya pedida al hilo de Swing
+    private final AtomicBoolean recargaPendiente = new AtomicBoolean();
+
+    // Avisos y sugerencias mientras se escribe el título
+    private AsistenteTitulo asistenteTitulo;
+
+    // Texto que se está buscando en cada lista ("" = se muestran todas las tareas)
+    private String busquedaPendientes = "";
+    private String busquedaCompletadas = "";
+
+    // Filtro de vencimiento de las pendientes (posición en el desplegable; 0 = todas)
+    // y el día elegido en el calendario cuando el filtro es "día del calendario"
+    private int filtroVencimiento;
+    private LocalDate diaCalendario;
+    // Cada filtrado de pendientes lleva un número: si llega un resultado de uno anterior, se tira
+    private int filtradoPendientes;
+
+    // Avisa (en el hilo de Swing) cuando llega el día de vencimiento de una pendiente
+    private RecordatoriosVencimiento recordatorios;
+
+    // Las reglas de Crear, Completar, Eliminar y Limpiar, con esta ventana como vista
+    private final FlujoTareas flujo;
+
+    // Cómo se muestran los mensajes y las confirmaciones (ventanas, o nada en el generador de carga)
+    private final Dialogos dialogos;
+
+    // Latencia de cada botón (consultable por JMX) y lo que el botón pasó esperando a un diálogo,
+    // que se descuenta: lo que tarda el usuario en contestar no es lentitud del programa
+    private final MetricasTareas metricas;
+    private long esperaDialogosNs;
+
+    // Último motivo por el que no se pudo deshacer que ya se le explicó al usuario (no se repite)
+    private String motivoDeshacerMostrado;
+
+    // Mientras se importa un archivo las listas no se recargan: se hace una sola vez al terminar
+    private volatile boolean importando;
 
     // Constructor: Se ejecuta una sola vez al iniciar el controlador
     public ControladorTareas(GestionTareas v1, TareasCompletadas v2) {
+        this(v1, v2, Dialogos.VENTANAS);
+    }
+
+    // Con otros diálogos: el generador de carga lo usa sin ventanas que esperen respuesta
+    ControladorTareas(GestionTareas v1, TareasCompletadas v2, Dialogos dialogos) {
+        this.dialogos = dialogos;
+        this.flujo = new FlujoTareas(GestorDatos.getInstancia(), new VistaSwing());
+        this.metricas = new MetricasTareas(GestorDatos.getInstancia());
+
         // Guardamos las referencias de las ventanas que nos pasan
         this.vistaPrincipal = v1;
         this.vistaHistorial = v2;
@@ -37,17 +110,88 @@ public class ControladorTareas implements ActionListener {
         this.modelo = GestorDatos.getInstancia();
         
         // Inicializamos el modelo visual para la lista de tareas pendientes
-        this.modeloPendientes = new DefaultListModel<>();
+        this.modeloPendientes = ModeloListaTareas.pendientes(modelo);
         // Conectamos este modelo a la JList visual de la ventana principal
         this.vistaPrincipal.getJList().setModel(modeloPendientes);
         
         // Inicializamos el modelo visual para la lista de tareas completadas
-        this.modeloCompletadas = new DefaultListModel<>();
+        this.modeloCompletadas = ModeloListaTareas.completadas(modelo);
         // Conectamos este modelo a la JList visual de la ventana de historial
         this.vistaHistorial.getListaVisual().setModel(modeloCompletadas);
+
+        // Con una tarea de ejemplo la JList calcula el alto de fila una sola vez,
+        // en lugar de pedir todas las tareas para medirlas
+        Tarea ejemplo = new Tarea(0, "Tarea de ejemplo para medir la fila", "", Categoria.GENERAL, null, 0, 0);
+        this.vistaPrincipal.getJList().setPrototypeCellValue(ejemplo);
+        this.vistaHistorial.getListaVisual().setPrototypeCellValue(ejemplo.marcarCompletada(1));
         
         // Llamamos a este método para recuperar tareas si ya existían en memoria
         cargarDatosGuardados();
+
+        // El índice de títulos de las sugerencias se prepara en segundo plano (con muchas tareas tarda)
+        Thread sugerencias = new Thread(modelo::prepararSugerencias, "preparar-sugerencias");
+        sugerencias.setDaemon(true);
+        sugerencias.start();
+
+        // Publicar por JMX arranca el servidor de MBeans (tarda): también en segundo plano
+        Thread jmx = new Thread(metricas::registrarJmx, "registrar-metricas");
+        jmx.setDaemon(true);
+        jmx.start();
+
+        // Los cambios que no vienen de esta ventana (la API, importadores...) llegan en otros hilos:
+        // en ese caso las listas se recargan en el hilo de Swing
+        this.modelo.agregarOyente(new OyenteTareas() {
+            @Override
+            public void tareaRegistrada(Tarea tarea) {
+                cambioExterno();
+            }
+
+            @Override
+            public void tareaCompletada(Tarea pendiente, Tarea completada) {
+                cambioExterno();
+            }
+
+            @Override
+            public void tareaEliminada(Tarea tarea) {
+                cambioExterno();
+            }
+
+            @Override
+            public void historialVaciado() {
+                cambioExterno();
+            }
+
+            @Override
+            public void tareaDescompletada(Tarea completada, Tarea pendiente) {
+                cambioExterno();
+            }
+
+            @Override
+            public void historialRecuperado() {
+                cambioExterno();
+            }
+        });
+        
+        // Con cada tecla del título: aviso de nombre repetido y sugerencias de tareas parecidas
+        this.asistenteTitulo = new AsistenteTitulo(modelo, vistaPrincipal.getTxtRecordatorio(),
+                vistaPrincipal.getLblAvisoTitulo(), this::mostrarPendiente);
+
+        // Buscadores: se busca un momento después de dejar de escribir, no con cada tecla
+        configurarBuscador(vistaPrincipal.getTxtBuscar(), this::buscarPendientes);
+        configurarBuscador(vistaHistorial.getTxtBuscar(), this::buscarCompletadas);
+
+        // Ctrl+Z deshace el último cambio y Ctrl+Y lo rehace (en las dos ventanas)
+        configurarAtajo(vistaPrincipal, "DESHACER", KeyEvent.VK_Z, () -> deshacerCambio(true));
+        configurarAtajo(vistaPrincipal, "REHACER", KeyEvent.VK_Y, () -> deshacerCambio(false));
+        configurarAtajo(vistaHistorial, "DESHACER", KeyEvent.VK_Z, () -> deshacerCambio(true));
+        configurarAtajo(vistaHistorial, "REHACER", KeyEvent.VK_Y, () -> deshacerCambio(false));
+
+        // Recordatorios: se programan las pendientes con fecha y se cancelan al completarlas o eliminarlas
+        this.recordatorios = new RecordatoriosVencimiento(SwingUtilities::invokeLater, this::avisarVencimientos);
+        this.recordatorios.iniciar(modelo);
+
+        // Filtro por fecha de vencimiento (vencidas, hoy, próximos 7 días o un día del calendario)
+        this.vistaPrincipal.getCmbVencimiento().addActionListener(e -> cambiarFiltroVencimiento());
         
         // Configuramos el botón "Crear": Le ponemos una etiqueta interna y le asignamos este controlador
         this.vistaPrincipal.getBtnCrear().setActionCommand("BTN_CREAR");
@@ -64,9 +208,17 @@ public class ControladorTareas implements ActionListener {
         // Configuramos el botón "Limpiar Historial": Etiqueta y oyente
         this.vistaHistorial.getBtnLimpiar().setActionCommand("BTN_LIMPIAR");
         this.vistaHistorial.getBtnLimpiar().addActionListener(this);
+
+        // Configuramos el botón "Importar...": Etiqueta y oyente
+        this.vistaPrincipal.getBtnImportar().setActionCommand("BTN_IMPORTAR");
+        this.vistaPrincipal.getBtnImportar().addActionListener(this);
+
+        // Configuramos el botón "Exportar...": Etiqueta y oyente
+        this.vistaPrincipal.getBtnExportar().setActionCommand("BTN_EXPORTAR");
+        this.vistaPrincipal.getBtnExportar().addActionListener(this);
         
-        // Imprimimos en consola para confirmar que todo cargó bien
-        System.out.println("DEBUG: Controlador iniciado correctamente.");
+        // Solo se ve si se sube el nivel del log (no ensucia la consola ni cuesta nada al arrancar)
+        logger.fine("Controlador iniciado correctamente.");
     }
     
     // Método que se dispara automáticamente cuando se hace clic en cualquier botón configurado
@@ -75,240 +227,472 @@ public class ControladorTareas implements ActionListener {
         // Obtenemos la etiqueta (comando) del botón que fue presionado
         String comando = e.getActionCommand();
 
-        // Si el botón fue "Crear", ejecutamos el método de agregar
-        if ("BTN_CREAR".equals(comando)) agregarTarea();
-        // Si fue "Completar", ejecutamos el método de completar
-        else if ("BTN_COMPLETAR".equals(comando)) completarTarea();
-        // Si fue "Eliminar", ejecutamos el método de eliminar
-        else if ("BTN_ELIMINAR".equals(comando)) eliminarTarea();
-        // Si fue "Limpiar", ejecutamos el método de vaciar historial
-        else if ("BTN_LIMPIAR".equals(comando)) vaciarListaHistorial();
+        // Medimos cuánto tarda (con las listas ya actualizadas), sin la espera de los diálogos
+        long inicio = System.nanoTime();
+        esperaDialogosNs = 0;
+
+        // Crear, Completar, Eliminar y Limpiar los resuelve el flujo (sin Swing);
+        // la ventana solo le da los datos y muestra el resultado (VistaSwing)
+        if ("BTN_CREAR".equals(comando)) flujo.crear();
+        else if ("BTN_COMPLETAR".equals(comando)) flujo.completar();
+        else if ("BTN_ELIMINAR".equals(comando)) flujo.eliminar();
+        else if ("BTN_LIMPIAR".equals(comando)) flujo.vaciarHistorial();
+        // Si fue "Importar", pedimos el archivo y lo importamos en segundo plano
+        else if ("BTN_IMPORTAR".equals(comando)) importarArchivo();
+        // Si fue "Exportar", pedimos dónde guardar y exportamos en segundo plano
+        else if ("BTN_EXPORTAR".equals(comando)) exportarArchivo();
+
+        metricas.anotar(comando, System.nanoTime() - inicio - esperaDialogosNs);
+    }
+
+    /** Latencias de los botones y tamaño del modelo (también publicadas por JMX). */
+    public MetricasTareas getMetricas() {
+        return metricas;
     }
     
-    // Método principal para crear y guardar una tarea
-    private void agregarTarea() {
-        // Obtenemos el texto de los campos de la vista y quitamos espacios extra (trim)
-        String titulo = vistaPrincipal.getTxtRecordatorio().getText().trim();
-        String descripcion = vistaPrincipal.getTxtDescripcion().getText().trim();
-        String fechaTexto = vistaPrincipal.getTxtFecha().getText().trim(); 
-        // Obtenemos la opción seleccionada en el menú desplegable (ComboBox)
-        String categoria = (String) vistaPrincipal.getCmbCategoria().getSelectedItem();
-        
-        // Validación: Si el título está vacío, mostramos error y salimos
-        if (titulo.isEmpty()) {
-            JOptionPane.showMessageDialog(vistaPrincipal, "Escribe el nombre de la tarea.");
-            return;
+    // --- LA VENTANA COMO VISTA DE FlujoTareas ---
+
+    // Lee el formulario y la lista de la ventana, y aplica cada resultado a las listas visuales
+    private final class VistaSwing implements VistaTareas {
+
+        @Override
+        public String getTitulo() {
+            return vistaPrincipal.getTxtRecordatorio().getText();
         }
-        
-        // Validación: Si hay fecha escrita...
-        if (!fechaTexto.isEmpty()) {
-            // Verificamos que el formato sea dd/MM/yyyy
-            if (!esFormatoValido(fechaTexto)) {
-                JOptionPane.showMessageDialog(vistaPrincipal, "Formato incorrecto. Usa: dd/MM/yyyy");
-                vistaPrincipal.getTxtFecha().requestFocus(); // Ponemos el cursor en el campo fecha
-                return;
+
+        @Override
+        public String getDescripcion() {
+            return vistaPrincipal.getTxtDescripcion().getText();
+        }
+
+        @Override
+        public String getFecha() {
+            return vistaPrincipal.getTxtFecha().getText();
+        }
+
+        @Override
+        public String getCategoria() {
+            // El texto del ComboBox (Importantes, Tarea de hoy o General)
+            return (String) vistaPrincipal.getCmbCategoria().getSelectedItem();
+        }
+
+        @Override
+        public Tarea getPendienteSeleccionada() {
+            // La tarea se toma de la lista que se ve (puede ser el resultado de una búsqueda)
+            return vistaPrincipal.getJList().getSelectedValue();
+        }
+
+        @Override
+        public boolean confirmar(ResultadoOperacion.Operacion operacion, String pregunta) {
+            long inicio = System.nanoTime();
+            try {
+                if (operacion == ResultadoOperacion.Operacion.VACIAR_HISTORIAL) {
+                    return dialogos.confirmar(vistaHistorial, pregunta, "Confirmar");
+                }
+                return dialogos.confirmar(vistaPrincipal, pregunta, "Eliminar");
+            } finally {
+                esperaDialogosNs += System.nanoTime() - inicio;
             }
-            // Verificamos que la fecha no sea anterior a hoy
-            if (esFechaPasada(fechaTexto)) {
-                JOptionPane.showMessageDialog(vistaPrincipal, "La fecha debe ser hoy o futura.");
+        }
+
+        @Override
+        public void mostrar(ResultadoOperacion resultado) {
+            // Si no se pudo (campo vacío, fecha mal escrita, nombre repetido, nada elegido), se dice por qué
+            if (resultado.getMensaje() != null) {
+                long inicio = System.nanoTime();
+                dialogos.avisar(vistaPrincipal, resultado.getMensaje());
+                esperaDialogosNs += System.nanoTime() - inicio;
+                // Con la fecha mal escrita ponemos el cursor en el campo fecha
+                if (Fechas.ERROR_FORMATO.equals(resultado.getMensaje())) vistaPrincipal.getTxtFecha().requestFocus();
                 return;
             }
+            if (!resultado.isHecha()) return;
+
+            int posicion = resultado.getPosicion();
+            switch (resultado.getOperacion()) {
+                case CREAR:
+                    // La tarea ya está en el modelo: avisamos a la lista visual de la fila nueva
+                    modeloPendientes.filasAgregadas(posicion, posicion);
+                    // Si hay una búsqueda o un filtro activo, puede que la tarea nueva también aparezca en él
+                    if (hayFiltroPendientes()) filtrarPendientes();
+                    // Limpiamos los campos de texto para que el usuario escriba otra
+                    vistaPrincipal.limpiarCampos();
+                    break;
+                case COMPLETAR:
+                    // Quitamos la fila de pendientes por su posición y la agregamos arriba en completadas
+                    modeloPendientes.filasEliminadas(posicion, posicion);
+                    modeloCompletadas.filasAgregadas(0, 0);
+                    refrescarBusquedas();
+                    asistenteTitulo.actualizar(); // El nombre queda libre
+                    break;
+                case ELIMINAR:
+                    // Borramos de la lista visual por su posición
+                    modeloPendientes.filasEliminadas(posicion, posicion);
+                    refrescarBusquedas();
+                    asistenteTitulo.actualizar(); // El nombre queda libre
+                    break;
+                case VACIAR_HISTORIAL:
+                    // Limpiamos la lista visual
+                    int filas = modeloCompletadas.getSize();
+                    if (filas > 0) modeloCompletadas.filasEliminadas(0, filas - 1);
+                    refrescarBusquedas();
+                    break;
+            }
         }
+    }
+    
+    // Método para importar tareas desde un archivo CSV o NDJSON
+    private void importarArchivo() {
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Importar tareas");
+        selector.setFileFilter(new FileNameExtensionFilter("CSV o NDJSON", "csv", "txt", "ndjson", "jsonl", "json"));
+        if (selector.showOpenDialog(vistaPrincipal) != JFileChooser.APPROVE_OPTION) return;
+        File archivo = selector.getSelectedFile();
 
-        // Verificamos en el modelo si la tarea es nueva (para evitar duplicados)
-        if (modelo.esTareaNueva(titulo)) {
-            
-            // Usamos StringBuilder para construir el texto final eficientemente
-            StringBuilder sb = new StringBuilder();
-            sb.append(titulo); // Agregamos el título
-            
-            // Si hay descripción, la agregamos separada por dos puntos
-            if (!descripcion.isEmpty()) sb.append(" : ").append(descripcion);
-            // Si hay fecha, la agregamos entre paréntesis
-            if (!fechaTexto.isEmpty()) sb.append(" (Vence: ").append(fechaTexto).append(")");
-            
-            // Convertimos el constructor a un String final
-            String textoFinal = sb.toString();
-            // Variable para saber si guardamos como prioritaria en el modelo
-            boolean esImportanteModelo = false; 
-
-            // Lógica para decidir el icono y la importancia según la categoría
-            if ("Importantes".equals(categoria) || "Importante".equals(categoria)) {
-                textoFinal = "★ [URGENTE] " + textoFinal.toUpperCase(); // Agregamos estrella y mayúsculas
-                esImportanteModelo = true; // Marcamos como importante
-            } 
-            else if ("Tarea de hoy".equals(categoria)) {
-                textoFinal = "📅 [HOY] " + textoFinal; // Agregamos calendario
-                esImportanteModelo = true; 
-            } 
-            else {
-                textoFinal = "📝 " + textoFinal; // Agregamos lápiz para generales
+        // La lectura va en otro hilo para no congelar la ventana; mientras tanto
+        // el botón se desactiva y su texto muestra las filas leídas
+        vistaPrincipal.getBtnImportar().setEnabled(false);
+        importando = true;
+        new SwingWorker<ImportadorTareas.Resultado, Long>() {
+            @Override
+            protected ImportadorTareas.Resultado doInBackground() throws Exception {
+                return new ImportadorTareas(modelo).importar(archivo.toPath(), this::publish);
             }
 
-            // Guardamos los datos en la memoria lógica (Modelo)
-            modelo.registrarTarea(titulo, textoFinal, esImportanteModelo);
-            
-            // Insertamos la tarea en la lista visual usando el algoritmo de ordenamiento
-            insertarConPrioridadYFecha(textoFinal);
-            
-            // Limpiamos los campos de texto para que el usuario escriba otra
-            vistaPrincipal.limpiarCampos();
-            
-        } else {
-            // Si ya existe, mostramos error
-            JOptionPane.showMessageDialog(vistaPrincipal, "¡Esa tarea ya existe!");
-        }
+            @Override
+            protected void process(List<Long> leidas) {
+                vistaPrincipal.getBtnImportar().setText(leidas.get(leidas.size() - 1) + " filas...");
+            }
+
+            @Override
+            protected void done() {
+                importando = false;
+                vistaPrincipal.getBtnImportar().setText("Importar...");
+                vistaPrincipal.getBtnImportar().setEnabled(true);
+                // Una sola recarga de las listas para todo el archivo
+                cargarDatosGuardados();
+                try {
+                    mostrarResumen(get());
+                } catch (Exception e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(vistaPrincipal, "No se pudo importar el archivo:\n" + causa.getMessage(),
+                            "Importar", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
-    // Algoritmo para ordenar la lista visualmente (Categoría > Fecha)
-    private void insertarConPrioridadYFecha(String nuevaTarea) {
-        // Calculamos el nivel de importancia de la nueva tarea (1, 2 o 3)
-        int nivelNuevo = obtenerNivelPrioridad(nuevaTarea);
-        // Extraemos la fecha de la nueva tarea (si no tiene, será una fecha muy lejana)
-        LocalDate fechaNueva = extraerFecha(nuevaTarea);
-        
-        // Asumimos por defecto que va al final de la lista
-        int indiceInsertar = modeloPendientes.getSize(); 
-
-        // Recorremos toda la lista actual para encontrar la posición correcta
-        for (int i = 0; i < modeloPendientes.getSize(); i++) {
-            // Obtenemos la tarea que ya está en la lista en esa posición
-            String tareaActual = modeloPendientes.get(i);
-            
-            // Calculamos su nivel y su fecha
-            int nivelActual = obtenerNivelPrioridad(tareaActual);
-            LocalDate fechaActual = extraerFecha(tareaActual);
-
-            // Regla 1: Si la nueva es más importante (nivel menor es mejor), la insertamos aquí
-            if (nivelNuevo < nivelActual) {
-                indiceInsertar = i;
-                break; 
+    private void mostrarResumen(ImportadorTareas.Resultado r) {
+        StringBuilder texto = new StringBuilder();
+        texto.append("Filas leídas: ").append(r.getLeidas())
+             .append("\nTareas creadas: ").append(r.getCreadas())
+             .append("\nRepetidas (saltadas): ").append(r.getRepetidas())
+             .append("\nCon errores (saltadas): ").append(r.getInvalidas())
+             .append("\nYa completadas (saltadas): ").append(r.getCompletadas())
+             .append(String.format("\nTiempo: %.1f s (%,.0f filas/s)", r.getMilisegundos() / 1000.0, r.getFilasPorSegundo()));
+        for (String error : r.getErrores()) texto.append("\n  ").append(error);
+        if (r.getInvalidas() > r.getErrores().size()) texto.append("\n  ...");
+        JOptionPane.showMessageDialog(vistaPrincipal, texto.toString(), "Importar", JOptionPane.INFORMATION_MESSAGE);
+    }
+    
+    // Método para exportar las pendientes y el historial a CSV o NDJSON
+    private void exportarArchivo() {
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Exportar tareas");
+        selector.setFileFilter(new FileNameExtensionFilter("CSV o NDJSON", "csv", "ndjson", "jsonl", "json"));
+        selector.setSelectedFile(new File("tareas-" + LocalDate.now() + ".csv"));
+        if (selector.showSaveDialog(vistaPrincipal) != JFileChooser.APPROVE_OPTION) return;
+        File archivo = selector.getSelectedFile();
+        if (archivo.exists()) {
+            if (!dialogos.confirmar(vistaPrincipal, "El archivo ya existe. ¿Reemplazarlo?", "Exportar")) return;
+        }
+
+        // La escritura va en otro hilo; la barra de progreso se actualiza en el hilo de Swing
+        // y su botón "Cancelar" interrumpe la exportación
+        ProgressMonitor monitor = new ProgressMonitor(vistaPrincipal, "Exportando " + archivo.getName(), "", 0, 1000);
+        monitor.setMillisToDecideToPopup(200);
+        vistaPrincipal.getBtnExportar().setEnabled(false);
+        SwingWorker<ExportadorTareas.Resultado, Void> tarea = new SwingWorker<>() {
+            @Override
+            protected ExportadorTareas.Resultado doInBackground() throws Exception {
+                return new ExportadorTareas(modelo).exportar(archivo.toPath(), (escritas, total) -> {
+                    setProgress((int) (escritas * 100 / Math.max(1, total)));
+                    if (monitor.isCanceled()) cancel(true);
+                });
             }
-            
-            // Regla 2: Si tienen la misma importancia, comparamos las fechas
-            if (nivelNuevo == nivelActual) {
-                // Si la nueva vence antes que la actual, la insertamos aquí
-                if (fechaNueva.isBefore(fechaActual)) {
-                    indiceInsertar = i;
-                    break;
+
+            @Override
+            protected void done() {
+                monitor.close();
+                vistaPrincipal.getBtnExportar().setEnabled(true);
+                if (isCancelled()) return;
+                try {
+                    ExportadorTareas.Resultado r = get();
+                    JOptionPane.showMessageDialog(vistaPrincipal, String.format(
+                            "Pendientes: %d\nCompletadas: %d\nTamaño: %,d KB\nTiempo: %.1f s (%,.0f filas/s)",
+                            r.getPendientes(), r.getCompletadas(), r.getBytes() / 1024,
+                            r.getMilisegundos() / 1000.0, r.getFilasPorSegundo()),
+                            "Exportar", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(vistaPrincipal, "No se pudo exportar:\n" + causa.getMessage(),
+                            "Exportar", JOptionPane.ERROR_MESSAGE);
                 }
             }
+        };
+        tarea.addPropertyChangeListener(evento -> {
+            if ("progress".equals(evento.getPropertyName())) {
+                int porcentaje = (Integer) evento.getNewValue();
+                monitor.setProgress(porcentaje * 10);
+                monitor.setNote(porcentaje + " %");
+            }
+        });
+        tarea.execute();
+    }
+    
+    // Se llama (con el modelo bloqueado) después de cada cambio. Los de esta ventana ya
+    // actualizan las listas ellos mismos; los de otros hilos piden una recarga, y si llegan
+    // muchos seguidos se juntan en una sola (recargaPendiente)
+    private void cambioExterno() {
+        if (SwingUtilities.isEventDispatchThread() || importando) return;
+        if (recargaPendiente.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                recargaPendiente.set(false);
+                cargarDatosGuardados();
+            });
         }
+    }
 
-        // Insertamos la tarea en el índice calculado
-        modeloPendientes.add(indiceInsertar, nuevaTarea);
+    // Método que recarga las listas visuales con los datos del modelo
+    private void cargarDatosGuardados() {
+        // No se copia nada: cada lista avisa con un único evento y luego
+        // lee directamente del GestorDatos las filas que se vean
+        modeloPendientes.recargar();
+        modeloCompletadas.recargar();
+        refrescarBusquedas();
+        if (asistenteTitulo != null) asistenteTitulo.actualizar();
     }
 
-    // Método auxiliar: Devuelve un número según el icono (1=Estrella, 2=Calendario, 3=Lápiz)
-    private int obtenerNivelPrioridad(String textoTarea) {
-        if (textoTarea.startsWith("★")) return 1; // Prioridad máxima
-        if (textoTarea.startsWith("📅")) return 2; // Prioridad media
-        if (textoTarea.startsWith("📝")) return 3; // Prioridad baja
-        return 4; // Otros casos
+    // Selecciona una tarea pendiente en la lista y la deja a la vista (al elegir una sugerencia)
+    private void mostrarPendiente(Tarea tarea) {
+        JList<Tarea> lista = vistaPrincipal.getJList();
+        if (lista.getModel() == modeloPendientes) {
+            // Lista completa: la posición la da el índice ordenado en O(log n)
+            int posicion = modelo.posicionPendiente(tarea);
+            if (posicion < 0) return;
+            lista.setSelectedIndex(posicion);
+            lista.ensureIndexIsVisible(posicion);
+        } else {
+            // Resultado de una búsqueda (lista corta)
+            lista.setSelectedValue(tarea, true);
+        }
     }
 
-    // Método auxiliar: Busca el texto de la fecha y lo convierte a un objeto LocalDate
-    private LocalDate extraerFecha(String textoTarea) {
-        try {
-            // Busca si el texto contiene la etiqueta de fecha
-            if (textoTarea.contains("(Vence:")) {
-                // Calcula dónde empieza la fecha
-                int inicio = textoTarea.indexOf("(Vence:") + 8;
-                // Calcula dónde termina
-                int fin = textoTarea.indexOf(")", inicio);
-                // Extrae solo los números de la fecha
-                String fechaStr = textoTarea.substring(inicio, fin).trim();
-                // Define el formato esperado
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                // Convierte el String a LocalDate
-                return LocalDate.parse(fechaStr, formatter);
+    // --- DESHACER ---
+
+    private static void configurarAtajo(JComponent panel, String nombre, int tecla, Runnable accion) {
+        panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(tecla, InputEvent.CTRL_DOWN_MASK), nombre);
+        panel.getActionMap().put(nombre, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                accion.run();
             }
-        } catch (Exception e) { }
-        // Si no tiene fecha o falla, devolvemos una fecha muy lejana para que se ordene al final
-        return LocalDate.of(9999, 12, 31);
+        });
     }
 
-    // Método auxiliar: Verifica si el texto cumple el formato dd/MM/yyyy
-    private boolean esFormatoValido(String fechaTexto) {
-        SimpleDateFormat formato = new SimpleDateFormat("dd/MM/yyyy");
-        formato.setLenient(false); // Hace que la validación sea estricta
-        try {
-            formato.parse(fechaTexto); // Intenta convertirla
-            return true; // Si funciona, es válida
-        } catch (ParseException e) { 
-            return false; // Si falla, no es válida
+    // Deshace (o rehace) el último cambio del modelo, sea de esta ventana o no, y recarga las listas
+    private void deshacerCambio(boolean deshacer) {
+        boolean hecho = deshacer ? modelo.deshacer() : modelo.rehacer();
+        if (hecho) {
+            cargarDatosGuardados();
+            return;
+        }
+        // Si los cambios se perdieron por algo (un error, el límite de memoria), se explica una vez;
+        // si no, o si ya se explicó, solo suena
+        String motivo = deshacer ? modelo.explicarSinDeshacer() : null;
+        if (motivo != null && !motivo.equals(motivoDeshacerMostrado)) {
+            motivoDeshacerMostrado = motivo;
+            dialogos.avisar(vistaPrincipal, motivo);
+        } else {
+            Toolkit.getDefaultToolkit().beep(); // No había nada que deshacer (o rehacer)
         }
     }
 
-    // Método auxiliar: Verifica si la fecha ingresada ya pasó
-    private boolean esFechaPasada(String fechaTexto) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            LocalDate fechaIngresada = LocalDate.parse(fechaTexto, formatter);
-            LocalDate hoy = LocalDate.now(); // Obtiene la fecha del sistema
-            // Retorna verdadero si la fecha ingresada es anterior a hoy
-            return fechaIngresada.isBefore(hoy);
-        } catch (Exception e) { return true; }
+    // --- BUSCADORES ---
+
+    private void configurarBuscador(JTextField campo, Runnable buscar) {
+        Timer espera = new Timer(150, e -> buscar.run());
+        espera.setRepeats(false);
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                espera.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                espera.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                espera.restart();
+            }
+        });
     }
 
-    // Método para mover una tarea a completadas
-    private void completarTarea() {
-        // Obtenemos el valor seleccionado en la lista
-        String tareaSeleccionada = vistaPrincipal.getJList().getSelectedValue();
-        
-        if (tareaSeleccionada != null) {
-            // Avisamos al modelo para que mueva los datos
-            modelo.completarTarea(tareaSeleccionada);
-            // Quitamos de la lista visual de pendientes
-            modeloPendientes.removeElement(tareaSeleccionada);
-            // Agregamos a la lista visual de completadas con un check
-            modeloCompletadas.add(0, "✔ " + tareaSeleccionada);
+    // Filtra la lista de pendientes con el texto del buscador (vacío = todas)
+    private void buscarPendientes() {
+        busquedaPendientes = vistaPrincipal.getTxtBuscar().getText().trim();
+        filtrarPendientes();
+    }
+
+    // Filtra el historial con el texto de su buscador (vacío = todas)
+    private void buscarCompletadas() {
+        busquedaCompletadas = vistaHistorial.getTxtBuscar().getText().trim();
+        buscar(busquedaCompletadas, vistaHistorial.getListaVisual(), modeloCompletadas, false);
+    }
+
+    private void buscar(String consulta, JList<Tarea> lista, ModeloListaTareas todas, boolean pendientes) {
+        if (consulta.isEmpty()) {
+            if (lista.getModel() != todas) lista.setModel(todas);
+            return;
+        }
+        // La búsqueda va en otro hilo: la primera construye el índice de palabras (y en el
+        // historial lee lo que está en disco). Si mientras tanto el texto cambió, el resultado se tira.
+        new SwingWorker<ModeloListaTareas, Void>() {
+            @Override
+            protected ModeloListaTareas doInBackground() {
+                return pendientes
+                        ? ModeloListaTareas.deLista(modelo.buscarPendientes(consulta))
+                        : ModeloListaTareas.completadasEncontradas(modelo, modelo.buscarCompletadas(consulta));
+            }
+
+            @Override
+            protected void done() {
+                String actual = pendientes ? busquedaPendientes : busquedaCompletadas;
+                if (!consulta.equals(actual)) return;
+                try {
+                    lista.setModel(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // La búsqueda falló en el otro hilo: la lista se queda como estaba
+                    logger.log(Level.WARNING, "Error al buscar \"" + consulta + "\"", e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    // Vuelve a buscar en las listas que están filtradas (los datos cambiaron)
+    private void refrescarBusquedas() {
+        if (hayFiltroPendientes()) filtrarPendientes();
+        if (!busquedaCompletadas.isEmpty()) buscarCompletadas();
+    }
+
+    // --- RECORDATORIOS ---
+
+    // Ha llegado el día de vencimiento de estas tareas (se llama en el hilo de Swing)
+    private void avisarVencimientos(List<Tarea> vencen) {
+        // Los filtros "vencen hoy", "vencidas"... cambian al pasar la medianoche
+        if (filtroVencimiento != 0) filtrarPendientes();
+        Toolkit.getDefaultToolkit().beep();
+
+        StringBuilder mensaje = new StringBuilder();
+        if (vencen.size() == 1) {
+            mensaje.append("Hoy vence la tarea: ").append(vencen.get(0).getTitulo());
         } else {
-            JOptionPane.showMessageDialog(vistaPrincipal, "Selecciona una tarea.");
+            mensaje.append("Hoy vencen ").append(vencen.size()).append(" tareas:");
+            // Solo las primeras: con cientos el mensaje no cabría en pantalla
+            for (int i = 0; i < Math.min(5, vencen.size()); i++) {
+                mensaje.append("\n- ").append(vencen.get(i).getTitulo());
+            }
+            if (vencen.size() > 5) mensaje.append("\n... y ").append(vencen.size() - 5).append(" más");
         }
+        JOptionPane.showMessageDialog(vistaPrincipal, mensaje.toString(), "Recordatorio", JOptionPane.INFORMATION_MESSAGE);
     }
-    
-    // Método para borrar una tarea definitivamente
-    private void eliminarTarea() {
-        // Obtenemos el valor seleccionado
-        String tareaSeleccionada = vistaPrincipal.getJList().getSelectedValue();
-        
-        if (tareaSeleccionada != null) {
-            // Pedimos confirmación al usuario
-            int confirm = JOptionPane.showConfirmDialog(vistaPrincipal, "¿Eliminar permanentemente?", "Eliminar", JOptionPane.YES_NO_OPTION);
-            
-            if (confirm == JOptionPane.YES_OPTION) {
-                // Borramos del modelo (para liberar el nombre)
-                modelo.eliminarTareaPendiente(tareaSeleccionada);
-                // Borramos de la lista visual
-                modeloPendientes.removeElement(tareaSeleccionada);
+
+    // --- FILTRO POR VENCIMIENTO ---
+
+    private boolean hayFiltroPendientes() {
+        return !busquedaPendientes.isEmpty() || filtroVencimiento != 0;
+    }
+
+    // El usuario eligió otra opción en el desplegable de vencimientos
+    private void cambiarFiltroVencimiento() {
+        int elegido = vistaPrincipal.getCmbVencimiento().getSelectedIndex();
+        if (elegido == 4) {
+            // "Día del calendario...": se abre el calendario con el número de tareas de cada día
+            LocalDate inicial = diaCalendario != null ? diaCalendario : LocalDate.now();
+            LocalDate dia = CalendarioVencimientos.elegirDia(vistaPrincipal, modelo, inicial);
+            if (dia == null) {
+                // Se cerró sin elegir: se vuelve al filtro que había
+                vistaPrincipal.getCmbVencimiento().setSelectedIndex(filtroVencimiento);
+                return;
             }
+            diaCalendario = dia;
+            vistaPrincipal.getCmbVencimiento().setToolTipText("Tareas que vencen el " + Fechas.formatear(dia));
         } else {
-            JOptionPane.showMessageDialog(vistaPrincipal, "Selecciona una tarea.");
+            vistaPrincipal.getCmbVencimiento().setToolTipText("Mostrar solo las tareas pendientes que vencen en esas fechas");
         }
+        filtroVencimiento = elegido;
+        filtrarPendientes();
     }
 
-    // Método para borrar todo el historial
-    private void vaciarListaHistorial() {
-        // Si la lista no está vacía
-        if (!modeloCompletadas.isEmpty()) {
-            // Pedimos confirmación
-            int r = JOptionPane.showConfirmDialog(vistaHistorial, "¿Borrar todo?", "Confirmar", JOptionPane.YES_NO_OPTION);
-            
-            if (r == JOptionPane.YES_OPTION) {
-                // Borramos del modelo
-                modelo.vaciarCompletadas();
-                // Limpiamos la lista visual
-                modeloCompletadas.clear();
-            }
+    // Fechas del filtro elegido: {desde, hasta}, ambas incluidas (null = sin límite).
+    // Se calculan cada vez para que "hoy" cambie al pasar la medianoche
+    private LocalDate[] rangoVencimiento() {
+        LocalDate hoy = LocalDate.now();
+        switch (filtroVencimiento) {
+            case 1: return new LocalDate[] { null, hoy.minusDays(1) };  // Vencidas
+            case 2: return new LocalDate[] { hoy, hoy };                 // Vencen hoy
+            case 3: return new LocalDate[] { hoy, hoy.plusDays(7) };     // Próximos 7 días
+            case 4: return new LocalDate[] { diaCalendario, diaCalendario };
+            default: return null;                                        // Todas
         }
     }
-    
-    // Método que recarga las listas visuales con los datos del modelo
-    private void cargarDatosGuardados() {
-        // Recorremos las pendientes del modelo y las agregamos a la vista
-        for (String t : modelo.obtenerPendientes()) modeloPendientes.addElement(t);
-        // Recorremos las completadas del modelo y las agregamos a la vista
-        for (String t : modelo.obtenerCompletadas()) modeloCompletadas.addElement(t);
+
+    // Aplica a la lista de pendientes el texto del buscador y el filtro de vencimiento a la vez
+    private void filtrarPendientes() {
+        JList<Tarea> lista = vistaPrincipal.getJList();
+        String consulta = busquedaPendientes;
+        LocalDate[] rango = rangoVencimiento();
+        int numero = ++filtradoPendientes;
+        if (consulta.isEmpty() && rango == null) {
+            if (lista.getModel() != modeloPendientes) lista.setModel(modeloPendientes);
+            return;
+        }
+        new SwingWorker<List<Tarea>, Void>() {
+            @Override
+            protected List<Tarea> doInBackground() {
+                // Solo fechas: el índice de vencimientos da el tramo directamente, ordenado por fecha
+                if (consulta.isEmpty()) return modelo.pendientesQueVencen(rango[0], rango[1]);
+                List<Tarea> encontradas = modelo.buscarPendientes(consulta);
+                // Texto y fechas: de lo encontrado se quedan las que vencen en el tramo
+                if (rango != null) encontradas.removeIf(t -> !venceEntre(t, rango[0], rango[1]));
+                return encontradas;
+            }
+
+            @Override
+            protected void done() {
+                if (numero != filtradoPendientes) return;
+                try {
+                    lista.setModel(ModeloListaTareas.deLista(get()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // El filtro falló en el otro hilo: la lista se queda como estaba
+                    logger.log(Level.WARNING, "Error al filtrar las pendientes", e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    private static boolean venceEntre(Tarea t, LocalDate desde, LocalDate hasta) {
+        LocalDate fecha = t.getFechaVencimiento();
+        return fecha != null
+                && (desde == null || !fecha.isBefore(desde))
+                && (hasta == null || !fecha.isAfter(hasta));
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package Controlador;
+
+import java.awt.Component;
+import javax.swing.JOptionPane;
+
+/**
+ * Los mensajes y las preguntas de sí/no que el controlador le hace al usuario.
+ *
+ * Normalmente son ventanas de JOptionPane (VENTANAS). El generador de carga
+ * usa otros que no muestran nada y contestan siempre que sí, para poder
+ * ejecutar el controlador sin nadie delante (ni pantalla).
+ */
+interface Dialogos {
+
+    /** Muestra un mensaje (un error de validación, "Selecciona una tarea"...). */
+    void avisar(Component padre, String mensaje);
+
+    /** Pregunta sí/no. @return true si la respuesta es sí. */
+    boolean confirmar(Component padre, String mensaje, String titulo);
+
+    /** Las ventanas de siempre. */
+    Dialogos VENTANAS = new Dialogos() {
+        @Override
+        public void avisar(Component padre, String mensaje) {
+            JOptionPane.showMessageDialog(padre, mensaje);
+        }
+
+        @Override
+        public boolean confirmar(Component padre, String mensaje, String titulo) {
+            return JOptionPane.showConfirmDialog(padre, mensaje, titulo, JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
+        }
+    };
+}
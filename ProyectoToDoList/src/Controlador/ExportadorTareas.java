@@ -0,0 +1,200 @@
+package Controlador;
+
+import Modelo.Fechas;
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exporta las tareas pendientes y completadas a un archivo CSV o NDJSON.
+ *
+ * Las tareas se leen del GestorDatos por páginas y cada una se escribe en
+ * cuanto se lee, a través de un canal con búfer: nunca se arma el documento
+ * entero en memoria, así que el historial puede ser tan grande como quiera.
+ *
+ * Se escribe primero en un archivo temporal junto al destino y al terminar se
+ * renombra, así nunca queda un archivo de exportación a medias (por ejemplo si
+ * se cancela o se corta la luz en la exportación nocturna).
+ *
+ * El CSV lleva cabecera: titulo,descripcion,categoria,fecha,estado,creada,completada
+ * Se puede volver a importar con ImportadorTareas, pero solo vuelven las
+ * pendientes: las filas con estado "completada" (en NDJSON, las que tienen el
+ * campo "completada") se saltan, para no convertir el historial en tareas nuevas.
+ */
+public class ExportadorTareas {
+
+    // Tareas que se leen del modelo con cada bloqueo
+    private static final int TAMANO_PAGINA = 1000;
+
+    // Búfer del canal de escritura
+    private static final int TAMANO_BUFER = 64 * 1024;
+
+    /**
+     * Recibe el avance de la exportación después de cada página.
+     */
+    public interface Progreso {
+        void avanzar(long escritas, long total);
+    }
+
+    /**
+     * Resumen de una exportación.
+     */
+    public static final class Resultado {
+        private long pendientes;
+        private long completadas;
+        private long bytes;
+        private long milisegundos;
+
+        public long getPendientes() {
+            return pendientes;
+        }
+
+        public long getCompletadas() {
+            return completadas;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+
+        public double getFilasPorSegundo() {
+            long filas = pendientes + completadas;
+            return milisegundos == 0 ? filas * 1000.0 : filas * 1000.0 / milisegundos;
+        }
+    }
+
+    private final GestorDatos modelo;
+
+    public ExportadorTareas(GestorDatos modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Exporta eligiendo el formato por la extensión del archivo.
+     */
+    public Resultado exportar(Path archivo, Progreso progreso) throws IOException {
+        return exportar(archivo, FormatoArchivo.detectar(archivo), progreso);
+    }
+
+    /**
+     * Exporta primero las pendientes (en el orden de la lista) y luego las
+     * completadas (de la más antigua a la más nueva).
+     * Si el hilo se interrumpe (por ejemplo al cancelar desde la ventana) se
+     * detiene, borra el temporal y lanza InterruptedIOException.
+     * @param progreso Puede ser null.
+     */
+    public Resultado exportar(Path archivo, FormatoArchivo formato, Progreso progreso) throws IOException {
+        long inicio = System.nanoTime();
+        Path destino = archivo.toAbsolutePath();
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        Resultado resultado = new Resultado();
+        // El total es aproximado: otros hilos pueden agregar o completar tareas mientras tanto
+        long total = modelo.cantidadPendientes() + (long) modelo.cantidadCompletadas();
+
+        boolean terminado = false;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer salida = Channels.newWriter(canal, StandardCharsets.UTF_8.newEncoder(), TAMANO_BUFER);
+            StringBuilder linea = new StringBuilder(256);
+            if (formato == FormatoArchivo.CSV) {
+                salida.write("titulo,descripcion,categoria,fecha,estado,creada,completada\n");
+            }
+
+            List<Tarea> pagina = new ArrayList<>(TAMANO_PAGINA);
+
+            // 1. Pendientes: cada página continúa después de la última tarea escrita
+            Tarea ultima = null;
+            while (modelo.copiarPendientes(ultima, TAMANO_PAGINA, pagina) > 0) {
+                escribir(pagina, formato, linea, salida);
+                resultado.pendientes += pagina.size();
+                ultima = pagina.get(pagina.size() - 1);
+                pagina.clear();
+                avanzar(resultado, total, progreso);
+            }
+
+            // 2. Completadas, de la más antigua a la más nueva
+            while (modelo.copiarCompletadas(resultado.completadas, TAMANO_PAGINA, pagina) > 0) {
+                escribir(pagina, formato, linea, salida);
+                resultado.completadas += pagina.size();
+                pagina.clear();
+                avanzar(resultado, total, progreso);
+            }
+
+            salida.flush();
+            canal.force(true);
+            resultado.bytes = canal.size();
+            terminado = true;
+        } finally {
+            if (!terminado) Files.deleteIfExists(temporal);
+        }
+
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Algunos sistemas de archivos no saben renombrar de forma atómica
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+        resultado.milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return resultado;
+    }
+
+    private static void avanzar(Resultado resultado, long total, Progreso progreso) throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Exportación cancelada");
+        long escritas = resultado.pendientes + resultado.completadas;
+        if (progreso != null) progreso.avanzar(escritas, Math.max(total, escritas));
+    }
+
+    // Escribe la página línea a línea, reutilizando el mismo StringBuilder (también la usa ConsolaTareas)
+    static void escribir(List<Tarea> pagina, FormatoArchivo formato, StringBuilder linea,
+                                 Writer salida) throws IOException {
+        for (Tarea t : pagina) {
+            linea.setLength(0);
+            if (formato == FormatoArchivo.NDJSON) {
+                ServidorTareas.tarea(linea, t);
+            } else {
+                csv(linea, t.getTitulo()).append(',');
+                csv(linea, t.getDescripcion()).append(',');
+                linea.append(t.getCategoria().name()).append(',');
+                if (t.getFechaVencimiento() != null) linea.append(Fechas.formatear(t.getFechaVencimiento()));
+                linea.append(',').append(t.estaCompletada() ? "completada" : "pendiente").append(',');
+                linea.append(Instant.ofEpochMilli(t.getCreada())).append(',');
+                if (t.estaCompletada()) linea.append(Instant.ofEpochMilli(t.getCompletada()));
+            }
+            salida.append(linea.append('\n'));
+        }
+    }
+
+    // Campo CSV: entre comillas solo si hace falta (separador, comillas o saltos de línea)
+    private static StringBuilder csv(StringBuilder sb, String valor) {
+        if (valor == null) return sb;
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) return sb.append(valor);
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+}
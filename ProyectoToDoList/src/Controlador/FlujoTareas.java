@@ -0,0 +1,96 @@
+package Controlador;
+
+import Controlador.ResultadoOperacion.Estado;
+import Controlador.ResultadoOperacion.Operacion;
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import Modelo.TareaEnFila;
+
+/**
+ * Crear, completar, eliminar y vaciar el historial: lo que hacen los botones
+ * de la ventana, pero sin Swing. Lee los datos de una VistaTareas, cambia el
+ * GestorDatos y le pasa a la vista un ResultadoOperacion (que también devuelve).
+ *
+ * Las reglas son las mismas en todas partes (título obligatorio, fecha
+ * dd/MM/yyyy de hoy en adelante, sin nombres repetidos), así que se puede usar
+ * en procesos por lotes, servidores o mediciones sin cargar AWT.
+ *
+ * Como la ventana, cada flujo se usa desde un solo hilo; el GestorDatos sí
+ * admite varios flujos a la vez.
+ */
+public final class FlujoTareas {
+
+    private final GestorDatos modelo;
+    private final VistaTareas vista;
+
+    public FlujoTareas(GestorDatos modelo, VistaTareas vista) {
+        this.modelo = modelo;
+        this.vista = vista;
+    }
+
+    /** Registra la tarea del formulario si es válida y su nombre no existe. */
+    public ResultadoOperacion crear() {
+        Tarea borrador;
+        try {
+            // Las mismas validaciones que la API y los importadores
+            borrador = CamposTarea.borrador(vista.getTitulo(), vista.getDescripcion(), vista.getCategoria(), vista.getFecha());
+        } catch (IllegalArgumentException e) {
+            return terminar(ResultadoOperacion.fallida(Operacion.CREAR, Estado.DATOS_NO_VALIDOS, e.getMessage()));
+        }
+
+        // Comprobar y guardar es una sola operación: otro hilo no puede colar el mismo nombre en medio.
+        // La fila donde cayó (Categoría > Fecha > Creación) se calcula en ese mismo bloqueo
+        TareaEnFila nueva = modelo.registrarSiNuevaEnFila(borrador.getTitulo(), borrador.getDescripcion(),
+                borrador.getCategoria(), borrador.getFechaVencimiento());
+        if (nueva == null) {
+            return terminar(ResultadoOperacion.fallida(Operacion.CREAR, Estado.REPETIDA, "¡Esa tarea ya existe!"));
+        }
+        return terminar(ResultadoOperacion.hecha(Operacion.CREAR, nueva.getTarea(), nueva.getFila()));
+    }
+
+    /** Pasa la pendiente elegida a completadas. */
+    public ResultadoOperacion completar() {
+        Tarea seleccionada = vista.getPendienteSeleccionada();
+        if (seleccionada == null) return terminar(sinSeleccion(Operacion.COMPLETAR));
+
+        // La fila en la que estaba sale del mismo bloqueo que el cambio (otro hilo pudo mover la lista)
+        TareaEnFila completada = modelo.completarEnFila(seleccionada.getId());
+        if (completada == null) return terminar(ResultadoOperacion.fallida(Operacion.COMPLETAR, Estado.SIN_CAMBIOS, null));
+        return terminar(ResultadoOperacion.hecha(Operacion.COMPLETAR, completada.getTarea(), completada.getFila()));
+    }
+
+    /** Borra la pendiente elegida, después de confirmarlo. */
+    public ResultadoOperacion eliminar() {
+        Tarea seleccionada = vista.getPendienteSeleccionada();
+        if (seleccionada == null) return terminar(sinSeleccion(Operacion.ELIMINAR));
+        if (!vista.confirmar(Operacion.ELIMINAR, "¿Eliminar permanentemente?")) {
+            return terminar(ResultadoOperacion.fallida(Operacion.ELIMINAR, Estado.CANCELADA, null));
+        }
+
+        TareaEnFila eliminada = modelo.eliminarEnFila(seleccionada.getId());
+        if (eliminada == null) return terminar(ResultadoOperacion.fallida(Operacion.ELIMINAR, Estado.SIN_CAMBIOS, null));
+        return terminar(ResultadoOperacion.hecha(Operacion.ELIMINAR, eliminada.getTarea(), eliminada.getFila()));
+    }
+
+    /** Borra todo el historial de completadas, después de confirmarlo (si no está vacío). */
+    public ResultadoOperacion vaciarHistorial() {
+        int cantidad = modelo.cantidadCompletadas();
+        if (cantidad == 0) return terminar(ResultadoOperacion.fallida(Operacion.VACIAR_HISTORIAL, Estado.SIN_CAMBIOS, null));
+        if (!vista.confirmar(Operacion.VACIAR_HISTORIAL, "¿Borrar todo?")) {
+            return terminar(ResultadoOperacion.fallida(Operacion.VACIAR_HISTORIAL, Estado.CANCELADA, null));
+        }
+        modelo.vaciarCompletadas();
+        return terminar(ResultadoOperacion.historialVaciado(cantidad));
+    }
+
+    // --- INTERNO ---
+
+    private static ResultadoOperacion sinSeleccion(Operacion operacion) {
+        return ResultadoOperacion.fallida(operacion, Estado.SIN_SELECCION, "Selecciona una tarea.");
+    }
+
+    private ResultadoOperacion terminar(ResultadoOperacion resultado) {
+        vista.mostrar(resultado);
+        return resultado;
+    }
+}
@@ -0,0 +1,29 @@
+package Controlador;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Formatos de archivo para importar y exportar tareas.
+ */
+public enum FormatoArchivo {
+    CSV("csv"),
+    NDJSON("ndjson"); // Un objeto JSON por línea
+
+    private final String extension;
+
+    FormatoArchivo(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /** Elige el formato por la extensión del archivo (.ndjson, .jsonl o .json = NDJSON; el resto CSV). */
+    public static FormatoArchivo detectar(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl") || nombre.endsWith(".json")) return NDJSON;
+        return CSV;
+    }
+}
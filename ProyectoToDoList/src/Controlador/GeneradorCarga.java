@@ -0,0 +1,531 @@
+package Controlador;
+
+import Modelo.Categoria;
+import Modelo.GestorDatos;
+import Modelo.ModoDurabilidad;
+import Modelo.Tarea;
+import Vista.GestionTareas;
+import Vista.TareasCompletadas;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import javax.swing.SwingUtilities;
+
+/**
+ * Generador de carga: ejecuta el mismo código que los botones de la ventana
+ * (ControladorTareas.actionPerformed) sin abrir el ToDoList, con listas del
+ * tamaño que se quiera y una mezcla de operaciones que se repite igual con la
+ * misma semilla.
+ *
+ * Primero llena el GestorDatos (sin medir) con las pendientes y completadas
+ * pedidas, como si el programa arrancara con esos datos guardados. Después
+ * crea las vistas (sin mostrarlas) y el controlador, y en el hilo de Swing
+ * rellena los campos o elige una fila al azar y "pulsa" el botón de cada
+ * operación. Los diálogos no se muestran: las confirmaciones se contestan que
+ * sí y los avisos solo se cuentan.
+ *
+ * Con --vista=ninguna no se crea nada de Swing: se llama directamente a
+ * FlujoTareas (las mismas reglas que los botones) con una vista sin pantalla.
+ * La diferencia entre los dos modos es lo que cuesta la parte visual.
+ *
+ * Al terminar muestra, para cada operación, los percentiles de lo que tardó
+ * actionPerformed, y en varios puntos de la ejecución el montón (heap) ocupado
+ * tras un GC y el p99 de ese tramo: si algo empieza a crecer más de la cuenta
+ * con el tamaño de las listas, se ve ahí antes que en la ventana.
+ *
+ * Uso (o "ant carga -Dcarga.args=..."):
+ *
+ *   java -Xmx3g -cp build/classes Controlador.GeneradorCarga --pendientes=200000 --completadas=1000000
+ *
+ * Opciones (todas con valor por defecto):
+ *   --semilla=42                      misma semilla, mismas tareas y mismas operaciones
+ *   --pendientes=100000               pendientes al empezar
+ *   --completadas=1000000             completadas al empezar
+ *   --operaciones=100000              operaciones medidas
+ *   --mezcla=crear:450,completar:350,eliminar:199,vaciar:1   peso de cada operación
+ *   --vista=swing                     swing (los botones del controlador) o ninguna (solo FlujoTareas)
+ *   --puntos=10                       puntos de control (heap y p99 por tramo)
+ *   --datos=DIRECTORIO                guarda en disco (diario e instantánea) en ese directorio vacío
+ *   --durabilidad=POR_LOTES           modo de guardado cuando hay --datos
+ *   --informe=archivo.json            además, el resultado en JSON
+ */
+public final class GeneradorCarga {
+
+    // Palabras para los títulos (el contador del final los hace únicos)
+    private static final String[] PALABRAS = {
+        "Revisar", "informe", "Llamar", "proveedor", "Enviar", "factura", "Preparar", "reunión",
+        "Comprar", "material", "Pagar", "recibo", "Actualizar", "presupuesto", "Responder", "correo"
+    };
+
+    // Tamaño de cada lote al llenar el gestor
+    private static final int LOTE = 10_000;
+
+    /** Las operaciones que se pueden mezclar, con el comando del botón que las dispara. */
+    private enum Operacion {
+        CREAR("BTN_CREAR"),
+        COMPLETAR("BTN_COMPLETAR"),
+        ELIMINAR("BTN_ELIMINAR"),
+        VACIAR("BTN_LIMPIAR");
+
+        final String comando;
+
+        Operacion(String comando) {
+            this.comando = comando;
+        }
+
+        String nombre() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Duraciones (en ns) de un tipo de operación, en un array que crece. */
+    private static final class Latencias {
+        private long[] ns = new long[1024];
+        private int cantidad;
+        private boolean ordenadas;
+
+        void agregar(long duracion) {
+            if (cantidad == ns.length) ns = Arrays.copyOf(ns, cantidad * 2);
+            ns[cantidad++] = duracion;
+            ordenadas = false;
+        }
+
+        int cantidad() {
+            return cantidad;
+        }
+
+        // Percentil por rango más cercano (p entre 0 y 1); 0 si no hay datos
+        long percentil(double p) {
+            if (cantidad == 0) return 0;
+            if (!ordenadas) {
+                Arrays.sort(ns, 0, cantidad);
+                ordenadas = true;
+            }
+            int rango = (int) Math.ceil(p * cantidad);
+            return ns[Math.max(0, Math.min(cantidad, rango) - 1)];
+        }
+
+        void vaciar() {
+            cantidad = 0;
+        }
+    }
+
+    /** Lo que se vio en un punto de control. */
+    private static final class Punto {
+        int operaciones;
+        int pendientes;
+        int completadas;
+        long heap;
+        long p99;
+        long maximo;
+    }
+
+    /** Diálogos que no muestran nada: sí a todo y los avisos contados. */
+    private static final class DialogosMudos implements Dialogos {
+        int avisos;
+
+        @Override
+        public void avisar(Component padre, String mensaje) {
+            avisos++;
+        }
+
+        @Override
+        public boolean confirmar(Component padre, String mensaje, String titulo) {
+            return true;
+        }
+    }
+
+    /** Vista sin pantalla para FlujoTareas: el formulario y la fila elegida se rellenan antes de cada operación. */
+    private static final class VistaSinPantalla implements VistaTareas {
+        String titulo = "";
+        String fecha = "";
+        String categoria = "";
+        Tarea seleccionada;
+        int avisos;
+
+        @Override
+        public String getTitulo() {
+            return titulo;
+        }
+
+        @Override
+        public String getDescripcion() {
+            return "";
+        }
+
+        @Override
+        public String getFecha() {
+            return fecha;
+        }
+
+        @Override
+        public String getCategoria() {
+            return categoria;
+        }
+
+        @Override
+        public Tarea getPendienteSeleccionada() {
+            return seleccionada;
+        }
+
+        @Override
+        public boolean confirmar(ResultadoOperacion.Operacion operacion, String pregunta) {
+            return true;
+        }
+
+        @Override
+        public void mostrar(ResultadoOperacion resultado) {
+            if (resultado.getMensaje() != null) avisos++;
+        }
+    }
+
+    // --- OPCIONES ---
+    private long semilla = 42;
+    private int pendientes = 100_000;
+    private int completadas = 1_000_000;
+    private int operaciones = 100_000;
+    private final int[] pesos = {450, 350, 199, 1};
+    private int puntos = 10;
+    private boolean conSwing = true;
+    private Path datos;
+    private ModoDurabilidad durabilidad = ModoDurabilidad.POR_LOTES;
+    private Path informe;
+
+    // --- ESTADO DE LA EJECUCIÓN ---
+    private Random azar;
+    private int contadorTitulos;
+    private GestorDatos modelo;
+    private GestionTareas vistaPrincipal;
+    private TareasCompletadas vistaHistorial;
+    private ControladorTareas controlador;
+    private final DialogosMudos dialogos = new DialogosMudos();
+    private FlujoTareas flujo;
+    private final VistaSinPantalla vistaSinPantalla = new VistaSinPantalla();
+
+    private final Latencias[] porOperacion = new Latencias[Operacion.values().length];
+    private final int[] avisosPorOperacion = new int[Operacion.values().length];
+    private final Latencias tramo = new Latencias();
+    private final List<Punto> recorrido = new ArrayList<>();
+    private long precargaMs;
+    private long arranqueMs;
+    private long heapInicial;
+
+    private GeneradorCarga() {
+        for (int i = 0; i < porOperacion.length; i++) porOperacion[i] = new Latencias();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Sin pantalla: las vistas se crean igual, pero no se pueden mostrar (ni colgar esperando un clic)
+        if (System.getProperty("java.awt.headless") == null) System.setProperty("java.awt.headless", "true");
+
+        GeneradorCarga generador = new GeneradorCarga();
+        try {
+            generador.leerOpciones(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Opciones: --semilla --pendientes --completadas --operaciones --mezcla --vista"
+                    + " --puntos --datos --durabilidad --informe (ver la documentación de GeneradorCarga)");
+            System.exit(2);
+        }
+        generador.ejecutar();
+        // El hilo de los recordatorios y el de Swing no deben dejar el programa abierto
+        System.exit(0);
+    }
+
+    private void leerOpciones(String[] args) {
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) throw new IllegalArgumentException("Opción no válida: " + arg);
+            String nombre = arg.substring(2, igual);
+            String valor = arg.substring(igual + 1);
+            switch (nombre) {
+                case "semilla": semilla = Long.parseLong(valor); break;
+                case "pendientes": pendientes = noNegativo(nombre, valor); break;
+                case "completadas": completadas = noNegativo(nombre, valor); break;
+                case "operaciones": operaciones = noNegativo(nombre, valor); break;
+                case "puntos": puntos = Math.max(1, noNegativo(nombre, valor)); break;
+                case "mezcla": leerMezcla(valor); break;
+                case "vista": conSwing = leerVista(valor); break;
+                case "datos": datos = Paths.get(valor); break;
+                case "durabilidad": durabilidad = ModoDurabilidad.valueOf(valor.toUpperCase(Locale.ROOT)); break;
+                case "informe": informe = Paths.get(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: --" + nombre);
+            }
+        }
+    }
+
+    private static int noNegativo(String nombre, String valor) {
+        int n = Integer.parseInt(valor.replace("_", ""));
+        if (n < 0) throw new IllegalArgumentException("--" + nombre + " no puede ser negativo");
+        return n;
+    }
+
+    private static boolean leerVista(String valor) {
+        if (valor.equalsIgnoreCase("swing")) return true;
+        if (valor.equalsIgnoreCase("ninguna")) return false;
+        throw new IllegalArgumentException("--vista tiene que ser swing o ninguna");
+    }
+
+    // "crear:450,completar:350,eliminar:199,vaciar:1" (las que no aparecen quedan con peso 0)
+    private void leerMezcla(String valor) {
+        Arrays.fill(pesos, 0);
+        for (String parte : valor.split(",")) {
+            String[] par = parte.trim().split(":");
+            if (par.length != 2) throw new IllegalArgumentException("Mezcla no válida: " + parte);
+            Operacion op = null;
+            for (Operacion o : Operacion.values()) {
+                if (o.nombre().equals(par[0].trim().toLowerCase(Locale.ROOT))) op = o;
+            }
+            if (op == null) throw new IllegalArgumentException("Operación desconocida en la mezcla: " + par[0]);
+            pesos[op.ordinal()] = noNegativo("mezcla", par[1].trim());
+        }
+        if (Arrays.stream(pesos).sum() == 0) throw new IllegalArgumentException("La mezcla no tiene ninguna operación");
+    }
+
+    // --- EJECUCIÓN ---
+
+    private void ejecutar() throws Exception {
+        azar = new Random(semilla);
+        modelo = GestorDatos.getInstancia();
+        if (datos != null) modelo.activarPersistencia(datos, durabilidad);
+
+        long inicio = System.nanoTime();
+        precargar();
+        precargaMs = (System.nanoTime() - inicio) / 1_000_000;
+        heapInicial = heapTrasGc();
+        System.out.printf("Precarga: %,d pendientes y %,d completadas en %,d ms (heap %,d MB)%n",
+                modelo.cantidadPendientes(), modelo.cantidadCompletadas(), precargaMs, heapInicial >> 20);
+
+        inicio = System.nanoTime();
+        if (conSwing) {
+            // Vistas y controlador en el hilo de Swing, como en ToDoList (pero sin JFrame)
+            SwingUtilities.invokeAndWait(() -> {
+                vistaPrincipal = new GestionTareas();
+                vistaHistorial = new TareasCompletadas();
+                controlador = new ControladorTareas(vistaPrincipal, vistaHistorial, dialogos);
+            });
+        } else {
+            flujo = new FlujoTareas(modelo, vistaSinPantalla);
+        }
+        arranqueMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf("Arranque (%s): %,d ms%n", conSwing ? "controlador con Swing" : "FlujoTareas sin vista", arranqueMs);
+
+        int cadaCuantas = Math.max(1, operaciones / puntos);
+        int total = Arrays.stream(pesos).sum();
+        for (int i = 1; i <= operaciones; i++) {
+            int elegido = azar.nextInt(total);
+            Operacion op = Operacion.values()[0];
+            for (Operacion o : Operacion.values()) {
+                if (elegido < pesos[o.ordinal()]) {
+                    op = o;
+                    break;
+                }
+                elegido -= pesos[o.ordinal()];
+            }
+            medir(op);
+            if (i % cadaCuantas == 0 || i == operaciones) puntoDeControl(i);
+        }
+
+        if (datos != null) modelo.cerrar();
+        imprimirResumen();
+        if (informe != null) {
+            Files.write(informe, informeJson().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Informe en " + informe.toAbsolutePath());
+        }
+    }
+
+    // Llena el gestor por lotes y completa al azar las que hagan falta (esto no se mide)
+    private void precargar() {
+        List<Tarea> lote = new ArrayList<>(LOTE);
+        int registrar = pendientes + completadas;
+        for (int i = 0; i < registrar; i++) {
+            lote.add(new Tarea(0, titulo(), "", categoria(), fecha(), 0, 0));
+            if (lote.size() == LOTE || i == registrar - 1) {
+                modelo.registrarLote(lote);
+                lote.clear();
+            }
+        }
+        for (int i = 0; i < completadas && modelo.cantidadPendientes() > 0; i++) {
+            Tarea t = modelo.obtenerPendiente(azar.nextInt(modelo.cantidadPendientes()));
+            modelo.completarTarea(t.getId());
+        }
+    }
+
+    // Prepara los campos o la fila elegida y pulsa el botón; solo se mide actionPerformed
+    private void medir(Operacion op) throws Exception {
+        long[] duracion = new long[1];
+        int[] avisos = new int[1];
+        // Lo que depende del azar se decide aquí, en el mismo orden siempre
+        String titulo = op == Operacion.CREAR ? titulo() : null;
+        Categoria categoria = op == Operacion.CREAR ? categoria() : null;
+        LocalDate fecha = op == Operacion.CREAR ? fecha() : null;
+        double fila = azar.nextDouble();
+
+        if (!conSwing) {
+            medirSinPantalla(op, titulo, categoria, fecha, fila);
+            return;
+        }
+        SwingUtilities.invokeAndWait(() -> {
+            if (op == Operacion.CREAR) {
+                vistaPrincipal.getTxtRecordatorio().setText(titulo);
+                vistaPrincipal.getTxtDescripcion().setText("");
+                vistaPrincipal.getTxtFecha().setText(fecha == null ? "" : texto(fecha));
+                vistaPrincipal.getCmbCategoria().setSelectedItem(categoria.getEtiqueta());
+            } else if (op != Operacion.VACIAR) {
+                int filas = vistaPrincipal.getJList().getModel().getSize();
+                if (filas > 0) {
+                    vistaPrincipal.getJList().setSelectedIndex((int) (fila * filas));
+                } else {
+                    vistaPrincipal.getJList().clearSelection();
+                }
+            }
+            ActionEvent evento = new ActionEvent(vistaPrincipal, ActionEvent.ACTION_PERFORMED, op.comando);
+            int antes = dialogos.avisos;
+            long inicio = System.nanoTime();
+            controlador.actionPerformed(evento);
+            duracion[0] = System.nanoTime() - inicio;
+            avisos[0] = dialogos.avisos - antes;
+        });
+        porOperacion[op.ordinal()].agregar(duracion[0]);
+        avisosPorOperacion[op.ordinal()] += avisos[0];
+        tramo.agregar(duracion[0]);
+    }
+
+    // Lo mismo llamando directamente a FlujoTareas (sin Swing ni hilo de eventos)
+    private void medirSinPantalla(Operacion op, String titulo, Categoria categoria, LocalDate fecha, double fila) {
+        VistaSinPantalla vista = vistaSinPantalla;
+        if (op == Operacion.CREAR) {
+            vista.titulo = titulo;
+            vista.fecha = fecha == null ? "" : texto(fecha);
+            vista.categoria = categoria.getEtiqueta();
+        } else if (op != Operacion.VACIAR) {
+            int filas = modelo.cantidadPendientes();
+            vista.seleccionada = filas > 0 ? modelo.obtenerPendiente((int) (fila * filas)) : null;
+        }
+        int antes = vista.avisos;
+        long inicio = System.nanoTime();
+        switch (op) {
+            case CREAR: flujo.crear(); break;
+            case COMPLETAR: flujo.completar(); break;
+            case ELIMINAR: flujo.eliminar(); break;
+            case VACIAR: flujo.vaciarHistorial(); break;
+        }
+        long duracion = System.nanoTime() - inicio;
+        porOperacion[op.ordinal()].agregar(duracion);
+        avisosPorOperacion[op.ordinal()] += vista.avisos - antes;
+        tramo.agregar(duracion);
+    }
+
+    private void puntoDeControl(int hechas) {
+        Punto p = new Punto();
+        p.operaciones = hechas;
+        p.pendientes = modelo.cantidadPendientes();
+        p.completadas = modelo.cantidadCompletadas();
+        p.p99 = tramo.percentil(0.99);
+        p.maximo = tramo.percentil(1.0);
+        p.heap = heapTrasGc();
+        recorrido.add(p);
+        tramo.vaciar();
+        System.out.printf("  %,10d ops  %,9d pendientes  %,10d completadas  heap %,6d MB  p99 %,9.1f µs  máx %,10.1f µs%n",
+                p.operaciones, p.pendientes, p.completadas, p.heap >> 20, p.p99 / 1000.0, p.maximo / 1000.0);
+    }
+
+    // Montón ocupado después de pedir un GC (dos veces: lo que suelta el primero a veces lo recoge el segundo)
+    private static long heapTrasGc() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // --- DATOS AL AZAR ---
+
+    private String titulo() {
+        return PALABRAS[azar.nextInt(PALABRAS.length)] + " " + PALABRAS[azar.nextInt(PALABRAS.length)]
+                + " " + (++contadorTitulos);
+    }
+
+    private Categoria categoria() {
+        return Categoria.values()[azar.nextInt(Categoria.values().length)];
+    }
+
+    // La mitad sin fecha; el resto, de hoy a un año vista
+    private LocalDate fecha() {
+        return azar.nextBoolean() ? null : LocalDate.now().plusDays(azar.nextInt(366));
+    }
+
+    private static String texto(LocalDate fecha) {
+        return String.format("%02d/%02d/%04d", fecha.getDayOfMonth(), fecha.getMonthValue(), fecha.getYear());
+    }
+
+    // --- RESULTADOS ---
+
+    private void imprimirResumen() {
+        System.out.println();
+        System.out.printf("%-10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "Operación", "cantidad", "avisos", "p50 µs", "p90 µs", "p99 µs", "p99.9 µs", "máx µs");
+        for (Operacion op : Operacion.values()) {
+            Latencias l = porOperacion[op.ordinal()];
+            if (l.cantidad() == 0) continue;
+            System.out.printf("%-10s %,10d %,8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", op.nombre(), l.cantidad(),
+                    avisosPorOperacion[op.ordinal()], l.percentil(0.50) / 1000.0, l.percentil(0.90) / 1000.0,
+                    l.percentil(0.99) / 1000.0, l.percentil(0.999) / 1000.0, l.percentil(1.0) / 1000.0);
+        }
+        Punto ultimo = recorrido.isEmpty() ? null : recorrido.get(recorrido.size() - 1);
+        if (ultimo != null) {
+            System.out.printf("Heap: %,d MB al empezar, %,d MB al terminar (%+,d MB)%n",
+                    heapInicial >> 20, ultimo.heap >> 20, (ultimo.heap - heapInicial) >> 20);
+        }
+    }
+
+    private String informeJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"semilla\":").append(semilla)
+                .append(",\"pendientesIniciales\":").append(pendientes)
+                .append(",\"completadasIniciales\":").append(completadas)
+                .append(",\"operaciones\":").append(operaciones)
+                .append(",\"precargaMs\":").append(precargaMs)
+                .append(",\"arranqueMs\":").append(arranqueMs)
+                .append(",\"heapInicial\":").append(heapInicial)
+                .append(",\"resultados\":[");
+        boolean primero = true;
+        for (Operacion op : Operacion.values()) {
+            Latencias l = porOperacion[op.ordinal()];
+            if (l.cantidad() == 0) continue;
+            if (!primero) sb.append(',');
+            primero = false;
+            sb.append("{\"operacion\":");
+            Json.cadena(sb, op.nombre());
+            sb.append(",\"cantidad\":").append(l.cantidad())
+                    .append(",\"avisos\":").append(avisosPorOperacion[op.ordinal()])
+                    .append(",\"p50Ns\":").append(l.percentil(0.50))
+                    .append(",\"p90Ns\":").append(l.percentil(0.90))
+                    .append(",\"p99Ns\":").append(l.percentil(0.99))
+                    .append(",\"p999Ns\":").append(l.percentil(0.999))
+                    .append(",\"maxNs\":").append(l.percentil(1.0))
+                    .append('}');
+        }
+        sb.append("],\"puntos\":[");
+        for (int i = 0; i < recorrido.size(); i++) {
+            Punto p = recorrido.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"operaciones\":").append(p.operaciones)
+                    .append(",\"pendientes\":").append(p.pendientes)
+                    .append(",\"completadas\":").append(p.completadas)
+                    .append(",\"heap\":").append(p.heap)
+                    .append(",\"p99Ns\":").append(p.p99)
+                    .append(",\"maxNs\":").append(p.maximo)
+                    .append('}');
+        }
+        return sb.append("]}\n").toString();
+    }
+}
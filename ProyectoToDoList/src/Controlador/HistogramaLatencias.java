@@ -0,0 +1,115 @@
+package Controlador;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de duraciones (en nanosegundos) sin bloqueos.
+ *
+ * Las duraciones se cuentan en cubetas logarítmicas: cada potencia de 2 se
+ * parte en 16 cubetas iguales, así que un percentil sale con menos de un 6,25 %
+ * de error sea la duración de 1 µs o de 10 s, con un array fijo de 960
+ * contadores (unos 8 KB) por muchas duraciones que se anoten.
+ *
+ * Anotar es un incremento atómico (sin synchronized): se puede llamar desde
+ * cualquier hilo mientras otro lee. Lo leído es aproximado en ese instante
+ * (puede faltar una anotación que está ocurriendo a la vez), suficiente para
+ * unas estadísticas.
+ */
+final class HistogramaLatencias {
+
+    // 2^4 = 16 cubetas por potencia de 2
+    private static final int BITS_SUBCUBETA = 4;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /** Anota una duración (las negativas cuentan como 0). */
+    void anotar(long ns) {
+        if (ns < 0) ns = 0;
+        cubetas.getAndIncrement(cubeta(ns));
+        suma.add(ns);
+        // Solo se escribe si es un máximo nuevo (casi nunca): apenas hay competencia entre hilos
+        long actual = maximo.get();
+        while (ns > actual && !maximo.compareAndSet(actual, ns)) actual = maximo.get();
+    }
+
+    long cantidad() {
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) total += cubetas.get(i);
+        return total;
+    }
+
+    long media() {
+        long cantidad = cantidad();
+        return cantidad == 0 ? 0 : suma.sum() / cantidad;
+    }
+
+    long maximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Duración por debajo de la cual queda la fracción p de las anotadas
+     * (p entre 0 y 1): el límite superior de su cubeta, sin pasar del máximo.
+     * @return 0 si no hay ninguna.
+     */
+    long percentil(double p) {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) total += copia[i] = cubetas.get(i);
+        if (total == 0) return 0;
+        long rango = Math.max(1, (long) Math.ceil(p * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= rango) return Math.min(limiteSuperior(i), maximo.get());
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Recorre las cubetas con alguna anotación, de la más rápida a la más lenta.
+     */
+    void recorrer(Cubeta destino) {
+        for (int i = 0; i < CUBETAS; i++) {
+            long cantidad = cubetas.get(i);
+            if (cantidad > 0) destino.aceptar(limiteSuperior(i), cantidad);
+        }
+    }
+
+    interface Cubeta {
+        void aceptar(long hastaNs, long cantidad);
+    }
+
+    /** Vuelve a empezar de cero (lo que se anote a la vez puede perderse). */
+    void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) cubetas.set(i, 0);
+        suma.reset();
+        maximo.set(0);
+    }
+
+    // --- CUBETAS ---
+
+    // Las 16 primeras son exactas (0..15 ns); después, potencia de 2 y cuál de sus 16 partes
+    static int cubeta(long ns) {
+        if (ns < SUBCUBETAS) return (int) ns;
+        int exponente = 63 - Long.numberOfLeadingZeros(ns);
+        int parte = (int) (ns >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + parte;
+    }
+
+    // La mayor duración que cae en la cubeta
+    static long limiteSuperior(int cubeta) {
+        if (cubeta < SUBCUBETAS) return cubeta;
+        int exponente = cubeta / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        int parte = cubeta % SUBCUBETAS;
+        int ancho = exponente - BITS_SUBCUBETA;
+        long inicio = (long) (SUBCUBETAS + parte) << ancho;
+        return inicio + (1L << ancho) - 1;
+    }
+}
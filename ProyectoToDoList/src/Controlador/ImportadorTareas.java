@@ -0,0 +1,344 @@
+package Controlador;
+
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Importa tareas desde un archivo CSV o NDJSON (un objeto JSON por línea).
+ *
+ * El archivo se lee como un flujo, fila a fila: en memoria solo están la fila
+ * actual y un lote de borradores, así que da igual que tenga mil líneas o
+ * varios millones. Cada lote se registra de una vez con GestorDatos.registrarLote.
+ *
+ * Cada fila se valida con las mismas reglas que la ventana (título obligatorio,
+ * fecha dd/MM/yyyy de hoy en adelante) y los títulos repetidos se saltan
+ * usando la misma comprobación de nombres del modelo.
+ *
+ * CSV: columnas titulo, descripcion, categoria, fecha. Si la primera fila es
+ * una cabecera con esos nombres, se usa para saber en qué orden vienen. El
+ * separador puede ser coma o punto y coma, y los campos pueden ir entre comillas.
+ *
+ * NDJSON: {"titulo": "...", "descripcion": "...", "categoria": "HOY", "fecha": "dd/MM/yyyy"}
+ *
+ * Solo se importan tareas pendientes. Las filas de tareas ya completadas (la
+ * columna "estado" con "completada", o en NDJSON el campo "completada", como
+ * los escribe ExportadorTareas) se saltan y se cuentan aparte: importar una
+ * exportación no convierte el historial en pendientes nuevas.
+ */
+public class ImportadorTareas {
+
+    // Borradores por lote (un bloqueo y una anotación en el diario cada vez)
+    private static final int TAMANO_LOTE = 2000;
+
+    // Solo se guardan los primeros errores, para no llenar la memoria con un archivo muy malo
+    private static final int MAXIMO_ERRORES = 20;
+
+    /**
+     * Resumen de una importación.
+     */
+    public static final class Resultado {
+        private long leidas;
+        private long creadas;
+        private long repetidas;
+        private long invalidas;
+        private long completadas;
+        private long milisegundos;
+        private final List<String> errores = new ArrayList<>();
+
+        public long getLeidas() {
+            return leidas;
+        }
+
+        public long getCreadas() {
+            return creadas;
+        }
+
+        public long getRepetidas() {
+            return repetidas;
+        }
+
+        public long getInvalidas() {
+            return invalidas;
+        }
+
+        /** Filas de tareas ya completadas (se saltan: solo se importan pendientes). */
+        public long getCompletadas() {
+            return completadas;
+        }
+
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+
+        /** Los primeros errores encontrados ("Línea N: mensaje"). */
+        public List<String> getErrores() {
+            return errores;
+        }
+
+        public double getFilasPorSegundo() {
+            return milisegundos == 0 ? leidas * 1000.0 : leidas * 1000.0 / milisegundos;
+        }
+
+        private void error(long linea, String mensaje) {
+            invalidas++;
+            if (errores.size() < MAXIMO_ERRORES) errores.add("Línea " + linea + ": " + mensaje);
+        }
+    }
+
+    private final GestorDatos modelo;
+
+    public ImportadorTareas(GestorDatos modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Importa el archivo (en UTF-8), eligiendo el formato por su extensión.
+     * @param progreso Recibe cuántas filas se llevan leídas después de cada lote (puede ser null).
+     */
+    public Resultado importar(Path archivo, LongConsumer progreso) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return importar(lector, FormatoArchivo.detectar(archivo), progreso);
+        }
+    }
+
+    public Resultado importar(Reader origen, FormatoArchivo formato, LongConsumer progreso) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader lector = origen instanceof BufferedReader ? (BufferedReader) origen : new BufferedReader(origen);
+        Resultado resultado = new Resultado();
+        List<Tarea> lote = new ArrayList<>(TAMANO_LOTE);
+
+        if (formato == FormatoArchivo.NDJSON) {
+            leerNdjson(lector, resultado, lote, progreso);
+        } else {
+            leerCsv(lector, resultado, lote, progreso);
+        }
+        registrar(lote, resultado, progreso);
+
+        resultado.milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return resultado;
+    }
+
+    // Registra el lote acumulado y lo deja vacío
+    private void registrar(List<Tarea> lote, Resultado resultado, LongConsumer progreso) {
+        if (lote.isEmpty()) return;
+        int creadas = modelo.registrarLote(lote);
+        resultado.creadas += creadas;
+        resultado.repetidas += lote.size() - creadas;
+        lote.clear();
+        if (progreso != null) progreso.accept(resultado.leidas);
+    }
+
+    private void agregar(Tarea borrador, List<Tarea> lote, Resultado resultado, LongConsumer progreso) {
+        lote.add(borrador);
+        if (lote.size() >= TAMANO_LOTE) registrar(lote, resultado, progreso);
+    }
+
+    // --- NDJSON ---
+
+    private void leerNdjson(BufferedReader lector, Resultado resultado, List<Tarea> lote,
+                            LongConsumer progreso) throws IOException {
+        String linea;
+        long numero = 0;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            // La marca BOM que algunos editores ponen al principio del archivo
+            if (numero == 1 && linea.startsWith("\uFEFF")) linea = linea.substring(1);
+            if (linea.isBlank()) continue;
+            resultado.leidas++;
+            try {
+                Object valor = Json.leer(linea);
+                if (!(valor instanceof Map)) throw new IllegalArgumentException("Se esperaba un objeto JSON");
+                Map<?, ?> objeto = (Map<?, ?>) valor;
+                if (objeto.get("completada") != null || esCompletada(objeto.get("estado"))) {
+                    resultado.completadas++;
+                    continue;
+                }
+                agregar(ServidorTareas.borrador(objeto), lote, resultado, progreso);
+            } catch (IllegalArgumentException e) {
+                resultado.error(numero, e.getMessage());
+            }
+        }
+    }
+
+    // --- CSV ---
+
+    private void leerCsv(BufferedReader lector, Resultado resultado, List<Tarea> lote,
+                         LongConsumer progreso) throws IOException {
+        LectorCsv csv = new LectorCsv(lector);
+        // Posición de cada columna: título, descripción, categoría, fecha, estado
+        int[] columnas = { 0, 1, 2, 3, 4 };
+        List<String> fila = csv.siguiente();
+        if (fila != null && esCabecera(fila)) {
+            columnas = columnasDeCabecera(fila);
+            fila = csv.siguiente();
+        }
+        while (fila != null) {
+            if (csv.getError() != null) {
+                resultado.leidas++;
+                resultado.error(csv.getLineaInicio(), csv.getError());
+            } else if (!(fila.size() == 1 && fila.get(0).isBlank())) {
+                resultado.leidas++;
+                if (esCompletada(campo(fila, columnas[4]))) {
+                    resultado.completadas++;
+                } else {
+                    try {
+                        agregar(CamposTarea.borrador(campo(fila, columnas[0]), campo(fila, columnas[1]),
+                                campo(fila, columnas[2]), campo(fila, columnas[3])), lote, resultado, progreso);
+                    } catch (IllegalArgumentException e) {
+                        resultado.error(csv.getLineaInicio(), e.getMessage());
+                    }
+                }
+            }
+            fila = csv.siguiente();
+        }
+    }
+
+    private static String campo(List<String> fila, int columna) {
+        return columna >= 0 && columna < fila.size() ? fila.get(columna) : null;
+    }
+
+    // El estado que escribe ExportadorTareas para las tareas del historial
+    private static boolean esCompletada(Object estado) {
+        if (!(estado instanceof String)) return false;
+        String valor = ((String) estado).trim();
+        return "completada".equalsIgnoreCase(valor) || "completed".equalsIgnoreCase(valor);
+    }
+
+    private static boolean esCabecera(List<String> fila) {
+        return columnasDeCabecera(fila)[0] >= 0;
+    }
+
+    private static int[] columnasDeCabecera(List<String> fila) {
+        int[] columnas = { -1, -1, -1, -1, -1 };
+        for (int i = 0; i < fila.size(); i++) {
+            String nombre = fila.get(i).trim().toLowerCase(Locale.ROOT)
+                    .replace('í', 'i').replace('ó', 'o'); // título, descripción
+            switch (nombre) {
+                case "titulo": case "title": columnas[0] = i; break;
+                case "descripcion": case "description": columnas[1] = i; break;
+                case "categoria": case "category": columnas[2] = i; break;
+                case "fecha": case "vencimiento": case "due": columnas[3] = i; break;
+                case "estado": case "status": columnas[4] = i; break;
+                default: break;
+            }
+        }
+        return columnas;
+    }
+
+    /**
+     * Lector de CSV en flujo: devuelve una fila cada vez, reutilizando la misma
+     * lista y el mismo StringBuilder. Admite comillas dobles ("a, b"), comillas
+     * escapadas ("") y saltos de línea dentro de un campo entre comillas.
+     *
+     * Ningún campo puede pasar de MAXIMO_CAMPO caracteres: una comilla sin cerrar
+     * haría que el resto del archivo (quizá gigas) acabara en un solo campo.
+     * Al llegar al límite la fila se da por mala (con la línea donde empezaba)
+     * y se sigue leyendo desde la línea siguiente.
+     */
+    private static final class LectorCsv {
+        // Ningún campo válido es más largo que una descripción
+        private static final int MAXIMO_CAMPO = Tarea.MAXIMO_DESCRIPCION;
+
+        private final BufferedReader lector;
+        private final List<String> fila = new ArrayList<>();
+        private final StringBuilder campo = new StringBuilder();
+        private char separador;
+        private long linea = 1;
+        private long lineaInicio;
+        private boolean fin;
+        private String error;
+
+        LectorCsv(BufferedReader lector) throws IOException {
+            this.lector = lector;
+            this.separador = detectarSeparador(lector);
+        }
+
+        // Mira la primera línea sin consumirla: si tiene ';' y ninguna ',' se usa ';'
+        private static char detectarSeparador(BufferedReader lector) throws IOException {
+            lector.mark(64 * 1024);
+            int comas = 0;
+            int puntoYComa = 0;
+            for (int i = 0, c; i < 64 * 1024 && (c = lector.read()) != -1 && c != '\n'; i++) {
+                if (c == ',') comas++;
+                else if (c == ';') puntoYComa++;
+            }
+            lector.reset();
+            return puntoYComa > 0 && comas == 0 ? ';' : ',';
+        }
+
+        /** Línea del archivo donde empezaba la última fila leída (para los mensajes de error). */
+        long getLineaInicio() {
+            return lineaInicio;
+        }
+
+        /** Por qué la última fila leída no vale (null si está bien). */
+        String getError() {
+            return error;
+        }
+
+        /** @return La siguiente fila (la lista se reutiliza en la próxima llamada), o null al final. */
+        List<String> siguiente() throws IOException {
+            if (fin) return null;
+            fila.clear();
+            campo.setLength(0);
+            error = null;
+            lineaInicio = linea;
+            boolean entreComillas = false;
+            boolean leyoAlgo = false;
+            int c;
+            while ((c = lector.read()) != -1) {
+                leyoAlgo = true;
+                if (campo.length() >= MAXIMO_CAMPO) {
+                    error = entreComillas
+                            ? "Comillas sin cerrar (el campo pasa de " + MAXIMO_CAMPO + " caracteres)"
+                            : "Campo de más de " + MAXIMO_CAMPO + " caracteres";
+                    // Lo que queda de esta línea se descarta: la siguiente fila empieza en la próxima
+                    while (c != '\n' && c != -1) c = lector.read();
+                    if (c == '\n') linea++;
+                    break;
+                }
+                if (entreComillas) {
+                    if (c == '"') {
+                        lector.mark(1);
+                        if (lector.read() == '"') {
+                            campo.append('"'); // "" dentro de comillas = una comilla
+                        } else {
+                            lector.reset();
+                            entreComillas = false;
+                        }
+                    } else {
+                        if (c == '\n') linea++;
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreComillas = true;
+                } else if (c == separador) {
+                    fila.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n') {
+                    linea++;
+                    break;
+                } else if (c != '\r' && !(c == '\uFEFF' && linea == 1 && fila.isEmpty() && campo.length() == 0)) {
+                    campo.append((char) c); // (la marca BOM del principio de algunos archivos se ignora)
+                }
+            }
+            if (c == -1) {
+                fin = true;
+                if (!leyoAlgo) return null;
+            }
+            fila.add(campo.toString());
+            return fila;
+        }
+    }
+}
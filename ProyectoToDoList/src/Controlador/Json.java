@@ -0,0 +1,208 @@
+package Controlador;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lector y escritor de JSON mínimo (sin librerías externas).
+ *
+ * Al leer, los objetos se convierten en Map, los arrays en List, los textos
+ * en String, los números en Long (o Double si tienen decimales), true/false
+ * en Boolean y null en null.
+ *
+ * Al escribir solo hace falta escapar bien los textos; el resto del JSON lo
+ * arma quien llama con un StringBuilder.
+ */
+final class Json {
+
+    private final String texto;
+    private int pos;
+
+    private Json(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Convierte un texto JSON en objetos de Java.
+     * @throws IllegalArgumentException si el JSON no es válido.
+     */
+    static Object leer(String texto) {
+        Json lector = new Json(texto);
+        lector.saltarEspacios();
+        Object valor = lector.valor();
+        lector.saltarEspacios();
+        if (lector.pos != texto.length()) throw lector.error("Sobra texto al final");
+        return valor;
+    }
+
+    // --- LECTURA ---
+
+    private Object valor() {
+        if (pos >= texto.length()) throw error("Falta un valor");
+        char c = texto.charAt(pos);
+        switch (c) {
+            case '{': return objeto();
+            case '[': return array();
+            case '"': return cadena();
+            case 't': palabra("true"); return Boolean.TRUE;
+            case 'f': palabra("false"); return Boolean.FALSE;
+            case 'n': palabra("null"); return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return numero();
+                throw error("Carácter inesperado '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> objeto() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        pos++; // {
+        saltarEspacios();
+        if (consumir('}')) return mapa;
+        while (true) {
+            saltarEspacios();
+            if (pos >= texto.length() || texto.charAt(pos) != '"') throw error("Se esperaba el nombre de un campo");
+            String clave = cadena();
+            saltarEspacios();
+            if (!consumir(':')) throw error("Se esperaba ':'");
+            saltarEspacios();
+            mapa.put(clave, valor());
+            saltarEspacios();
+            if (consumir('}')) return mapa;
+            if (!consumir(',')) throw error("Se esperaba ',' o '}'");
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> lista = new ArrayList<>();
+        pos++; // [
+        saltarEspacios();
+        if (consumir(']')) return lista;
+        while (true) {
+            saltarEspacios();
+            lista.add(valor());
+            saltarEspacios();
+            if (consumir(']')) return lista;
+            if (!consumir(',')) throw error("Se esperaba ',' o ']'");
+        }
+    }
+
+    private String cadena() {
+        pos++; // "
+        StringBuilder sb = null;
+        int inicio = pos;
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c == '"') {
+                String resultado = sb == null ? texto.substring(inicio, pos) : sb.append(texto, inicio, pos).toString();
+                pos++;
+                return resultado;
+            }
+            if (c == '\\') {
+                if (sb == null) sb = new StringBuilder();
+                sb.append(texto, inicio, pos);
+                if (++pos >= texto.length()) break;
+                char e = texto.charAt(pos++);
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > texto.length()) throw error("Escape \\u incompleto");
+                        try {
+                            sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Escape \\u inválido");
+                        }
+                        pos += 4;
+                        break;
+                    default: throw error("Escape desconocido \\" + e);
+                }
+                inicio = pos;
+            } else {
+                if (c < 0x20) throw error("Carácter de control dentro de un texto");
+                pos++;
+            }
+        }
+        throw error("Texto sin cerrar");
+    }
+
+    private Object numero() {
+        int inicio = pos;
+        boolean decimal = false;
+        if (texto.charAt(pos) == '-') pos++;
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                pos++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                decimal = true;
+                pos++;
+            } else {
+                break;
+            }
+        }
+        String numero = texto.substring(inicio, pos);
+        try {
+            return decimal ? (Object) Double.parseDouble(numero) : (Object) Long.parseLong(numero);
+        } catch (NumberFormatException e) {
+            throw error("Número inválido: " + numero);
+        }
+    }
+
+    private void palabra(String esperada) {
+        if (!texto.startsWith(esperada, pos)) throw error("Se esperaba " + esperada);
+        pos += esperada.length();
+    }
+
+    private boolean consumir(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void saltarEspacios() {
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String mensaje) {
+        return new IllegalArgumentException("JSON inválido (posición " + pos + "): " + mensaje);
+    }
+
+    // --- ESCRITURA ---
+
+    /** Añade el texto entre comillas y con los caracteres especiales escapados (o null). */
+    static StringBuilder cadena(StringBuilder sb, String valor) {
+        if (valor == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+}
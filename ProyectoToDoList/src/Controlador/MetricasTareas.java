@@ -0,0 +1,224 @@
+package Controlador;
+
+import Modelo.GestorDatos;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latencias de los botones de la ventana y tamaño del modelo.
+ *
+ * El controlador anota cuánto tardó cada acción (BTN_CREAR, BTN_COMPLETAR,
+ * BTN_ELIMINAR, BTN_LIMPIAR) en su HistogramaLatencias, sin bloqueos y sin
+ * crear objetos, así que medir no frena los botones. Las métricas se leen por
+ * JMX (ver MetricasTareasMXBean) y se pueden guardar en un archivo JSON al
+ * salir: en el de la propiedad "todolist.metricas.archivo", o si no en
+ * metricas.json dentro de la carpeta de datos.
+ */
+public final class MetricasTareas implements MetricasTareasMXBean {
+
+    private static final Logger logger = Logger.getLogger(MetricasTareas.class.getName());
+
+    static final String NOMBRE_JMX = "ProyectoToDoList:type=MetricasTareas";
+
+    // Los comandos que se miden, en el orden del volcado
+    static final String[] COMANDOS = {"BTN_CREAR", "BTN_COMPLETAR", "BTN_ELIMINAR", "BTN_LIMPIAR"};
+
+    /**
+     * Resumen de un histograma para JMX (se ve como un dato compuesto en jconsole).
+     * Los tiempos van en microsegundos.
+     */
+    public static final class Latencias {
+        private final long cantidad;
+        private final long mediaMicros;
+        private final long p50Micros;
+        private final long p90Micros;
+        private final long p99Micros;
+        private final long p999Micros;
+        private final long maximoMicros;
+
+        private Latencias(HistogramaLatencias h) {
+            this.cantidad = h.cantidad();
+            this.mediaMicros = h.media() / 1000;
+            this.p50Micros = h.percentil(0.50) / 1000;
+            this.p90Micros = h.percentil(0.90) / 1000;
+            this.p99Micros = h.percentil(0.99) / 1000;
+            this.p999Micros = h.percentil(0.999) / 1000;
+            this.maximoMicros = h.maximo() / 1000;
+        }
+
+        public long getCantidad() {
+            return cantidad;
+        }
+
+        public long getMediaMicros() {
+            return mediaMicros;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP90Micros() {
+            return p90Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getP999Micros() {
+            return p999Micros;
+        }
+
+        public long getMaximoMicros() {
+            return maximoMicros;
+        }
+    }
+
+    private final GestorDatos modelo;
+
+    // Un histograma por comando. El mapa no cambia después del constructor: se lee sin bloqueos
+    private final Map<String, HistogramaLatencias> porComando = new LinkedHashMap<>();
+
+    public MetricasTareas(GestorDatos modelo) {
+        this.modelo = modelo;
+        for (String comando : COMANDOS) porComando.put(comando, new HistogramaLatencias());
+    }
+
+    /**
+     * Anota cuánto tardó un comando. Los que no se miden se ignoran.
+     */
+    public void anotar(String comando, long ns) {
+        HistogramaLatencias histograma = porComando.get(comando);
+        if (histograma != null) histograma.anotar(ns);
+    }
+
+    // --- JMX ---
+
+    /**
+     * Publica las métricas en el servidor de MBeans de la plataforma (el que
+     * ve jconsole). Si ya había unas publicadas, se sustituyen.
+     */
+    public void registrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (servidor.isRegistered(nombre)) servidor.unregisterMBean(nombre);
+            servidor.registerMBean(this, nombre);
+        } catch (JMException e) {
+            // Sin JMX el programa funciona igual: solo no se pueden consultar las métricas
+            logger.log(Level.WARNING, "No se pudieron publicar las métricas por JMX", e);
+        }
+    }
+
+    @Override
+    public Latencias getCrear() {
+        return latencias("BTN_CREAR");
+    }
+
+    @Override
+    public Latencias getCompletar() {
+        return latencias("BTN_COMPLETAR");
+    }
+
+    @Override
+    public Latencias getEliminar() {
+        return latencias("BTN_ELIMINAR");
+    }
+
+    @Override
+    public Latencias getLimpiar() {
+        return latencias("BTN_LIMPIAR");
+    }
+
+    @Override
+    public int getPendientes() {
+        return modelo.cantidadPendientes();
+    }
+
+    @Override
+    public int getCompletadas() {
+        return modelo.cantidadCompletadas();
+    }
+
+    @Override
+    public long getBytesDeshacer() {
+        return modelo.getBytesDeshacer();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (HistogramaLatencias h : porComando.values()) h.reiniciar();
+    }
+
+    private Latencias latencias(String comando) {
+        return new Latencias(porComando.get(comando));
+    }
+
+    // --- VOLCADO A ARCHIVO ---
+
+    /** Archivo del volcado al salir: "todolist.metricas.archivo" o metricas.json en la carpeta de datos. */
+    public static Path archivoPorDefecto() {
+        String configurado = System.getProperty("todolist.metricas.archivo");
+        if (configurado != null && !configurado.isBlank()) return Paths.get(configurado);
+        return GestorDatos.directorioPorDefecto().resolve("metricas.json");
+    }
+
+    @Override
+    public String volcar(String archivo) throws IOException {
+        Path destino = Paths.get(archivo).toAbsolutePath();
+        volcar(destino);
+        return destino.toString();
+    }
+
+    /**
+     * Escribe las métricas en JSON: tamaño del modelo y, por comando, el resumen
+     * en microsegundos y las cubetas con datos ([hasta ns, cantidad]) para
+     * poder rehacer cualquier percentil después.
+     */
+    public void volcar(Path archivo) throws IOException {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\n  \"fecha\": ");
+        Json.cadena(sb, Instant.now().toString());
+        sb.append(",\n  \"pendientes\": ").append(getPendientes());
+        sb.append(",\n  \"completadas\": ").append(getCompletadas());
+        sb.append(",\n  \"bytesDeshacer\": ").append(getBytesDeshacer());
+        sb.append(",\n  \"comandos\": {");
+        boolean primero = true;
+        for (Map.Entry<String, HistogramaLatencias> e : porComando.entrySet()) {
+            HistogramaLatencias h = e.getValue();
+            Latencias l = new Latencias(h);
+            sb.append(primero ? "\n    " : ",\n    ");
+            primero = false;
+            Json.cadena(sb, e.getKey()).append(": {\"cantidad\": ").append(l.getCantidad())
+                    .append(", \"mediaUs\": ").append(l.getMediaMicros())
+                    .append(", \"p50Us\": ").append(l.getP50Micros())
+                    .append(", \"p90Us\": ").append(l.getP90Micros())
+                    .append(", \"p99Us\": ").append(l.getP99Micros())
+                    .append(", \"p999Us\": ").append(l.getP999Micros())
+                    .append(", \"maxUs\": ").append(l.getMaximoMicros())
+                    .append(", \"cubetas\": [");
+            int[] n = {0};
+            h.recorrer((hastaNs, cantidad) -> sb.append(n[0]++ == 0 ? "" : ", ")
+                    .append('[').append(hastaNs).append(", ").append(cantidad).append(']'));
+            sb.append("]}");
+        }
+        sb.append("\n  }\n}\n");
+
+        Path carpeta = archivo.toAbsolutePath().getParent();
+        if (carpeta != null) Files.createDirectories(carpeta);
+        Files.writeString(archivo, sb, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package Controlador;
+
+/**
+ * Lo que MetricasTareas publica por JMX (jconsole, VisualVM...), con el
+ * nombre "ProyectoToDoList:type=MetricasTareas".
+ *
+ * Cada botón tiene su resumen de latencias (en microsegundos, desde que se
+ * pulsa hasta que las listas ya están actualizadas, sin contar el tiempo que
+ * el usuario tarda en contestar una confirmación) y hay tres medidores del
+ * tamaño del modelo.
+ */
+public interface MetricasTareasMXBean {
+
+    /** Botón "Crear" (BTN_CREAR). */
+    MetricasTareas.Latencias getCrear();
+
+    /** Botón "Completar" (BTN_COMPLETAR). */
+    MetricasTareas.Latencias getCompletar();
+
+    /** Botón "Eliminar" (BTN_ELIMINAR). */
+    MetricasTareas.Latencias getEliminar();
+
+    /** Botón "Limpiar Historial" (BTN_LIMPIAR). */
+    MetricasTareas.Latencias getLimpiar();
+
+    int getPendientes();
+
+    int getCompletadas();
+
+    /** Bytes (aproximados) que ocupa lo que se puede deshacer y rehacer. */
+    long getBytesDeshacer();
+
+    /** Pone a cero todas las latencias. */
+    void reiniciar();
+
+    /**
+     * Escribe todas las métricas en un archivo JSON.
+     * @return La ruta completa del archivo escrito.
+     */
+    String volcar(String archivo) throws java.io.IOException;
+}
@@ -0,0 +1,106 @@
+package Controlador;
+
+import Modelo.Tarea;
+
+/**
+ * Lo que pasó al ejecutar una operación de FlujoTareas (crear, completar,
+ * eliminar o vaciar el historial).
+ *
+ * No depende de Swing: la ventana lo usa para actualizar sus listas o mostrar
+ * el mensaje, y un proceso sin pantalla solo para saber si salió bien.
+ */
+public final class ResultadoOperacion {
+
+    /** Qué operación se pidió. */
+    public enum Operacion {
+        CREAR, COMPLETAR, ELIMINAR, VACIAR_HISTORIAL
+    }
+
+    /** Cómo terminó. */
+    public enum Estado {
+        /** Hecha: el GestorDatos ya tiene el cambio. */
+        HECHA,
+        /** Algún campo no es válido (el mensaje dice cuál). */
+        DATOS_NO_VALIDOS,
+        /** Ya hay una tarea pendiente con ese nombre. */
+        REPETIDA,
+        /** No había ninguna tarea elegida. */
+        SIN_SELECCION,
+        /** Se contestó que no a la confirmación. */
+        CANCELADA,
+        /** No había nada que hacer (la tarea ya no estaba pendiente, el historial estaba vacío...). */
+        SIN_CAMBIOS
+    }
+
+    private final Operacion operacion;
+    private final Estado estado;
+    private final String mensaje;
+    private final Tarea tarea;
+    private final int posicion;
+    private final int cantidad;
+
+    private ResultadoOperacion(Operacion operacion, Estado estado, String mensaje, Tarea tarea, int posicion, int cantidad) {
+        this.operacion = operacion;
+        this.estado = estado;
+        this.mensaje = mensaje;
+        this.tarea = tarea;
+        this.posicion = posicion;
+        this.cantidad = cantidad;
+    }
+
+    // --- CREACIÓN (solo desde FlujoTareas) ---
+
+    static ResultadoOperacion hecha(Operacion operacion, Tarea tarea, int posicion) {
+        return new ResultadoOperacion(operacion, Estado.HECHA, null, tarea, posicion, 1);
+    }
+
+    static ResultadoOperacion historialVaciado(int cantidad) {
+        return new ResultadoOperacion(Operacion.VACIAR_HISTORIAL, Estado.HECHA, null, null, -1, cantidad);
+    }
+
+    static ResultadoOperacion fallida(Operacion operacion, Estado estado, String mensaje) {
+        return new ResultadoOperacion(operacion, estado, mensaje, null, -1, 0);
+    }
+
+    // --- MÉTODOS GETTER ---
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public boolean isHecha() {
+        return estado == Estado.HECHA;
+    }
+
+    /** Mensaje para el usuario cuando no se pudo hacer ("Selecciona una tarea."...), o null. */
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    /** La tarea creada, completada (ya con su fecha de completado) o eliminada; null en los demás casos. */
+    public Tarea getTarea() {
+        return tarea;
+    }
+
+    /**
+     * Fila de la lista de pendientes: donde quedó la tarea creada, o donde
+     * estaba la completada o eliminada. -1 si no aplica.
+     */
+    public int getPosicion() {
+        return posicion;
+    }
+
+    /** Cuántas tareas cambiaron (al vaciar el historial, las que se borraron). */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    @Override
+    public String toString() {
+        return operacion + " " + estado + (mensaje != null ? ": " + mensaje : "");
+    }
+}
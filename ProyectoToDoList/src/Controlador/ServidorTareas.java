@@ -0,0 +1,512 @@
+package Controlador;
+
+import Modelo.Fechas;
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * API HTTP local para manejar las tareas sin la ventana (scripts, otras herramientas...).
+ *
+ * Usa el servidor que trae el propio JDK (com.sun.net.httpserver) y atiende
+ * cada petición en su propio hilo virtual, así miles de peticiones a la vez
+ * no necesitan miles de hilos del sistema. Solo escucha en 127.0.0.1: no es
+ * accesible desde otros equipos.
+ *
+ * Se activa arrancando el programa con -Dtodolist.api.puerto=8080 (por ejemplo).
+ *
+ * Rutas (todas con JSON en UTF-8):
+ *   GET    /api/tareas?desde=0&cantidad=100   pendientes en orden, por páginas
+ *   POST   /api/tareas                        crea una tarea {titulo, descripcion, categoria, fecha}
+ *   POST   /api/tareas/lote                   crea varias: [ {...}, {...} ]
+ *   GET    /api/tareas/{id}                   una tarea pendiente
+ *   DELETE /api/tareas/{id}                   elimina una pendiente
+ *   POST   /api/tareas/{id}/completar         completa una pendiente
+ *   POST   /api/tareas/completar              completa varias: [id, id, ...]
+ *   POST   /api/tareas/eliminar               elimina varias: [id, id, ...]
+ *   GET    /api/completadas?desde=0&cantidad=100  historial, de la más reciente a la más antigua
+ *   DELETE /api/completadas                   vacía el historial
+ *
+ * Las reglas son las mismas que en la ventana: el título es obligatorio, no
+ * puede repetirse entre las pendientes y la fecha va en dd/MM/yyyy, hoy o futura.
+ *
+ * Escuchar solo en 127.0.0.1 no basta contra las páginas web abiertas en el
+ * navegador, que también pueden mandar peticiones a 127.0.0.1 (CSRF). Por eso
+ * los POST tienen que llevar "Content-Type: application/json" (un formulario
+ * HTML no puede ponerlo sin permiso del servidor) y se rechaza cualquier
+ * petición con una cabecera Origin que no sea la de la propia API.
+ */
+public class ServidorTareas {
+
+    private static final Logger logger = Logger.getLogger(ServidorTareas.class.getName());
+
+    /** Propiedad del sistema con el puerto de la API (si no está, la API no se arranca). */
+    public static final String PROPIEDAD_PUERTO = "todolist.api.puerto";
+
+    // Límites para que una petición no pueda agotar la memoria
+    private static final int MAXIMO_CUERPO = 16 * 1024 * 1024;
+    private static final int MAXIMO_PAGINA = 10_000;
+
+    static {
+        // Sin TCP_NODELAY, la cabecera y el cuerpo de la respuesta salen en dos paquetes y el
+        // segundo espera al ACK retardado del cliente: unos 40 ms por petición en vez de menos de 1 ms.
+        // El servidor del JDK solo lo activa con esta propiedad, que lee al crear el primer servidor.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final GestorDatos modelo;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    /**
+     * Prepara el servidor en 127.0.0.1 y el puerto indicado (0 = uno libre cualquiera).
+     * Todavía no atiende peticiones: hay que llamar a iniciar().
+     */
+    public ServidorTareas(GestorDatos modelo, int puerto) throws IOException {
+        this.modelo = modelo;
+        this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor.setExecutor(hilos);
+        this.servidor.createContext("/api/", this::atender);
+    }
+
+    /**
+     * Crea y arranca el servidor si se configuró la propiedad "todolist.api.puerto".
+     * @return El servidor ya en marcha, o null si la API no está activada.
+     */
+    public static ServidorTareas desdePropiedades(GestorDatos modelo) throws IOException {
+        Integer puerto = Integer.getInteger(PROPIEDAD_PUERTO);
+        if (puerto == null) return null;
+        ServidorTareas api = new ServidorTareas(modelo, puerto);
+        api.iniciar();
+        logger.info("API de tareas escuchando en http://127.0.0.1:" + api.getPuerto() + "/api/");
+        return api;
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /** Deja de aceptar peticiones y espera (hasta un segundo) a que terminen las que están en curso. */
+    public void detener() {
+        servidor.stop(1);
+        hilos.shutdown();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    // --- ENRUTADO ---
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            Respuesta respuesta;
+            try {
+                Respuesta rechazo = comprobarPeticion(intercambio);
+                respuesta = rechazo != null ? rechazo : enrutar(intercambio);
+            } catch (CuerpoDemasiadoGrande e) {
+                respuesta = Respuesta.error(413, "El cuerpo de la petición es demasiado grande");
+            } catch (IllegalArgumentException e) {
+                respuesta = Respuesta.error(400, e.getMessage());
+            } catch (UncheckedIOException e) {
+                logger.log(Level.SEVERE, "Error guardando desde la API", e);
+                respuesta = Respuesta.error(500, "No se pudo guardar el cambio");
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Error inesperado en la API", e);
+                respuesta = Respuesta.error(500, "Error interno");
+            }
+            enviar(intercambio, respuesta);
+        }
+    }
+
+    /**
+     * Rechaza lo que podría venir de una página web en vez de un programa (ver la
+     * explicación de la clase). Los navegadores siempre mandan Origin en los POST
+     * de otra página; los scripts y las herramientas normalmente no lo mandan.
+     * @return La respuesta de error, o null si la petición se puede atender.
+     */
+    private Respuesta comprobarPeticion(HttpExchange intercambio) {
+        String origen = intercambio.getRequestHeaders().getFirst("Origin");
+        if (origen != null && !origenesPermitidos().contains(origen.toLowerCase(Locale.ROOT))) {
+            logger.warning("Petición rechazada desde el origen " + origen);
+            return Respuesta.error(403, "Origen no permitido: " + origen);
+        }
+        if ("POST".equals(intercambio.getRequestMethod())) {
+            String tipo = intercambio.getRequestHeaders().getFirst("Content-Type");
+            // Sin los parámetros (charset=...)
+            String base = tipo == null ? "" : tipo.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            if (!"application/json".equals(base)) {
+                return Respuesta.error(415, "Los POST deben llevar Content-Type: application/json");
+            }
+        }
+        return null;
+    }
+
+    // Las direcciones con las que un navegador podría estar usando la propia API
+    private Set<String> origenesPermitidos() {
+        int puerto = getPuerto();
+        return Set.of("http://127.0.0.1:" + puerto, "http://localhost:" + puerto, "http://[::1]:" + puerto);
+    }
+
+    private Respuesta enrutar(HttpExchange intercambio) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        String ruta = intercambio.getRequestURI().getPath();
+        if (ruta.endsWith("/") && ruta.length() > 1) ruta = ruta.substring(0, ruta.length() - 1);
+        String[] partes = ruta.split("/"); // "", "api", recurso, ...
+
+        if (partes.length < 3) return Respuesta.error(404, "Ruta desconocida");
+        String recurso = partes[2];
+
+        if ("tareas".equals(recurso)) {
+            if (partes.length == 3) {
+                if ("GET".equals(metodo)) return listarPendientes(intercambio);
+                if ("POST".equals(metodo)) return crear(Json.leer(leerCuerpo(intercambio)));
+                return Respuesta.metodoNoPermitido();
+            }
+            String segundo = partes[3];
+            if (partes.length == 4 && "lote".equals(segundo)) {
+                return "POST".equals(metodo) ? crearLote(Json.leer(leerCuerpo(intercambio))) : Respuesta.metodoNoPermitido();
+            }
+            if (partes.length == 4 && "completar".equals(segundo)) {
+                return "POST".equals(metodo) ? completarLote(Json.leer(leerCuerpo(intercambio))) : Respuesta.metodoNoPermitido();
+            }
+            if (partes.length == 4 && "eliminar".equals(segundo)) {
+                return "POST".equals(metodo) ? eliminarLote(Json.leer(leerCuerpo(intercambio))) : Respuesta.metodoNoPermitido();
+            }
+            long id = leerId(segundo);
+            if (partes.length == 4) {
+                if ("GET".equals(metodo)) return obtener(id);
+                if ("DELETE".equals(metodo)) return eliminar(id);
+                return Respuesta.metodoNoPermitido();
+            }
+            if (partes.length == 5 && "completar".equals(partes[4])) {
+                return "POST".equals(metodo) ? completar(id) : Respuesta.metodoNoPermitido();
+            }
+        } else if ("completadas".equals(recurso) && partes.length == 3) {
+            if ("GET".equals(metodo)) return listarCompletadas(intercambio);
+            if ("DELETE".equals(metodo)) {
+                modelo.vaciarCompletadas();
+                return Respuesta.sinContenido();
+            }
+            return Respuesta.metodoNoPermitido();
+        }
+        return Respuesta.error(404, "Ruta desconocida");
+    }
+
+    // --- OPERACIONES ---
+
+    private Respuesta listarPendientes(HttpExchange intercambio) {
+        Map<String, String> parametros = leerParametros(intercambio);
+        int desde = leerEntero(parametros, "desde", 0);
+        int cantidad = Math.min(leerEntero(parametros, "cantidad", 100), MAXIMO_PAGINA);
+
+        List<Tarea> pagina = new ArrayList<>(Math.min(cantidad, 1024));
+        // La página entera (y el total) con un solo bloqueo, sin copiar toda la lista
+        int total = modelo.copiarPendientes(desde, cantidad, pagina);
+        StringBuilder sb = new StringBuilder(128 + pagina.size() * 128);
+        sb.append("{\"total\":").append(total).append(",\"desde\":").append(desde).append(",\"tareas\":");
+        tareas(sb, pagina);
+        return Respuesta.ok(sb.append('}'));
+    }
+
+    private Respuesta listarCompletadas(HttpExchange intercambio) {
+        Map<String, String> parametros = leerParametros(intercambio);
+        int desde = leerEntero(parametros, "desde", 0);
+        int cantidad = Math.min(leerEntero(parametros, "cantidad", 100), MAXIMO_PAGINA);
+
+        List<Tarea> pagina = new ArrayList<>();
+        int total = modelo.cantidadCompletadas();
+        for (int i = desde; i < Math.min(total, desde + cantidad); i++) {
+            try {
+                pagina.add(modelo.obtenerCompletada(i));
+            } catch (IndexOutOfBoundsException e) {
+                break;
+            }
+        }
+        StringBuilder sb = new StringBuilder(128 + pagina.size() * 128);
+        sb.append("{\"total\":").append(total).append(",\"desde\":").append(desde).append(",\"tareas\":");
+        tareas(sb, pagina);
+        return Respuesta.ok(sb.append('}'));
+    }
+
+    private Respuesta obtener(long id) {
+        Tarea tarea = modelo.obtenerTarea(id);
+        if (tarea == null) return Respuesta.error(404, "No hay ninguna tarea pendiente con id " + id);
+        return Respuesta.ok(tarea(new StringBuilder(), tarea));
+    }
+
+    private Respuesta crear(Object cuerpo) {
+        if (!(cuerpo instanceof Map)) throw new IllegalArgumentException("Se esperaba un objeto JSON");
+        Tarea nueva = registrar((Map<?, ?>) cuerpo);
+        if (nueva == null) return Respuesta.error(409, "¡Esa tarea ya existe!");
+        return new Respuesta(201, tarea(new StringBuilder(), nueva));
+    }
+
+    /**
+     * Crea varias tareas. Cada una se valida por separado: las que fallan no
+     * impiden que se creen las demás. Las válidas se registran de una vez con
+     * GestorDatos.registrarLote (un bloqueo y una anotación en el diario).
+     * Responde con las creadas y, por posición en el array, las repetidas y las
+     * que tenían errores.
+     */
+    private Respuesta crearLote(Object cuerpo) {
+        if (!(cuerpo instanceof List)) throw new IllegalArgumentException("Se esperaba un array JSON");
+        List<?> elementos = (List<?>) cuerpo;
+        List<Tarea> borradores = new ArrayList<>(elementos.size());
+        List<Integer> indices = new ArrayList<>(elementos.size()); // Posición en el array de cada borrador
+        StringBuilder errores = new StringBuilder("[");
+
+        // 1. Validamos todos
+        for (int i = 0; i < elementos.size(); i++) {
+            Object elemento = elementos.get(i);
+            try {
+                if (!(elemento instanceof Map)) throw new IllegalArgumentException("Se esperaba un objeto JSON");
+                borradores.add(borrador((Map<?, ?>) elemento));
+                indices.add(i);
+            } catch (IllegalArgumentException e) {
+                if (errores.length() > 1) errores.append(',');
+                errores.append("{\"indice\":").append(i).append(",\"error\":");
+                Json.cadena(errores, e.getMessage()).append('}');
+            }
+        }
+
+        // 2. Registramos los válidos de una vez; null = ya existía (o se repetía en el mismo lote)
+        List<Tarea> resultado = new ArrayList<>(borradores.size());
+        if (!borradores.isEmpty()) modelo.registrarLote(borradores, resultado);
+        List<Tarea> creadas = new ArrayList<>(resultado.size());
+        StringBuilder repetidas = new StringBuilder("[");
+        for (int j = 0; j < resultado.size(); j++) {
+            if (resultado.get(j) != null) {
+                creadas.add(resultado.get(j));
+            } else {
+                if (repetidas.length() > 1) repetidas.append(',');
+                repetidas.append(indices.get(j));
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(64 + creadas.size() * 128);
+        sb.append("{\"creadas\":");
+        tareas(sb, creadas);
+        sb.append(",\"repetidas\":").append(repetidas).append(']');
+        sb.append(",\"errores\":").append(errores).append("]}");
+        return Respuesta.ok(sb);
+    }
+
+    private Respuesta completar(long id) {
+        Tarea completada = modelo.completarTarea(id);
+        if (completada == null) return Respuesta.error(404, "No hay ninguna tarea pendiente con id " + id);
+        return Respuesta.ok(tarea(new StringBuilder(), completada));
+    }
+
+    private Respuesta eliminar(long id) {
+        if (modelo.eliminarTareaPendiente(id) == null) {
+            return Respuesta.error(404, "No hay ninguna tarea pendiente con id " + id);
+        }
+        return Respuesta.sinContenido();
+    }
+
+    private Respuesta completarLote(Object cuerpo) {
+        List<Long> ids = leerIds(cuerpo);
+        int hechas = 0;
+        StringBuilder noEncontradas = new StringBuilder("[");
+        for (long id : ids) {
+            if (modelo.completarTarea(id) != null) {
+                hechas++;
+            } else {
+                if (noEncontradas.length() > 1) noEncontradas.append(',');
+                noEncontradas.append(id);
+            }
+        }
+        return Respuesta.ok(new StringBuilder("{\"completadas\":").append(hechas)
+                .append(",\"noEncontradas\":").append(noEncontradas).append("]}"));
+    }
+
+    private Respuesta eliminarLote(Object cuerpo) {
+        List<Long> ids = leerIds(cuerpo);
+        int hechas = 0;
+        StringBuilder noEncontradas = new StringBuilder("[");
+        for (long id : ids) {
+            if (modelo.eliminarTareaPendiente(id) != null) {
+                hechas++;
+            } else {
+                if (noEncontradas.length() > 1) noEncontradas.append(',');
+                noEncontradas.append(id);
+            }
+        }
+        return Respuesta.ok(new StringBuilder("{\"eliminadas\":").append(hechas)
+                .append(",\"noEncontradas\":").append(noEncontradas).append("]}"));
+    }
+
+    /**
+     * Valida los campos (con las mismas reglas que la ventana) y registra la tarea.
+     * @return La tarea creada, o null si ya existía una pendiente con ese título.
+     */
+    private Tarea registrar(Map<?, ?> datos) {
+        Tarea b = borrador(datos);
+        return modelo.registrarSiNueva(b.getTitulo(), b.getDescripcion(), b.getCategoria(), b.getFechaVencimiento());
+    }
+
+    /**
+     * Borrador de tarea a partir de un objeto JSON {titulo, descripcion, categoria, fecha}.
+     * También lo usa el importador de NDJSON.
+     */
+    static Tarea borrador(Map<?, ?> datos) {
+        return CamposTarea.borrador(texto(datos, "titulo"), texto(datos, "descripcion"),
+                texto(datos, "categoria"), texto(datos, "fecha"));
+    }
+
+    // --- JSON DE SALIDA ---
+
+    /** Escribe la tarea como objeto JSON. También lo usa el exportador de NDJSON. */
+    static StringBuilder tarea(StringBuilder sb, Tarea t) {
+        sb.append("{\"id\":").append(t.getId()).append(",\"titulo\":");
+        Json.cadena(sb, t.getTitulo()).append(",\"descripcion\":");
+        Json.cadena(sb, t.getDescripcion()).append(",\"categoria\":\"").append(t.getCategoria().name()).append("\",\"fecha\":");
+        Json.cadena(sb, Fechas.formatear(t.getFechaVencimiento()));
+        sb.append(",\"creada\":").append(t.getCreada());
+        if (t.estaCompletada()) sb.append(",\"completada\":").append(t.getCompletada());
+        return sb.append('}');
+    }
+
+    private static void tareas(StringBuilder sb, List<Tarea> lista) {
+        sb.append('[');
+        for (int i = 0; i < lista.size(); i++) {
+            if (i > 0) sb.append(',');
+            tarea(sb, lista.get(i));
+        }
+        sb.append(']');
+    }
+
+    // --- LECTURA DE LA PETICIÓN ---
+
+    private static String leerCuerpo(HttpExchange intercambio) throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            byte[] bytes = entrada.readNBytes(MAXIMO_CUERPO + 1);
+            if (bytes.length > MAXIMO_CUERPO) throw new CuerpoDemasiadoGrande();
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> leerParametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null) return parametros;
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static int leerEntero(Map<String, String> parametros, String nombre, int porDefecto) {
+        String valor = parametros.get(nombre);
+        if (valor == null) return porDefecto;
+        try {
+            int numero = Integer.parseInt(valor);
+            if (numero < 0) throw new IllegalArgumentException("'" + nombre + "' no puede ser negativo");
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + nombre + "' debe ser un número");
+        }
+    }
+
+    private static long leerId(String texto) {
+        try {
+            return Long.parseLong(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Id inválido: " + texto);
+        }
+    }
+
+    private static List<Long> leerIds(Object cuerpo) {
+        if (!(cuerpo instanceof List)) throw new IllegalArgumentException("Se esperaba un array de ids");
+        List<Long> ids = new ArrayList<>();
+        for (Object valor : (List<?>) cuerpo) {
+            if (!(valor instanceof Long)) throw new IllegalArgumentException("Id inválido: " + valor);
+            ids.add((Long) valor);
+        }
+        return ids;
+    }
+
+    private static String texto(Map<?, ?> datos, String campo) {
+        Object valor = datos.get(campo);
+        if (valor == null) return null;
+        if (!(valor instanceof String)) throw new IllegalArgumentException("'" + campo + "' debe ser un texto");
+        return (String) valor;
+    }
+
+    // --- RESPUESTA ---
+
+    private static void enviar(HttpExchange intercambio, Respuesta respuesta) throws IOException {
+        if (respuesta.cuerpo == null) {
+            intercambio.sendResponseHeaders(respuesta.codigo, -1);
+            return;
+        }
+        byte[] bytes = respuesta.cuerpo.toString().getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(respuesta.codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    // Código HTTP + cuerpo JSON (null = sin cuerpo)
+    private static final class Respuesta {
+        final int codigo;
+        final CharSequence cuerpo;
+
+        Respuesta(int codigo, CharSequence cuerpo) {
+            this.codigo = codigo;
+            this.cuerpo = cuerpo;
+        }
+
+        static Respuesta ok(CharSequence cuerpo) {
+            return new Respuesta(200, cuerpo);
+        }
+
+        static Respuesta sinContenido() {
+            return new Respuesta(204, null);
+        }
+
+        static Respuesta metodoNoPermitido() {
+            return error(405, "Método no permitido en esta ruta");
+        }
+
+        static Respuesta error(int codigo, String mensaje) {
+            StringBuilder sb = new StringBuilder("{\"error\":");
+            return new Respuesta(codigo, Json.cadena(sb, mensaje).append('}'));
+        }
+    }
+
+    // Se lanza cuando el cuerpo supera MAXIMO_CUERPO
+    private static final class CuerpoDemasiadoGrande extends RuntimeException {
+        CuerpoDemasiadoGrande() {
+            super(null, null, false, false);
+        }
+    }
+}
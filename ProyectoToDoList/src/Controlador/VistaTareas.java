@@ -0,0 +1,37 @@
+package Controlador;
+
+import Modelo.Tarea;
+
+/**
+ * Lo que FlujoTareas necesita de una vista: leer el formulario y la tarea
+ * elegida, preguntar antes de borrar y enseñar el resultado.
+ *
+ * La ventana de Swing es una implementación (dentro de ControladorTareas); el
+ * generador de carga tiene otra sin pantalla.
+ */
+public interface VistaTareas {
+
+    /** Título escrito para la tarea nueva. */
+    String getTitulo();
+
+    /** Descripción de la tarea nueva (puede estar vacía). */
+    String getDescripcion();
+
+    /** Fecha de vencimiento tal como se escribió (dd/MM/yyyy), o vacía si no tiene. */
+    String getFecha();
+
+    /** Categoría elegida: el texto del desplegable ("Tarea de hoy"...) o el nombre (HOY...). */
+    String getCategoria();
+
+    /** La tarea pendiente elegida, o null si no hay ninguna. */
+    Tarea getPendienteSeleccionada();
+
+    /**
+     * Pregunta sí/no antes de borrar (eliminar una tarea o vaciar el historial).
+     * @return true si se puede seguir.
+     */
+    boolean confirmar(ResultadoOperacion.Operacion operacion, String pregunta);
+
+    /** Se llama al terminar cada operación, haya salido bien o no. */
+    void mostrar(ResultadoOperacion resultado);
+}
@@ -0,0 +1,47 @@
+package Modelo;
+
+/**
+ * Enumeración: Las categorías que puede tener una tarea.
+ * Cada categoría guarda su nivel de prioridad (1 es la más importante),
+ * el icono que se muestra en la lista y el texto que aparece en el ComboBox.
+ */
+public enum Categoria {
+
+    IMPORTANTE(1, "★ [URGENTE] ", "Importantes"),
+    HOY(2, "📅 [HOY] ", "Tarea de hoy"),
+    GENERAL(3, "📝 ", "General");
+
+    private final int nivel;
+    private final String icono;
+    private final String etiqueta;
+
+    Categoria(int nivel, String icono, String etiqueta) {
+        this.nivel = nivel;
+        this.icono = icono;
+        this.etiqueta = etiqueta;
+    }
+
+    // --- MÉTODOS GETTER ---
+
+    public int getNivel() {
+        return nivel;
+    }
+
+    public String getIcono() {
+        return icono;
+    }
+
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+    /**
+     * Convierte el texto del ComboBox de la vista en una categoría.
+     * Si el texto no coincide con ninguna, se asume "General".
+     */
+    public static Categoria desdeEtiqueta(String etiqueta) {
+        if ("Importantes".equals(etiqueta) || "Importante".equals(etiqueta)) return IMPORTANTE;
+        if ("Tarea de hoy".equals(etiqueta)) return HOY;
+        return GENERAL;
+    }
+}
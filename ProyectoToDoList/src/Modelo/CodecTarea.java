@@ -0,0 +1,198 @@
+package Modelo;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Codificador/decodificador binario compacto de una Tarea.
+ *
+ * Formato (sin reflexión ni serialización de Java):
+ *   id          varint
+ *   creada      varint (milisegundos)
+ *   completada  varint (0 si sigue pendiente)
+ *   categoría   1 byte
+ *   vencimiento varint zigzag del día (días desde 1970) + 1, o 0 si no tiene fecha
+ *   título      varint con el largo en bytes + texto en UTF-8
+ *   descripción varint con el largo en bytes + texto en UTF-8
+ *
+ * Un "varint" guarda 7 bits por byte, así los números pequeños ocupan 1 o 2 bytes
+ * en lugar de 8. Una tarea típica queda en unos 30-40 bytes.
+ *
+ * El objeto reutiliza un búfer interno de caracteres para decodificar, por eso
+ * no se debe compartir entre hilos: cada hilo usa su propio CodecTarea.
+ */
+public final class CodecTarea {
+
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+
+    // Búfer reutilizable para convertir UTF-8 en caracteres al decodificar
+    private char[] caracteres = new char[128];
+
+    // --- CODIFICAR ---
+
+    /**
+     * Calcula cuántos bytes ocupará la tarea una vez codificada.
+     */
+    public int tamano(Tarea t) {
+        int titulo = largoUtf8(t.getTitulo());
+        int descripcion = largoUtf8(t.getDescripcion());
+        return largoVarint(t.getId()) + largoVarint(t.getCreada()) + largoVarint(t.getCompletada()) + 1
+                + largoVarint(codigoFecha(t.getFechaVencimiento()))
+                + largoVarint(titulo) + titulo + largoVarint(descripcion) + descripcion;
+    }
+
+    /**
+     * Escribe la tarea en el búfer a partir de su posición actual.
+     * @throws BufferOverflowException si no cabe (el búfer queda a medio escribir).
+     */
+    public void codificar(Tarea t, ByteBuffer destino) {
+        escribirVarint(destino, t.getId());
+        escribirVarint(destino, t.getCreada());
+        escribirVarint(destino, t.getCompletada());
+        destino.put((byte) t.getCategoria().ordinal());
+        escribirVarint(destino, codigoFecha(t.getFechaVencimiento()));
+        escribirTexto(destino, t.getTitulo());
+        escribirTexto(destino, t.getDescripcion());
+    }
+
+    // --- DECODIFICAR ---
+
+    /**
+     * Lee una tarea desde la posición actual del búfer y la deja justo detrás.
+     * @throws BufferUnderflowException si los datos están cortados.
+     * @throws IllegalArgumentException si los datos no tienen sentido.
+     */
+    public Tarea decodificar(ByteBuffer origen) {
+        long id = leerVarint(origen);
+        long creada = leerVarint(origen);
+        long completada = leerVarint(origen);
+        int categoria = origen.get();
+        if (categoria < 0 || categoria >= CATEGORIAS.length) {
+            throw new IllegalArgumentException("Categoría desconocida: " + categoria);
+        }
+        long codigo = leerVarint(origen);
+        LocalDate fecha = codigo == 0 ? null : LocalDate.ofEpochDay(deZigzag(codigo - 1));
+        String titulo = leerTexto(origen);
+        String descripcion = leerTexto(origen);
+        return new Tarea(id, titulo, descripcion, CATEGORIAS[categoria], fecha, creada, completada);
+    }
+
+    // --- FECHAS ---
+
+    private static long codigoFecha(LocalDate fecha) {
+        return fecha == null ? 0 : zigzag(fecha.toEpochDay()) + 1;
+    }
+
+    // Zigzag: convierte negativos en positivos pequeños (0,-1,1,-2 -> 0,1,2,3)
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long deZigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    // --- VARINTS ---
+
+    static int largoVarint(long valor) {
+        int bytes = 1;
+        while ((valor & ~0x7FL) != 0) {
+            valor >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    static void escribirVarint(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    static long leerVarint(ByteBuffer origen) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            byte b = origen.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0) return valor;
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+
+    // --- TEXTO UTF-8 (sin pasar por arrays de bytes intermedios) ---
+
+    static int largoUtf8(String texto) {
+        int bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4; // Emoji y otros caracteres fuera del plano básico
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    static void escribirTexto(ByteBuffer destino, String texto) {
+        escribirVarint(destino, largoUtf8(texto));
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino.put((byte) c);
+            } else if (c < 0x800) {
+                destino.put((byte) (0xC0 | (c >> 6)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, texto.charAt(++i));
+                destino.put((byte) (0xF0 | (cp >> 18)));
+                destino.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                destino.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                // Un surrogate suelto se guarda tal cual (3 bytes) para no perder el texto
+                destino.put((byte) (0xE0 | (c >> 12)));
+                destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private String leerTexto(ByteBuffer origen) {
+        long largo = leerVarint(origen);
+        if (largo > origen.remaining()) throw new BufferUnderflowException();
+        int bytes = (int) largo;
+        // Nunca hay más caracteres que bytes, así que este tamaño siempre alcanza
+        if (caracteres.length < bytes) caracteres = new char[Math.max(bytes, caracteres.length * 2)];
+
+        int n = 0;
+        int fin = origen.position() + bytes;
+        while (origen.position() < fin) {
+            int b = origen.get() & 0xFF;
+            if (b < 0x80) {
+                caracteres[n++] = (char) b;
+            } else if (b < 0xE0) {
+                caracteres[n++] = (char) (((b & 0x1F) << 6) | (origen.get() & 0x3F));
+            } else if (b < 0xF0) {
+                caracteres[n++] = (char) (((b & 0x0F) << 12) | ((origen.get() & 0x3F) << 6) | (origen.get() & 0x3F));
+            } else {
+                int cp = ((b & 0x07) << 18) | ((origen.get() & 0x3F) << 12)
+                        | ((origen.get() & 0x3F) << 6) | (origen.get() & 0x3F);
+                caracteres[n++] = Character.highSurrogate(cp);
+                caracteres[n++] = Character.lowSurrogate(cp);
+            }
+        }
+        return new String(caracteres, 0, n);
+    }
+}
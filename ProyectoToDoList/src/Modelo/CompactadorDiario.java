@@ -0,0 +1,112 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compactador en segundo plano del diario.
+ *
+ * El diario crece con cada cambio, incluso con tareas que luego se borraron.
+ * Cuando pasa de cierto tamaño (o número de registros), GestorDatos empieza
+ * un diario nuevo y le entrega aquí una copia de su estado. Este hilo escribe
+ * con ella una instantánea nueva, la pone en su sitio de forma atómica y borra
+ * los diarios viejos. Mientras tanto la ventana y los cambios nuevos siguen
+ * funcionando con normalidad, porque ya van al diario nuevo.
+ *
+ * Los límites se pueden cambiar con las propiedades del sistema
+ * "todolist.compactar.bytes" y "todolist.compactar.registros".
+ */
+class CompactadorDiario {
+
+    private static final Logger logger = Logger.getLogger(CompactadorDiario.class.getName());
+
+    // Un único hilo de baja prioridad: nunca hay dos compactaciones a la vez
+    private final ExecutorService hilo = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "compactador-diario");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final long limiteBytes;
+    private final long limiteRegistros;
+
+    // volatile: se escriben desde el hilo compactador y se leen desde fuera
+    private volatile boolean enCurso;
+    private volatile long duracionUltimaMs = -1;
+    private volatile long realizadas;
+
+    CompactadorDiario() {
+        this.limiteBytes = Long.getLong("todolist.compactar.bytes", 8L * 1024 * 1024);
+        this.limiteRegistros = Long.getLong("todolist.compactar.registros", 100_000L);
+    }
+
+    /**
+     * ¿El diario ya es lo bastante grande como para compactarlo?
+     * Si hay una compactación en marcha (o reservada) se espera a que termine.
+     */
+    boolean hayQueCompactar(long bytesDiario, long registrosDiario) {
+        return !enCurso && (bytesDiario >= limiteBytes || registrosDiario >= limiteRegistros);
+    }
+
+    /**
+     * Marca que ya hay una compactación en camino, aunque todavía no se haya
+     * llamado a compactar() (el diario nuevo se crea primero en el hilo escritor).
+     */
+    void reservar() {
+        enCurso = true;
+    }
+
+    /**
+     * Escribe en segundo plano la instantánea de la generación indicada y
+     * después borra los diarios anteriores a ella.
+     * Los datos deben ser copias: el hilo los lee sin ningún bloqueo.
+     */
+    void compactar(Path directorio, long generacion, long siguienteId,
+                   List<Tarea> pendientes, HistorialCompletadas.Resumen historial) {
+        enCurso = true;
+        hilo.execute(() -> {
+            long inicio = System.nanoTime();
+            try {
+                InstantaneaTareas.escribir(directorio.resolve(GestorDatos.ARCHIVO_INSTANTANEA), generacion, siguienteId,
+                        pendientes, pendientes.size(), historial);
+                DiarioTareas.borrarAnteriores(directorio, generacion);
+                realizadas++;
+            } catch (IOException e) {
+                // No se pierde nada: los diarios viejos siguen ahí y se reproducirán al arrancar
+                logger.log(Level.WARNING, "No se pudo compactar el diario", e);
+            } finally {
+                duracionUltimaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                enCurso = false;
+            }
+        });
+    }
+
+    /** Milisegundos que tardó la última compactación (-1 si aún no hubo ninguna). */
+    long getDuracionUltimaMs() {
+        return duracionUltimaMs;
+    }
+
+    /** Cuántas compactaciones terminaron bien desde que arrancó el programa. */
+    long getRealizadas() {
+        return realizadas;
+    }
+
+    /**
+     * Espera (un tiempo razonable) a que termine la compactación en curso y apaga el hilo.
+     */
+    void cerrar() {
+        hilo.shutdown();
+        try {
+            hilo.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
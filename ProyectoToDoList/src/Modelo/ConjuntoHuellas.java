@@ -0,0 +1,161 @@
+package Modelo;
+
+/**
+ * Conjunto de tareas por nombre, sin distinguir mayúsculas, para detectar repetidas.
+ *
+ * En lugar de guardar una copia en mayúsculas de cada título (un String por
+ * tarea, más el nodo del HashSet), guarda su "huella": un número de 64 bits
+ * calculado a partir del título. Dos arrays paralelos hacen de tabla hash
+ * con direccionamiento abierto: huellas[i] y la tarea que la produjo en tareas[i].
+ * Son unos 12 bytes por hueco en lugar de unos 90 por título.
+ *
+ * Dos títulos distintos pueden tener (muy raramente) la misma huella, así que
+ * cuando la huella coincide se comprueba el título de verdad con la tarea
+ * guardada (equalsIgnoreCase, que no crea objetos).
+ *
+ * Calcular la huella tampoco crea objetos: se recorre el título carácter a
+ * carácter pasándolo a minúsculas, en lugar de hacer titulo.toUpperCase().
+ *
+ * No es seguro entre hilos: lo protege el bloqueo del GestorDatos.
+ */
+final class ConjuntoHuellas {
+
+    // Se agranda cuando está lleno al 60 %: con sondeo lineal, más lleno se vuelve lento
+    private static final double CARGA_MAXIMA = 0.6;
+
+    private long[] huellas;
+    private Tarea[] tareas; // null = hueco libre
+    private int cantidad;
+    private int limite;
+
+    ConjuntoHuellas() {
+        this(16);
+    }
+
+    ConjuntoHuellas(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(16, (int) (capacidadEsperada / CARGA_MAXIMA)) - 1) << 1;
+        reservar(capacidad);
+    }
+
+    int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * ¿Hay alguna tarea con este título (sin distinguir mayúsculas)?
+     */
+    boolean contiene(String titulo) {
+        return buscar(titulo) != null;
+    }
+
+    /**
+     * Tarea guardada con este título (sin distinguir mayúsculas), o null.
+     */
+    Tarea buscar(String titulo) {
+        long huella = huella(titulo);
+        int mascara = tareas.length - 1;
+        for (int i = posicion(huella); tareas[i] != null; i = (i + 1) & mascara) {
+            // Misma huella: casi seguro el mismo título, pero se comprueba
+            if (huellas[i] == huella && tareas[i].getTitulo().equalsIgnoreCase(titulo)) return tareas[i];
+        }
+        return null;
+    }
+
+    /**
+     * Agrega la tarea si no hay otra con el mismo título.
+     * @return false si ya había una con ese título (y no se agrega).
+     */
+    boolean agregar(Tarea tarea) {
+        String titulo = tarea.getTitulo();
+        long huella = huella(titulo);
+        int mascara = tareas.length - 1;
+        int i = posicion(huella);
+        for (; tareas[i] != null; i = (i + 1) & mascara) {
+            if (huellas[i] == huella && tareas[i].getTitulo().equalsIgnoreCase(titulo)) return false;
+        }
+        huellas[i] = huella;
+        tareas[i] = tarea;
+        if (++cantidad > limite) reservar(tareas.length * 2);
+        return true;
+    }
+
+    /**
+     * Quita la tarea que tenga este título (sin distinguir mayúsculas).
+     * @return true si estaba.
+     */
+    boolean quitar(String titulo) {
+        long huella = huella(titulo);
+        int mascara = tareas.length - 1;
+        for (int i = posicion(huella); tareas[i] != null; i = (i + 1) & mascara) {
+            if (huellas[i] == huella && tareas[i].getTitulo().equalsIgnoreCase(titulo)) {
+                borrarHueco(i);
+                cantidad--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Huella de 64 bits del título sin distinguir mayúsculas ("Pan" y "PAN" dan la misma).
+     * Es FNV-1a sobre cada carácter normalizado, con una mezcla final para repartir bien los bits.
+     */
+    static long huella(String titulo) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < titulo.length(); ) {
+            // El mismo criterio que equalsIgnoreCase: mayúscula y luego minúscula (por código, no por char,
+            // para que también valga con letras fuera del plano básico)
+            int c = titulo.codePointAt(i);
+            i += Character.charCount(c);
+            h = (h ^ Character.toLowerCase(Character.toUpperCase(c))) * 0x100000001b3L;
+        }
+        // Mezcla final (la de MurmurHash3): cada bit de entrada cambia la mitad de los de salida
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // --- INTERNO ---
+
+    private int posicion(long huella) {
+        return (int) huella & (tareas.length - 1);
+    }
+
+    // Tras borrar el hueco i, los siguientes del mismo "racimo" que se pusieron ahí
+    // por choque se mueven hacia atrás; así no hacen falta marcas de borrado
+    private void borrarHueco(int i) {
+        int mascara = tareas.length - 1;
+        int libre = i;
+        for (int j = (i + 1) & mascara; tareas[j] != null; j = (j + 1) & mascara) {
+            int ideal = posicion(huellas[j]);
+            // ¿El hueco libre está entre su posición ideal y donde está ahora (dando la vuelta)?
+            if (((j - ideal) & mascara) >= ((j - libre) & mascara)) {
+                huellas[libre] = huellas[j];
+                tareas[libre] = tareas[j];
+                libre = j;
+            }
+        }
+        tareas[libre] = null;
+    }
+
+    private void reservar(int capacidad) {
+        long[] viejasHuellas = huellas;
+        Tarea[] viejasTareas = tareas;
+        huellas = new long[capacidad];
+        tareas = new Tarea[capacidad];
+        limite = (int) (capacidad * CARGA_MAXIMA);
+        if (viejasTareas == null) return;
+        // Se recolocan con la huella ya calculada (sin volver a recorrer los títulos)
+        int mascara = capacidad - 1;
+        for (int k = 0; k < viejasTareas.length; k++) {
+            if (viejasTareas[k] == null) continue;
+            int i = posicion(viejasHuellas[k]);
+            while (tareas[i] != null) i = (i + 1) & mascara;
+            huellas[i] = viejasHuellas[k];
+            tareas[i] = viejasTareas[k];
+        }
+    }
+}
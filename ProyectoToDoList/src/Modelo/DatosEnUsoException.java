@@ -0,0 +1,23 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * La carpeta de datos ya la tiene abierta otro programa (otra ventana de
+ * ToDoList, la consola...). Solo uno puede escribir su diario a la vez: si
+ * dos lo hicieran, cada uno pisaría los cambios del otro.
+ */
+public class DatosEnUsoException extends IOException {
+
+    private final Path directorio;
+
+    public DatosEnUsoException(Path directorio) {
+        super("La carpeta de datos " + directorio + " ya la está usando otro programa");
+        this.directorio = directorio;
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+}
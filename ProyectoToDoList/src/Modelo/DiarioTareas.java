@@ -0,0 +1,339 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Diario (write-ahead log) de los cambios del GestorDatos.
+ *
+ * Cada operación (registrar, completar, eliminar, vaciar historial, y lo que
+ * hace falta para deshacerlas) se añade al final del archivo como un registro binario pequeño. Al arrancar, el
+ * diario se vuelve a leer de principio a fin para reconstruir la memoria.
+ *
+ * Formato de cada registro: [longitud int][crc32 int][tipo byte][datos...].
+ * El CRC permite detectar un registro a medio escribir (por ejemplo si se
+ * cortó la luz): se descarta ese final y se sigue con lo que estaba bien.
+ */
+class DiarioTareas {
+
+    // Tipos de registro
+    static final byte REGISTRAR = 1;
+    static final byte COMPLETAR = 2;
+    static final byte ELIMINAR = 3;
+    static final byte VACIAR = 4;
+    // Para deshacer: la completada más reciente vuelve a pendientes, y el historial vaciado vuelve
+    // (RECUPERAR_HISTORIAL con los segmentos en disco, seguido de una RECUPERAR_COMPLETADA por cada reciente)
+    static final byte DESCOMPLETAR = 5;
+    static final byte RECUPERAR_HISTORIAL = 6;
+    static final byte RECUPERAR_COMPLETADA = 7;
+
+    // Tamaño de la cabecera de cada registro (longitud + crc)
+    private static final int CABECERA = 8;
+
+    // Datos máximos de un registro. Una tarea con los textos al límite de
+    // Tarea.MAXIMO_TITULO y MAXIMO_DESCRIPCION ocupa bastante menos.
+    static final int MAXIMO_REGISTRO = 1024 * 1024;
+
+    /**
+     * Interfaz que recibe los registros mientras se reproduce el diario.
+     */
+    interface Receptor {
+        void registrar(Tarea tarea);
+        void completar(long id, long instante);
+        void eliminar(long id);
+        void vaciar();
+        void descompletar(long id);
+        void recuperarHistorial(long primerSegmento, int segmentos);
+        void recuperarCompletada(Tarea completada);
+    }
+
+    private final FileChannel canal;
+
+    // Cuántos registros válidos se encontraron al abrir el archivo
+    private final long registrosLeidos;
+
+    // Cuántos registros tiene el archivo en total (leídos + escritos en esta sesión)
+    private long registros;
+
+    // Búfer reutilizable: los registros se acumulan aquí y se escriben al canal de una vez
+    private final ByteBuffer acumulados = ByteBuffer.allocateDirect(64 * 1024);
+    // Donde se está escribiendo el registro actual: 'acumulados', o un búfer de un solo
+    // uso para un registro que no cabe en él (va directo al canal al terminarlo)
+    private ByteBuffer bufer = acumulados;
+    private final CRC32 crc = new CRC32();
+    private final CodecTarea codec = new CodecTarea();
+
+    private DiarioTareas(FileChannel canal, long registrosLeidos) {
+        this.canal = canal;
+        this.registrosLeidos = registrosLeidos;
+        this.registros = registrosLeidos;
+    }
+
+    /**
+     * Lee el diario (si existe) y entrega cada registro al receptor.
+     * Después lo deja abierto para seguir añadiendo registros al final.
+     */
+    static DiarioTareas abrir(Path archivo, Receptor receptor) throws IOException {
+        Files.createDirectories(archivo.getParent());
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long[] resultado = reproducir(canal, receptor);
+        long valido = resultado[0];
+        // Si el final estaba roto lo cortamos para que los registros nuevos vayan detrás de los buenos
+        if (valido < canal.size()) canal.truncate(valido);
+        canal.position(valido);
+        return new DiarioTareas(canal, resultado[1]);
+    }
+
+    /**
+     * Crea un diario nuevo y vacío. Falla si el archivo ya existe.
+     */
+    static DiarioTareas crear(Path archivo) throws IOException {
+        Files.createDirectories(archivo.getParent());
+        return new DiarioTareas(FileChannel.open(archivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), 0);
+    }
+
+    long getRegistrosLeidos() {
+        return registrosLeidos;
+    }
+
+    long getRegistros() {
+        return registros;
+    }
+
+    /** Tamaño del archivo en bytes (contando lo que aún está en el búfer). */
+    long tamano() throws IOException {
+        return canal.position() + bufer.position();
+    }
+
+    // --- NOMBRES DE ARCHIVO ---
+    // Los diarios se numeran (diario-000001.log, diario-000002.log...). Cada vez
+    // que se guarda una instantánea se empieza un número nuevo y los anteriores sobran.
+
+    static Path archivo(Path directorio, long generacion) {
+        return directorio.resolve(String.format("diario-%06d.log", generacion));
+    }
+
+    /** Números de los diarios que hay en la carpeta, de menor a mayor. */
+    static List<Long> generaciones(Path directorio) throws IOException {
+        List<Long> generaciones = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "diario-*.log")) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                try {
+                    generaciones.add(Long.parseLong(nombre.substring(7, nombre.length() - 4)));
+                } catch (NumberFormatException e) {
+                    // No es un diario nuestro: lo ignoramos
+                }
+            }
+        }
+        Collections.sort(generaciones);
+        return generaciones;
+    }
+
+    /** Borra los diarios con número menor que 'generacion' (ya están en una instantánea). */
+    static void borrarAnteriores(Path directorio, long generacion) throws IOException {
+        for (long g : generaciones(directorio)) {
+            if (g < generacion) Files.deleteIfExists(archivo(directorio, g));
+        }
+    }
+
+    // --- ESCRITURA ---
+
+    void escribirRegistro(Tarea t) throws IOException {
+        int inicio = empezar(REGISTRAR, codec.tamano(t));
+        codec.codificar(t, bufer);
+        terminar(inicio);
+    }
+
+    void escribirCompletar(long id, long instante) throws IOException {
+        int inicio = empezar(COMPLETAR, 16);
+        bufer.putLong(id).putLong(instante);
+        terminar(inicio);
+    }
+
+    void escribirEliminar(long id) throws IOException {
+        int inicio = empezar(ELIMINAR, 8);
+        bufer.putLong(id);
+        terminar(inicio);
+    }
+
+    void escribirVaciar() throws IOException {
+        terminar(empezar(VACIAR, 0));
+    }
+
+    void escribirDescompletar(long id) throws IOException {
+        int inicio = empezar(DESCOMPLETAR, 8);
+        bufer.putLong(id);
+        terminar(inicio);
+    }
+
+    void escribirRecuperarHistorial(long primerSegmento, int segmentos) throws IOException {
+        int inicio = empezar(RECUPERAR_HISTORIAL, 12);
+        bufer.putLong(primerSegmento).putInt(segmentos);
+        terminar(inicio);
+    }
+
+    void escribirRecuperarCompletada(Tarea completada) throws IOException {
+        int inicio = empezar(RECUPERAR_COMPLETADA, codec.tamano(completada));
+        codec.codificar(completada, bufer);
+        terminar(inicio);
+    }
+
+    /**
+     * Pasa al archivo todo lo acumulado en el búfer con una sola escritura secuencial.
+     * Los datos quedan en el sistema operativo (sobreviven a un cierre del programa).
+     */
+    void confirmar() throws IOException {
+        bufer.flip();
+        while (bufer.hasRemaining()) canal.write(bufer);
+        bufer.clear();
+    }
+
+    /**
+     * Confirma lo pendiente y espera a que el disco lo tenga guardado (fsync).
+     */
+    void forzar() throws IOException {
+        confirmar();
+        canal.force(false);
+    }
+
+    /**
+     * Confirma lo pendiente y cierra el archivo.
+     * @param forzar Si es true, además espera a que el disco lo tenga guardado (fsync).
+     */
+    void cerrar(boolean forzar) throws IOException {
+        confirmar();
+        if (forzar) canal.force(false);
+        canal.close();
+    }
+
+    // Reserva sitio para la cabecera y escribe el tipo. Devuelve dónde empieza el registro.
+    private int empezar(byte tipo, int tamanoDatos) throws IOException {
+        // Se rechaza antes de escribir nada: el diario queda como estaba
+        if (1 + tamanoDatos > MAXIMO_REGISTRO) {
+            throw new IllegalArgumentException("Registro demasiado grande para el diario: " + tamanoDatos + " bytes");
+        }
+        if (bufer.remaining() < CABECERA + 1 + tamanoDatos) {
+            confirmar();
+            // Tampoco cabe con el búfer vacío: este registro va en uno propio
+            if (bufer.remaining() < CABECERA + 1 + tamanoDatos) bufer = ByteBuffer.allocate(CABECERA + 1 + tamanoDatos);
+        }
+        int inicio = bufer.position();
+        bufer.position(inicio + CABECERA);
+        bufer.put(tipo);
+        registros++;
+        return inicio;
+    }
+
+    // Rellena la cabecera (longitud y CRC) cuando el registro ya está escrito
+    private void terminar(int inicio) throws IOException {
+        int fin = bufer.position();
+        int longitud = fin - inicio - CABECERA;
+        ByteBuffer cuerpo = bufer.duplicate();
+        cuerpo.position(inicio + CABECERA).limit(fin);
+        crc.reset();
+        crc.update(cuerpo);
+        bufer.putInt(inicio, longitud);
+        bufer.putInt(inicio + 4, (int) crc.getValue());
+        if (bufer != acumulados) {
+            // Registro grande: lo anterior ya se confirmó en empezar, así que este va justo detrás
+            try {
+                confirmar();
+            } finally {
+                bufer = acumulados;
+            }
+        }
+    }
+
+    // --- LECTURA ---
+
+    /**
+     * Recorre el canal desde el principio entregando los registros válidos.
+     * @return [0] la posición donde termina el último registro correcto y [1] cuántos registros hubo.
+     */
+    private static long[] reproducir(FileChannel canal, Receptor receptor) throws IOException {
+        ByteBuffer lectura = ByteBuffer.allocate(64 * 1024); // Crece si llega un registro más grande
+        CRC32 crc = new CRC32();
+        CodecTarea codec = new CodecTarea();
+        long posicion = 0;
+        long registros = 0;
+        canal.position(0);
+
+        while (true) {
+            // Rellenamos el búfer de lectura con lo que quede del archivo
+            while (lectura.hasRemaining() && canal.read(lectura) > 0) { }
+            boolean finArchivo = canal.position() >= canal.size();
+            lectura.flip();
+
+            while (lectura.remaining() >= CABECERA) {
+                int longitud = lectura.getInt(lectura.position());
+                if (longitud <= 0 || longitud > MAXIMO_REGISTRO) return new long[] { posicion, registros };
+                if (lectura.remaining() < CABECERA + longitud) break; // El registro sigue en el siguiente bloque
+
+                int esperado = lectura.getInt(lectura.position() + 4);
+                ByteBuffer cuerpo = lectura.slice(lectura.position() + CABECERA, longitud);
+                crc.reset();
+                crc.update(cuerpo.duplicate());
+                if ((int) crc.getValue() != esperado) return new long[] { posicion, registros };
+
+                aplicar(cuerpo, receptor, codec);
+                lectura.position(lectura.position() + CABECERA + longitud);
+                posicion += CABECERA + longitud;
+                registros++;
+            }
+
+            // Lo que sobra es un registro incompleto: si ya no hay más archivo, ahí termina lo válido
+            if (finArchivo) return new long[] { posicion, registros };
+            // Si no, lo movemos al principio del búfer (a uno más grande si no cabe entero) y seguimos leyendo
+            int necesario = lectura.remaining() >= CABECERA ? CABECERA + lectura.getInt(lectura.position()) : 0;
+            if (necesario > lectura.capacity()) {
+                lectura = ByteBuffer.allocate(necesario).put(lectura);
+            } else {
+                lectura.compact();
+            }
+        }
+    }
+
+    // Decodifica un registro y llama al método correspondiente del receptor
+    private static void aplicar(ByteBuffer cuerpo, Receptor receptor, CodecTarea codec) {
+        byte tipo = cuerpo.get();
+        switch (tipo) {
+            case REGISTRAR:
+                receptor.registrar(codec.decodificar(cuerpo));
+                break;
+            case COMPLETAR:
+                receptor.completar(cuerpo.getLong(), cuerpo.getLong());
+                break;
+            case ELIMINAR:
+                receptor.eliminar(cuerpo.getLong());
+                break;
+            case VACIAR:
+                receptor.vaciar();
+                break;
+            case DESCOMPLETAR:
+                receptor.descompletar(cuerpo.getLong());
+                break;
+            case RECUPERAR_HISTORIAL:
+                receptor.recuperarHistorial(cuerpo.getLong(), cuerpo.getInt());
+                break;
+            case RECUPERAR_COMPLETADA:
+                receptor.recuperarCompletada(codec.decodificar(cuerpo));
+                break;
+            default:
+                // Tipo desconocido (versión más nueva del programa): lo ignoramos
+                break;
+        }
+    }
+}
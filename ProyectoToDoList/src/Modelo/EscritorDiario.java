@@ -0,0 +1,262 @@
+package Modelo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escritor del diario en segundo plano.
+ *
+ * Los cambios (que normalmente llegan desde el hilo de Swing) solo se ponen en
+ * una cola y se vuelve enseguida. Un hilo virtual va sacando de la cola todo lo
+ * que haya acumulado, lo escribe en el diario de una vez y hace un único fsync
+ * para todo el lote ("group commit"): si llegan 50 cambios mientras el disco
+ * está ocupado, los 50 comparten el mismo fsync.
+ *
+ * Cada cambio recibe un número de orden. Con esperar(numero) se puede esperar
+ * a que ese cambio (y todos los anteriores) estén guardados; es lo que hace
+ * GestorDatos en el modo POR_OPERACION.
+ *
+ * Un cambio que no se puede escribir (por ejemplo un registro demasiado grande,
+ * que el diario rechaza sin escribir nada) se descarta con un aviso y el resto
+ * sigue guardándose. Solo un fallo del disco para el escritor para siempre.
+ *
+ * El diario lo usa solo el hilo escritor, así que no necesita bloqueos propios.
+ */
+class EscritorDiario {
+
+    private static final Logger logger = Logger.getLogger(EscritorDiario.class.getName());
+
+    // Máximo de cambios esperando en la cola. Si se llena, quien anota espera (evita quedarse sin memoria)
+    private static final int MAXIMO_EN_COLA = 64 * 1024;
+
+    /**
+     * Un cambio pendiente de escribir en el diario.
+     */
+    interface Anotacion {
+        void escribir(DiarioTareas diario) throws IOException;
+    }
+
+    private final ModoDurabilidad modo;
+    private final Thread hilo;
+
+    // Diario que se está escribiendo (solo lo toca el hilo escritor)
+    private DiarioTareas diario;
+
+    // --- Estado compartido, protegido por 'cerrojo' ---
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition hayTrabajo = cerrojo.newCondition();
+    private final Condition hayHueco = cerrojo.newCondition();
+    private final Condition hayGuardadas = cerrojo.newCondition();
+    private ArrayDeque<Anotacion> cola = new ArrayDeque<>();
+    private long anotadas;          // Número de orden del último cambio anotado
+    private long guardadas;         // Hasta qué número está ya escrito (y forzado, si el modo lo pide)
+    private long forzarHasta;       // Alguien pidió un fsync que cubra hasta este número
+    private boolean cerrando;
+    private IOException fallo;      // Si el disco (o el propio escritor) falló, ya no se acepta nada más
+
+    // Tamaño del diario actual, para decidir cuándo compactar (se lee desde fuera)
+    private volatile long bytesDiario;
+    private volatile long registrosDiario;
+    private volatile long lotes;
+
+    EscritorDiario(DiarioTareas diario, ModoDurabilidad modo) throws IOException {
+        this.diario = diario;
+        this.modo = modo;
+        this.bytesDiario = diario.tamano();
+        this.registrosDiario = diario.getRegistros();
+        this.hilo = Thread.ofVirtual().name("escritor-diario").start(this::escribirLotes);
+    }
+
+    ModoDurabilidad getModo() {
+        return modo;
+    }
+
+    long getBytesDiario() {
+        return bytesDiario;
+    }
+
+    long getRegistrosDiario() {
+        return registrosDiario;
+    }
+
+    /** Cuántos lotes (cada uno con su escritura y su fsync) se han escrito. */
+    long getLotes() {
+        return lotes;
+    }
+
+    // --- LADO DE QUIEN ANOTA ---
+
+    /**
+     * Pone un cambio en la cola sin esperar al disco.
+     * @return El número de orden del cambio (para esperar(...)).
+     */
+    long anotar(Anotacion anotacion) {
+        cerrojo.lock();
+        try {
+            comprobarFallo();
+            if (cerrando) throw new IllegalStateException("El diario ya está cerrado");
+            while (cola.size() >= MAXIMO_EN_COLA) {
+                hayHueco.awaitUninterruptibly();
+                comprobarFallo();
+            }
+            cola.addLast(anotacion);
+            anotadas++;
+            hayTrabajo.signal();
+            return anotadas;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Empieza un diario nuevo en el punto actual de la cola: todo lo anotado
+     * antes va al diario viejo y todo lo posterior al nuevo. Cuando el cambio
+     * de archivo ya está hecho se ejecuta 'despues' (en el hilo escritor).
+     */
+    long rotar(Path archivoNuevo, Runnable despues) {
+        return anotar(viejo -> {
+            // El diario viejo se fuerza siempre: sus cambios solo estarán en él hasta que termine la instantánea
+            viejo.cerrar(true);
+            diario = DiarioTareas.crear(archivoNuevo);
+            despues.run();
+        });
+    }
+
+    /**
+     * Espera a que el cambio con ese número (y los anteriores) esté guardado.
+     */
+    void esperar(long numero) {
+        cerrojo.lock();
+        try {
+            while (guardadas < numero) {
+                comprobarFallo();
+                hayGuardadas.awaitUninterruptibly();
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Espera a que todo lo anotado hasta ahora esté forzado en disco (fsync),
+     * sea cual sea el modo.
+     */
+    void sincronizar() {
+        long numero;
+        cerrojo.lock();
+        try {
+            numero = anotadas;
+            forzarHasta = Math.max(forzarHasta, numero);
+            hayTrabajo.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+        esperar(numero);
+    }
+
+    /**
+     * Escribe y fuerza todo lo que quede en la cola, cierra el diario y termina el hilo.
+     */
+    void cerrar() throws IOException {
+        cerrojo.lock();
+        try {
+            cerrando = true;
+            hayTrabajo.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cerrojo.lock();
+        try {
+            if (fallo != null) throw fallo;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private void comprobarFallo() {
+        if (fallo != null) throw new UncheckedIOException("No se pudo guardar en el diario", fallo);
+    }
+
+    // --- HILO ESCRITOR ---
+
+    private void escribirLotes() {
+        // Dos colas que se intercambian: mientras se escribe una, la otra recibe cambios nuevos
+        ArrayDeque<Anotacion> lote = new ArrayDeque<>();
+        try {
+            while (true) {
+                long hasta;
+                boolean forzar;
+                boolean ultimo;
+                cerrojo.lock();
+                try {
+                    while (cola.isEmpty() && !cerrando && forzarHasta <= guardadas) {
+                        hayTrabajo.awaitUninterruptibly();
+                    }
+                    ArrayDeque<Anotacion> llena = cola;
+                    cola = lote;
+                    lote = llena;
+                    hasta = anotadas;
+                    forzar = forzarHasta > guardadas;
+                    ultimo = cerrando;
+                    hayHueco.signalAll();
+                } finally {
+                    cerrojo.unlock();
+                }
+
+                // 1. Todo el lote va al búfer del diario (y al archivo cuando se llena)
+                for (Anotacion anotacion : lote) {
+                    try {
+                        anotacion.escribir(diario);
+                    } catch (RuntimeException e) {
+                        // Un registro no válido no llega al diario, pero no impide guardar los demás
+                        logger.log(Level.WARNING, "Se descartó un cambio que no se podía escribir en el diario", e);
+                    }
+                }
+                lote.clear();
+
+                // 2. Una sola escritura y, según el modo, un solo fsync para todo el lote
+                if (ultimo) {
+                    diario.cerrar(true);
+                } else if (forzar || modo != ModoDurabilidad.ASINCRONO) {
+                    diario.forzar();
+                } else {
+                    diario.confirmar();
+                }
+                lotes++;
+
+                // 3. Avisamos a quien esté esperando
+                cerrojo.lock();
+                try {
+                    guardadas = hasta;
+                    hayGuardadas.signalAll();
+                } finally {
+                    cerrojo.unlock();
+                }
+                if (ultimo) return;
+                bytesDiario = diario.tamano();
+                registrosDiario = diario.getRegistros();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "El diario dejó de guardarse", e);
+            cerrojo.lock();
+            try {
+                fallo = e instanceof IOException ? (IOException) e : new IOException(e);
+                hayGuardadas.signalAll();
+                hayHueco.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+
+/**
+ * Reglas de las fechas de vencimiento, en un solo sitio para que la ventana,
+ * la API y los importadores acepten exactamente lo mismo.
+ *
+ * Una fecha válida se escribe dd/MM/yyyy (por ejemplo 05/03/2026), tiene que
+ * existir en el calendario (nada de 31/02) y no puede ser anterior a hoy.
+ *
+ * Las fechas se leen con un intérprete propio que va directo del texto al
+ * número de día (días desde el 1/1/1970), sin crear objetos ni lanzar
+ * excepciones: los importadores validan millones de fechas y así cada una
+ * cuesta unos nanosegundos. Acepta exactamente lo mismo que FORMATO.
+ */
+public final class Fechas {
+
+    // Formato estricto: dos cifras de día, dos de mes, cuatro de año y fecha real
+    public static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    // Mensajes que se muestran al usuario
+    public static final String ERROR_FORMATO = "Formato incorrecto. Usa: dd/MM/yyyy";
+    public static final String ERROR_PASADA = "La fecha debe ser hoy o futura.";
+
+    /** Lo que devuelve diaEpoch cuando el texto no es una fecha válida. */
+    public static final int NO_VALIDA = Integer.MIN_VALUE;
+
+    // Días acumulados antes de cada mes en un año normal (índice 1 = enero)
+    private static final int[] DIAS_ANTES_DEL_MES = { 0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334 };
+
+    // Días del 1/1/0000 al 1/1/1970 (el año 0 existe en el calendario de LocalDate)
+    private static final int DIAS_HASTA_1970 = 719528;
+
+    // El día de hoy y entre qué instantes es válido (se recalcula al pasar la medianoche)
+    private static final class Hoy {
+        final int dia;
+        final long desdeMs;
+        final long hastaMs;
+
+        Hoy(int dia, long desdeMs, long hastaMs) {
+            this.dia = dia;
+            this.desdeMs = desdeMs;
+            this.hastaMs = hastaMs;
+        }
+    }
+
+    private static volatile Hoy hoy = new Hoy(0, 0, 0);
+
+    private Fechas() {
+    }
+
+    /**
+     * Convierte el texto dd/MM/yyyy en número de día (días desde el 1/1/1970),
+     * sin crear objetos ni lanzar excepciones.
+     * @return El día, o NO_VALIDA si el texto no tiene el formato o la fecha no existe.
+     */
+    public static int diaEpoch(CharSequence texto) {
+        if (texto == null || texto.length() != 10 || texto.charAt(2) != '/' || texto.charAt(5) != '/') return NO_VALIDA;
+        int dia = cifras(texto, 0, 2);
+        int mes = cifras(texto, 3, 5);
+        int anio = cifras(texto, 6, 10);
+        // cifras devuelve negativo si algún carácter no es un dígito
+        if ((dia | mes | anio) < 0 || mes < 1 || mes > 12 || dia < 1) return NO_VALIDA;
+
+        boolean bisiesto = (anio & 3) == 0 && (anio % 100 != 0 || anio % 400 == 0);
+        int diasDelMes = mes == 2 ? (bisiesto ? 29 : 28) : 30 + ((mes + (mes >> 3)) & 1);
+        if (dia > diasDelMes) return NO_VALIDA;
+
+        // Días de los años anteriores (con sus 29 de febrero) + los del año hasta esta fecha
+        int anterior = anio - 1;
+        int dias = anio * 365 + (anio > 0 ? anterior / 4 - anterior / 100 + anterior / 400 + 1 : 0)
+                + DIAS_ANTES_DEL_MES[mes] + (bisiesto && mes > 2 ? 1 : 0) + dia - 1;
+        return dias - DIAS_HASTA_1970;
+    }
+
+    /** Número de día de hoy (días desde el 1/1/1970) en la zona horaria del sistema. */
+    public static int hoy() {
+        Hoy actual = hoy;
+        long ahora = System.currentTimeMillis();
+        if (ahora < actual.desdeMs || ahora >= actual.hastaMs) actual = calcularHoy();
+        return actual.dia;
+    }
+
+    /**
+     * Convierte el texto en fecha.
+     * @return La fecha, o null si el texto no tiene el formato dd/MM/yyyy o la fecha no existe.
+     */
+    public static LocalDate interpretar(String texto) {
+        int dia = diaEpoch(texto);
+        return dia == NO_VALIDA ? null : LocalDate.ofEpochDay(dia);
+    }
+
+    /** ¿La fecha es anterior a hoy? */
+    public static boolean esPasada(LocalDate fecha) {
+        return fecha.toEpochDay() < hoy();
+    }
+
+    /**
+     * Valida el texto de una fecha de vencimiento (vacío = sin fecha).
+     * @return null si es correcta, o el mensaje de error que hay que mostrar.
+     */
+    public static String validar(String texto) {
+        if (texto == null || texto.isEmpty()) return null;
+        int dia = diaEpoch(texto);
+        if (dia == NO_VALIDA) return ERROR_FORMATO;
+        if (dia < hoy()) return ERROR_PASADA;
+        return null;
+    }
+
+    /** Escribe la fecha como dd/MM/yyyy (o null si no hay fecha). */
+    public static String formatear(LocalDate fecha) {
+        return fecha == null ? null : FORMATO.format(fecha);
+    }
+
+    // --- INTERNO ---
+
+    // Valor de las cifras texto[desde..hasta), o negativo si alguna no es un dígito
+    private static int cifras(CharSequence texto, int desde, int hasta) {
+        int valor = 0;
+        int malas = 0;
+        for (int i = desde; i < hasta; i++) {
+            int c = texto.charAt(i) - '0';
+            malas |= c | (9 - c); // Negativo si c está fuera de 0..9
+            valor = valor * 10 + c;
+        }
+        return malas < 0 ? -1 : valor;
+    }
+
+    private static Hoy calcularHoy() {
+        ZoneId zona = ZoneId.systemDefault();
+        LocalDate fecha = LocalDate.now(zona);
+        Hoy nuevo = new Hoy((int) fecha.toEpochDay(),
+                fecha.atStartOfDay(zona).toInstant().toEpochMilli(),
+                fecha.plusDays(1).atStartOfDay(zona).toInstant().toEpochMilli());
+        hoy = nuevo;
+        return nuevo;
+    }
+}
@@ -1,25 +1,170 @@
 package Modelo;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Clase Modelo: Actúa como la base de datos en memoria RAM.
  * Se encarga de almacenar, ordenar y validar los datos de las tareas.
+ *
+ * Se puede usar desde varios hilos a la vez (la ventana, importadores, la API...).
+ * Las consultas comparten un bloqueo de lectura, así que no se estorban entre
+ * ellas; los cambios toman el bloqueo de escritura y duran muy poco, porque el
+ * disco lo escribe otro hilo (EscritorDiario).
  */
 public class GestorDatos {
-    
-    // Variable estática para el Patrón Singleton (garantiza que solo exista una memoria compartida)
-    private static GestorDatos instancia;
 
-    // HashSet: Una colección especial que no permite elementos duplicados.
-    // Lo usamos para saber rápidamente si un nombre de tarea ya existe.
-    private HashSet<String> memoriaValidacion;
-    
-    // ArrayList: Listas dinámicas para guardar las tareas visuales (con iconos y fechas).
-    // Usamos listas porque nos importa el orden en que se muestran.
-    private ArrayList<String> listaPendientes;    // Tareas por hacer
-    private ArrayList<String> listaCompletadas;   // Historial
+    private static final Logger logger = Logger.getLogger(GestorDatos.class.getName());
+
+    // Patrón Singleton con "holder": la JVM crea la instancia la primera vez que se usa
+    // la clase Contenedor, una sola vez y de forma segura entre hilos (sin synchronized)
+    private static final class Contenedor {
+        private static final GestorDatos INSTANCIA = new GestorDatos();
+    }
+
+    // Orden por título sin distinguir mayúsculas (el mismo criterio que memoriaValidacion)
+    private static final Comparator<Tarea> POR_TITULO = Comparator.comparing(Tarea::getTitulo, String.CASE_INSENSITIVE_ORDER);
+
+    // Bloqueo de lectura/escritura: muchas consultas a la vez, o un único cambio
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final Lock lectura = cerrojo.readLock();
+    private final Lock escritura = cerrojo.writeLock();
+
+    // Nombre de la instantánea dentro de la carpeta de datos
+    static final String ARCHIVO_INSTANTANEA = "instantanea.bin";
+
+    // Conjunto de las pendientes por nombre (sin distinguir mayúsculas) que no permite repetidos.
+    // Lo usamos para saber rápidamente si un nombre de tarea ya existe. Guarda una huella
+    // numérica de cada título en lugar de una copia en mayúsculas (mucha menos memoria).
+    private ConjuntoHuellas memoriaValidacion;
+
+    // TreeSet: Las mismas pendientes ordenadas por título (sin distinguir mayúsculas).
+    // Al estar ordenados, todos los que empiezan por un texto están seguidos:
+    // así se sugieren títulos mientras el usuario escribe, en O(log n).
+    // Ordenar cientos de miles de títulos cuesta: se construye en otro hilo y
+    // sin bloqueo (null hasta entonces), así ni arrancar ni los cambios lo pagan.
+    private TreeSet<Tarea> titulosOrdenados;
+
+    // Mientras se construye titulosOrdenados, cada alta y baja de pendientes se apunta
+    // aquí para repetirla en el árbol nuevo antes de publicarlo (null si no se construye)
+    private ArrayList<CambioTitulo> cambiosTitulos;
+    private final AtomicBoolean construyendoTitulos = new AtomicBoolean();
+
+    private record CambioTitulo(Tarea tarea, boolean agregada) { }
+
+    // HashMap: Índice id -> tarea de las pendientes.
+    // Buscar o borrar por id es inmediato (no hay que recorrer la lista).
+    private HashMap<Long, Tarea> indicePendientes;
+
+    // Índice ordenado (Categoría > Fecha > Creación) de las mismas pendientes.
+    // Nos dice en qué posición de la lista visual va cada tarea en O(log n).
+    private IndicePrioridad ordenPendientes;
+
+    // Las mismas pendientes por fecha de vencimiento, con un conteo por día
+    // (filtros "vencidas", "vencen hoy", "próximos 7 días" y el calendario)
+    private IndiceVencimientos vencimientos;
+
+    // Historial de completadas, la más reciente primero. Las recientes están en
+    // memoria y las antiguas se guardan comprimidas en disco (memoria acotada).
+    private HistorialCompletadas listaCompletadas;
+
+    // Índices de palabras para el buscador (pendientes por id, historial por número de orden).
+    // Se construyen la primera vez que se busca y luego se mantienen con cada cambio.
+    private final IndiceBusqueda busquedaPendientes = new IndiceBusqueda();
+    private final IndiceBusqueda busquedaCompletadas = new IndiceBusqueda();
+
+    // El índice del historial solo cubre las completadas más recientes: si cubriera todo,
+    // su memoria crecería con los segmentos de disco. Las más antiguas se buscan leyendo
+    // sus segmentos uno a uno. Cuando ya cubre el doble, se tira y se rehace con las últimas.
+    static final int MAXIMO_COMPLETADAS_INDEXADAS = 32 * HistorialCompletadas.TAMANO_SEGMENTO;
+
+    // Contador para repartir ids únicos a las tareas nuevas
+    private long siguienteId;
+
+    // Escritor en segundo plano del diario donde se apunta cada cambio (null = modo solo memoria)
+    private EscritorDiario escritor;
+
+    // Carpeta de datos y número del diario que se está escribiendo ahora
+    private Path directorioDatos;
+    private long generacionDiario;
+
+    // Bloqueo del sistema operativo sobre la carpeta de datos (el archivo "bloqueo"):
+    // mientras lo tengamos, ningún otro programa puede activar la persistencia en ella
+    private FileLock bloqueoDatos;
+
+    // Hilo que guarda instantáneas en segundo plano cuando el diario crece
+    private CompactadorDiario compactador;
+
+    // Cambios que se pueden deshacer y rehacer (registros pequeños, con un límite de bytes)
+    private HistorialDeshacer historialDeshacer =
+            new HistorialDeshacer(HistorialDeshacer.presupuestoConfigurado(), this::olvidarCambio);
+
+    // Por qué se tuvieron que olvidar los cambios pendientes de deshacer (null si no pasó)
+    private String errorDeshacer;
+
+    // Quienes quieren enterarse de cada cambio (copia al escribir: se recorre sin bloqueos)
+    private final CopyOnWriteArrayList<OyenteTareas> oyentes = new CopyOnWriteArrayList<>();
+
+    // Aplica los registros del diario a la memoria (al arrancar)
+    private final DiarioTareas.Receptor reproductor = new DiarioTareas.Receptor() {
+        @Override
+        public void registrar(Tarea tarea) {
+            aplicarRegistro(tarea);
+        }
+
+        @Override
+        public void completar(long id, long instante) {
+            aplicarCompletar(id, instante);
+        }
+
+        @Override
+        public void eliminar(long id) {
+            aplicarEliminar(id);
+        }
+
+        @Override
+        public void vaciar() {
+            // Los segmentos que suelta se borran al terminar de reproducir (un registro posterior puede recuperarlos)
+            aplicarVaciar();
+        }
+
+        @Override
+        public void descompletar(long id) {
+            aplicarDescompletar(id);
+        }
+
+        @Override
+        public void recuperarHistorial(long primerSegmento, int segmentos) {
+            aplicarRecuperarHistorial(new HistorialCompletadas.Resumen(primerSegmento, segmentos, List.of()));
+        }
+
+        @Override
+        public void recuperarCompletada(Tarea completada) {
+            aplicarRecuperarCompletada(completada);
+        }
+    };
 
     /**
      * Constructor privado.
@@ -28,9 +173,12 @@ public class GestorDatos {
      */
     private GestorDatos() {
         // Inicializamos las colecciones vacías para evitar errores de "NullPointerException"
-        this.memoriaValidacion = new HashSet<>();
-        this.listaPendientes = new ArrayList<>();
-        this.listaCompletadas = new ArrayList<>(); 
+        this.memoriaValidacion = new ConjuntoHuellas();
+        this.indicePendientes = new HashMap<>();
+        this.ordenPendientes = new IndicePrioridad();
+        this.vencimientos = new IndiceVencimientos();
+        this.listaCompletadas = new HistorialCompletadas(null); // Carpeta temporal hasta que se active la persistencia
+        this.siguienteId = 1;
     }
 
     /**
@@ -39,10 +187,275 @@ public class GestorDatos {
      * Así, la ventana Principal y la ventana Completadas ven los mismos datos.
      */
     public static GestorDatos getInstancia() {
-        if (instancia == null) {
-            instancia = new GestorDatos();
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Un gestor nuevo, vacío y separado del de la aplicación. Solo para las
+     * mediciones de rendimiento (bench/), que necesitan empezar cada prueba
+     * con un número concreto de tareas.
+     */
+    static GestorDatos nuevoAislado() {
+        return new GestorDatos();
+    }
+
+    // --- PERSISTENCIA ---
+
+    /**
+     * Carpeta donde se guardan los datos si no se indica otra.
+     * Se puede cambiar con la propiedad del sistema "todolist.datos".
+     */
+    public static Path directorioPorDefecto() {
+        String configurado = System.getProperty("todolist.datos");
+        if (configurado != null && !configurado.isBlank()) return Paths.get(configurado);
+        return Paths.get(System.getProperty("user.home"), ".todolist");
+    }
+
+    /**
+     * Activa el modo duradero: recupera las tareas de la sesión anterior y a
+     * partir de ahora apunta en el diario cada cambio.
+     *
+     * La recuperación tiene dos pasos: primero se carga la instantánea
+     * (instantanea.bin, si existe) y después se reproducen los diarios
+     * (diario-N.log) que se escribieron desde entonces. Si había algo que
+     * reproducir se pide una compactación, para que el próximo arranque
+     * sea rápido.
+     *
+     * Los cambios se guardan según el modo de ModoDurabilidad.configurado().
+     *
+     * @throws DatosEnUsoException si otro programa (u otro gestor) ya tiene abierta la carpeta.
+     */
+    public void activarPersistencia(Path directorio) throws IOException {
+        activarPersistencia(directorio, ModoDurabilidad.configurado());
+    }
+
+    /**
+     * Igual que activarPersistencia(directorio), eligiendo cuándo se
+     * considera guardado cada cambio.
+     */
+    public void activarPersistencia(Path directorio, ModoDurabilidad modo) throws IOException {
+        escritura.lock();
+        try {
+            if (escritor != null) return; // Ya estaba activada
+            Files.createDirectories(directorio);
+            bloquear(directorio);
+            try {
+                recuperar(directorio, modo);
+            } catch (IOException | RuntimeException e) {
+                // No se pudo cargar: la carpeta queda libre para otro intento
+                soltarBloqueo();
+                throw e;
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    // Los pasos de activarPersistencia, ya con la carpeta bloqueada
+    private void recuperar(Path directorio, ModoDurabilidad modo) throws IOException {
+        listaCompletadas = new HistorialCompletadas(directorio.resolve("historial"));
+        // Lo que se cargue ahora se indexa en la próxima búsqueda
+        busquedaPendientes.invalidar();
+        busquedaCompletadas.invalidar();
+
+        // 1. Instantánea
+        long generacion = 1;
+        Path archivoInstantanea = directorio.resolve(ARCHIVO_INSTANTANEA);
+        if (Files.exists(archivoInstantanea)) {
+            InstantaneaTareas instantanea = InstantaneaTareas.abrir(archivoInstantanea);
+            cargarInstantanea(instantanea);
+            generacion = instantanea.getGeneracion();
+        }
+
+        // 2. Diarios posteriores a la instantánea, en orden (los anteriores ya están incluidos en ella).
+        //    El último se queda abierto para seguir apuntando los cambios nuevos.
+        DiarioTareas.borrarAnteriores(directorio, generacion);
+        List<Long> generaciones = DiarioTareas.generaciones(directorio);
+        if (generaciones.isEmpty()) generaciones = List.of(generacion);
+
+        long reproducidos = 0;
+        DiarioTareas ultimo = null;
+        for (int i = 0; i < generaciones.size(); i++) {
+            DiarioTareas leido = DiarioTareas.abrir(DiarioTareas.archivo(directorio, generaciones.get(i)), reproductor);
+            reproducidos += leido.getRegistrosLeidos();
+            if (i < generaciones.size() - 1) {
+                leido.cerrar(false);
+            } else {
+                ultimo = leido;
+            }
+        }
+
+        // Ya reproducido todo: los segmentos que ningún registro ha recuperado sobran.
+        // Lo hecho antes en memoria ya no se puede deshacer (era de otro historial)
+        listaCompletadas.borrarSegmentosFuera();
+        historialDeshacer = new HistorialDeshacer(historialDeshacer.getPresupuesto(), this::olvidarCambio);
+        errorDeshacer = null;
+
+        // 3. A partir de aquí el diario lo escribe un hilo aparte; datos para las compactaciones futuras
+        escritor = new EscritorDiario(ultimo, modo);
+        directorioDatos = directorio;
+        generacionDiario = generaciones.get(generaciones.size() - 1);
+        compactador = new CompactadorDiario();
+
+        // 4. Si hubo que reproducir algo, lo guardamos en una instantánea nueva (en segundo plano)
+        if (reproducidos > 0) iniciarCompactacion();
+    }
+
+    /**
+     * Toma el bloqueo exclusivo de la carpeta. Si el programa termina (aunque
+     * sea de golpe) el sistema operativo lo suelta: la carpeta nunca se queda bloqueada.
+     */
+    private void bloquear(Path directorio) throws IOException {
+        FileChannel canal = FileChannel.open(directorio.resolve("bloqueo"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock bloqueo;
+        try {
+            bloqueo = canal.tryLock();
+        } catch (OverlappingFileLockException e) {
+            bloqueo = null; // La tiene otro gestor de este mismo programa
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        if (bloqueo == null) {
+            canal.close();
+            throw new DatosEnUsoException(directorio);
+        }
+        bloqueoDatos = bloqueo;
+    }
+
+    private void soltarBloqueo() throws IOException {
+        if (bloqueoDatos == null) return;
+        try {
+            bloqueoDatos.channel().close(); // Cerrar el canal suelta el bloqueo
+        } finally {
+            bloqueoDatos = null;
+        }
+    }
+
+    /**
+     * Pide un diario nuevo y, cuando ya esté creado, manda al compactador una
+     * copia del estado actual. Copiar las listas solo copia referencias (las
+     * tareas son inmutables), así que el bloqueo dura muy poco.
+     *
+     * La copia y el cambio de diario se piden con el bloqueo tomado, así que
+     * la instantánea contiene justo los cambios anotados en los diarios viejos.
+     */
+    private void iniciarCompactacion() {
+        compactador.reservar();
+        generacionDiario++;
+        long generacion = generacionDiario;
+        long id = siguienteId;
+        List<Tarea> pendientes = obtenerPendientes();
+        HistorialCompletadas.Resumen historial = listaCompletadas.resumir();
+        escritor.rotar(DiarioTareas.archivo(directorioDatos, generacion),
+                () -> compactador.compactar(directorioDatos, generacion, id, pendientes, historial));
+    }
+
+    // Se llama después de cada cambio ya aplicado en memoria
+    private void revisarCompactacion() {
+        if (escritor != null && compactador.hayQueCompactar(escritor.getBytesDiario(), escritor.getRegistrosDiario())) {
+            iniciarCompactacion();
+        }
+    }
+
+    /**
+     * Apunta un cambio en el diario (si la persistencia está activada).
+     * @return El número de orden del cambio, o 0 si no hay diario.
+     */
+    private long anotar(EscritorDiario.Anotacion anotacion) {
+        return escritor == null ? 0 : escritor.anotar(anotacion);
+    }
+
+    /**
+     * En el modo POR_OPERACION espera a que el cambio esté en disco.
+     * Se llama SIN el bloqueo tomado: así varios hilos esperan a la vez
+     * y comparten el mismo fsync.
+     */
+    private void esperarGuardado(EscritorDiario escritorUsado, long numero) {
+        if (escritorUsado != null && escritorUsado.getModo() == ModoDurabilidad.POR_OPERACION) {
+            escritorUsado.esperar(numero);
         }
-        return instancia;
+    }
+
+    /**
+     * Espera a que todos los cambios hechos hasta ahora estén forzados en disco,
+     * sea cual sea el modo de durabilidad.
+     */
+    public void sincronizar() {
+        EscritorDiario actual;
+        lectura.lock();
+        try {
+            actual = escritor;
+        } finally {
+            lectura.unlock();
+        }
+        if (actual != null) actual.sincronizar();
+    }
+
+    /** Milisegundos que tardó la última compactación del diario (-1 si no hubo ninguna). */
+    public long getDuracionUltimaCompactacionMs() {
+        return compactador == null ? -1 : compactador.getDuracionUltimaMs();
+    }
+
+    /** Número de compactaciones del diario realizadas en esta sesión. */
+    public long getCompactacionesRealizadas() {
+        return compactador == null ? 0 : compactador.getRealizadas();
+    }
+
+    // Llena la memoria con el contenido de una instantánea. Decodifica todas las pendientes:
+    // los índices necesitan cada una (la proyección del archivo solo ahorra la lectura)
+    private void cargarInstantanea(InstantaneaTareas instantanea) {
+        int cantidad = instantanea.cantidadPendientes();
+        ArrayList<Tarea> ordenadas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Tarea t = instantanea.pendiente(i);
+            ordenadas.add(t);
+            indicePendientes.put(t.getId(), t);
+            memoriaValidacion.agregar(t);
+            vencimientos.agregar(t);
+        }
+        // Las pendientes ya vienen ordenadas: el índice se construye en O(n) sin comparar
+        ordenPendientes.construir(ordenadas);
+
+        listaCompletadas.restaurar(instantanea.historial());
+        siguienteId = Math.max(siguienteId, instantanea.getSiguienteId());
+    }
+
+    /**
+     * Escribe en disco lo pendiente y cierra el diario (se llama al salir).
+     * Después de cerrar, el gestor sigue funcionando pero solo en memoria.
+     */
+    public void cerrar() throws IOException {
+        escritura.lock();
+        try {
+            if (escritor != null) {
+                try {
+                    escritor.cerrar();
+                } finally {
+                    escritor = null;
+                    try {
+                        compactador.cerrar();
+                    } finally {
+                        // Solo cuando ya no queda nada por escribir puede entrar otro programa
+                        soltarBloqueo();
+                    }
+                }
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    // --- OYENTES ---
+
+    /** Registra un oyente que recibirá un aviso después de cada cambio. */
+    public void agregarOyente(OyenteTareas oyente) {
+        oyentes.add(oyente);
+    }
+
+    public void quitarOyente(OyenteTareas oyente) {
+        oyentes.remove(oyente);
     }
 
     // --- LÓGICA DE NEGOCIO ---
@@ -53,108 +466,1034 @@ public class GestorDatos {
      * @return true si es nueva, false si ya está registrada.
      */
     public boolean esTareaNueva(String tarea) {
-        // Convertimos a mayúsculas para que "Comprar pan" sea igual a "comprar pan"
-        // contains() busca en el HashSet de forma muy rápida.
-        return !memoriaValidacion.contains(tarea.toUpperCase());
+        lectura.lock();
+        try {
+            // "Comprar pan" es igual a "comprar pan"; contiene() busca por la huella
+            // del título de forma muy rápida (y sin crear una copia en mayúsculas).
+            return !memoriaValidacion.contiene(tarea);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Tareas pendientes cuyo título empieza por el texto indicado (sin distinguir
+     * mayúsculas), en orden alfabético. Sirve para sugerir mientras se escribe.
+     * @param maximo Cuántas como mucho.
+     */
+    public List<Tarea> sugerirTitulos(String prefijo, int maximo) {
+        List<Tarea> sugerencias = new ArrayList<>(maximo);
+        if (prefijo.isEmpty()) return sugerencias;
+        // Tarea "sonda" solo para saber dónde empezar dentro del árbol
+        Tarea sonda = new Tarea(0, prefijo, "", Categoria.GENERAL, null, 0, 0);
+        lectura.lock();
+        try {
+            if (titulosOrdenados == null) {
+                // El árbol aún no está: se recorren todas las pendientes (O(n), sin ordenarlas todas)
+                // y se quedan las "maximo" primeras por orden alfabético. Mientras, se prepara el árbol
+                if (!construyendoTitulos.get()) Thread.ofVirtual().name("preparar-sugerencias").start(this::prepararSugerencias);
+                PriorityQueue<Tarea> primeras = new PriorityQueue<>(POR_TITULO.reversed());
+                for (Tarea t : indicePendientes.values()) {
+                    if (!t.getTitulo().regionMatches(true, 0, prefijo, 0, prefijo.length())) continue;
+                    primeras.add(t);
+                    if (primeras.size() > maximo) primeras.poll(); // Sale la última alfabéticamente
+                }
+                sugerencias.addAll(primeras);
+                sugerencias.sort(POR_TITULO);
+                return sugerencias;
+            }
+            // tailSet empieza en el primer título >= prefijo; se para en el primero que ya no empieza por él
+            for (Tarea t : titulosOrdenados.tailSet(sonda, true)) {
+                if (sugerencias.size() >= maximo || !t.getTitulo().regionMatches(true, 0, prefijo, 0, prefijo.length())) break;
+                sugerencias.add(t);
+            }
+            return sugerencias;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Construye el índice de títulos de las sugerencias. La ventana lo llama en
+     * segundo plano al arrancar (y si no, lo lanza la primera sugerencia).
+     * Ordenar se hace sin bloqueo, sobre una copia: los cambios que llegan
+     * mientras tanto se apuntan y se repiten en el árbol antes de publicarlo.
+     */
+    public void prepararSugerencias() {
+        if (!construyendoTitulos.compareAndSet(false, true)) return; // Ya lo construye otro hilo
+        boolean publicado = false;
+        try {
+            List<Tarea> copia;
+            lectura.lock();
+            try {
+                if (titulosOrdenados != null) return;
+                copia = new ArrayList<>(indicePendientes.values());
+                // Desde aquí los cambios se apuntan (ningún cambio puede ir a la vez que este bloqueo de lectura)
+                cambiosTitulos = new ArrayList<>();
+            } finally {
+                lectura.unlock();
+            }
+
+            TreeSet<Tarea> titulos = new TreeSet<>(POR_TITULO);
+            titulos.addAll(copia);
+
+            escritura.lock();
+            try {
+                for (CambioTitulo cambio : cambiosTitulos) {
+                    if (cambio.agregada()) titulos.add(cambio.tarea());
+                    else titulos.remove(cambio.tarea());
+                }
+                cambiosTitulos = null;
+                titulosOrdenados = titulos;
+                publicado = true;
+            } finally {
+                escritura.unlock();
+            }
+        } finally {
+            if (!publicado) {
+                // Si algo falló (falta de memoria...), se deja de apuntar: la próxima sugerencia lo reintenta
+                escritura.lock();
+                try {
+                    cambiosTitulos = null;
+                } finally {
+                    escritura.unlock();
+                }
+            }
+            construyendoTitulos.set(false);
+        }
+    }
+
+    // Mantiene el árbol de títulos (o lo apunta si se está construyendo). Con el bloqueo de escritura
+    private void cambiarTitulo(Tarea tarea, boolean agregada) {
+        if (titulosOrdenados != null) {
+            if (agregada) titulosOrdenados.add(tarea);
+            else titulosOrdenados.remove(tarea);
+        } else if (cambiosTitulos != null) {
+            cambiosTitulos.add(new CambioTitulo(tarea, agregada));
+        }
     }
 
     /**
      * Guarda una tarea nueva en las listas.
-     * @param tareaOriginal El nombre puro (para validación).
-     * @param tareaFormateada El nombre con iconos y fecha (para mostrar).
-     * @param esImportante Si es true, se guarda al principio de la lista.
-     */
-    public void registrarTarea(String tareaOriginal, String tareaFormateada, boolean esImportante) {
-        // 1. Guardamos el nombre en mayúsculas en el HashSet para bloquear duplicados futuros
-        memoriaValidacion.add(tareaOriginal.toUpperCase());
-        
-        // 2. Guardamos el texto visual en la lista
-        if (esImportante) {
-            // El índice 0 inserta el elemento al principio, empujando a los demás abajo.
-            // Esto se usa para las tareas con Estrella o Calendario.
-            listaPendientes.add(0, tareaFormateada); 
-        } else {
-            // El método add normal inserta al final de la lista.
-            // Esto se usa para las tareas generales.
-            listaPendientes.add(tareaFormateada); 
-        }
-    }
-    
+     * @param titulo El nombre puro (para validación).
+     * @param descripcion Texto opcional (puede estar vacío).
+     * @param categoria Categoría elegida en la vista.
+     * @param fechaVencimiento Fecha límite, o null si no tiene.
+     * @return La tarea creada, ya con su id asignado.
+     * @throws IllegalArgumentException si el título o la descripción pasan del largo máximo.
+     */
+    public Tarea registrarTarea(String titulo, String descripcion, Categoria categoria, LocalDate fechaVencimiento) {
+        return registrar(titulo, descripcion, categoria, fechaVencimiento, false).getTarea();
+    }
+
+    /**
+     * Guarda la tarea solo si no existe otra pendiente con el mismo nombre.
+     * Comprobar y guardar ocurren dentro del mismo bloqueo, así dos hilos no
+     * pueden registrar el mismo nombre a la vez (cosa que sí podría pasar
+     * llamando a esTareaNueva y después a registrarTarea).
+     * @return La tarea creada, o null si el nombre ya existía.
+     */
+    public Tarea registrarSiNueva(String titulo, String descripcion, Categoria categoria, LocalDate fechaVencimiento) {
+        TareaEnFila nueva = registrar(titulo, descripcion, categoria, fechaVencimiento, true);
+        return nueva == null ? null : nueva.getTarea();
+    }
+
+    /**
+     * Igual que registrarSiNueva, diciendo además en qué fila de la lista de
+     * pendientes quedó (calculada en el mismo bloqueo que el registro).
+     * @return La tarea creada y su fila, o null si el nombre ya existía.
+     */
+    public TareaEnFila registrarSiNuevaEnFila(String titulo, String descripcion, Categoria categoria,
+                                              LocalDate fechaVencimiento) {
+        return registrar(titulo, descripcion, categoria, fechaVencimiento, true);
+    }
+
+    private TareaEnFila registrar(String titulo, String descripcion, Categoria categoria, LocalDate fechaVencimiento,
+                                  boolean soloSiNueva) {
+        // Antes de tocar nada: una tarea demasiado larga no cabría en el diario
+        comprobarLargo(titulo, descripcion);
+        Tarea nueva;
+        int fila;
+        EscritorDiario usado;
+        long numero;
+        escritura.lock();
+        try {
+            if (soloSiNueva && memoriaValidacion.contiene(titulo)) return null;
+            nueva = new Tarea(siguienteId, titulo, descripcion, categoria,
+                    fechaVencimiento, System.currentTimeMillis(), 0);
+            // Primero se deja el cambio en la cola del diario (sin esperar al disco) y después se cambia la memoria
+            usado = escritor;
+            numero = anotar(diario -> diario.escribirRegistro(nueva));
+            aplicarRegistro(nueva);
+            fila = ordenPendientes.posicion(nueva);
+            historialDeshacer.apuntar(HistorialDeshacer.Cambio.registrar(nueva));
+            for (OyenteTareas oyente : oyentes) oyente.tareaRegistrada(nueva);
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+        return new TareaEnFila(nueva, fila);
+    }
+
+    /**
+     * Registra de una vez muchas tareas nuevas (importaciones): un solo
+     * bloqueo y una sola anotación en el diario para todo el lote.
+     *
+     * De cada borrador solo se usan el título, la descripción, la categoría y
+     * la fecha de vencimiento; el id y la fecha de creación los pone el gestor.
+     * Los títulos que ya existen (o que se repiten dentro del mismo lote) se saltan.
+     * @return Cuántas tareas se registraron.
+     * @throws IllegalArgumentException si algún borrador pasa del largo máximo (no se registra ninguno).
+     */
+    public int registrarLote(List<Tarea> borradores) {
+        return registrarLote(borradores, null);
+    }
+
+    /**
+     * Igual que registrarLote(borradores), diciendo qué pasó con cada borrador.
+     * @param resultado Si no es null, recibe una entrada por borrador y en el mismo
+     *                  orden: la tarea creada, o null si se saltó por repetida.
+     */
+    public int registrarLote(List<Tarea> borradores, List<Tarea> resultado) {
+        for (Tarea borrador : borradores) comprobarLargo(borrador.getTitulo(), borrador.getDescripcion());
+        EscritorDiario usado;
+        long numero = 0;
+        List<Tarea> nuevas = new ArrayList<>(borradores.size());
+        escritura.lock();
+        try {
+            // 1. Elegimos las que son nuevas y les damos id (todavía sin tocar la memoria)
+            ConjuntoHuellas enEsteLote = new ConjuntoHuellas(borradores.size());
+            long ahora = System.currentTimeMillis();
+            long id = siguienteId;
+            for (Tarea borrador : borradores) {
+                if (memoriaValidacion.contiene(borrador.getTitulo()) || !enEsteLote.agregar(borrador)) {
+                    if (resultado != null) resultado.add(null);
+                    continue;
+                }
+                Tarea nueva = new Tarea(id++, borrador.getTitulo(), borrador.getDescripcion(), borrador.getCategoria(),
+                        borrador.getFechaVencimiento(), ahora, 0);
+                nuevas.add(nueva);
+                if (resultado != null) resultado.add(nueva);
+            }
+
+            // 2. Igual que con una sola tarea: primero el diario (todo el lote en una anotación) y después la memoria
+            usado = escritor;
+            if (!nuevas.isEmpty()) {
+                numero = anotar(diario -> {
+                    for (Tarea t : nuevas) diario.escribirRegistro(t);
+                });
+            }
+            for (Tarea nueva : nuevas) {
+                aplicarRegistro(nueva);
+                for (OyenteTareas oyente : oyentes) oyente.tareaRegistrada(nueva);
+            }
+            // Deshacer el lote entero es un solo paso (que cuesta lo que el lote)
+            if (!nuevas.isEmpty()) historialDeshacer.apuntar(HistorialDeshacer.Cambio.lote(nuevas));
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+        return nuevas.size();
+    }
+
+    // Los límites de Tarea.MAXIMO_TITULO y MAXIMO_DESCRIPCION (la ventana y los importadores ya los avisan antes)
+    private static void comprobarLargo(String titulo, String descripcion) {
+        if (titulo != null && titulo.length() > Tarea.MAXIMO_TITULO) {
+            throw new IllegalArgumentException("Título demasiado largo: " + titulo.length() + " caracteres");
+        }
+        if (descripcion != null && descripcion.length() > Tarea.MAXIMO_DESCRIPCION) {
+            throw new IllegalArgumentException("Descripción demasiado larga: " + descripcion.length() + " caracteres");
+        }
+    }
+
     /**
      * Mueve una tarea de la lista de pendientes a la de completadas.
+     * @return La tarea ya completada, o null si el id no estaba pendiente.
      */
-    public void completarTarea(String tareaFormateada) {
-        // 1. Borramos la tarea de la lista de pendientes
-        listaPendientes.remove(tareaFormateada);
-        
-        // 2. La agregamos a la lista de completadas, poniéndole un check visual
-        // Usamos add(0, ...) para que las recién completadas salgan arriba del historial
-        listaCompletadas.add(0, "✔ " + tareaFormateada); 
-        
-        // 3. IMPORTANTE: Liberamos el nombre original.
-        // Al borrarla de memoriaValidacion, el usuario podrá volver a crear una tarea con ese nombre.
-        String nombreReal = obtenerNombreOriginal(tareaFormateada);
-        memoriaValidacion.remove(nombreReal); 
+    public Tarea completarTarea(long id) {
+        TareaEnFila completada = completarEnFila(id);
+        return completada == null ? null : completada.getTarea();
+    }
+
+    /**
+     * Igual que completarTarea, diciendo además en qué fila de la lista de
+     * pendientes estaba (calculada en el mismo bloqueo que el cambio).
+     * @return La tarea ya completada y su fila, o null si el id no estaba pendiente.
+     */
+    public TareaEnFila completarEnFila(long id) {
+        Tarea completada;
+        int fila;
+        EscritorDiario usado;
+        long numero;
+        escritura.lock();
+        try {
+            Tarea pendiente = indicePendientes.get(id);
+            if (pendiente == null) return null;
+            fila = ordenPendientes.posicion(pendiente);
+            long instante = System.currentTimeMillis();
+            usado = escritor;
+            numero = anotar(diario -> diario.escribirCompletar(id, instante));
+            completada = aplicarCompletar(id, instante);
+            historialDeshacer.apuntar(HistorialDeshacer.Cambio.completar(id, instante));
+            for (OyenteTareas oyente : oyentes) oyente.tareaCompletada(pendiente, completada);
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+        return new TareaEnFila(completada, fila);
     }
-    
+
     /**
      * Elimina una tarea definitivamente (Boton Eliminar).
+     * @return La tarea eliminada, o null si el id no estaba pendiente.
      */
-    public void eliminarTareaPendiente(String tareaFormateada) {
-        // 1. La quitamos de la lista visual
-        listaPendientes.remove(tareaFormateada);
-        
-        // 2. La olvidamos de la memoria de validación
-        String nombreReal = obtenerNombreOriginal(tareaFormateada);
-        memoriaValidacion.remove(nombreReal);
+    public Tarea eliminarTareaPendiente(long id) {
+        TareaEnFila eliminada = eliminarEnFila(id);
+        return eliminada == null ? null : eliminada.getTarea();
     }
-    
+
+    /**
+     * Igual que eliminarTareaPendiente, diciendo además en qué fila de la lista
+     * de pendientes estaba (calculada en el mismo bloqueo que el cambio).
+     * @return La tarea eliminada y su fila, o null si el id no estaba pendiente.
+     */
+    public TareaEnFila eliminarEnFila(long id) {
+        Tarea eliminada;
+        int fila;
+        EscritorDiario usado;
+        long numero;
+        escritura.lock();
+        try {
+            Tarea pendiente = indicePendientes.get(id);
+            if (pendiente == null) return null;
+            fila = ordenPendientes.posicion(pendiente);
+            usado = escritor;
+            numero = anotar(diario -> diario.escribirEliminar(id));
+            eliminada = aplicarEliminar(id);
+            historialDeshacer.apuntar(HistorialDeshacer.Cambio.eliminar(eliminada));
+            for (OyenteTareas oyente : oyentes) oyente.tareaEliminada(eliminada);
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+        return new TareaEnFila(eliminada, fila);
+    }
+
     /**
      * Borra todo el historial de tareas completadas.
      * No necesitamos tocar memoriaValidacion aquí porque las tareas completadas
      * ya fueron borradas de la memoria de validación al completarse.
+     *
+     * Se puede deshacer sin haber copiado nada: los segmentos en disco se
+     * sueltan (no se borran) y solo se guardan las tareas del anillo. Los
+     * archivos se borran cuando este cambio ya no se puede deshacer.
      */
     public void vaciarCompletadas() {
-        listaCompletadas.clear();
+        EscritorDiario usado;
+        long numero;
+        escritura.lock();
+        try {
+            usado = escritor;
+            numero = anotar(DiarioTareas::escribirVaciar);
+            HistorialCompletadas.Resumen anterior = aplicarVaciar();
+            if (anterior.segmentos > 0 || !anterior.recientes.isEmpty()) {
+                historialDeshacer.apuntar(HistorialDeshacer.Cambio.vaciar(anterior));
+            }
+            for (OyenteTareas oyente : oyentes) oyente.historialVaciado();
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+    }
+
+    // --- DESHACER Y REHACER ---
+
+    /**
+     * Deshace el último cambio (venga de donde venga: la ventana, la API, un
+     * importador...). Cuesta O(1), salvo deshacer un lote (lo que el lote) o
+     * un vaciado (las tareas que había en memoria, como mucho 2 x 4096).
+     * Lo deshecho también se apunta en el diario, así sobrevive a un reinicio.
+     * Si no se puede, explicarSinDeshacer() dice por qué.
+     * @return true si había algo que deshacer.
+     */
+    public boolean deshacer() {
+        EscritorDiario usado;
+        long numero;
+        escritura.lock();
+        try {
+            HistorialDeshacer.Cambio cambio = historialDeshacer.siguienteDeshacer();
+            if (cambio == null) return false;
+            // Deshacer un completar quita la completada más reciente del anillo. Si ya se
+            // guardó en disco (se han deshecho miles seguidas), el segmento más nuevo vuelve antes al anillo
+            HistorialCompletadas.Resumen sinUltimoSegmento = null;
+            Tarea[] devueltas = null;
+            if (cambio.tipo == HistorialDeshacer.Tipo.COMPLETAR) {
+                Tarea reciente = listaCompletadas.recienteEnAnillo();
+                if (reciente == null) {
+                    try {
+                        devueltas = listaCompletadas.ultimoSegmento();
+                    } catch (UncheckedIOException e) {
+                        logger.log(Level.WARNING, "No se pudo leer el historial para deshacer", e);
+                        return olvidarDeshacer("No se pudo leer el historial de completadas del disco: "
+                                + "lo anterior ya no se puede deshacer.");
+                    }
+                    if (devueltas != null) {
+                        HistorialCompletadas.Resumen actual = listaCompletadas.resumir();
+                        sinUltimoSegmento = new HistorialCompletadas.Resumen(actual.primerSegmento, actual.segmentos - 1, List.of());
+                        reciente = devueltas[devueltas.length - 1];
+                    }
+                }
+                if (reciente == null || reciente.getId() != cambio.id) {
+                    return olvidarDeshacer("El historial de completadas ya no coincide con lo que había que deshacer: "
+                            + "lo anterior ya no se puede deshacer.");
+                }
+            }
+            usado = escritor;
+            HistorialCompletadas.Resumen historial = sinUltimoSegmento;
+            Tarea[] aRecuperar = devueltas;
+            numero = anotar(diario -> {
+                // El segmento vuelve al anillo también en el diario, tarea a tarea: al reproducirlo no
+                // hace falta su archivo (un volcado posterior puede reutilizar su número)
+                if (historial != null) {
+                    diario.escribirRecuperarHistorial(historial.primerSegmento, historial.segmentos);
+                    for (Tarea t : aRecuperar) diario.escribirRecuperarCompletada(t);
+                }
+                anotarDeshacer(diario, cambio);
+            });
+            if (historial != null) {
+                aplicarRecuperarHistorial(historial);
+                for (Tarea t : aRecuperar) aplicarRecuperarCompletada(t);
+            }
+            aplicarDeshacer(cambio);
+            historialDeshacer.deshecho();
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+        return true;
+    }
+
+    /**
+     * Vuelve a hacer el último cambio deshecho. En cuanto se hace un cambio
+     * nuevo, lo deshecho ya no se puede rehacer.
+     * @return true si había algo que rehacer.
+     */
+    public boolean rehacer() {
+        EscritorDiario usado;
+        long numero;
+        escritura.lock();
+        try {
+            HistorialDeshacer.Cambio cambio = historialDeshacer.siguienteRehacer();
+            if (cambio == null) return false;
+            usado = escritor;
+            numero = anotar(diario -> anotarRehacer(diario, cambio));
+            aplicarRehacer(cambio);
+            historialDeshacer.rehecho();
+            revisarCompactacion();
+        } finally {
+            escritura.unlock();
+        }
+        esperarGuardado(usado, numero);
+        return true;
+    }
+
+    // El siguiente cambio no se puede deshacer: ni él ni los anteriores (dependen de él)
+    private boolean olvidarDeshacer(String motivo) {
+        historialDeshacer.olvidarDeshacer();
+        errorDeshacer = motivo;
+        return false;
+    }
+
+    /**
+     * Explica, para mostrárselo al usuario, por qué ya no queda nada que
+     * deshacer: un error, o que los cambios más antiguos no cabían en el
+     * presupuesto. Devuelve null si queda algo, o si simplemente no se ha
+     * cambiado nada desde que se abrieron los datos.
+     */
+    public String explicarSinDeshacer() {
+        lectura.lock();
+        try {
+            if (historialDeshacer.cantidadDeshacer() > 0) return null;
+            if (errorDeshacer != null) return errorDeshacer;
+            if (historialDeshacer.getPresupuesto() == 0) {
+                return "Deshacer está desactivado (la propiedad todolist.deshacer.bytes vale 0).";
+            }
+            if (historialDeshacer.getOlvidadosPorPresupuesto() > 0) {
+                return String.format("Los cambios más antiguos ya no se pueden deshacer: solo se guardan %,d KB "
+                        + "de cambios (propiedad todolist.deshacer.bytes).", historialDeshacer.getPresupuesto() / 1024);
+            }
+            return null;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    public boolean puedeDeshacer() {
+        lectura.lock();
+        try {
+            return historialDeshacer.cantidadDeshacer() > 0;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    public boolean puedeRehacer() {
+        lectura.lock();
+        try {
+            return historialDeshacer.cantidadRehacer() > 0;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Cambia los bytes que pueden ocupar los cambios guardados para deshacer
+     * (por defecto, la propiedad "todolist.deshacer.bytes" o 4 MB; 0 = sin deshacer).
+     * Si ya ocupan más, se olvidan los más antiguos.
+     */
+    public void setPresupuestoDeshacer(long bytes) {
+        escritura.lock();
+        try {
+            historialDeshacer.setPresupuesto(bytes);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /** Bytes (aproximados) que ocupan ahora los cambios guardados para deshacer y rehacer. */
+    public long getBytesDeshacer() {
+        lectura.lock();
+        try {
+            return historialDeshacer.getBytes();
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    // Lo contrario de cada cambio, en el diario
+    private static void anotarDeshacer(DiarioTareas diario, HistorialDeshacer.Cambio cambio) throws IOException {
+        switch (cambio.tipo) {
+            case REGISTRAR:
+                diario.escribirEliminar(cambio.id);
+                break;
+            case LOTE:
+                for (int i = cambio.tareas.size() - 1; i >= 0; i--) diario.escribirEliminar(cambio.tareas.get(i).getId());
+                break;
+            case COMPLETAR:
+                diario.escribirDescompletar(cambio.id);
+                break;
+            case ELIMINAR:
+                diario.escribirRegistro(cambio.tarea);
+                break;
+            case VACIAR:
+                // Los segmentos siguen en disco; las del anillo van una a una (de la más antigua a la más nueva)
+                diario.escribirRecuperarHistorial(cambio.historial.primerSegmento, cambio.historial.segmentos);
+                for (int i = cambio.historial.recientes.size() - 1; i >= 0; i--) {
+                    diario.escribirRecuperarCompletada(cambio.historial.recientes.get(i));
+                }
+                break;
+        }
+    }
+
+    // Lo contrario de cada cambio, en memoria (y los avisos a los oyentes)
+    private void aplicarDeshacer(HistorialDeshacer.Cambio cambio) {
+        switch (cambio.tipo) {
+            case REGISTRAR:
+                quitarConAviso(cambio.id);
+                break;
+            case LOTE:
+                for (int i = cambio.tareas.size() - 1; i >= 0; i--) quitarConAviso(cambio.tareas.get(i).getId());
+                break;
+            case COMPLETAR:
+                Tarea completada = listaCompletadas.recienteEnAnillo();
+                Tarea pendiente = aplicarDescompletar(cambio.id);
+                for (OyenteTareas oyente : oyentes) oyente.tareaDescompletada(completada, pendiente);
+                break;
+            case ELIMINAR:
+                registrarConAviso(cambio.tarea);
+                break;
+            case VACIAR:
+                aplicarRecuperarHistorial(cambio.historial);
+                for (OyenteTareas oyente : oyentes) oyente.historialRecuperado();
+                break;
+        }
+    }
+
+    // El mismo cambio otra vez, en el diario
+    private static void anotarRehacer(DiarioTareas diario, HistorialDeshacer.Cambio cambio) throws IOException {
+        switch (cambio.tipo) {
+            case REGISTRAR:
+                diario.escribirRegistro(cambio.tarea);
+                break;
+            case LOTE:
+                for (Tarea t : cambio.tareas) diario.escribirRegistro(t);
+                break;
+            case COMPLETAR:
+                diario.escribirCompletar(cambio.id, cambio.instante);
+                break;
+            case ELIMINAR:
+                diario.escribirEliminar(cambio.id);
+                break;
+            case VACIAR:
+                diario.escribirVaciar();
+                break;
+        }
+    }
+
+    // El mismo cambio otra vez, en memoria (con la misma tarea, el mismo id y el mismo instante)
+    private void aplicarRehacer(HistorialDeshacer.Cambio cambio) {
+        switch (cambio.tipo) {
+            case REGISTRAR:
+                registrarConAviso(cambio.tarea);
+                break;
+            case LOTE:
+                for (Tarea t : cambio.tareas) registrarConAviso(t);
+                break;
+            case COMPLETAR:
+                Tarea pendiente = indicePendientes.get(cambio.id);
+                Tarea completada = aplicarCompletar(cambio.id, cambio.instante);
+                for (OyenteTareas oyente : oyentes) oyente.tareaCompletada(pendiente, completada);
+                break;
+            case ELIMINAR:
+                quitarConAviso(cambio.id);
+                break;
+            case VACIAR:
+                aplicarVaciar();
+                for (OyenteTareas oyente : oyentes) oyente.historialVaciado();
+                break;
+        }
+    }
+
+    private void registrarConAviso(Tarea tarea) {
+        aplicarRegistro(tarea);
+        for (OyenteTareas oyente : oyentes) oyente.tareaRegistrada(tarea);
+    }
+
+    private void quitarConAviso(long id) {
+        Tarea quitada = aplicarEliminar(id);
+        if (quitada == null) return;
+        for (OyenteTareas oyente : oyentes) oyente.tareaEliminada(quitada);
+    }
+
+    // Un cambio hecho que ya no se podrá deshacer: si era un vaciado, sus segmentos ya no los recupera nadie
+    private void olvidarCambio(HistorialDeshacer.Cambio cambio) {
+        if (cambio.tipo == HistorialDeshacer.Tipo.VACIAR) listaCompletadas.borrarSegmentos(cambio.historial);
+    }
+
+    // --- CAMBIOS EN MEMORIA ---
+    // Estos métodos solo tocan las colecciones. Los usan tanto las operaciones
+    // normales como la reproducción del diario al arrancar.
+
+    private void aplicarRegistro(Tarea nueva) {
+        // 1. Guardamos el nombre en memoriaValidacion para bloquear duplicados futuros
+        memoriaValidacion.agregar(nueva);
+        cambiarTitulo(nueva, true);
+        vencimientos.agregar(nueva);
+
+        // 2. Guardamos la tarea en el índice por id y en el índice ordenado
+        indicePendientes.put(nueva.getId(), nueva);
+        ordenPendientes.insertar(nueva);
+        busquedaPendientes.agregar(nueva.getId(), nueva);
+
+        // El contador siempre va por delante del id más alto conocido
+        siguienteId = Math.max(siguienteId, nueva.getId() + 1);
+    }
+
+    private Tarea aplicarCompletar(long id, long instante) {
+        Tarea tarea = indicePendientes.get(id);
+        if (tarea == null) return null;
+
+        // 1. La agregamos al principio del historial, marcada como completada. Va primero:
+        //    si algo fallara aquí, la tarea seguiría pendiente y la memoria sin tocar.
+        //    En el buscador su clave es su número de orden contando desde la más antigua
+        Tarea completada = tarea.marcarCompletada(instante);
+        listaCompletadas.agregar(completada);
+        busquedaCompletadas.agregar(listaCompletadas.tamano() - 1, completada);
+        acotarBusquedaCompletadas();
+
+        // 2. Borramos la tarea de las pendientes (búsqueda directa por id)
+        indicePendientes.remove(id);
+        ordenPendientes.eliminar(tarea);
+        busquedaPendientes.quitar();
+
+        // 3. IMPORTANTE: Liberamos el nombre original.
+        // Al borrarla de memoriaValidacion, el usuario podrá volver a crear una tarea con ese nombre.
+        memoriaValidacion.quitar(tarea.getTitulo());
+        cambiarTitulo(tarea, false);
+        vencimientos.quitar(tarea);
+        return completada;
+    }
+
+    private Tarea aplicarEliminar(long id) {
+        // 1. La quitamos del índice
+        Tarea tarea = indicePendientes.remove(id);
+        if (tarea == null) return null;
+        ordenPendientes.eliminar(tarea);
+        busquedaPendientes.quitar();
+
+        // 2. La olvidamos de la memoria de validación
+        memoriaValidacion.quitar(tarea.getTitulo());
+        cambiarTitulo(tarea, false);
+        vencimientos.quitar(tarea);
+        return tarea;
+    }
+
+    private HistorialCompletadas.Resumen aplicarVaciar() {
+        busquedaCompletadas.vaciar();
+        return listaCompletadas.vaciar();
+    }
+
+    // Lo contrario de aplicarCompletar para la completada más reciente
+    private Tarea aplicarDescompletar(long id) {
+        Tarea completada = listaCompletadas.recienteEnAnillo();
+        if (completada == null || completada.getId() != id) return null;
+        listaCompletadas.quitarMasReciente();
+        // Su número de orden lo usará la siguiente completada: sale del buscador del todo
+        busquedaCompletadas.quitarUltima(listaCompletadas.tamano(), completada);
+        // Se ha deshecho hasta antes de lo indexado: lo que venga ya no sigue a lo que cubre el índice
+        if (listaCompletadas.tamano() < busquedaCompletadas.getPrimeraClave()) busquedaCompletadas.invalidar();
+        Tarea pendiente = completada.marcarPendiente();
+        aplicarRegistro(pendiente);
+        return pendiente;
+    }
+
+    private void aplicarRecuperarHistorial(HistorialCompletadas.Resumen historial) {
+        listaCompletadas.restaurar(historial);
+        // Vuelven tareas que el buscador ya había olvidado: se indexa todo en la próxima búsqueda
+        busquedaCompletadas.invalidar();
+    }
+
+    private void aplicarRecuperarCompletada(Tarea completada) {
+        busquedaCompletadas.agregar(listaCompletadas.tamano(), completada);
+        listaCompletadas.agregar(completada);
+        acotarBusquedaCompletadas();
     }
-    
+
+    // El índice del historial cubre ya el doble de lo que debe: se rehará en la próxima búsqueda
+    private void acotarBusquedaCompletadas() {
+        if (listaCompletadas.tamano() - busquedaCompletadas.getPrimeraClave() > 2L * MAXIMO_COMPLETADAS_INDEXADAS) {
+            busquedaCompletadas.invalidar();
+        }
+    }
+
     // --- GETTERS PARA RECUPERAR DATOS ---
-    
-    public ArrayList<String> obtenerPendientes() {
-        return listaPendientes;
+
+    /**
+     * Busca una tarea pendiente por su id.
+     * @return La tarea, o null si no existe.
+     */
+    public Tarea obtenerTarea(long id) {
+        lectura.lock();
+        try {
+            return indicePendientes.get(id);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Posición de una tarea pendiente dentro de la lista ordenada.
+     * La vista la usa para insertar la tarea en su sitio sin recorrer la lista.
+     * @return La posición (empezando en 0), o -1 si no está pendiente.
+     */
+    public int posicionPendiente(Tarea tarea) {
+        lectura.lock();
+        try {
+            return ordenPendientes.posicion(tarea);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Tarea pendiente que ocupa la posición indicada en la lista ordenada.
+     */
+    public Tarea obtenerPendiente(int indice) {
+        lectura.lock();
+        try {
+            return ordenPendientes.obtener(indice);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    public int cantidadPendientes() {
+        lectura.lock();
+        try {
+            return ordenPendientes.tamano();
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Devuelve las pendientes ya ordenadas (Categoría > Fecha > Creación).
+     */
+    public List<Tarea> obtenerPendientes() {
+        lectura.lock();
+        try {
+            List<Tarea> lista = new ArrayList<>(ordenPendientes.tamano());
+            for (Tarea t : ordenPendientes) lista.add(t);
+            return lista;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    public int cantidadCompletadas() {
+        lectura.lock();
+        try {
+            return listaCompletadas.tamano();
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Completada de la posición indicada (0 = la más reciente).
+     * Las antiguas se leen de disco por bloques cuando se piden (por ejemplo al hacer scroll).
+     */
+    public Tarea obtenerCompletada(int indice) {
+        lectura.lock();
+        try {
+            return listaCompletadas.obtener(indice);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Cuántas pendientes hay de cada categoría, en el orden de Categoria.values().
+     * Como el índice ordena primero por categoría, basta con buscar dónde
+     * termina cada una: O(log n) por categoría, sin recorrer la lista.
+     */
+    public int[] contarPendientesPorCategoria() {
+        Categoria[] categorias = Categoria.values();
+        int[] hasta = new int[categorias.length];
+        lectura.lock();
+        try {
+            for (int i = 0; i < categorias.length; i++) {
+                // Sin fecha y con el id más alto: va detrás de todas las de su categoría
+                hasta[i] = ordenPendientes.posicionSiguiente(
+                        new Tarea(Long.MAX_VALUE, "", "", categorias[i], null, 0, 0));
+            }
+        } finally {
+            lectura.unlock();
+        }
+        // Cada categoría empieza donde termina la anterior en el orden (la de nivel menor más cercano)
+        int[] conteos = new int[categorias.length];
+        for (int i = 0; i < categorias.length; i++) {
+            int desde = 0;
+            for (int j = 0; j < categorias.length; j++) {
+                if (categorias[j].getNivel() < categorias[i].getNivel()) desde = Math.max(desde, hasta[j]);
+            }
+            conteos[i] = hasta[i] - desde;
+        }
+        return conteos;
+    }
+
+    // --- VENCIMIENTOS ---
+
+    /**
+     * Pendientes que vencen entre las dos fechas (ambas incluidas), por orden de fecha.
+     * Las que no tienen fecha nunca salen. Cuesta O(log n + k), k = las devueltas.
+     * @param desde null = sin límite (por ejemplo, todas las vencidas hasta ayer).
+     * @param hasta null = sin límite.
+     */
+    public List<Tarea> pendientesQueVencen(LocalDate desde, LocalDate hasta) {
+        lectura.lock();
+        try {
+            List<Tarea> resultado = new ArrayList<>();
+            vencimientos.entre(desde, hasta, resultado);
+            return resultado;
+        } finally {
+            lectura.unlock();
+        }
     }
 
-    public ArrayList<String> obtenerCompletadas() {
-        return listaCompletadas;
+    /**
+     * Cuántas pendientes vencen entre las dos fechas (ambas incluidas), en O(log n).
+     * @param desde null = sin límite.
+     * @param hasta null = sin límite.
+     */
+    public int contarPendientesQueVencen(LocalDate desde, LocalDate hasta) {
+        lectura.lock();
+        try {
+            return vencimientos.contar(desde, hasta);
+        } finally {
+            lectura.unlock();
+        }
     }
 
     /**
-     * Método Mágico: Limpia el texto visual para encontrar el nombre original.
-     * Ejemplo: Convierte "★ [URGENTE] Tarea 1 (Vence: 10/10/2025)" en "TAREA 1".
+     * Cuántas pendientes vencen cada día, empezando por "desde" (para el calendario).
      */
-    private String obtenerNombreOriginal(String textoFormateado) {
-        String limpio = textoFormateado;
-        
-        // 1. Quitamos los prefijos (Iconos y etiquetas)
-        limpio = limpio.replace("★ [URGENTE] ", "");
-        limpio = limpio.replace("📅 [HOY] ", "");
-        limpio = limpio.replace("📝 ", ""); // El icono del lápiz
-        
-        // 2. Quitamos la fecha si existe
-        // Buscamos dónde empieza el texto "(Vence:" y cortamos el String hasta ahí
-        if (limpio.contains(" (Vence:")) {
-            int indiceFecha = limpio.indexOf(" (Vence:");
-            limpio = limpio.substring(0, indiceFecha);
+    public int[] contarVencimientosPorDia(LocalDate desde, int dias) {
+        lectura.lock();
+        try {
+            return vencimientos.contarPorDia(desde, dias);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    // --- BÚSQUEDA ---
+
+    /**
+     * Pendientes cuyo título o descripción contiene todas las palabras de la
+     * consulta (sin distinguir mayúsculas ni tildes, y la palabra puede estar a
+     * medio escribir), en el mismo orden que la lista.
+     * La primera búsqueda construye el índice de palabras; las siguientes tardan milisegundos.
+     * @return Las tareas encontradas (vacía si la consulta no tiene palabras).
+     */
+    public List<Tarea> buscarPendientes(String consulta) {
+        lectura.lock();
+        try {
+            long[] ids = busquedaPendientes.buscar(consulta, indice -> {
+                for (Tarea t : ordenPendientes) indice.agregar(t.getId(), t);
+            });
+            if (ids == null) return new ArrayList<>();
+            List<Tarea> resultado = new ArrayList<>(ids.length);
+            // Se buscan por id (las que ya no están pendientes se saltan)
+            for (long id : ids) {
+                Tarea t = indicePendientes.get(id);
+                if (t != null) resultado.add(t);
+            }
+            // Los ids vienen en el orden en que se indexaron, que es el de la lista (salvo las
+            // creadas después): ya casi ordenadas, y ordenarlas así es casi lineal
+            Collections.sort(resultado);
+            // Una tarea que volvió al deshacer está dos veces en el índice: tras ordenar, quedan juntas
+            int n = 0;
+            for (int i = 0; i < resultado.size(); i++) {
+                if (n == 0 || resultado.get(i) != resultado.get(n - 1)) resultado.set(n++, resultado.get(i));
+            }
+            return n == resultado.size() ? resultado : new ArrayList<>(resultado.subList(0, n));
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Igual que buscarPendientes, pero en el historial. Como el historial puede
+     * estar casi todo en disco, no devuelve las tareas sino su número de orden
+     * (0 = la más antigua), de la más reciente a la más antigua; cada tarea se lee
+     * con obtenerCompletadaPorNumero cuando hace falta (por ejemplo, al verse en pantalla).
+     * Las MAXIMO_COMPLETADAS_INDEXADAS más recientes se buscan con el índice de
+     * palabras; las anteriores, leyendo sus segmentos de disco en cada búsqueda.
+     */
+    public int[] buscarCompletadas(String consulta) {
+        lectura.lock();
+        try {
+            long[] numeros = busquedaCompletadas.buscar(consulta, indice -> {
+                int total = listaCompletadas.tamano();
+                int desde = Math.max(0, total - MAXIMO_COMPLETADAS_INDEXADAS);
+                indice.empezarEn(desde);
+                // De la más antigua a la más nueva: los segmentos de disco se leen en orden
+                for (int numero = desde; numero < total; numero++) {
+                    indice.agregar(numero, listaCompletadas.obtener(total - 1 - numero));
+                }
+            });
+            if (numeros == null) return new int[0];
+            int total = listaCompletadas.tamano();
+            int desde = (int) Math.min(busquedaCompletadas.getPrimeraClave(), total);
+
+            // 1. Las indexadas, de la más nueva a la más antigua
+            Arrays.sort(numeros);
+            int[] resultado = new int[Math.max(16, numeros.length)];
+            int n = 0;
+            for (int i = numeros.length - 1; i >= 0; i--) {
+                if (numeros[i] >= total || (n > 0 && resultado[n - 1] == numeros[i])) continue;
+                resultado[n++] = (int) numeros[i];
+            }
+
+            // 2. Las que quedan antes del índice: una a una (los segmentos se leen de uno en uno)
+            List<String> buscadas = IndiceBusqueda.palabras(consulta);
+            for (int numero = desde - 1; numero >= 0; numero--) {
+                if (!IndiceBusqueda.contieneTodas(buscadas, listaCompletadas.obtener(total - 1 - numero))) continue;
+                if (n == resultado.length) resultado = Arrays.copyOf(resultado, n * 2);
+                resultado[n++] = numero;
+            }
+            return n == resultado.length ? resultado : Arrays.copyOf(resultado, n);
+        } finally {
+            lectura.unlock();
         }
-        
-        // 3. Quitamos la descripción si existe
-        // Buscamos el separador " : " y cortamos hasta ahí
-        if (limpio.contains(" : ")) {
-            int indiceDesc = limpio.indexOf(" : ");
-            limpio = limpio.substring(0, indiceDesc);
+    }
+
+    /**
+     * Completada con el número de orden indicado (0 = la más antigua). A diferencia
+     * de la posición, el número no cambia cuando se completan tareas nuevas.
+     */
+    public Tarea obtenerCompletadaPorNumero(int numero) {
+        lectura.lock();
+        try {
+            return listaCompletadas.obtener(listaCompletadas.tamano() - 1 - numero);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    // --- LECTURA POR PÁGINAS (exportar, API...) ---
+
+    /**
+     * Copia en destino hasta "cantidad" pendientes, en orden, empezando justo después
+     * de la tarea indicada (o desde el principio si es null). La página se lee con un
+     * solo bloqueo; para la siguiente se pasa la última tarea copiada, así el recorrido
+     * no se salta ni repite tareas aunque otros hilos agreguen o quiten pendientes.
+     * @return Cuántas tareas se copiaron (0 = ya no quedan).
+     */
+    public int copiarPendientes(Tarea despuesDe, int cantidad, List<Tarea> destino) {
+        lectura.lock();
+        try {
+            int desde = despuesDe == null ? 0 : ordenPendientes.posicionSiguiente(despuesDe);
+            int hasta = Math.min(ordenPendientes.tamano(), desde + cantidad);
+            for (int i = desde; i < hasta; i++) destino.add(ordenPendientes.obtener(i));
+            return Math.max(0, hasta - desde);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Copia en destino hasta "cantidad" pendientes, en orden, empezando por la
+     * posición "desde". Como la otra versión, lee toda la página con un solo bloqueo.
+     * @return Cuántas pendientes había en total al copiar la página.
+     */
+    public int copiarPendientes(int desde, int cantidad, List<Tarea> destino) {
+        lectura.lock();
+        try {
+            int total = ordenPendientes.tamano();
+            int hasta = (int) Math.min(total, (long) desde + cantidad);
+            for (int i = desde; i < hasta; i++) destino.add(ordenPendientes.obtener(i));
+            return total;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Copia en destino hasta "cantidad" completadas, de la más antigua a la más nueva,
+     * saltándose las "desde" primeras. Contar desde la más antigua hace que las
+     * completadas nuevas (que entran por el otro extremo) no muevan las páginas.
+     * @return Cuántas tareas se copiaron (0 = ya no quedan).
+     */
+    public int copiarCompletadas(long desde, int cantidad, List<Tarea> destino) {
+        lectura.lock();
+        try {
+            int total = listaCompletadas.tamano();
+            if (desde >= total) return 0;
+            int copiadas = (int) Math.min(cantidad, total - desde);
+            // obtener(0) es la más reciente: la más antigua es total - 1
+            int posicion = (int) (total - 1 - desde);
+            for (int i = 0; i < copiadas; i++) destino.add(listaCompletadas.obtener(posicion - i));
+            return copiadas;
+        } finally {
+            lectura.unlock();
         }
-        
-        // Devolvemos limpio, sin espacios extra y en mayúsculas para comparar
-        return limpio.toUpperCase().trim();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,431 @@
+package Modelo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Historial de tareas completadas con memoria acotada.
+ *
+ * Las completadas más recientes viven en un "anillo" (un array circular) en
+ * memoria. Cuando el anillo se llena, la mitad más antigua se comprime y se
+ * guarda en un archivo de segmento (segmento-N.bin) que ya nunca se modifica.
+ * Así, aunque se acumulen años de tareas completadas, en memoria solo hay como
+ * mucho 2 x TAMANO_SEGMENTO tareas más unos pocos segmentos leídos hace poco.
+ *
+ * Comprimir y forzar a disco el segmento lo hace un hilo aparte: quien completa
+ * (la ventana, con el bloqueo del GestorDatos tomado) nunca espera al disco.
+ * El volcado empieza cuando el anillo está a tres cuartos y, mientras dura, las
+ * tareas siguen en el anillo; solo cuando el archivo ya está guardado salen de
+ * él (en el siguiente agregar). Si el disco falla, las tareas se quedan en
+ * memoria (el anillo crece) y se vuelve a intentar más adelante.
+ *
+ * Las posiciones van de la más reciente (0) a la más antigua (tamano() - 1),
+ * igual que se muestran en la lista de la ventana de completadas.
+ */
+class HistorialCompletadas {
+
+    private static final Logger logger = Logger.getLogger(HistorialCompletadas.class.getName());
+
+    // Tareas por segmento. Es fijo: todos los segmentos tienen exactamente este número.
+    static final int TAMANO_SEGMENTO = 4096;
+
+    // Con cuántas tareas en el anillo se empieza a volcar la mitad más antigua
+    private static final int UMBRAL_VOLCADO = TAMANO_SEGMENTO + TAMANO_SEGMENTO / 2;
+
+    // Cuántos segmentos leídos se guardan en memoria para no descomprimirlos otra vez al hacer scroll
+    private static final int SEGMENTOS_EN_CACHE = 4;
+
+    private static final int MAGICO = 0x54444C48; // "TDLH"
+
+    // Carpeta de los segmentos (se crea cuando hace falta el primero).
+    // Si no hay carpeta de datos se usa una temporal que se borra al salir.
+    private Path directorio;
+    private boolean temporal;
+
+    // Anillo con las más recientes: 'inicio' es la más antigua y 'enAnillo' cuántas hay.
+    // Solo crece por encima de 2 x TAMANO_SEGMENTO si el disco falla
+    private Tarea[] anillo = new Tarea[2 * TAMANO_SEGMENTO];
+    private int inicio;
+    private int enAnillo;
+
+    // Segmento que se está escribiendo en segundo plano (null si ninguno): son las
+    // TAMANO_SEGMENTO más antiguas del anillo, que no salen de él hasta que termina
+    private FutureTask<Tarea[]> volcado;
+    private long numeroVolcado;
+    // Con cuántas tareas en el anillo empieza el siguiente volcado (más si el último falló)
+    private int umbralVolcado = UMBRAL_VOLCADO;
+
+    // Segmentos en disco: números primerSegmento .. primerSegmento + segmentos - 1 (de más antiguo a más nuevo)
+    private long primerSegmento = 1;
+    private int segmentos;
+
+    // Caché LRU (el menos usado sale primero) de segmentos ya descomprimidos
+    private final LinkedHashMap<Long, Tarea[]> cache = new LinkedHashMap<Long, Tarea[]>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Tarea[]> eldest) {
+            return size() > SEGMENTOS_EN_CACHE;
+        }
+    };
+
+    private final CodecTarea codec = new CodecTarea();
+
+    /**
+     * @param directorio Carpeta de los segmentos, o null para usar una temporal.
+     */
+    HistorialCompletadas(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    // --- CONSULTAS ---
+
+    int tamano() {
+        return enAnillo + segmentos * TAMANO_SEGMENTO;
+    }
+
+    /**
+     * Devuelve la completada de la posición indicada (0 = la más reciente).
+     * Si está en un segmento en disco, se lee y descomprime el segmento entero.
+     */
+    Tarea obtener(int indice) {
+        if (indice < 0 || indice >= tamano()) throw new IndexOutOfBoundsException("Completada: " + indice);
+        if (indice < enAnillo) {
+            return anillo[(inicio + enAnillo - 1 - indice) % anillo.length];
+        }
+        // Posición contando desde la más reciente guardada en segmentos
+        int resto = indice - enAnillo;
+        long numero = primerSegmento + segmentos - 1 - resto / TAMANO_SEGMENTO;
+        // Dentro del segmento están de la más antigua a la más nueva
+        return leerSegmento(numero)[TAMANO_SEGMENTO - 1 - resto % TAMANO_SEGMENTO];
+    }
+
+    /**
+     * La completada más reciente si está en el anillo, o null si no hay
+     * ninguna en memoria (entonces quitarMasReciente() no puede quitarla).
+     */
+    Tarea recienteEnAnillo() {
+        return enAnillo == 0 ? null : anillo[(inicio + enAnillo - 1) % anillo.length];
+    }
+
+    // --- CAMBIOS ---
+
+    /**
+     * Agrega una completada como la más reciente. Nunca espera al disco, salvo
+     * si el anillo se llena antes de que termine el volcado en marcha.
+     * Cuando el anillo pasa de tres cuartos, la mitad más antigua empieza a
+     * guardarse en un segmento nuevo (en otro hilo).
+     */
+    void agregar(Tarea completada) {
+        if (volcado != null && (volcado.isDone() || enAnillo == anillo.length)) terminarVolcado();
+        if (enAnillo == anillo.length) crecerAnillo();
+        anillo[(inicio + enAnillo) % anillo.length] = completada;
+        enAnillo++;
+        if (volcado == null && enAnillo >= umbralVolcado) empezarVolcado();
+    }
+
+    /**
+     * Quita la completada más reciente (para deshacer un completar).
+     * Solo se puede si está en el anillo: los segmentos en disco nunca se
+     * modifican. Después de volcar un segmento siempre quedan unas TAMANO_SEGMENTO / 2
+     * en el anillo; si aun así se vacía, el GestorDatos devuelve antes al anillo
+     * el segmento más nuevo (ultimoSegmento() y restaurar).
+     * @return La tarea quitada, o null si el anillo está vacío.
+     */
+    Tarea quitarMasReciente() {
+        if (enAnillo == 0) return null;
+        // Es del segmento que se está escribiendo: ese segmento ya no vale
+        if (volcado != null && enAnillo <= TAMANO_SEGMENTO) descartarVolcado();
+        int posicion = (inicio + enAnillo - 1) % anillo.length;
+        Tarea tarea = anillo[posicion];
+        anillo[posicion] = null;
+        enAnillo--;
+        return tarea;
+    }
+
+    /**
+     * Deja el historial vacío. Los segmentos en disco NO se borran: el resumen
+     * devuelto los sigue nombrando, y con restaurar(resumen) el historial vuelve
+     * a estar como antes sin copiar nada. Cuando ya no hagan falta se borran con
+     * borrarSegmentos(resumen).
+     * @return Lo que había antes de vaciar.
+     */
+    Resumen vaciar() {
+        terminarVolcado();
+        Resumen anterior = resumir();
+        for (int i = 0; i < anillo.length; i++) anillo[i] = null;
+        inicio = 0;
+        enAnillo = 0;
+        // Los segmentos nuevos siguen la numeración: no pisan a los que se acaban de soltar
+        primerSegmento += segmentos;
+        segmentos = 0;
+        cache.clear();
+        return anterior;
+    }
+
+    /**
+     * Las tareas del segmento más nuevo en disco, de la más antigua a la más
+     * nueva (una copia), o null si no hay ninguno.
+     * @throws UncheckedIOException si no se puede leer.
+     */
+    Tarea[] ultimoSegmento() {
+        return segmentos == 0 ? null : leerSegmento(primerSegmento + segmentos - 1).clone();
+    }
+
+    // --- INSTANTÁNEAS ---
+
+    /**
+     * Resumen del historial para guardarlo en una instantánea: qué segmentos
+     * hay en disco y una copia de las tareas del anillo (de la más reciente a
+     * la más antigua). Los segmentos no se copian porque ya están en disco.
+     */
+    static final class Resumen {
+        final long primerSegmento;
+        final int segmentos;
+        final List<Tarea> recientes;
+
+        Resumen(long primerSegmento, int segmentos, List<Tarea> recientes) {
+            this.primerSegmento = primerSegmento;
+            this.segmentos = segmentos;
+            this.recientes = recientes;
+        }
+    }
+
+    // El segmento que se está escribiendo todavía cuenta como parte del anillo
+    Resumen resumir() {
+        List<Tarea> recientes = new ArrayList<>(enAnillo);
+        for (int i = 0; i < enAnillo; i++) recientes.add(obtener(i));
+        return new Resumen(primerSegmento, segmentos, recientes);
+    }
+
+    /**
+     * Deja el historial tal como lo describe un resumen (de una instantánea, o
+     * de vaciar() al deshacer). No borra ningún archivo: al arrancar, el diario
+     * todavía puede volver a pedir segmentos que quedan fuera; los que sobren
+     * se borran al final con borrarSegmentosFuera().
+     */
+    void restaurar(Resumen resumen) {
+        descartarVolcado();
+        for (int i = 0; i < anillo.length; i++) anillo[i] = null;
+        inicio = 0;
+        enAnillo = 0;
+        primerSegmento = resumen.primerSegmento;
+        segmentos = resumen.segmentos;
+        cache.clear();
+        // Vienen de la más reciente a la más antigua: las agregamos al revés
+        for (int i = resumen.recientes.size() - 1; i >= 0; i--) agregar(resumen.recientes.get(i));
+    }
+
+    // --- SEGMENTOS EN DISCO ---
+
+    private Path archivoSegmento(long numero) throws IOException {
+        if (directorio == null) {
+            directorio = Files.createTempDirectory("todolist-historial");
+            directorio.toFile().deleteOnExit();
+            temporal = true;
+        }
+        // La carpeta la crea quien escribe el segmento (así pedir el nombre no toca el disco)
+        return directorio.resolve(String.format("segmento-%08d.bin", numero));
+    }
+
+    // Empieza a guardar la mitad más antigua del anillo como un segmento nuevo, en otro hilo
+    private void empezarVolcado() {
+        Tarea[] bloque = new Tarea[TAMANO_SEGMENTO];
+        for (int i = 0; i < TAMANO_SEGMENTO; i++) bloque[i] = anillo[(inicio + i) % anillo.length];
+        Path archivo;
+        try {
+            archivo = archivoSegmento(primerSegmento + segmentos);
+        } catch (IOException e) {
+            volcadoFallido(e);
+            return;
+        }
+        numeroVolcado = primerSegmento + segmentos;
+        boolean borrarAlSalir = temporal;
+        volcado = new FutureTask<>(() -> {
+            escribirSegmento(archivo, bloque);
+            if (borrarAlSalir) archivo.toFile().deleteOnExit();
+            return bloque;
+        });
+        Thread.ofVirtual().name("volcar-historial").start(volcado);
+    }
+
+    // Espera al volcado en marcha (si hay) y, si salió bien, saca sus tareas del anillo
+    private void terminarVolcado() {
+        Tarea[] bloque = esperarVolcado();
+        if (bloque == null) return;
+        // Ya está a salvo en disco: lo sacamos del anillo
+        for (int i = 0; i < TAMANO_SEGMENTO; i++) anillo[(inicio + i) % anillo.length] = null;
+        segmentos++;
+        inicio = (inicio + TAMANO_SEGMENTO) % anillo.length;
+        enAnillo -= TAMANO_SEGMENTO;
+        umbralVolcado = UMBRAL_VOLCADO;
+        cache.put(numeroVolcado, bloque); // Lo acabamos de tener en memoria: lo dejamos en caché
+    }
+
+    // Espera al volcado en marcha (si hay) y tira su archivo: sus tareas siguen en el anillo
+    private void descartarVolcado() {
+        if (esperarVolcado() == null) return;
+        try {
+            Files.deleteIfExists(archivoSegmento(numeroVolcado));
+        } catch (IOException e) {
+            // Si se queda, el siguiente volcado con ese número lo pisa
+            logger.log(Level.FINE, "No se pudo borrar un segmento descartado", e);
+        }
+    }
+
+    // Espera al volcado en marcha. Devuelve sus tareas, o null si no había o falló
+    private Tarea[] esperarVolcado() {
+        if (volcado == null) return null;
+        FutureTask<Tarea[]> enMarcha = volcado;
+        volcado = null;
+        boolean interrumpido = false;
+        try {
+            while (true) {
+                try {
+                    return enMarcha.get();
+                } catch (InterruptedException e) {
+                    interrumpido = true; // Hay que saber cómo terminó: seguimos esperando
+                } catch (ExecutionException e) {
+                    volcadoFallido(e.getCause());
+                    return null;
+                }
+            }
+        } finally {
+            if (interrumpido) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void volcadoFallido(Throwable causa) {
+        logger.log(Level.WARNING, "No se pudo guardar el historial en disco; las completadas siguen en memoria", causa);
+        // No se reintenta con cada completada: se espera a que entren otras TAMANO_SEGMENTO / 2
+        umbralVolcado = enAnillo + TAMANO_SEGMENTO / 2;
+    }
+
+    // El anillo está lleno y no se pudo volcar: se dobla (las tareas quedan en orden desde la posición 0)
+    private void crecerAnillo() {
+        Tarea[] mayor = new Tarea[anillo.length * 2];
+        for (int i = 0; i < enAnillo; i++) mayor[i] = anillo[(inicio + i) % anillo.length];
+        anillo = mayor;
+        inicio = 0;
+    }
+
+    // Comprime las tareas (de la más antigua a la más nueva) y las escribe de una vez,
+    // forzándolas a disco: el segmento nunca más se modifica. Se ejecuta en el hilo del volcado.
+    private static void escribirSegmento(Path archivo, Tarea[] bloque) throws IOException {
+        // 1. Codificamos las tareas una detrás de otra (con un codec propio: este no es el hilo del historial)
+        CodecTarea codificador = new CodecTarea();
+        int tamano = 0;
+        for (Tarea t : bloque) tamano += codificador.tamano(t);
+        ByteBuffer datos = ByteBuffer.allocate(tamano);
+        for (Tarea t : bloque) codificador.codificar(t, datos);
+
+        // 2. Las comprimimos y las escribimos
+        Deflater compresor = new Deflater(Deflater.BEST_SPEED);
+        try {
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(tamano / 3 + 64);
+            try (DataOutputStream salida = new DataOutputStream(comprimido)) {
+                salida.writeInt(MAGICO);
+                salida.writeInt(TAMANO_SEGMENTO);
+                salida.writeInt(tamano);
+            }
+            try (DeflaterOutputStream salida = new DeflaterOutputStream(comprimido, compresor)) {
+                salida.write(datos.array(), 0, tamano);
+            }
+
+            Files.createDirectories(archivo.getParent());
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(comprimido.toByteArray());
+                while (bytes.hasRemaining()) canal.write(bytes);
+                canal.force(false);
+            }
+        } finally {
+            compresor.end();
+        }
+    }
+
+    // Lee (o saca de la caché) un segmento completo.
+    // synchronized: GestorDatos permite varias lecturas a la vez y la caché y el codec no son seguros entre hilos
+    private synchronized Tarea[] leerSegmento(long numero) {
+        Tarea[] bloque = cache.get(numero);
+        if (bloque != null) return bloque;
+
+        Inflater descompresor = new Inflater();
+        try (DataInputStream entrada = new DataInputStream(Files.newInputStream(archivoSegmento(numero)))) {
+            if (entrada.readInt() != MAGICO || entrada.readInt() != TAMANO_SEGMENTO) {
+                throw new IOException("Segmento de historial dañado: " + numero);
+            }
+            int tamano = entrada.readInt();
+            byte[] datos = new InflaterInputStream(entrada, descompresor).readNBytes(tamano);
+            if (datos.length != tamano) throw new IOException("Segmento de historial incompleto: " + numero);
+
+            ByteBuffer tareas = ByteBuffer.wrap(datos);
+            bloque = new Tarea[TAMANO_SEGMENTO];
+            for (int i = 0; i < TAMANO_SEGMENTO; i++) bloque[i] = codec.decodificar(tareas);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el historial", e);
+        } finally {
+            descompresor.end();
+        }
+        cache.put(numero, bloque);
+        return bloque;
+    }
+
+    /**
+     * Borra los archivos de segmento de un resumen que ya no se va a restaurar
+     * (los que sigan siendo del historial actual se dejan).
+     */
+    void borrarSegmentos(Resumen resumen) {
+        if (directorio == null) return;
+        try {
+            for (long numero = resumen.primerSegmento; numero < resumen.primerSegmento + resumen.segmentos; numero++) {
+                if (numero >= primerSegmento && numero < primerSegmento + segmentos) continue;
+                if (volcado != null && numero == numeroVolcado) continue; // Se está escribiendo para el historial actual
+                Files.deleteIfExists(archivoSegmento(numero));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo limpiar el historial", e);
+        }
+    }
+
+    /**
+     * Borra los archivos de segmento que no pertenecen al historial actual
+     * (al arrancar, después de reproducir el diario, y sin nada que deshacer).
+     */
+    void borrarSegmentosFuera() {
+        terminarVolcado(); // El que se esté escribiendo todavía no cuenta como segmento
+        if (directorio == null || !Files.isDirectory(directorio)) return;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "segmento-*.bin")) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                try {
+                    long numero = Long.parseLong(nombre.substring(9, nombre.length() - 4));
+                    if (numero < primerSegmento || numero >= primerSegmento + segmentos) Files.deleteIfExists(archivo);
+                } catch (NumberFormatException e) {
+                    // No es un segmento nuestro: lo dejamos
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo limpiar el historial", e);
+        }
+    }
+}
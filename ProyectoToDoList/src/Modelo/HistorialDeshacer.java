@@ -0,0 +1,206 @@
+package Modelo;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Pilas de deshacer y rehacer del GestorDatos, con memoria acotada.
+ *
+ * Cada cambio se apunta como un registro pequeño con lo justo para darle la
+ * vuelta, no como una copia de las listas: completar guarda el id y el
+ * instante (la tarea ya está en el historial), eliminar guarda la tarea
+ * eliminada y vaciar el historial guarda qué segmentos había en disco y las
+ * tareas del anillo (los segmentos no se borran mientras se pueda deshacer).
+ *
+ * Los registros ocupan unos bytes aproximados y entre las dos pilas no pueden
+ * pasar del presupuesto: si se pasan, se olvidan primero los cambios más
+ * antiguos. Un cambio más grande que todo el presupuesto (importar un archivo
+ * enorme, por ejemplo) se hace igual, pero no se puede deshacer.
+ *
+ * No es seguro entre hilos: el GestorDatos lo usa con su bloqueo de escritura.
+ */
+final class HistorialDeshacer {
+
+    // Presupuesto si no se configura otro en "todolist.deshacer.bytes"
+    static final long PRESUPUESTO_POR_DEFECTO = 4L * 1024 * 1024;
+
+    // Lo que ocupa un registro sin contar sus tareas (objeto, campos y el hueco en la pila)
+    private static final long BYTES_CAMBIO = 48;
+
+    enum Tipo {
+        REGISTRAR, LOTE, COMPLETAR, ELIMINAR, VACIAR
+    }
+
+    /**
+     * Un cambio ya hecho, con lo necesario para deshacerlo y volver a hacerlo.
+     */
+    static final class Cambio {
+        final Tipo tipo;
+        final Tarea tarea;                            // REGISTRAR y ELIMINAR
+        final List<Tarea> tareas;                     // LOTE
+        final long id;                                // COMPLETAR
+        final long instante;                          // COMPLETAR
+        final HistorialCompletadas.Resumen historial; // VACIAR: lo que había antes de vaciar
+        final long bytes;
+
+        private Cambio(Tipo tipo, Tarea tarea, List<Tarea> tareas, long id, long instante,
+                       HistorialCompletadas.Resumen historial, long bytes) {
+            this.tipo = tipo;
+            this.tarea = tarea;
+            this.tareas = tareas;
+            this.id = id;
+            this.instante = instante;
+            this.historial = historial;
+            this.bytes = bytes;
+        }
+
+        static Cambio registrar(Tarea tarea) {
+            return new Cambio(Tipo.REGISTRAR, tarea, null, tarea.getId(), 0, null, BYTES_CAMBIO + bytes(tarea));
+        }
+
+        static Cambio lote(List<Tarea> tareas) {
+            return new Cambio(Tipo.LOTE, null, tareas, 0, 0, null, BYTES_CAMBIO + bytes(tareas));
+        }
+
+        static Cambio completar(long id, long instante) {
+            return new Cambio(Tipo.COMPLETAR, null, null, id, instante, null, BYTES_CAMBIO);
+        }
+
+        static Cambio eliminar(Tarea tarea) {
+            return new Cambio(Tipo.ELIMINAR, tarea, null, tarea.getId(), 0, null, BYTES_CAMBIO + bytes(tarea));
+        }
+
+        static Cambio vaciar(HistorialCompletadas.Resumen historial) {
+            return new Cambio(Tipo.VACIAR, null, null, 0, 0, historial, BYTES_CAMBIO + bytes(historial.recientes));
+        }
+    }
+
+    // El último de cada pila es el siguiente que se deshace o se rehace
+    private final ArrayDeque<Cambio> deshacer = new ArrayDeque<>();
+    private final ArrayDeque<Cambio> rehacer = new ArrayDeque<>();
+    private long presupuesto;
+    private long bytes;
+    // Cambios hechos que se olvidaron por no caber en el presupuesto (para explicar por qué no se puede deshacer más)
+    private long olvidadosPorPresupuesto;
+
+    // Recibe los cambios que se olvidan estando hechos (para borrar lo que ya nadie puede recuperar)
+    private final Consumer<Cambio> alOlvidar;
+
+    HistorialDeshacer(long presupuesto, Consumer<Cambio> alOlvidar) {
+        this.presupuesto = Math.max(0, presupuesto);
+        this.alOlvidar = alOlvidar;
+    }
+
+    /**
+     * Presupuesto configurado en "todolist.deshacer.bytes" (0 = sin deshacer),
+     * o PRESUPUESTO_POR_DEFECTO si no hay ninguno válido.
+     */
+    static long presupuestoConfigurado() {
+        String valor = System.getProperty("todolist.deshacer.bytes");
+        if (valor != null) {
+            try {
+                long bytes = Long.parseLong(valor.trim());
+                if (bytes >= 0) return bytes;
+            } catch (NumberFormatException e) {
+                // No es un número: nos quedamos con el de por defecto
+            }
+        }
+        return PRESUPUESTO_POR_DEFECTO;
+    }
+
+    // Bytes aproximados de una tarea: el objeto, sus dos String (texto en Latin-1) y la fecha
+    static long bytes(Tarea t) {
+        return 96 + t.getTitulo().length() + t.getDescripcion().length();
+    }
+
+    private static long bytes(List<Tarea> tareas) {
+        long total = 0;
+        for (Tarea t : tareas) total += 8 + bytes(t);
+        return total;
+    }
+
+    // --- CAMBIOS NUEVOS ---
+
+    /**
+     * Apunta un cambio recién hecho. Lo que se podía rehacer se olvida
+     * (ya no coincide con el estado actual).
+     */
+    void apuntar(Cambio cambio) {
+        for (Cambio c : rehacer) bytes -= c.bytes;
+        rehacer.clear();
+        deshacer.addLast(cambio);
+        bytes += cambio.bytes;
+        ajustar();
+    }
+
+    // --- DESHACER Y REHACER ---
+    // El GestorDatos mira el siguiente, le da la vuelta y después avisa con deshecho() o rehecho()
+
+    Cambio siguienteDeshacer() {
+        return deshacer.peekLast();
+    }
+
+    void deshecho() {
+        rehacer.addLast(deshacer.removeLast());
+    }
+
+    Cambio siguienteRehacer() {
+        return rehacer.peekLast();
+    }
+
+    void rehecho() {
+        deshacer.addLast(rehacer.removeLast());
+    }
+
+    /**
+     * Olvida todo lo que se podía deshacer (por ejemplo, cuando el siguiente
+     * cambio ya no se puede deshacer: los anteriores dependen de él).
+     */
+    void olvidarDeshacer() {
+        while (!deshacer.isEmpty()) olvidar(deshacer.removeFirst());
+    }
+
+    // --- PRESUPUESTO ---
+
+    long getPresupuesto() {
+        return presupuesto;
+    }
+
+    void setPresupuesto(long presupuesto) {
+        this.presupuesto = Math.max(0, presupuesto);
+        ajustar();
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    int cantidadDeshacer() {
+        return deshacer.size();
+    }
+
+    int cantidadRehacer() {
+        return rehacer.size();
+    }
+
+    long getOlvidadosPorPresupuesto() {
+        return olvidadosPorPresupuesto;
+    }
+
+    // Olvida cambios hasta caber en el presupuesto: primero los más antiguos que se
+    // pueden deshacer y después los que quedan más lejos de rehacer
+    private void ajustar() {
+        while (bytes > presupuesto && !deshacer.isEmpty()) {
+            olvidar(deshacer.removeFirst());
+            olvidadosPorPresupuesto++;
+        }
+        while (bytes > presupuesto && !rehacer.isEmpty()) bytes -= rehacer.removeFirst().bytes;
+    }
+
+    // Un cambio de la pila de deshacer está hecho: quien lo apuntó puede tener algo que limpiar
+    private void olvidar(Cambio cambio) {
+        bytes -= cambio.bytes;
+        alOlvidar.accept(cambio);
+    }
+}
@@ -0,0 +1,266 @@
+package Modelo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice invertido para buscar tareas por las palabras de su título y su descripción.
+ *
+ * Para cada palabra guarda la lista de claves de las tareas que la contienen
+ * (palabra -> [clave, clave, ...]). Buscar "comprar pan" es juntar las listas de
+ * las palabras que empiezan por "comprar" y por "pan" y quedarse con las claves
+ * que están en todas, sin recorrer las tareas una por una.
+ *
+ * Las palabras se comparan sin mayúsculas ni tildes ("Canción" = "cancion").
+ * Las claves las elige quien usa el índice (el id en las pendientes, el número
+ * de orden en el historial) y pueden ser cualquier long. Las listas no guardan
+ * la clave sino un "hueco": un int que se reparte seguido (0, 1, 2...) al
+ * agregar, con una tabla hueco -> clave. Así las listas y los BitSet de la
+ * búsqueda ocupan lo que hay indexado, no lo que vale el id más alto.
+ *
+ * El índice se construye la primera vez que se busca (así arrancar no cuesta
+ * nada) y desde entonces se mantiene con cada cambio. Quitar no borra de las
+ * listas: la clave se queda "muerta" y quien busca descarta las que ya no
+ * existen; cuando las muertas son muchas, el índice se tira y se vuelve a
+ * construir en la siguiente búsqueda.
+ *
+ * Los métodos son synchronized: las búsquedas llegan con el bloqueo de lectura
+ * del GestorDatos (varias a la vez) y pueden construir el índice.
+ */
+final class IndiceBusqueda {
+
+    /**
+     * Recorre las tareas que hay que indexar, llamando a agregar(clave, tarea) con cada una.
+     */
+    interface Origen {
+        void recorrer(IndiceBusqueda indice);
+    }
+
+    // Lista de huecos de una palabra (un array que crece, sin objetos Integer)
+    private static final class Huecos {
+        int[] huecos = new int[2];
+        int cantidad;
+
+        void agregar(int hueco) {
+            // Las palabras de una misma tarea se agregan seguidas: así se evita repetirla
+            if (cantidad > 0 && huecos[cantidad - 1] == hueco) return;
+            if (cantidad == huecos.length) huecos = Arrays.copyOf(huecos, cantidad * 2);
+            huecos[cantidad++] = hueco;
+        }
+
+        void marcar(BitSet destino) {
+            for (int i = 0; i < cantidad; i++) destino.set(huecos[i]);
+        }
+    }
+
+    // Ordenado por palabra para encontrar todas las que empiezan por un prefijo
+    private final TreeMap<String, Huecos> palabras = new TreeMap<>();
+
+    // Clave de cada hueco, en el orden en que se agregaron
+    private long[] claveDeHueco = new long[16];
+    private int huecos;
+
+    // Primera clave indexada, si quien construye el índice solo indexa desde una (el historial)
+    private long primeraClave;
+
+    private boolean construido;
+    private long vivas;
+    private long muertas;
+
+    /**
+     * Indexa las palabras de la tarea con la clave indicada.
+     * Si el índice todavía no se ha construido no hace nada (ya la leerá al construirlo).
+     */
+    synchronized void agregar(long clave, Tarea tarea) {
+        if (!construido) return;
+        if (huecos == claveDeHueco.length) claveDeHueco = Arrays.copyOf(claveDeHueco, huecos * 2);
+        int hueco = huecos++;
+        claveDeHueco[hueco] = clave;
+        agregarPalabras(tarea.getTitulo(), hueco);
+        agregarPalabras(tarea.getDescripcion(), hueco);
+        vivas++;
+    }
+
+    /**
+     * Apunta que una tarea indexada ya no existe.
+     */
+    synchronized void quitar() {
+        if (!construido) return;
+        vivas--;
+        muertas++;
+        // Si hay más claves muertas que vivas, sale más a cuenta reconstruir
+        if (muertas > 1024 && muertas > vivas) invalidar();
+    }
+
+    /**
+     * Deshace el último agregar(clave, tarea): la clave sale de verdad de las
+     * listas de sus palabras (es la última de cada una), así se puede volver a
+     * usar con otra tarea. El historial lo usa al deshacer un completar.
+     */
+    synchronized void quitarUltima(long clave, Tarea tarea) {
+        if (!construido || huecos == 0 || claveDeHueco[huecos - 1] != clave) return;
+        int hueco = --huecos;
+        quitarPalabras(tarea.getTitulo(), hueco);
+        quitarPalabras(tarea.getDescripcion(), hueco);
+        vivas--;
+    }
+
+    /**
+     * Deja el índice vacío (y construido: no hay nada que indexar).
+     */
+    synchronized void vaciar() {
+        borrar();
+        construido = true;
+    }
+
+    /**
+     * Tira el índice; se volverá a construir en la siguiente búsqueda.
+     */
+    synchronized void invalidar() {
+        borrar();
+        construido = false;
+    }
+
+    /**
+     * Apunta (al construir) que solo se indexan las claves desde esta en
+     * adelante; las anteriores las tiene que buscar quien usa el índice.
+     */
+    synchronized void empezarEn(long clave) {
+        primeraClave = clave;
+    }
+
+    synchronized long getPrimeraClave() {
+        return primeraClave;
+    }
+
+    /**
+     * Busca las claves de las tareas que contienen TODAS las palabras de la
+     * consulta (cada palabra puede estar a medio escribir: "compr" encuentra "comprar").
+     * Puede incluir claves muertas: quien busca comprueba que siguen existiendo.
+     * Una clave que se agregó dos veces (una tarea que volvió al deshacer) puede salir repetida.
+     * @param origen Se usa para construir el índice si todavía no lo está.
+     * @return Las claves encontradas, en el orden en que se agregaron, o null si
+     *         la consulta no tiene ninguna palabra.
+     */
+    synchronized long[] buscar(String consulta, Origen origen) {
+        List<String> buscadas = palabras(consulta);
+        if (buscadas.isEmpty()) return null;
+        if (!construido) {
+            vaciar();
+            origen.recorrer(this);
+        }
+
+        BitSet resultado = null;
+        for (String prefijo : buscadas) {
+            BitSet encontradas = new BitSet();
+            // Todas las palabras del índice que empiezan por el prefijo
+            for (Huecos huecos : palabras.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false).values()) {
+                huecos.marcar(encontradas);
+            }
+            if (resultado == null) {
+                resultado = encontradas;
+            } else {
+                resultado.and(encontradas);
+            }
+            if (resultado.isEmpty()) break;
+        }
+
+        // De huecos a claves (los huecos van en el orden en que se agregaron)
+        long[] claves = new long[resultado.cardinality()];
+        int n = 0;
+        for (int hueco = resultado.nextSetBit(0); hueco >= 0; hueco = resultado.nextSetBit(hueco + 1)) {
+            claves[n++] = claveDeHueco[hueco];
+        }
+        return claves;
+    }
+
+    /**
+     * Sin índice: si la tarea contiene todas las palabras buscadas (con el
+     * mismo criterio que buscar). Para lo que el índice no cubre.
+     * @param buscadas Las palabras de la consulta, de palabras(consulta).
+     */
+    static boolean contieneTodas(List<String> buscadas, Tarea tarea) {
+        List<String> suyas = palabras(tarea.getTitulo());
+        suyas.addAll(palabras(tarea.getDescripcion()));
+        for (String prefijo : buscadas) {
+            boolean esta = false;
+            for (String palabra : suyas) {
+                if (palabra.startsWith(prefijo)) {
+                    esta = true;
+                    break;
+                }
+            }
+            if (!esta) return false;
+        }
+        return true;
+    }
+
+    private void borrar() {
+        palabras.clear();
+        claveDeHueco = new long[16];
+        huecos = 0;
+        primeraClave = 0;
+        vivas = 0;
+        muertas = 0;
+    }
+
+    private void agregarPalabras(String texto, int hueco) {
+        if (texto == null) return;
+        palabras(texto, palabra -> palabras.computeIfAbsent(palabra, p -> new Huecos()).agregar(hueco));
+    }
+
+    private void quitarPalabras(String texto, int hueco) {
+        if (texto == null) return;
+        palabras(texto, palabra -> {
+            Huecos lista = palabras.get(palabra);
+            if (lista == null || lista.cantidad == 0 || lista.huecos[lista.cantidad - 1] != hueco) return;
+            if (--lista.cantidad == 0) palabras.remove(palabra);
+        });
+    }
+
+    /**
+     * Parte un texto en palabras normalizadas: minúsculas, sin tildes, solo letras y números.
+     */
+    static List<String> palabras(String texto) {
+        List<String> resultado = new ArrayList<>();
+        palabras(texto, resultado::add);
+        return resultado;
+    }
+
+    private static void palabras(String texto, Consumer<String> destino) {
+        int inicio = -1;
+        boolean simple = true; // La palabra ya está en minúsculas ASCII: se puede recortar tal cual
+        for (int i = 0; i <= texto.length(); i++) {
+            char c = i < texto.length() ? texto.charAt(i) : ' ';
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (inicio < 0) inicio = i;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 0x80 && Character.isLetterOrDigit(c))) {
+                if (inicio < 0) inicio = i;
+                simple = false;
+            } else if (c >= 0x80 && Character.getType(c) == Character.NON_SPACING_MARK) {
+                simple = false; // Tilde suelta (texto ya descompuesto): forma parte de la palabra
+            } else if (inicio >= 0) {
+                String palabra = texto.substring(inicio, i);
+                destino.accept(simple ? palabra : normalizar(palabra));
+                inicio = -1;
+                simple = true;
+            }
+        }
+    }
+
+    // Pasa a minúsculas y quita las tildes. NFD separa la letra de su tilde ("á" = "a" + "´")
+    private static String normalizar(String palabra) {
+        String descompuesta = Normalizer.normalize(palabra, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(descompuesta.length());
+        for (int i = 0; i < descompuesta.length(); i++) {
+            char c = descompuesta.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,243 @@
+package Modelo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Índice ordenado de las tareas pendientes (Categoría > Fecha > Orden de creación).
+ *
+ * Es un "treap": un árbol binario de búsqueda que se mantiene equilibrado
+ * usando prioridades aleatorias. Cada nodo recuerda cuántos nodos tiene debajo,
+ * así podemos saber en qué posición de la lista va una tarea (o qué tarea hay
+ * en la posición N) en tiempo O(log n), sin recorrer toda la lista.
+ */
+class IndicePrioridad implements Iterable<Tarea> {
+
+    // Un nodo del árbol: la tarea, su prioridad aleatoria y el tamaño de su subárbol
+    private static final class Nodo {
+        final Tarea tarea;
+        final int prioridad;
+        int tamano = 1;
+        Nodo izq, der;
+
+        Nodo(Tarea tarea, int prioridad) {
+            this.tarea = tarea;
+            this.prioridad = prioridad;
+        }
+    }
+
+    private Nodo raiz;
+
+    // Generador pseudoaleatorio sencillo (xorshift) para las prioridades
+    private int semilla = 0x2545F491;
+
+    // --- OPERACIONES PÚBLICAS ---
+
+    /**
+     * Inserta la tarea en su sitio.
+     * @return La posición (empezando en 0) que ocupa ahora en la lista ordenada.
+     */
+    public int insertar(Tarea tarea) {
+        Nodo[] partes = dividir(raiz, tarea);
+        // Las menores que ella, contadas antes de unir (unir puede colgar el nodo nuevo de partes[0])
+        int posicion = tamano(partes[0]);
+        raiz = unir(unir(partes[0], new Nodo(tarea, siguientePrioridad())), partes[1]);
+        return posicion;
+    }
+
+    /**
+     * Quita la tarea del índice.
+     * @return La posición que ocupaba, o -1 si no estaba.
+     */
+    public int eliminar(Tarea tarea) {
+        int posicion = posicion(tarea);
+        if (posicion >= 0) raiz = eliminar(raiz, tarea);
+        return posicion;
+    }
+
+    /**
+     * Calcula la posición de una tarea en la lista ordenada.
+     * @return La posición, o -1 si la tarea no está en el índice.
+     */
+    public int posicion(Tarea tarea) {
+        int antes = 0;
+        Nodo n = raiz;
+        while (n != null) {
+            int cmp = tarea.compareTo(n.tarea);
+            if (cmp == 0) return antes + tamano(n.izq);
+            if (cmp < 0) {
+                n = n.izq;
+            } else {
+                antes += tamano(n.izq) + 1;
+                n = n.der;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Posición de la primera tarea que va DESPUÉS de la indicada en el orden.
+     * La tarea no tiene por qué seguir en el índice (sirve para continuar un
+     * recorrido por páginas aunque entre medias se hayan quitado tareas).
+     */
+    public int posicionSiguiente(Tarea tarea) {
+        int antes = 0;
+        Nodo n = raiz;
+        while (n != null) {
+            if (tarea.compareTo(n.tarea) < 0) {
+                n = n.izq;
+            } else {
+                antes += tamano(n.izq) + 1;
+                n = n.der;
+            }
+        }
+        return antes;
+    }
+
+    /**
+     * Devuelve la tarea que ocupa la posición indicada.
+     */
+    public Tarea obtener(int indice) {
+        if (indice < 0 || indice >= tamano()) throw new IndexOutOfBoundsException("Posición: " + indice);
+        Nodo n = raiz;
+        while (true) {
+            int izquierda = tamano(n.izq);
+            if (indice < izquierda) {
+                n = n.izq;
+            } else if (indice == izquierda) {
+                return n.tarea;
+            } else {
+                indice -= izquierda + 1;
+                n = n.der;
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por una lista que YA está ordenada.
+     * Construye un árbol perfectamente equilibrado en O(n), sin comparar nada.
+     * Se usa al cargar la instantánea guardada en disco.
+     */
+    public void construir(List<Tarea> ordenadas) {
+        raiz = construir(ordenadas, 0, ordenadas.size(), 0);
+    }
+
+    private static Nodo construir(List<Tarea> ordenadas, int desde, int hasta, int profundidad) {
+        if (desde >= hasta) return null;
+        int medio = (desde + hasta) >>> 1;
+        // Cuanto más arriba, más prioridad: así se respeta la regla del treap
+        Nodo n = new Nodo(ordenadas.get(medio), Integer.MAX_VALUE - profundidad);
+        n.izq = construir(ordenadas, desde, medio, profundidad + 1);
+        n.der = construir(ordenadas, medio + 1, hasta, profundidad + 1);
+        actualizar(n);
+        return n;
+    }
+
+    public int tamano() {
+        return tamano(raiz);
+    }
+
+    public void vaciar() {
+        raiz = null;
+    }
+
+    /**
+     * Recorre las tareas en orden (de la más prioritaria a la menos).
+     */
+    @Override
+    public Iterator<Tarea> iterator() {
+        return new Iterator<Tarea>() {
+            // Pila de nodos pendientes de visitar (recorrido "inorden" sin recursión)
+            private final ArrayList<Nodo> pila = new ArrayList<>();
+            {
+                bajarPorLaIzquierda(raiz);
+            }
+
+            private void bajarPorLaIzquierda(Nodo n) {
+                while (n != null) {
+                    pila.add(n);
+                    n = n.izq;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !pila.isEmpty();
+            }
+
+            @Override
+            public Tarea next() {
+                if (pila.isEmpty()) throw new NoSuchElementException();
+                Nodo n = pila.remove(pila.size() - 1);
+                bajarPorLaIzquierda(n.der);
+                return n.tarea;
+            }
+        };
+    }
+
+    // --- FUNCIONES INTERNAS DEL TREAP ---
+
+    private static int tamano(Nodo n) {
+        return n == null ? 0 : n.tamano;
+    }
+
+    private static void actualizar(Nodo n) {
+        n.tamano = 1 + tamano(n.izq) + tamano(n.der);
+    }
+
+    /**
+     * Parte el árbol en dos: [0] las tareas menores que 'tarea' y [1] el resto.
+     */
+    private static Nodo[] dividir(Nodo n, Tarea tarea) {
+        if (n == null) return new Nodo[] { null, null };
+        if (n.tarea.compareTo(tarea) < 0) {
+            Nodo[] partes = dividir(n.der, tarea);
+            n.der = partes[0];
+            actualizar(n);
+            partes[0] = n;
+            return partes;
+        } else {
+            Nodo[] partes = dividir(n.izq, tarea);
+            n.izq = partes[1];
+            actualizar(n);
+            partes[1] = n;
+            return partes;
+        }
+    }
+
+    /**
+     * Une dos árboles sabiendo que todo 'a' va antes que todo 'b'.
+     */
+    private static Nodo unir(Nodo a, Nodo b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.prioridad > b.prioridad) {
+            a.der = unir(a.der, b);
+            actualizar(a);
+            return a;
+        } else {
+            b.izq = unir(a, b.izq);
+            actualizar(b);
+            return b;
+        }
+    }
+
+    private static Nodo eliminar(Nodo n, Tarea tarea) {
+        if (n == null) return null;
+        int cmp = tarea.compareTo(n.tarea);
+        if (cmp == 0) return unir(n.izq, n.der);
+        if (cmp < 0) n.izq = eliminar(n.izq, tarea);
+        else n.der = eliminar(n.der, tarea);
+        actualizar(n);
+        return n;
+    }
+
+    private int siguientePrioridad() {
+        semilla ^= semilla << 13;
+        semilla ^= semilla >>> 17;
+        semilla ^= semilla << 5;
+        return semilla;
+    }
+}
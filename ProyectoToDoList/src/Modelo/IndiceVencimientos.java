@@ -0,0 +1,127 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Índice de las tareas pendientes por fecha de vencimiento.
+ *
+ * Tiene dos partes:
+ * - Un TreeSet ordenado por fecha (y por id si coinciden). Las tareas que
+ *   vencen entre dos fechas están seguidas en el árbol, así que sacarlas
+ *   cuesta O(log n + k) (k = las que se devuelven) sin mirar las demás.
+ * - Un árbol de Fenwick con cuántas tareas vencen cada día, contado en días
+ *   desde el 1/1/1970 ("epoch day"). Con él, cuántas vencen entre dos fechas
+ *   (o cada día de un mes para el calendario) sale en O(log n) por consulta.
+ *
+ * Las tareas sin fecha no se guardan aquí. No es seguro entre hilos: lo
+ * protege el bloqueo del GestorDatos.
+ */
+final class IndiceVencimientos {
+
+    private static final Comparator<Tarea> POR_FECHA = Comparator
+            .comparingLong(Tarea::diaVencimiento)
+            .thenComparingLong(Tarea::getId);
+
+    private final TreeSet<Tarea> porFecha = new TreeSet<>(POR_FECHA);
+
+    // Árbol de Fenwick: conteos[i] guarda la suma de un tramo de días que acaba en el día i - 1.
+    // El día 0 es el 1/1/1970; si llega una fecha más lejana, el array se agranda al doble.
+    private int[] conteos = new int[1 << 15]; // Unos 90 años desde 1970
+
+    void agregar(Tarea tarea) {
+        if (tarea.getFechaVencimiento() == null) return;
+        int dia = dia(tarea.diaVencimiento());
+        // Se agranda antes de agregarla: al agrandar se recuentan las que ya están en el árbol
+        while (dia + 1 >= conteos.length) agrandar();
+        if (porFecha.add(tarea)) sumar(dia, 1);
+    }
+
+    void quitar(Tarea tarea) {
+        if (tarea.getFechaVencimiento() == null) return;
+        if (porFecha.remove(tarea)) sumar(dia(tarea.diaVencimiento()), -1);
+    }
+
+    /**
+     * Copia en destino las tareas que vencen entre las dos fechas (ambas incluidas),
+     * por orden de fecha.
+     * @param desde null = sin límite por abajo.
+     * @param hasta null = sin límite por arriba.
+     */
+    void entre(LocalDate desde, LocalDate hasta, List<Tarea> destino) {
+        if (porFecha.isEmpty()) return;
+        // Tareas "sonda" con el id más pequeño y más grande posible para marcar los extremos
+        Tarea primera = desde == null ? porFecha.first() : sonda(desde, Long.MIN_VALUE);
+        Tarea ultima = hasta == null ? porFecha.last() : sonda(hasta, Long.MAX_VALUE);
+        if (POR_FECHA.compare(primera, ultima) > 0) return;
+        destino.addAll(porFecha.subSet(primera, true, ultima, true));
+    }
+
+    /**
+     * Cuántas tareas vencen entre las dos fechas (ambas incluidas).
+     */
+    int contar(LocalDate desde, LocalDate hasta) {
+        int inicio = desde == null ? 0 : dia(desde.toEpochDay());
+        int fin = hasta == null ? conteos.length - 2 : dia(hasta.toEpochDay());
+        if (fin < inicio) return 0;
+        return acumulado(fin) - (inicio == 0 ? 0 : acumulado(inicio - 1));
+    }
+
+    /**
+     * Cuántas tareas vencen cada uno de los días indicados, empezando por "desde".
+     */
+    int[] contarPorDia(LocalDate desde, int dias) {
+        int[] resultado = new int[dias];
+        int inicio = dia(desde.toEpochDay());
+        int anterior = inicio == 0 ? 0 : acumulado(inicio - 1);
+        for (int i = 0; i < dias; i++) {
+            int hasta = acumulado(inicio + i);
+            resultado[i] = hasta - anterior;
+            anterior = hasta;
+        }
+        return resultado;
+    }
+
+    int tamano() {
+        return porFecha.size();
+    }
+
+    // --- INTERNO ---
+
+    private static Tarea sonda(LocalDate fecha, long id) {
+        return new Tarea(id, "", "", Categoria.GENERAL, fecha, 0, 0);
+    }
+
+    // Día desde 1970 (las fechas anteriores, que no deberían existir, cuentan como el día 0).
+    // Las fechas se validan con año de 4 cifras, así que como mucho son unos 3 millones de días
+    private static int dia(long diaEpoch) {
+        return (int) Math.max(0, Math.min(1 << 22, diaEpoch));
+    }
+
+    private void sumar(int dia, int cantidad) {
+        for (int i = dia + 1; i < conteos.length; i += i & -i) conteos[i] += cantidad;
+    }
+
+    // Tareas que vencen del día 0 al indicado (incluido)
+    private int acumulado(int dia) {
+        int suma = 0;
+        for (int i = Math.min(dia + 1, conteos.length - 1); i > 0; i -= i & -i) suma += conteos[i];
+        return suma;
+    }
+
+    // Dobla el tamaño y rehace los conteos a partir del árbol de fechas (pasa muy pocas veces)
+    private void agrandar() {
+        conteos = new int[conteos.length * 2];
+        for (Tarea t : porFecha) {
+            int i = dia(t.diaVencimiento()) + 1;
+            if (i < conteos.length) conteos[i]++;
+        }
+        // Construcción del Fenwick en O(n): cada nodo pasa su suma a su padre
+        for (int i = 1; i < conteos.length; i++) {
+            int padre = i + (i & -i);
+            if (padre < conteos.length) conteos[padre] += conteos[i];
+        }
+    }
+}
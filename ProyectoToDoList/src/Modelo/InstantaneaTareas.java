@@ -0,0 +1,186 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instantánea (snapshot) del estado completo del GestorDatos en un archivo.
+ *
+ * Sirve para no tener que reproducir un diario enorme en cada arranque:
+ * se carga la instantánea y solo se reproduce lo que se apuntó después.
+ *
+ * Formato del archivo:
+ *   [cabecera fija de 48 bytes]
+ *   [tabla de posiciones: un long por tarea + uno final]
+ *   [datos de las tareas, una detrás de otra, en el formato de CodecTarea]
+ *
+ * Las pendientes se guardan ya ordenadas (Categoría > Fecha > Creación). Del
+ * historial solo se guardan las completadas recientes (las del anillo en
+ * memoria, de la más reciente a la más antigua) y qué segmentos de disco le
+ * corresponden; los segmentos ya están guardados aparte. El archivo se lee con
+ * FileChannel.map: no hay que copiarlo entero a un búfer antes de empezar, y
+ * cada tarea se decodifica cuando se pide. Ojo: lo único perezoso es la
+ * lectura. Al arrancar el GestorDatos pide todas las pendientes (sus índices
+ * necesitan el título, la fecha y el id de cada una), así que se decodifican
+ * todas. Según RendimientoArranque eso es menos de un 10 % del arranque; lo
+ * que más tarda es llenar los índices.
+ */
+class InstantaneaTareas {
+
+    private static final int MAGICO = 0x54444C53; // "TDLS"
+    private static final int VERSION = 3;
+    private static final int CABECERA = 48;
+
+    // Un codificador por hilo (reutiliza su búfer interno de caracteres)
+    private static final ThreadLocal<CodecTarea> codec = ThreadLocal.withInitial(CodecTarea::new);
+
+    private final MappedByteBuffer mapa;
+    private final long generacion;
+    private final long siguienteId;
+    private final int pendientes;
+    private final int completadas;
+    private final long primerSegmento;
+    private final int segmentos;
+    private final int inicioDatos;
+
+    private InstantaneaTareas(MappedByteBuffer mapa) throws IOException {
+        this.mapa = mapa;
+        if (mapa.capacity() < CABECERA || mapa.getInt(0) != MAGICO || mapa.getInt(4) != VERSION) {
+            throw new IOException("La instantánea no tiene un formato válido");
+        }
+        this.generacion = mapa.getLong(8);
+        this.siguienteId = mapa.getLong(16);
+        this.pendientes = mapa.getInt(24);
+        this.completadas = mapa.getInt(28);
+        this.primerSegmento = mapa.getLong(32);
+        this.segmentos = mapa.getInt(40);
+        this.inicioDatos = CABECERA + (pendientes + completadas + 1) * 8;
+        if (pendientes < 0 || completadas < 0 || inicioDatos > mapa.capacity()) {
+            throw new IOException("La instantánea está dañada");
+        }
+    }
+
+    /**
+     * Proyecta el archivo en memoria (sin leerlo entero) y valida la cabecera.
+     */
+    static InstantaneaTareas abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("La instantánea supera los 2 GB y no se puede proyectar de una vez");
+            }
+            // El mapa sigue siendo válido aunque cerremos el canal
+            return new InstantaneaTareas(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    // --- LECTURA ---
+
+    /** Generación del diario desde la que hay que reproducir después de cargar esta instantánea. */
+    long getGeneracion() {
+        return generacion;
+    }
+
+    long getSiguienteId() {
+        return siguienteId;
+    }
+
+    int cantidadPendientes() {
+        return pendientes;
+    }
+
+    /** Pendiente número i, en el orden de la lista visual. */
+    Tarea pendiente(int i) {
+        if (i < 0 || i >= pendientes) throw new IndexOutOfBoundsException("Pendiente: " + i);
+        return leer(i);
+    }
+
+    /**
+     * Historial guardado: segmentos en disco y completadas recientes.
+     */
+    HistorialCompletadas.Resumen historial() {
+        List<Tarea> recientes = new ArrayList<>(completadas);
+        for (int i = 0; i < completadas; i++) recientes.add(leer(pendientes + i));
+        return new HistorialCompletadas.Resumen(primerSegmento, segmentos, recientes);
+    }
+
+    // Decodifica la tarea i sobre una vista propia del mapa (el mapa compartido no se mueve)
+    private Tarea leer(int i) {
+        ByteBuffer vista = mapa.duplicate();
+        vista.position(inicioDatos + (int) mapa.getLong(CABECERA + i * 8));
+        return codec.get().decodificar(vista);
+    }
+
+    // --- ESCRITURA ---
+
+    /**
+     * Escribe una instantánea nueva. Primero se escribe en un archivo temporal
+     * y al final se renombra, así nunca queda una instantánea a medias.
+     */
+    static void escribir(Path archivo, long generacion, long siguienteId,
+                         Iterable<Tarea> pendientes, int cantidadPendientes,
+                         HistorialCompletadas.Resumen historial) throws IOException {
+        List<Tarea> completadas = historial.recientes;
+        int cantidadCompletadas = completadas.size();
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        int total = cantidadPendientes + cantidadCompletadas;
+        long[] posiciones = new long[total + 1];
+
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long inicioDatos = CABECERA + (long) (total + 1) * 8;
+            canal.position(inicioDatos);
+
+            // 1. Datos de las tareas, acumulados en un búfer y escritos por bloques
+            ByteBuffer bufer = ByteBuffer.allocateDirect(256 * 1024);
+            long escrito = 0;
+            int n = 0;
+            CodecTarea codificador = new CodecTarea();
+            for (Iterable<Tarea> grupo : List.of(pendientes, completadas)) {
+                for (Tarea t : grupo) {
+                    if (n >= total) throw new IOException("Hay más tareas de las anunciadas");
+                    int tamano = codificador.tamano(t);
+                    if (bufer.remaining() < tamano) {
+                        escrito += volcar(canal, bufer);
+                        if (bufer.remaining() < tamano) throw new IOException("Tarea demasiado grande: " + t.getId());
+                    }
+                    posiciones[n++] = escrito + bufer.position();
+                    codificador.codificar(t, bufer);
+                }
+            }
+            if (n != total) throw new IOException("Faltan tareas: se esperaban " + total + " y hay " + n);
+            escrito += volcar(canal, bufer);
+            posiciones[total] = escrito;
+
+            // 2. Cabecera y tabla de posiciones al principio del archivo
+            canal.position(0);
+            bufer.putInt(MAGICO).putInt(VERSION).putLong(generacion).putLong(siguienteId)
+                 .putInt(cantidadPendientes).putInt(cantidadCompletadas)
+                 .putLong(historial.primerSegmento).putInt(historial.segmentos).putInt(0);
+            for (long posicion : posiciones) {
+                if (!bufer.hasRemaining()) volcar(canal, bufer);
+                bufer.putLong(posicion);
+            }
+            volcar(canal, bufer);
+            canal.force(true);
+        }
+
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Escribe el contenido del búfer en el canal y lo deja vacío. Devuelve los bytes escritos.
+    private static int volcar(FileChannel canal, ByteBuffer bufer) throws IOException {
+        bufer.flip();
+        int bytes = bufer.remaining();
+        while (bufer.hasRemaining()) canal.write(bufer);
+        bufer.clear();
+        return bytes;
+    }
+}
@@ -0,0 +1,41 @@
+package Modelo;
+
+/**
+ * Cuándo se considera guardado un cambio en el diario.
+ *
+ * Se elige con la propiedad del sistema "todolist.durabilidad"
+ * (por defecto POR_LOTES).
+ */
+public enum ModoDurabilidad {
+
+    /**
+     * Cada operación espera a que su cambio esté forzado en disco (fsync).
+     * Si llegan varias a la vez comparten un único fsync.
+     * Es el más seguro, pero quien llama se queda esperando al disco.
+     */
+    POR_OPERACION,
+
+    /**
+     * Nadie espera: el hilo escritor hace un fsync por cada lote de cambios
+     * que encuentra en la cola. Si se corta la luz se puede perder el último lote.
+     */
+    POR_LOTES,
+
+    /**
+     * Nadie espera y no se hace fsync (solo al rotar el diario y al cerrar).
+     * Los datos quedan en el sistema operativo: sobreviven a un cierre del
+     * programa, pero no a un corte de luz.
+     */
+    ASINCRONO;
+
+    /** Modo configurado en "todolist.durabilidad", o POR_LOTES si no hay ninguno válido. */
+    public static ModoDurabilidad configurado() {
+        String valor = System.getProperty("todolist.durabilidad");
+        if (valor != null) {
+            for (ModoDurabilidad modo : values()) {
+                if (modo.name().equalsIgnoreCase(valor.trim())) return modo;
+            }
+        }
+        return POR_LOTES;
+    }
+}
@@ -0,0 +1,38 @@
+package Modelo;
+
+/**
+ * Recibe un aviso cada vez que cambian las tareas del GestorDatos, venga el
+ * cambio de donde venga (la ventana, la API, un importador...).
+ *
+ * Los avisos llegan en el hilo que hizo el cambio y con el bloqueo de
+ * escritura del GestorDatos tomado, así llegan siempre en el mismo orden que
+ * los cambios. Por eso el oyente tiene que ser rápido, no puede bloquearse
+ * esperando a otro hilo y no debe cambiar el GestorDatos (leerlo sí puede).
+ * Si necesita hacer algo largo, que lo mande a otro hilo.
+ *
+ * Todos los métodos tienen una implementación vacía: cada oyente escribe
+ * solo los que le interesan.
+ */
+public interface OyenteTareas {
+
+    default void tareaRegistrada(Tarea tarea) {
+    }
+
+    /** @param pendiente La tarea tal como estaba. @param completada La copia ya completada. */
+    default void tareaCompletada(Tarea pendiente, Tarea completada) {
+    }
+
+    default void tareaEliminada(Tarea tarea) {
+    }
+
+    default void historialVaciado() {
+    }
+
+    /** Se deshizo un completar. @param completada La que estaba en el historial. @param pendiente La copia otra vez pendiente. */
+    default void tareaDescompletada(Tarea completada, Tarea pendiente) {
+    }
+
+    /** Se deshizo un vaciado: el historial vuelve a tener lo que tenía. */
+    default void historialRecuperado() {
+    }
+}
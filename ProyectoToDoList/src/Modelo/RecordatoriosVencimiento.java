@@ -0,0 +1,158 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Avisa cuando llega el día de vencimiento de una tarea pendiente.
+ *
+ * Cada pendiente con fecha tiene un aviso programado para las 00:00 de ese
+ * día en una RuedaTemporizadores, y un único hilo ("recordatorios") hace
+ * avanzar la rueda. Las tareas que vencen en el mismo tic se entregan juntas
+ * en una lista, a través del Executor que se indique (en la ventana,
+ * SwingUtilities::invokeLater, para recibirlas en el hilo de Swing).
+ *
+ * Escucha al GestorDatos: al registrar una tarea se programa su aviso y al
+ * completarla o eliminarla se cancela en el momento, venga el cambio de donde
+ * venga (la ventana, la API, un importador...); al deshacer un completar o
+ * un eliminar se vuelve a programar. Si el día de una tarea ya
+ * empezó cuando se registra, no se avisa (para eso está el filtro de vencidas).
+ */
+public class RecordatoriosVencimiento implements OyenteTareas {
+
+    // Los avisos son por día: un segundo de precisión sobra
+    private static final long MS_POR_TIC = 1000;
+
+    private final RuedaTemporizadores rueda;
+    private final LongSupplier reloj;
+    private final ZoneId zona;
+    private final Executor entrega;
+    private final Consumer<List<Tarea>> alVencer;
+
+    private GestorDatos modelo;
+    private Thread hilo;
+    private volatile boolean parar;
+
+    /**
+     * @param entrega Dónde se ejecuta alVencer (por ejemplo, SwingUtilities::invokeLater).
+     * @param alVencer Recibe las tareas a las que les ha llegado el día.
+     */
+    public RecordatoriosVencimiento(Executor entrega, Consumer<List<Tarea>> alVencer) {
+        this(MS_POR_TIC, System::currentTimeMillis, ZoneId.systemDefault(), entrega, alVencer);
+    }
+
+    // Con otro tic y otro reloj (para medir la rueda sin esperar días)
+    RecordatoriosVencimiento(long msPorTic, LongSupplier reloj, ZoneId zona,
+            Executor entrega, Consumer<List<Tarea>> alVencer) {
+        this.rueda = new RuedaTemporizadores(msPorTic, reloj.getAsLong());
+        this.reloj = reloj;
+        this.zona = zona;
+        this.entrega = entrega;
+        this.alVencer = alVencer;
+    }
+
+    /**
+     * Empieza a escuchar al GestorDatos, programa los avisos de las pendientes
+     * que todavía no han vencido y arranca el hilo.
+     */
+    public synchronized void iniciar(GestorDatos modelo) {
+        if (hilo != null) throw new IllegalStateException("Los recordatorios ya están iniciados");
+        this.modelo = modelo;
+        // Primero el oyente y luego las que ya hay: así no se pierde ninguna registrada en medio
+        // (si una sale en los dos sitios, programarla otra vez solo la cambia de sitio)
+        modelo.agregarOyente(this);
+        for (Tarea t : modelo.pendientesQueVencen(LocalDate.now(zona), null)) programar(t);
+        hilo = new Thread(this::ejecutar, "recordatorios");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /** Para el hilo y deja de escuchar al GestorDatos. */
+    public synchronized void detener() {
+        if (hilo == null) return;
+        parar = true;
+        modelo.quitarOyente(this);
+        hilo.interrupt();
+        hilo = null;
+    }
+
+    /** Avisos programados ahora mismo. */
+    public int cantidadProgramados() {
+        return rueda.tamano();
+    }
+
+    // --- AVISOS DEL GESTOR (llegan con su bloqueo de escritura: solo operaciones O(1)) ---
+
+    @Override
+    public void tareaRegistrada(Tarea tarea) {
+        programar(tarea);
+    }
+
+    @Override
+    public void tareaCompletada(Tarea pendiente, Tarea completada) {
+        rueda.cancelar(pendiente.getId());
+    }
+
+    @Override
+    public void tareaEliminada(Tarea tarea) {
+        rueda.cancelar(tarea.getId());
+    }
+
+    @Override
+    public void tareaDescompletada(Tarea completada, Tarea pendiente) {
+        programar(pendiente);
+    }
+
+    // --- INTERNO ---
+
+    private void programar(Tarea tarea) {
+        LocalDate fecha = tarea.getFechaVencimiento();
+        if (fecha == null) return;
+        programarEn(tarea, fecha.atStartOfDay(zona).toInstant().toEpochMilli());
+    }
+
+    // Programa el aviso para un instante concreto (las mediciones lo usan con milisegundos)
+    void programarEn(Tarea tarea, long instanteMs) {
+        // La rueda solo avanza con avisos pendientes, así que el reloj de verdad lo mira aquí
+        if (instanteMs <= reloj.getAsLong()) return;
+        rueda.programar(tarea, instanteMs);
+    }
+
+    private void ejecutar() {
+        List<Tarea> vencidas = new ArrayList<>();
+        try {
+            while (!parar) {
+                esperarSiguienteTic();
+                rueda.avanzarHasta(reloj.getAsLong(), vencidas);
+                if (vencidas.isEmpty()) continue;
+                entregar(vencidas);
+                vencidas = new ArrayList<>();
+            }
+        } catch (InterruptedException e) {
+            // detener(): se termina el hilo
+        }
+    }
+
+    private void esperarSiguienteTic() throws InterruptedException {
+        synchronized (rueda) {
+            // Sin avisos no hay nada que contar: se duerme hasta que se programe alguno
+            while (rueda.tamano() == 0 && !parar) rueda.wait();
+            long espera = rueda.siguienteTicMs() - reloj.getAsLong();
+            if (espera > 0) rueda.wait(espera);
+        }
+    }
+
+    private void entregar(List<Tarea> vencidas) {
+        // Entre que se leyó una tarea al iniciar y se programó pudo completarse:
+        // solo se avisa de las que siguen pendientes
+        GestorDatos gestor = modelo;
+        if (gestor != null) vencidas.removeIf(t -> gestor.posicionPendiente(t) < 0);
+        if (vencidas.isEmpty()) return;
+        entrega.execute(() -> alVencer.accept(vencidas));
+    }
+}
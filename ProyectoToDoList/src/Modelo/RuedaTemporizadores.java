@@ -0,0 +1,224 @@
+package Modelo;
+
+import java.util.List;
+
+/**
+ * Rueda de temporizadores jerárquica: guarda cuándo hay que avisar de cada
+ * tarea y dice cuáles tocan al avanzar el reloj.
+ *
+ * El tiempo se cuenta en "tics" (por ejemplo, de un segundo). Hay 6 ruedas de
+ * 64 huecos: en la primera cada hueco es un tic, en la segunda 64 tics, en la
+ * tercera 64 x 64... Un aviso se cuelga en la rueda más pequeña donde cabe su
+ * distancia al tic actual. Cuando una rueda grande llega a un hueco, sus avisos
+ * se vuelven a colgar más abajo ("cascada"), hasta que llegan a la primera y
+ * salen en su tic exacto. Con 6 ruedas caben 64^6 tics (con tics de un
+ * segundo, más de 2.000 años).
+ *
+ * Programar y cancelar cuestan O(1): cada hueco es una lista doblemente
+ * enlazada y las entradas se encuentran por id con una tabla hash abierta
+ * (sin objetos Long ni nodos de HashMap, unos 45 bytes por aviso en total).
+ * Avanzar un tic sin nada que hacer también es O(1).
+ *
+ * No usa hilos: quien la tenga llama a avanzarHasta. Los métodos son
+ * synchronized (se programa desde cualquier hilo).
+ */
+final class RuedaTemporizadores {
+
+    private static final int BITS = 6;
+    private static final int HUECOS = 1 << BITS;   // 64 huecos por rueda
+    private static final int MASCARA = HUECOS - 1;
+    private static final int RUEDAS = 6;
+    private static final long DISTANCIA_MAXIMA = (1L << (BITS * RUEDAS)) - 1;
+
+    // Un aviso colgado en un hueco
+    private static final class Entrada {
+        final Tarea tarea;
+        final long tic;
+        Entrada anterior;
+        Entrada siguiente;
+        int hueco; // Posición en "huecos" (rueda * 64 + hueco)
+
+        Entrada(Tarea tarea, long tic) {
+            this.tarea = tarea;
+            this.tic = tic;
+        }
+    }
+
+    private final long msPorTic;
+    private final long origenMs;
+
+    // Primera entrada de cada hueco de cada rueda (null = vacío)
+    private final Entrada[] huecos = new Entrada[RUEDAS * HUECOS];
+
+    // Tabla hash por id de tarea con direccionamiento abierto (null = libre)
+    private Entrada[] porId = new Entrada[16];
+    private int cantidad;
+
+    // Último tic ya procesado
+    private long actual;
+
+    /**
+     * @param msPorTic Duración de un tic (la precisión de los avisos).
+     * @param origenMs Instante del tic 0 (normalmente, ahora).
+     */
+    RuedaTemporizadores(long msPorTic, long origenMs) {
+        if (msPorTic <= 0) throw new IllegalArgumentException("El tic tiene que durar al menos 1 ms");
+        this.msPorTic = msPorTic;
+        this.origenMs = origenMs;
+    }
+
+    synchronized int tamano() {
+        return cantidad;
+    }
+
+    /** Instante (ms) en que empieza el tic siguiente al actual: cuándo hay que volver a avanzar. */
+    synchronized long siguienteTicMs() {
+        return origenMs + (actual + 1) * msPorTic;
+    }
+
+    /**
+     * Programa el aviso de la tarea para el instante indicado (o lo cambia si ya tenía uno).
+     * @return false si ese instante ya pasó (no se programa nada).
+     */
+    synchronized boolean programar(Tarea tarea, long instanteMs) {
+        cancelar(tarea.getId());
+        // Primer tic que empieza en el instante o después: nunca se avisa antes de tiempo
+        long tic = Math.floorDiv(instanteMs - origenMs + msPorTic - 1, msPorTic);
+        if (tic <= actual) return false;
+        Entrada entrada = new Entrada(tarea, tic);
+        colgar(entrada);
+        guardarId(entrada);
+        if (cantidad == 1) notifyAll(); // Quien espera con la rueda vacía puede empezar a contar
+        return true;
+    }
+
+    /**
+     * Quita el aviso de la tarea, si tenía.
+     * @return true si tenía uno.
+     */
+    synchronized boolean cancelar(long id) {
+        int i = buscarId(id);
+        if (i < 0) return false;
+        descolgar(porId[i]);
+        borrarId(i);
+        return true;
+    }
+
+    /**
+     * Avanza tic a tic hasta el instante indicado y deja en destino las tareas
+     * cuyo aviso ha llegado (ya no quedan programadas).
+     */
+    synchronized void avanzarHasta(long ahoraMs, List<Tarea> destino) {
+        long hasta = Math.floorDiv(ahoraMs - origenMs, msPorTic);
+        while (actual < hasta) {
+            // Con la rueda vacía no hay nada que recorrer: se salta directamente
+            if (cantidad == 0) {
+                actual = hasta;
+                return;
+            }
+            actual++;
+            cascada();
+            // Todo lo que hay en el hueco de este tic en la primera rueda vence ahora
+            int hueco = (int) (actual & MASCARA);
+            Entrada e = huecos[hueco];
+            huecos[hueco] = null;
+            for (; e != null; e = e.siguiente) {
+                borrarId(buscarId(e.tarea.getId()));
+                destino.add(e.tarea);
+            }
+        }
+    }
+
+    // --- INTERNO ---
+
+    // Al dar la vuelta una rueda, el hueco que toca de la siguiente se reparte hacia abajo
+    private void cascada() {
+        for (int rueda = 1; rueda < RUEDAS; rueda++) {
+            if ((actual & ((1L << (BITS * rueda)) - 1)) != 0) break;
+            int indice = rueda * HUECOS + (int) ((actual >>> (BITS * rueda)) & MASCARA);
+            Entrada e = huecos[indice];
+            huecos[indice] = null;
+            while (e != null) {
+                Entrada siguiente = e.siguiente;
+                colgar(e);
+                e = siguiente;
+            }
+        }
+    }
+
+    // Cuelga la entrada en la rueda más pequeña donde cabe su distancia al tic actual
+    private void colgar(Entrada e) {
+        long distancia = Math.min(e.tic - actual, DISTANCIA_MAXIMA);
+        long tic = actual + distancia;
+        int rueda = 0;
+        while (distancia >= (1L << (BITS * (rueda + 1)))) rueda++;
+        int indice = rueda * HUECOS + (int) ((tic >>> (BITS * rueda)) & MASCARA);
+        e.hueco = indice;
+        e.anterior = null;
+        e.siguiente = huecos[indice];
+        if (e.siguiente != null) e.siguiente.anterior = e;
+        huecos[indice] = e;
+    }
+
+    private void descolgar(Entrada e) {
+        if (e.anterior != null) {
+            e.anterior.siguiente = e.siguiente;
+        } else {
+            huecos[e.hueco] = e.siguiente;
+        }
+        if (e.siguiente != null) e.siguiente.anterior = e.anterior;
+        e.anterior = null;
+        e.siguiente = null;
+    }
+
+    // --- TABLA POR ID (sondeo lineal, llena como mucho al 60 %) ---
+
+    private int posicion(long id) {
+        // Mezcla los bits del id: los ids seguidos no caen en huecos seguidos
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (porId.length - 1);
+    }
+
+    private int buscarId(long id) {
+        int mascara = porId.length - 1;
+        for (int i = posicion(id); porId[i] != null; i = (i + 1) & mascara) {
+            if (porId[i].tarea.getId() == id) return i;
+        }
+        return -1;
+    }
+
+    private void guardarId(Entrada entrada) {
+        if (++cantidad > porId.length * 0.6) agrandarTabla();
+        int mascara = porId.length - 1;
+        int i = posicion(entrada.tarea.getId());
+        while (porId[i] != null) i = (i + 1) & mascara;
+        porId[i] = entrada;
+    }
+
+    // Borra el hueco i moviendo hacia atrás los que se pusieron detrás por choque
+    private void borrarId(int i) {
+        int mascara = porId.length - 1;
+        int libre = i;
+        for (int j = (i + 1) & mascara; porId[j] != null; j = (j + 1) & mascara) {
+            int ideal = posicion(porId[j].tarea.getId());
+            if (((j - ideal) & mascara) >= ((j - libre) & mascara)) {
+                porId[libre] = porId[j];
+                libre = j;
+            }
+        }
+        porId[libre] = null;
+        cantidad--;
+    }
+
+    private void agrandarTabla() {
+        Entrada[] viejas = porId;
+        porId = new Entrada[viejas.length * 2];
+        int mascara = porId.length - 1;
+        for (Entrada e : viejas) {
+            if (e == null) continue;
+            int i = posicion(e.tarea.getId());
+            while (porId[i] != null) i = (i + 1) & mascara;
+            porId[i] = e;
+        }
+    }
+}
@@ -1,70 +1,152 @@
 package Modelo;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
 /**
  * Clase Entidad: Representa una tarea como un Objeto (no solo texto).
+ * Es inmutable: para completarla se crea una copia con la fecha de completado.
  * Implementa 'Comparable' para que Java sepa cómo ordenar una lista de tareas automáticamente.
  */
 public class Tarea implements Comparable<Tarea> {
-    
+
+    // Formato con el que se muestra la fecha de vencimiento
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Largo máximo (en caracteres) del título y de la descripción. Cada carácter
+    // ocupa como mucho 3 bytes en UTF-8: así una tarea codificada (unos 243 KB en
+    // el peor caso) siempre cabe en un registro del diario y en el búfer de la instantánea.
+    public static final int MAXIMO_TITULO = 1_000;
+    public static final int MAXIMO_DESCRIPCION = 80_000;
+
     // Variables que definen las características de una tarea
-    private String descripcion;
-    private boolean esUrgente;
+    private final long id;                   // Identificador numérico estable (nunca se repite)
+    private final String titulo;             // Nombre de la tarea (ej: "Comprar pan")
+    private final String descripcion;        // Texto opcional (cadena vacía si no hay)
+    private final Categoria categoria;       // General, Hoy o Importante
+    private final LocalDate fechaVencimiento; // null si la tarea no tiene fecha
+    private final long creada;               // Momento de creación (milisegundos desde 1970)
+    private final long completada;           // Momento en que se completó (0 si sigue pendiente)
+
+    // La fecha de vencimiento como número de día, calculada una vez: ordenar compara enteros
+    private final long diaVencimiento;
 
     /**
      * Constructor: Se ejecuta cuando haces "new Tarea(...)".
-     * @param descripcion El texto de la tarea (ej: "Comprar pan").
-     * @param esUrgente Define si la tarea tiene prioridad alta.
+     * Normalmente solo lo usa GestorDatos, que es quien reparte los ids.
      */
-    public Tarea(String descripcion, boolean esUrgente) {
-        this.descripcion = descripcion;
-        this.esUrgente = esUrgente;
+    public Tarea(long id, String titulo, String descripcion, Categoria categoria,
+                 LocalDate fechaVencimiento, long creada, long completada) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descripcion = descripcion == null ? "" : descripcion;
+        this.categoria = categoria;
+        this.fechaVencimiento = fechaVencimiento;
+        this.creada = creada;
+        this.completada = completada;
+        this.diaVencimiento = fechaVencimiento == null ? Long.MAX_VALUE : fechaVencimiento.toEpochDay();
+    }
+
+    /**
+     * Devuelve una copia de esta tarea marcada como completada en el instante indicado.
+     */
+    public Tarea marcarCompletada(long instante) {
+        return new Tarea(id, titulo, descripcion, categoria, fechaVencimiento, creada, instante);
+    }
+
+    /**
+     * Devuelve una copia de esta tarea otra vez pendiente (sin fecha de completado).
+     */
+    public Tarea marcarPendiente() {
+        return new Tarea(id, titulo, descripcion, categoria, fechaVencimiento, creada, 0);
     }
 
     // --- MÉTODOS GETTER (Para leer los datos privados desde fuera) ---
-    
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
     public String getDescripcion() {
         return descripcion;
     }
 
+    public Categoria getCategoria() {
+        return categoria;
+    }
+
+    public LocalDate getFechaVencimiento() {
+        return fechaVencimiento;
+    }
+
+    public long getCreada() {
+        return creada;
+    }
+
+    public long getCompletada() {
+        return completada;
+    }
+
     public boolean esUrgente() {
-        return esUrgente;
+        return categoria == Categoria.IMPORTANTE;
+    }
+
+    public boolean estaCompletada() {
+        return completada != 0;
     }
 
     /**
      * Método toString: Convierte este Objeto en un Texto legible.
-     * Esto es lo que se mostraría si metes el objeto directamente en la JList.
+     * Esto es lo que se muestra en la JList, con el mismo formato de siempre:
+     * "★ [URGENTE] TAREA 1 : DESCRIPCIÓN (Vence: 10/10/2025)".
      */
     @Override
     public String toString() {
-        if (esUrgente) {
-            return "★ URGENTE: " + descripcion;
-        }
-        return descripcion;
+        StringBuilder sb = new StringBuilder();
+        sb.append(titulo);
+        if (!descripcion.isEmpty()) sb.append(" : ").append(descripcion);
+        if (fechaVencimiento != null) sb.append(" (Vence: ").append(FORMATO_FECHA.format(fechaVencimiento)).append(")");
+
+        // Las importantes se muestran en mayúsculas, como antes
+        String texto = categoria == Categoria.IMPORTANTE ? sb.toString().toUpperCase() : sb.toString();
+        texto = categoria.getIcono() + texto;
+
+        // Las completadas llevan un check delante
+        return estaCompletada() ? "✔ " + texto : texto;
     }
 
     /**
      * Método compareTo: Regla de Ordenamiento.
-     * Java usa esto cuando le dices "Collections.sort(lista)".
-     * Retorna -1 si 'esta' tarea va antes, 1 si va después, 0 si son iguales.
+     * Primero la categoría (Importante > Hoy > General), después la fecha
+     * (las que vencen antes van primero, las que no tienen fecha al final) y
+     * por último el id, para que las más antiguas queden arriba.
      */
     @Override
     public int compareTo(Tarea otraTarea) {
-        // Si yo soy urgente y la otra no, yo gano (voy primero -> -1)
-        if (this.esUrgente && !otraTarea.esUrgente) {
-            return -1;
-        }
-        // Si yo no soy urgente y la otra sí, ella gana (ella va primero -> 1)
-        if (!this.esUrgente && otraTarea.esUrgente) {
-            return 1;
-        }
-        // Si somos iguales (ambas urgentes o ambas normales), no cambiamos lugar
-        return 0;
+        int porNivel = Integer.compare(categoria.getNivel(), otraTarea.categoria.getNivel());
+        if (porNivel != 0) return porNivel;
+
+        int porFecha = Long.compare(diaVencimiento, otraTarea.diaVencimiento);
+        if (porFecha != 0) return porFecha;
+
+        return Long.compare(id, otraTarea.id);
+    }
+
+    /**
+     * Fecha de vencimiento como número de día (días desde 1970).
+     * Si no tiene fecha devuelve Long.MAX_VALUE para que se ordene al final.
+     */
+    public long diaVencimiento() {
+        return diaVencimiento;
     }
 
     /**
      * Método equals: Regla de Identidad.
-     * Sirve para que el HashSet sepa si una tarea es "clon" de otra.
-     * Dos tareas son iguales si tienen la misma descripción (sin importar mayúsculas).
+     * Dos tareas son la misma si tienen el mismo id.
      */
     @Override
     public boolean equals(Object obj) {
@@ -72,18 +154,16 @@ public class Tarea implements Comparable<Tarea> {
         if (this == obj) return true;
         // Si el otro es nulo o no es una Tarea, no somos iguales
         if (obj == null || getClass() != obj.getClass()) return false;
-        
-        // Comparamos los textos ignorando mayúsculas
+
         Tarea otra = (Tarea) obj;
-        return descripcion.equalsIgnoreCase(otra.descripcion);
+        return id == otra.id;
     }
 
     /**
-     * Método hashCode: Genera un ID numérico único basado en la descripción.
-     * Es obligatorio sobrescribirlo si usas 'equals', para que el HashSet funcione rápido.
+     * Método hashCode: Obligatorio si se sobrescribe 'equals'.
      */
     @Override
     public int hashCode() {
-        return descripcion.toLowerCase().hashCode();
+        return Long.hashCode(id);
     }
-}
\ No newline at end of file
+}
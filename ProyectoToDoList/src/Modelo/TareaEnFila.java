@@ -0,0 +1,31 @@
+package Modelo;
+
+/**
+ * Una tarea pendiente que se acaba de crear, completar o eliminar, junto con
+ * su fila en la lista ordenada de pendientes (donde quedó al crearla, o donde
+ * estaba justo antes de quitarla).
+ *
+ * El GestorDatos calcula la fila dentro del mismo bloqueo que el cambio:
+ * pedirla aparte con posicionPendiente podría dar la de otro momento si
+ * otro hilo cambia la lista entre medias.
+ */
+public final class TareaEnFila {
+
+    private final Tarea tarea;
+    private final int fila;
+
+    TareaEnFila(Tarea tarea, int fila) {
+        this.tarea = tarea;
+        this.fila = fila;
+    }
+
+    /** La tarea creada, la ya completada o la eliminada. */
+    public Tarea getTarea() {
+        return tarea;
+    }
+
+    /** La fila en la lista de pendientes, empezando en 0. */
+    public int getFila() {
+        return fila;
+    }
+}
@@ -0,0 +1,129 @@
+package Vista;
+
+import Modelo.GestorDatos;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.Insets;
+import java.awt.Window;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * Calendario de un mes con cuántas tareas pendientes vencen cada día.
+ *
+ * Los números salen del conteo por día del GestorDatos (un árbol de Fenwick):
+ * pintar un mes son 31 consultas rápidas, sin recorrer todas las tareas.
+ * Al hacer clic en un día, el diálogo se cierra y devuelve esa fecha.
+ */
+public class CalendarioVencimientos extends JPanel {
+
+    private static final Locale ESPANOL = Locale.of("es", "ES");
+    private static final Color COLOR_HOY = new Color(204, 229, 255);
+    private static final Color COLOR_CON_TAREAS = new Color(255, 235, 204);
+
+    private final GestorDatos modelo;
+    private final JLabel titulo = new JLabel("", SwingConstants.CENTER);
+    private final JPanel dias = new JPanel(new GridLayout(0, 7, 2, 2));
+
+    private YearMonth mes;
+    private LocalDate elegido; // null = no se eligió ningún día
+
+    private CalendarioVencimientos(GestorDatos modelo, YearMonth mes) {
+        super(new BorderLayout(0, 6));
+        this.modelo = modelo;
+        this.mes = mes;
+        setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        setBackground(Color.WHITE);
+        dias.setBackground(Color.WHITE);
+
+        // Cabecera: mes anterior / nombre del mes / mes siguiente
+        JButton anterior = new JButton("<");
+        anterior.addActionListener(e -> cambiarMes(-1));
+        JButton siguiente = new JButton(">");
+        siguiente.addActionListener(e -> cambiarMes(1));
+        titulo.setFont(titulo.getFont().deriveFont(Font.BOLD));
+        JPanel cabecera = new JPanel(new BorderLayout());
+        cabecera.setBackground(Color.WHITE);
+        cabecera.add(anterior, BorderLayout.WEST);
+        cabecera.add(titulo, BorderLayout.CENTER);
+        cabecera.add(siguiente, BorderLayout.EAST);
+
+        add(cabecera, BorderLayout.NORTH);
+        add(dias, BorderLayout.CENTER);
+        pintarMes();
+    }
+
+    /**
+     * Muestra el calendario en un diálogo y espera a que el usuario elija un día.
+     * @param inicial Día cuyo mes se muestra al abrir.
+     * @return El día elegido, o null si se cerró sin elegir.
+     */
+    public static LocalDate elegirDia(Component padre, GestorDatos modelo, LocalDate inicial) {
+        Window ventana = padre == null ? null : SwingUtilities.getWindowAncestor(padre);
+        JDialog dialogo = new JDialog(ventana, "Vencimientos por día", JDialog.ModalityType.APPLICATION_MODAL);
+        CalendarioVencimientos calendario = new CalendarioVencimientos(modelo, YearMonth.from(inicial));
+        dialogo.setContentPane(calendario);
+        dialogo.pack();
+        dialogo.setLocationRelativeTo(padre);
+        dialogo.setVisible(true); // Se queda aquí hasta que el diálogo se cierra
+        return calendario.elegido;
+    }
+
+    private void cambiarMes(int cuantos) {
+        mes = mes.plusMonths(cuantos);
+        pintarMes();
+    }
+
+    private void pintarMes() {
+        dias.removeAll();
+        String nombre = mes.getMonth().getDisplayName(TextStyle.FULL, ESPANOL);
+        titulo.setText(Character.toUpperCase(nombre.charAt(0)) + nombre.substring(1) + " " + mes.getYear());
+
+        // Fila con los nombres de los días (la semana empieza en lunes)
+        for (DayOfWeek d : DayOfWeek.values()) {
+            dias.add(new JLabel(d.getDisplayName(TextStyle.SHORT, ESPANOL), SwingConstants.CENTER));
+        }
+        // Huecos hasta el día de la semana en que empieza el mes
+        LocalDate primero = mes.atDay(1);
+        for (int i = 1; i < primero.getDayOfWeek().getValue(); i++) dias.add(new JLabel());
+
+        // Una sola consulta al modelo para todo el mes
+        int[] conteos = modelo.contarVencimientosPorDia(primero, mes.lengthOfMonth());
+        LocalDate hoy = LocalDate.now();
+        for (int i = 0; i < conteos.length; i++) {
+            LocalDate dia = primero.plusDays(i);
+            JButton boton = new JButton(conteos[i] == 0
+                    ? String.valueOf(i + 1)
+                    : "<html><center>" + (i + 1) + "<br><b>" + conteos[i] + "</b></center></html>");
+            boton.setMargin(new Insets(2, 2, 2, 2));
+            boton.setToolTipText(conteos[i] == 1 ? "Vence 1 tarea" : "Vencen " + conteos[i] + " tareas");
+            if (dia.equals(hoy)) {
+                boton.setBackground(COLOR_HOY);
+            } else if (conteos[i] > 0) {
+                boton.setBackground(COLOR_CON_TAREAS);
+            }
+            boton.addActionListener(e -> {
+                elegido = dia;
+                SwingUtilities.getWindowAncestor(this).dispose();
+            });
+            dias.add(boton);
+        }
+        dias.revalidate();
+        dias.repaint();
+        Window ventana = SwingUtilities.getWindowAncestor(this);
+        if (ventana != null) ventana.pack(); // Los meses pueden ocupar 5 o 6 semanas
+    }
+}
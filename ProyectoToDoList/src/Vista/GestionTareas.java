@@ -3,8 +3,10 @@
  * Click nbfs://nbhost/SystemFileSystem/Templates/GUIForms/JPanel.java to edit this template
  */
 package Vista;
+import Modelo.Tarea;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JTextField;
 /**
@@ -29,6 +31,11 @@ public class GestionTareas extends javax.swing.JPanel {
         return CampoRecordatorio1;
     }
 
+    // Aviso bajo el título (por ejemplo, "Ya existe una tarea con ese nombre")
+    public JLabel getLblAvisoTitulo() {
+        return LblAvisoTitulo;
+    }
+
     // Permite leer lo que el usuario escribió en el campo "Descripción"
     public JTextField getTxtDescripcion() {
         return DescripcionTarea; 
@@ -44,8 +51,18 @@ public class GestionTareas extends javax.swing.JPanel {
         return CategoriaTarea;
     }
 
+    // Permite saber qué filtro de vencimiento eligió el usuario (todas, vencidas, hoy...)
+    public JComboBox<String> getCmbVencimiento() {
+        return FiltroVencimiento;
+    }
+
+    // Permite leer lo que el usuario escribe en el buscador de pendientes
+    public JTextField getTxtBuscar() {
+        return CampoBuscar;
+    }
+
     // Permite al controlador acceder a la lista visual para agregar o quitar tareas
-    public JList<String> getJList() {
+    public JList<Tarea> getJList() {
         return jList1;
     }
     
@@ -65,6 +82,14 @@ public class GestionTareas extends javax.swing.JPanel {
         return BtnEliminar; 
     }
 
+    public JButton getBtnImportar() {
+        return BtnImportar;
+    }
+
+    public JButton getBtnExportar() {
+        return BtnExportar;
+    }
+
     // =======================================================
     // FUNCIONES VISUALES
     // =======================================================
@@ -91,6 +116,7 @@ public class GestionTareas extends javax.swing.JPanel {
 
         jPanel1 = new javax.swing.JPanel();
         jLabel1 = new javax.swing.JLabel();
+        LblAvisoTitulo = new javax.swing.JLabel();
         CampoRecordatorio1 = new javax.swing.JTextField();
         BtnCrearTarea = new javax.swing.JButton();
         jScrollPane1 = new javax.swing.JScrollPane();
@@ -104,11 +130,18 @@ public class GestionTareas extends javax.swing.JPanel {
         CategoriaTarea = new javax.swing.JComboBox<>();
         jLabel5 = new javax.swing.JLabel();
         BtnEliminar = new javax.swing.JButton();
+        BtnImportar = new javax.swing.JButton();
+        BtnExportar = new javax.swing.JButton();
+        CampoBuscar = new javax.swing.JTextField();
+        FiltroVencimiento = new javax.swing.JComboBox<>();
 
         jPanel1.setBackground(new java.awt.Color(255, 255, 255));
 
         jLabel1.setText("Crea tu recordatorio ");
 
+        LblAvisoTitulo.setForeground(new java.awt.Color(204, 0, 0));
+        LblAvisoTitulo.setText(" ");
+
         CampoRecordatorio1.setBackground(new java.awt.Color(242, 242, 242));
         CampoRecordatorio1.setBorder(javax.swing.BorderFactory.createLineBorder(new java.awt.Color(204, 204, 204)));
         CampoRecordatorio1.addActionListener(new java.awt.event.ActionListener() {
@@ -168,6 +201,19 @@ public class GestionTareas extends javax.swing.JPanel {
             }
         });
 
+        BtnImportar.setText("Importar...");
+        BtnImportar.setToolTipText("Importar tareas desde un archivo CSV o NDJSON");
+
+        BtnExportar.setText("Exportar...");
+        BtnExportar.setToolTipText("Exportar las tareas pendientes y completadas a CSV o NDJSON");
+
+        CampoBuscar.setToolTipText("Buscar por palabras del título o la descripción");
+
+        FiltroVencimiento.setBackground(new java.awt.Color(242, 242, 242));
+        FiltroVencimiento.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Ver: todas", "Ver: vencidas", "Ver: vencen hoy", "Ver: próximos 7 días", "Ver: día del calendario..." }));
+        FiltroVencimiento.setToolTipText("Mostrar solo las tareas pendientes que vencen en esas fechas");
+        FiltroVencimiento.setBorder(null);
+
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
         jPanel1.setLayout(jPanel1Layout);
         jPanel1Layout.setHorizontalGroup(
@@ -180,6 +226,7 @@ public class GestionTareas extends javax.swing.JPanel {
                             .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
                                 .addComponent(jLabel1)
                                 .addComponent(CampoRecordatorio1)
+                                .addComponent(LblAvisoTitulo)
                                 .addComponent(DescripcionTarea)
                                 .addComponent(jLabel2)
                                 .addComponent(CampoFecha)
@@ -192,9 +239,13 @@ public class GestionTareas extends javax.swing.JPanel {
                                 .addComponent(jScrollPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 218, javax.swing.GroupLayout.PREFERRED_SIZE)
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
+                                    .addComponent(FiltroVencimiento, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                                     .addComponent(BtnTareaCompleta, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
-                                    .addComponent(BtnEliminar, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
-                            .addComponent(jLabel4)))
+                                    .addComponent(BtnEliminar, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                                    .addComponent(BtnImportar, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                                    .addComponent(BtnExportar, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
+                            .addComponent(jLabel4)
+                            .addComponent(CampoBuscar, javax.swing.GroupLayout.PREFERRED_SIZE, 218, javax.swing.GroupLayout.PREFERRED_SIZE)))
                     .addGroup(jPanel1Layout.createSequentialGroup()
                         .addGap(113, 113, 113)
                         .addComponent(BtnCrearTarea, javax.swing.GroupLayout.PREFERRED_SIZE, 85, javax.swing.GroupLayout.PREFERRED_SIZE)))
@@ -207,20 +258,30 @@ public class GestionTareas extends javax.swing.JPanel {
                 .addComponent(jLabel4)
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                     .addGroup(jPanel1Layout.createSequentialGroup()
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(CampoBuscar, javax.swing.GroupLayout.PREFERRED_SIZE, 28, javax.swing.GroupLayout.PREFERRED_SIZE)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                         .addComponent(jScrollPane1)
                         .addGap(157, 157, 157))
                     .addGroup(jPanel1Layout.createSequentialGroup()
-                        .addGap(76, 76, 76)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(FiltroVencimiento, javax.swing.GroupLayout.PREFERRED_SIZE, 28, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addGap(42, 42, 42)
                         .addComponent(BtnTareaCompleta)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                         .addComponent(BtnEliminar)
+                        .addGap(40, 40, 40)
+                        .addComponent(BtnImportar)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                        .addComponent(BtnExportar)
                         .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))))
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(58, 58, 58)
                 .addComponent(jLabel1)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(CampoRecordatorio1, javax.swing.GroupLayout.PREFERRED_SIZE, 34, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(2, 2, 2)
+                .addComponent(LblAvisoTitulo)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(jLabel5)
                 .addGap(2, 2, 2)
@@ -233,7 +294,7 @@ public class GestionTareas extends javax.swing.JPanel {
                 .addComponent(jLabel3)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(CampoFecha, javax.swing.GroupLayout.PREFERRED_SIZE, 35, javax.swing.GroupLayout.PREFERRED_SIZE)
-                .addGap(49, 49, 49)
+                .addGap(31, 31, 31)
                 .addComponent(BtnCrearTarea, javax.swing.GroupLayout.PREFERRED_SIZE, 37, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addContainerGap(45, Short.MAX_VALUE))
         );
@@ -280,17 +341,22 @@ public class GestionTareas extends javax.swing.JPanel {
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton BtnCrearTarea;
     private javax.swing.JButton BtnEliminar;
+    private javax.swing.JButton BtnExportar;
+    private javax.swing.JButton BtnImportar;
     private javax.swing.JButton BtnTareaCompleta;
+    private javax.swing.JTextField CampoBuscar;
     private javax.swing.JTextField CampoFecha;
     private javax.swing.JTextField CampoRecordatorio1;
     private javax.swing.JComboBox<String> CategoriaTarea;
     private javax.swing.JTextField DescripcionTarea;
+    private javax.swing.JComboBox<String> FiltroVencimiento;
+    private javax.swing.JLabel LblAvisoTitulo;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
     private javax.swing.JLabel jLabel3;
     private javax.swing.JLabel jLabel4;
     private javax.swing.JLabel jLabel5;
-    private javax.swing.JList<String> jList1;
+    private javax.swing.JList<Modelo.Tarea> jList1;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JScrollPane jScrollPane1;
     // End of variables declaration//GEN-END:variables
@@ -0,0 +1,92 @@
+package Vista;
+
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import javax.swing.AbstractListModel;
+
+/**
+ * Modelo de lista que NO copia las tareas.
+ *
+ * La JList solo pide las filas que se ven en pantalla, y este modelo se las
+ * pide al GestorDatos en ese momento por su posición. Así la lista puede
+ * mostrar cientos de miles de tareas sin duplicarlas en memoria, y cargar los
+ * datos guardados es un único aviso en lugar de uno por tarea.
+ *
+ * Quien cambie los datos debe avisar con los métodos filasAgregadas,
+ * filasEliminadas o recargar para que la JList se repinte.
+ */
+public class ModeloListaTareas extends AbstractListModel<Tarea> {
+
+    private final IntSupplier cantidad;
+    private final IntFunction<Tarea> fila;
+
+    // Número de filas que la JList conoce (el último que le avisamos)
+    private int filas;
+
+    private ModeloListaTareas(IntSupplier cantidad, IntFunction<Tarea> fila) {
+        this.cantidad = cantidad;
+        this.fila = fila;
+        this.filas = cantidad.getAsInt();
+    }
+
+    /** Tareas pendientes, en el orden del índice (Categoría > Fecha > Creación). */
+    public static ModeloListaTareas pendientes(GestorDatos modelo) {
+        return new ModeloListaTareas(modelo::cantidadPendientes, modelo::obtenerPendiente);
+    }
+
+    /** Tareas completadas, de la más reciente a la más antigua. */
+    public static ModeloListaTareas completadas(GestorDatos modelo) {
+        return new ModeloListaTareas(modelo::cantidadCompletadas, modelo::obtenerCompletada);
+    }
+
+    /** Una lista ya calculada que no cambia (por ejemplo, el resultado de una búsqueda). */
+    public static ModeloListaTareas deLista(List<Tarea> tareas) {
+        return new ModeloListaTareas(tareas::size, tareas::get);
+    }
+
+    /** Completadas encontradas por el buscador, dadas por su número de orden (se leen al verse). */
+    public static ModeloListaTareas completadasEncontradas(GestorDatos modelo, int[] numeros) {
+        return new ModeloListaTareas(() -> numeros.length, i -> modelo.obtenerCompletadaPorNumero(numeros[i]));
+    }
+
+    @Override
+    public int getSize() {
+        return filas;
+    }
+
+    @Override
+    public Tarea getElementAt(int index) {
+        try {
+            return fila.apply(index);
+        } catch (IndexOutOfBoundsException e) {
+            // Otro hilo (la API, un importador...) quitó tareas y la JList aún no se ha
+            // enterado: la fila se pinta vacía hasta que llegue el aviso de recargar()
+            return null;
+        }
+    }
+
+    // --- AVISOS A LA JLIST (siempre desde el hilo de Swing) ---
+
+    /** Se agregaron las filas desde..hasta (ambas incluidas). */
+    public void filasAgregadas(int desde, int hasta) {
+        filas = cantidad.getAsInt();
+        fireIntervalAdded(this, desde, hasta);
+    }
+
+    /** Se quitaron las filas desde..hasta (ambas incluidas, posiciones de antes del cambio). */
+    public void filasEliminadas(int desde, int hasta) {
+        filas = cantidad.getAsInt();
+        fireIntervalRemoved(this, desde, hasta);
+    }
+
+    /** Los datos cambiaron por completo (por ejemplo, al cargarlos de disco). */
+    public void recargar() {
+        int antes = filas;
+        filas = cantidad.getAsInt();
+        if (antes > 0) fireIntervalRemoved(this, 0, antes - 1);
+        if (filas > 0) fireIntervalAdded(this, 0, filas - 1);
+    }
+}
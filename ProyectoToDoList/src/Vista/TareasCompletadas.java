@@ -1,5 +1,7 @@
 package Vista;
+import Modelo.Tarea;
 import javax.swing.JList;
+import javax.swing.JTextField;
 /*
  * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
  * Click nbfs://nbhost/SystemFileSystem/Templates/GUIForms/JPanel.java to edit this template
@@ -17,10 +19,15 @@ public class TareasCompletadas extends javax.swing.JPanel {
     public TareasCompletadas() {
         initComponents();
     }
-    public JList<String> getListaVisual() {
+    public JList<Tarea> getListaVisual() {
         return ListaTCompletada;
     }
 
+    // Permite leer lo que el usuario escribe en el buscador del historial
+    public JTextField getTxtBuscar() {
+        return CampoBuscarCompletadas;
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -38,6 +45,7 @@ public class TareasCompletadas extends javax.swing.JPanel {
         jLabel2 = new javax.swing.JLabel();
         jLabel3 = new javax.swing.JLabel();
         LimpiarTareasCom = new javax.swing.JButton();
+        CampoBuscarCompletadas = new javax.swing.JTextField();
 
         jPanel2.setBackground(new java.awt.Color(255, 255, 255));
 
@@ -50,6 +58,8 @@ public class TareasCompletadas extends javax.swing.JPanel {
 
         jLabel3.setText("Tareas Completadas");
 
+        CampoBuscarCompletadas.setToolTipText("Buscar en el historial por palabras del título o la descripción");
+
         LimpiarTareasCom.setText("Limpiar");
         LimpiarTareasCom.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -69,6 +79,7 @@ public class TareasCompletadas extends javax.swing.JPanel {
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                         .addComponent(jLabel1))
                     .addComponent(jLabel3)
+                    .addComponent(CampoBuscarCompletadas, javax.swing.GroupLayout.PREFERRED_SIZE, 395, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(LimpiarTareasCom))
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(jLabel2, javax.swing.GroupLayout.PREFERRED_SIZE, 353, javax.swing.GroupLayout.PREFERRED_SIZE)
@@ -88,7 +99,9 @@ public class TareasCompletadas extends javax.swing.JPanel {
                         .addGap(58, 58, 58)
                         .addComponent(jLabel3)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
-                        .addComponent(jScrollPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 270, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addComponent(CampoBuscarCompletadas, javax.swing.GroupLayout.PREFERRED_SIZE, 28, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(jScrollPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 236, javax.swing.GroupLayout.PREFERRED_SIZE)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                         .addComponent(LimpiarTareasCom)))
                 .addContainerGap(64, Short.MAX_VALUE))
@@ -130,8 +143,9 @@ public class TareasCompletadas extends javax.swing.JPanel {
 // Getter para el mensaje de "No hay tareas"
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JTextField CampoBuscarCompletadas;
     private javax.swing.JButton LimpiarTareasCom;
-    private javax.swing.JList<String> ListaTCompletada;
+    private javax.swing.JList<Modelo.Tarea> ListaTCompletada;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
     private javax.swing.JLabel jLabel3;
@@ -9,8 +9,14 @@ import Vista.Principal;
 import Vista.GestionTareas;
 import Vista.TareasCompletadas;
 import Controlador.ControladorTareas; 
+import Controlador.MetricasTareas;
+import Controlador.ServidorTareas;
+import Modelo.DatosEnUsoException;
+import Modelo.GestorDatos;
 import java.awt.BorderLayout;
+import java.io.IOException;
 import java.time.LocalDate;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 
 /**
@@ -31,6 +37,12 @@ public class ToDoList extends javax.swing.JFrame {
     // 2. DECLARAMOS EL CONTROLADOR
     private ControladorTareas controlador;
 
+    // API HTTP local (null si no está activada). La lee también el hilo de salida
+    private static volatile ServidorTareas api;
+
+    // Latencias de los botones: se guardan en un archivo al salir. La lee también el hilo de salida
+    private static volatile MetricasTareas metricas;
+
  
 public ToDoList() {
        initComponents();
@@ -43,13 +55,55 @@ public ToDoList() {
         pGestion = new GestionTareas();
         pCompletadas = new TareasCompletadas();
         
-        // 2. CONECTAMOS EL CONTROLADOR
+        // 2. RECUPERAMOS LAS TAREAS GUARDADAS (antes de que el controlador llene las listas)
+        try {
+            GestorDatos.getInstancia().activarPersistencia(GestorDatos.directorioPorDefecto());
+            // Al salir (cerrar la ventana, Ctrl+C...) se escribe en disco lo que quede en la cola del diario
+            Runtime.getRuntime().addShutdownHook(new Thread(ToDoList::guardarAlSalir, "guardar-al-salir"));
+        } catch (DatosEnUsoException ex) {
+            // Otra ventana (o la consola) ya tiene los datos: abrirlos aquí también pisaría sus cambios
+            logger.log(java.util.logging.Level.WARNING, ex.getMessage());
+            JOptionPane.showMessageDialog(null, "Ya hay otro ToDoList usando tus tareas guardadas.\n"
+                    + "Esta ventana funcionará solo en memoria: lo que hagas aquí no se guardará.",
+                    "Tareas en uso", JOptionPane.WARNING_MESSAGE);
+        } catch (IOException ex) {
+            // Si el disco falla seguimos funcionando, pero solo en memoria
+            logger.log(java.util.logging.Level.SEVERE, "No se pudieron cargar los datos guardados", ex);
+        }
+        
+        // 3. CONECTAMOS EL CONTROLADOR
         controlador = new ControladorTareas(pGestion, pCompletadas);
+        metricas = controlador.getMetricas();
+
+        // API HTTP local opcional (solo si se arrancó con -Dtodolist.api.puerto=...)
+        try {
+            api = ServidorTareas.desdePropiedades(GestorDatos.getInstancia());
+        } catch (IOException | NumberFormatException ex) {
+            logger.log(java.util.logging.Level.WARNING, "No se pudo arrancar la API HTTP", ex);
+        }
         
-        // 3. Mostramos la pantalla de inicio
+        // 4. Mostramos la pantalla de inicio
         Mostrarventanas(pPrincipal);
     }
 
+    // Vacía la cola del diario y lo cierra. Se ejecuta justo antes de que termine el programa.
+    private static void guardarAlSalir() {
+        // Primero dejamos de aceptar cambios por la API
+        if (api != null) api.detener();
+        if (metricas != null) {
+            try {
+                metricas.volcar(MetricasTareas.archivoPorDefecto());
+            } catch (IOException ex) {
+                logger.log(java.util.logging.Level.WARNING, "No se pudieron guardar las métricas", ex);
+            }
+        }
+        try {
+            GestorDatos.getInstancia().cerrar();
+        } catch (IOException ex) {
+            logger.log(java.util.logging.Level.SEVERE, "No se pudieron guardar los últimos cambios", ex);
+        }
+    }
+
     private void Mostrarventanas(JPanel p){
         Content.setLayout(borderLayout);
         p.setSize(830, 458);
@@ -0,0 +1,69 @@
+package Controlador;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import Modelo.GestorDatos;
+import Modelo.Tarea;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Importar lo que escribe ExportadorTareas (solo vuelven las pendientes) y
+ * archivos mal formados sin agotar la memoria.
+ */
+public class ImportadorTareasTest {
+
+    private final ImportadorTareas importador = new ImportadorTareas(GestorDatos.getInstancia());
+
+    private ImportadorTareas.Resultado importar(String texto, FormatoArchivo formato) throws IOException {
+        return importador.importar(new StringReader(texto), formato, null);
+    }
+
+    @Test
+    public void csvExportadoSaltaLasCompletadas() throws IOException {
+        ImportadorTareas.Resultado r = importar(
+                "titulo,descripcion,categoria,fecha,estado,creada,completada\n"
+                + "Csv pendiente,,HOY,,pendiente,2026-01-01T00:00:00Z,\n"
+                + "Csv hecha,,GENERAL,,completada,2026-01-01T00:00:00Z,2026-01-02T00:00:00Z\n",
+                FormatoArchivo.CSV);
+        assertEquals(2, r.getLeidas());
+        assertEquals(1, r.getCreadas());
+        assertEquals(1, r.getCompletadas());
+        assertEquals(0, r.getInvalidas());
+    }
+
+    @Test
+    public void ndjsonExportadoSaltaLasCompletadas() throws IOException {
+        ImportadorTareas.Resultado r = importar(
+                "{\"id\":1,\"titulo\":\"Json pendiente\",\"categoria\":\"HOY\",\"creada\":1}\n"
+                + "{\"id\":2,\"titulo\":\"Json hecha\",\"categoria\":\"HOY\",\"creada\":1,\"completada\":2}\n",
+                FormatoArchivo.NDJSON);
+        assertEquals(1, r.getCreadas());
+        assertEquals(1, r.getCompletadas());
+    }
+
+    @Test
+    public void comillaSinCerrarSeQuedaEnUnaFilaMala() throws IOException {
+        String basura = "x".repeat(Tarea.MAXIMO_DESCRIPCION + 10_000);
+        ImportadorTareas.Resultado r = importar(
+                "titulo,descripcion,categoria\n"
+                + "Comilla antes,,HOY\n"
+                + "\"Comilla sin cerrar," + basura + "\n"
+                + "Comilla después,,HOY\n",
+                FormatoArchivo.CSV);
+        assertEquals(3, r.getLeidas());
+        assertEquals(2, r.getCreadas());
+        assertEquals(1, r.getInvalidas());
+        // La línea donde se abrió la comilla
+        assertTrue(r.getErrores().get(0), r.getErrores().get(0).startsWith("Línea 3: Comillas sin cerrar"));
+    }
+
+    @Test
+    public void ndjsonConBom() throws IOException {
+        ImportadorTareas.Resultado r = importar("\uFEFF{\"titulo\":\"Json con BOM\"}\n", FormatoArchivo.NDJSON);
+        assertEquals(1, r.getCreadas());
+        assertEquals(0, r.getInvalidas());
+    }
+}
@@ -0,0 +1,77 @@
+package Controlador;
+
+import static org.junit.Assert.assertEquals;
+
+import Modelo.GestorDatos;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * La API no debe aceptar cambios que un navegador pueda mandar desde otra
+ * página (CSRF), y el lote tiene que contestar por posición en el array.
+ */
+public class ServidorTareasTest {
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+    private ServidorTareas servidor;
+    private String base;
+
+    @Before
+    public void arrancar() throws Exception {
+        servidor = new ServidorTareas(GestorDatos.getInstancia(), 0);
+        servidor.iniciar();
+        base = "http://127.0.0.1:" + servidor.getPuerto() + "/api/";
+    }
+
+    @After
+    public void parar() {
+        servidor.detener();
+    }
+
+    private HttpResponse<String> post(String ruta, String cuerpo, String tipo, String origen) throws Exception {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(base + ruta))
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo));
+        if (tipo != null) peticion.header("Content-Type", tipo);
+        if (origen != null) peticion.header("Origin", origen);
+        return cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void formularioDeOtraPaginaSeRechaza() throws Exception {
+        // Lo que manda un <form> de HTML: sin JSON y con el origen de la página
+        assertEquals(415, post("tareas/eliminar", "[1]", "application/x-www-form-urlencoded", null).statusCode());
+        assertEquals(415, post("tareas/completar", "[1]", "text/plain", null).statusCode());
+        assertEquals(415, post("tareas", "{\"titulo\":\"Sin tipo\"}", null, null).statusCode());
+        assertEquals(403, post("tareas", "{\"titulo\":\"Desde fuera\"}", "application/json",
+                "https://pagina-cualquiera.example").statusCode());
+    }
+
+    @Test
+    public void jsonDesdeUnProgramaOLaPropiaApiSeAcepta() throws Exception {
+        assertEquals(201, post("tareas", "{\"titulo\":\"API sin origen\"}", "application/json; charset=utf-8", null).statusCode());
+        assertEquals(201, post("tareas", "{\"titulo\":\"API mismo origen\"}", "application/json",
+                "http://127.0.0.1:" + servidor.getPuerto()).statusCode());
+    }
+
+    @Test
+    public void loteIndicaRepetidasYErroresPorPosicion() throws Exception {
+        String cuerpo = "[{\"titulo\":\"Lote uno\"},{\"titulo\":\"\"},{\"titulo\":\"lote UNO\"},{\"titulo\":\"Lote dos\"}]";
+        HttpResponse<String> respuesta = post("tareas/lote", cuerpo, "application/json", null);
+        assertEquals(200, respuesta.statusCode());
+
+        Map<?, ?> json = (Map<?, ?>) Json.leer(respuesta.body());
+        List<?> creadas = (List<?>) json.get("creadas");
+        assertEquals(2, creadas.size());
+        assertEquals("Lote uno", ((Map<?, ?>) creadas.get(0)).get("titulo"));
+        assertEquals("Lote dos", ((Map<?, ?>) creadas.get(1)).get("titulo"));
+        assertEquals(List.of(2L), json.get("repetidas"));
+        assertEquals(1L, ((Map<?, ?>) ((List<?>) json.get("errores")).get(0)).get("indice"));
+    }
+}
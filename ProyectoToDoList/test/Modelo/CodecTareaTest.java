@@ -0,0 +1,111 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import org.junit.Test;
+
+/**
+ * CodecTarea es el formato en disco del diario y de la instantánea: una tarea
+ * codificada y decodificada tiene que volver exactamente igual, sea cual sea
+ * su texto, su fecha o su id.
+ */
+public class CodecTareaTest {
+
+    private final CodecTarea codec = new CodecTarea();
+
+    // Codifica y decodifica la tarea, comprobando que ocupa justo lo que dice tamano()
+    private Tarea idaYVuelta(Tarea original) {
+        int tamano = codec.tamano(original);
+        ByteBuffer bufer = ByteBuffer.allocate(tamano + 16);
+        codec.codificar(original, bufer);
+        assertEquals("tamano() no coincide con lo escrito", tamano, bufer.position());
+        bufer.flip();
+        Tarea leida = codec.decodificar(bufer);
+        assertEquals("Sobran bytes después de la tarea", 0, bufer.remaining());
+        return leida;
+    }
+
+    // Compara campo a campo (equals de Tarea solo mira el id)
+    private static void assertIguales(Tarea esperada, Tarea leida) {
+        assertEquals(esperada.getId(), leida.getId());
+        assertEquals(esperada.getTitulo(), leida.getTitulo());
+        assertEquals(esperada.getDescripcion(), leida.getDescripcion());
+        assertEquals(esperada.getCategoria(), leida.getCategoria());
+        assertEquals(esperada.getFechaVencimiento(), leida.getFechaVencimiento());
+        assertEquals(esperada.getCreada(), leida.getCreada());
+        assertEquals(esperada.getCompletada(), leida.getCompletada());
+    }
+
+    private void comprobarTexto(String titulo, String descripcion) {
+        Tarea original = new Tarea(7, titulo, descripcion, Categoria.GENERAL, null, 1_700_000_000_000L, 0);
+        assertIguales(original, idaYVuelta(original));
+    }
+
+    @Test
+    public void textoAsciiYConTildes() {
+        comprobarTexto("Comprar pan", "");
+        comprobarTexto("Canción del año", "Añadir ñ, ü, ç y €");
+    }
+
+    @Test
+    public void emojiYOtrosParesSurrogate() {
+        comprobarTexto("Fiesta 🎉", "Cara 😀, bandera 🇪🇸 y 𝄞 (clave de sol)");
+        comprobarTexto("🎉", "𠜎𠜱𠝹");
+    }
+
+    @Test
+    public void surrogatesSueltos() {
+        comprobarTexto("alto suelto \uD83D", "al final \uD83D");
+        comprobarTexto("bajo suelto \uDE00 aquí", "\uDE00");
+        comprobarTexto("alto seguido de otro alto \uD83D\uD83D", "bajo antes de alto \uDE00\uD83D");
+    }
+
+    @Test
+    public void sinFechaDeVencimiento() {
+        Tarea original = new Tarea(1, "Sin fecha", "", Categoria.HOY, null, 5, 0);
+        Tarea leida = idaYVuelta(original);
+        assertNull(leida.getFechaVencimiento());
+        assertIguales(original, leida);
+    }
+
+    @Test
+    public void fechasDeVencimiento() {
+        for (LocalDate fecha : new LocalDate[] {LocalDate.of(1970, 1, 1), LocalDate.of(1969, 12, 31),
+                LocalDate.of(2026, 10, 17), LocalDate.of(9999, 12, 31)}) {
+            Tarea original = new Tarea(2, "Con fecha", "", Categoria.IMPORTANTE, fecha, 5, 0);
+            assertIguales(original, idaYVuelta(original));
+        }
+    }
+
+    @Test
+    public void tareaCompletada() {
+        Tarea original = new Tarea(3, "Hecha", "ya está", Categoria.GENERAL, LocalDate.of(2026, 1, 2),
+                1_700_000_000_000L, 0).marcarCompletada(1_700_000_123_456L);
+        assertIguales(original, idaYVuelta(original));
+    }
+
+    @Test
+    public void idsGrandes() {
+        for (long id : new long[] {(1L << 35) + 1, 1L << 42, Long.MAX_VALUE}) {
+            Tarea original = new Tarea(id, "Id grande", "", Categoria.GENERAL, null, Long.MAX_VALUE, 0);
+            assertIguales(original, idaYVuelta(original));
+        }
+    }
+
+    @Test
+    public void variasSeguidasEnElMismoBufer() {
+        Tarea[] tareas = {
+            new Tarea(1, "Primera 🎉", "", Categoria.HOY, null, 1, 0),
+            new Tarea(1L << 36, "Segunda", "con descripción", Categoria.GENERAL, LocalDate.of(2030, 5, 6), 2, 3),
+            new Tarea(3, "Tercera \uD83D", "ñ", Categoria.IMPORTANTE, null, 4, 0),
+        };
+        ByteBuffer bufer = ByteBuffer.allocate(1024);
+        for (Tarea t : tareas) codec.codificar(t, bufer);
+        bufer.flip();
+        for (Tarea t : tareas) assertIguales(t, codec.decodificar(bufer));
+        assertEquals(0, bufer.remaining());
+    }
+}
@@ -0,0 +1,93 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Borrar sin marcas (moviendo hacia atrás el resto del racimo) es lo delicado
+ * de ConjuntoHuellas: se prueba con títulos que caen en el mismo hueco, con
+ * racimos que dan la vuelta al final del array y al agrandarse.
+ */
+public class ConjuntoHuellasTest {
+
+    // La tabla de un conjunto recién creado (16 esperados / 0,6 de carga -> 32 huecos)
+    private static final int HUECOS = 32;
+
+    private static Tarea tarea(String titulo) {
+        return new Tarea(0, titulo, "", Categoria.GENERAL, null, 0, 0);
+    }
+
+    // Títulos cuya huella cae en el hueco indicado de una tabla de HUECOS
+    private static List<String> titulosEnHueco(int hueco, int cantidad) {
+        List<String> titulos = new ArrayList<>();
+        for (int i = 0; titulos.size() < cantidad; i++) {
+            String titulo = "Choque " + i;
+            if (((int) ConjuntoHuellas.huella(titulo) & (HUECOS - 1)) == hueco) titulos.add(titulo);
+        }
+        return titulos;
+    }
+
+    @Test
+    public void borrarEnUnRacimoQueDaLaVuelta() {
+        // Cinco en el último hueco y tres en el primero: forman un solo racimo que da la vuelta
+        List<String> titulos = new ArrayList<>(titulosEnHueco(HUECOS - 1, 5));
+        titulos.addAll(titulosEnHueco(0, 3));
+        Random azar = new Random(3);
+
+        for (int ronda = 0; ronda < 50; ronda++) {
+            ConjuntoHuellas conjunto = new ConjuntoHuellas();
+            for (String t : titulos) assertTrue(conjunto.agregar(tarea(t)));
+            assertFalse(conjunto.agregar(tarea(titulos.get(0).toUpperCase(Locale.ROOT))));
+
+            // Se borran en un orden distinto cada ronda; las que quedan se tienen que seguir encontrando
+            List<String> orden = new ArrayList<>(titulos);
+            Collections.shuffle(orden, azar);
+            for (int i = 0; i < orden.size(); i++) {
+                assertTrue(conjunto.quitar(orden.get(i).toLowerCase(Locale.ROOT)));
+                assertFalse(conjunto.quitar(orden.get(i)));
+                for (int j = 0; j < orden.size(); j++) {
+                    assertEquals(orden.get(j), j > i, conjunto.contiene(orden.get(j)));
+                }
+                assertEquals(orden.size() - i - 1, conjunto.tamano());
+            }
+        }
+    }
+
+    @Test
+    public void comoUnHashSetAlAzarYAlAgrandarse() {
+        Random azar = new Random(11);
+        ConjuntoHuellas conjunto = new ConjuntoHuellas();
+        Set<String> esperado = new HashSet<>();
+        // Pocos títulos distintos: se agregan, se quitan y se repiten muchas veces
+        List<String> titulos = new ArrayList<>(titulosEnHueco(5, 40));
+        for (int i = 0; i < 400; i++) titulos.add("Tarea " + i);
+
+        for (int paso = 0; paso < 50_000; paso++) {
+            String titulo = titulos.get(azar.nextInt(titulos.size()));
+            // Con mayúsculas al azar: es la misma tarea
+            if (azar.nextBoolean()) titulo = titulo.toUpperCase(Locale.ROOT);
+            String clave = titulo.toLowerCase(Locale.ROOT);
+            if (azar.nextInt(3) == 0) {
+                assertEquals(esperado.remove(clave), conjunto.quitar(titulo));
+            } else {
+                assertEquals(esperado.add(clave), conjunto.agregar(tarea(titulo)));
+            }
+            assertEquals(esperado.size(), conjunto.tamano());
+        }
+        for (String titulo : titulos) {
+            assertEquals(esperado.contains(titulo.toLowerCase(Locale.ROOT)), conjunto.contiene(titulo));
+        }
+        assertNull(conjunto.buscar("No está"));
+    }
+}
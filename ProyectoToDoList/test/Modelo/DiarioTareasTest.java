@@ -0,0 +1,86 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * El diario tiene que guardar y volver a leer registros de cualquier tamaño
+ * hasta MAXIMO_REGISTRO, también los que no caben en su búfer de 64 KB.
+ */
+public class DiarioTareasTest {
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    // Receptor que solo apunta las tareas registradas
+    static final class Registradas implements DiarioTareas.Receptor {
+        final List<Tarea> tareas = new ArrayList<>();
+
+        @Override public void registrar(Tarea tarea) { tareas.add(tarea); }
+        @Override public void completar(long id, long instante) { }
+        @Override public void eliminar(long id) { }
+        @Override public void vaciar() { }
+        @Override public void descompletar(long id) { }
+        @Override public void recuperarHistorial(long primerSegmento, int segmentos) { }
+        @Override public void recuperarCompletada(Tarea completada) { }
+    }
+
+    static Tarea tarea(long id, String descripcion) {
+        return new Tarea(id, "Tarea " + id, descripcion, Categoria.GENERAL, null, 1, 0);
+    }
+
+    private List<Tarea> releer(Path archivo) throws IOException {
+        Registradas receptor = new Registradas();
+        DiarioTareas.abrir(archivo, receptor).cerrar(false);
+        return receptor.tareas;
+    }
+
+    @Test
+    public void registroMasGrandeQueElBufer() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("diario.log");
+        // El máximo de la ventana en caracteres de 3 bytes: unos 240 KB en un solo registro
+        String larga = "€".repeat(Tarea.MAXIMO_DESCRIPCION);
+
+        DiarioTareas diario = DiarioTareas.crear(archivo);
+        diario.escribirRegistro(tarea(1, "antes"));
+        diario.escribirRegistro(tarea(2, larga));
+        diario.escribirRegistro(tarea(3, "después"));
+        diario.cerrar(false);
+
+        List<Tarea> leidas = releer(archivo);
+        assertEquals(3, leidas.size());
+        assertEquals("antes", leidas.get(0).getDescripcion());
+        assertEquals(larga, leidas.get(1).getDescripcion());
+        assertEquals("después", leidas.get(2).getDescripcion());
+    }
+
+    @Test
+    public void registroDemasiadoGrandeNoSeEscribe() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("diario.log");
+        DiarioTareas diario = DiarioTareas.crear(archivo);
+        diario.escribirRegistro(tarea(1, ""));
+        try {
+            diario.escribirRegistro(tarea(2, "x".repeat(DiarioTareas.MAXIMO_REGISTRO)));
+            fail("Debería rechazar un registro de más de MAXIMO_REGISTRO");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        // El diario sigue sirviendo y no guarda nada del registro rechazado
+        diario.escribirRegistro(tarea(3, ""));
+        assertEquals(2, diario.getRegistros());
+        diario.cerrar(false);
+
+        List<Tarea> leidas = releer(archivo);
+        assertEquals(2, leidas.size());
+        assertEquals(1, leidas.get(0).getId());
+        assertEquals(3, leidas.get(1).getId());
+    }
+}
@@ -0,0 +1,44 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Un cambio que no se puede escribir no debe dejar al escritor parado:
+ * se descarta y los cambios siguientes se siguen guardando.
+ */
+public class EscritorDiarioTest {
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    @Test
+    public void registroDemasiadoGrandeNoParaAlEscritor() throws IOException {
+        Path archivo = carpeta.getRoot().toPath().resolve("diario.log");
+        EscritorDiario escritor = new EscritorDiario(DiarioTareas.crear(archivo), ModoDurabilidad.POR_OPERACION);
+
+        escritor.esperar(escritor.anotar(d -> d.escribirRegistro(DiarioTareasTest.tarea(1, ""))));
+        // Más grande que MAXIMO_REGISTRO: el diario lo rechaza
+        long numero = escritor.anotar(d -> d.escribirRegistro(
+                DiarioTareasTest.tarea(2, "x".repeat(DiarioTareas.MAXIMO_REGISTRO))));
+        escritor.esperar(numero);
+
+        // Las escrituras de después siguen funcionando (esperar lanzaría si el escritor hubiera fallado)
+        escritor.esperar(escritor.anotar(d -> d.escribirRegistro(DiarioTareasTest.tarea(3, ""))));
+        escritor.sincronizar();
+        escritor.cerrar();
+
+        DiarioTareasTest.Registradas receptor = new DiarioTareasTest.Registradas();
+        DiarioTareas.abrir(archivo, receptor).cerrar(false);
+        List<Tarea> leidas = receptor.tareas;
+        assertEquals(2, leidas.size());
+        assertEquals(1, leidas.get(0).getId());
+        assertEquals(3, leidas.get(1).getId());
+    }
+}
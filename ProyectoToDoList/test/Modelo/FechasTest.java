@@ -0,0 +1,73 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import org.junit.Test;
+
+/**
+ * El intérprete propio de Fechas tiene que dar el mismo día que LocalDate
+ * para todas las fechas de 4 cifras, y rechazar lo mismo que FORMATO.
+ */
+public class FechasTest {
+
+    // Escribe la fecha como dd/MM/yyyy en el buffer (sin el formateador, que sería lento para 3,6 millones)
+    private static void escribir(LocalDate fecha, StringBuilder texto) {
+        texto.setLength(0);
+        int dia = fecha.getDayOfMonth();
+        int mes = fecha.getMonthValue();
+        int anio = fecha.getYear();
+        texto.append((char) ('0' + dia / 10)).append((char) ('0' + dia % 10)).append('/')
+                .append((char) ('0' + mes / 10)).append((char) ('0' + mes % 10)).append('/')
+                .append((char) ('0' + anio / 1000)).append((char) ('0' + anio / 100 % 10))
+                .append((char) ('0' + anio / 10 % 10)).append((char) ('0' + anio % 10));
+    }
+
+    // Lo que dice el formateador estricto de java.time (null = no es válida)
+    private static LocalDate segunFormato(String texto) {
+        try {
+            return LocalDate.parse(texto, Fechas.FORMATO);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void todosLosDiasDelAnio1AlAnio9999() {
+        StringBuilder texto = new StringBuilder(10);
+        LocalDate fin = LocalDate.of(9999, 12, 31);
+        for (LocalDate fecha = LocalDate.of(1, 1, 1); !fecha.isAfter(fin); fecha = fecha.plusDays(1)) {
+            escribir(fecha, texto);
+            int dia = Fechas.diaEpoch(texto);
+            if (dia != fecha.toEpochDay()) assertEquals(texto.toString(), fecha.toEpochDay(), dia);
+        }
+        // escribir da el mismo texto que el formateador
+        assertEquals("29/02/2000", Fechas.formatear(LocalDate.of(2000, 2, 29)));
+        escribir(LocalDate.of(2000, 2, 29), texto);
+        assertEquals("29/02/2000", texto.toString());
+    }
+
+    @Test
+    public void rechazaLoMismoQueElFormato() {
+        String[] textos = {
+            "29/02/1900", "29/02/2100", "29/02/2000", "29/02/2024", "29/02/2023", "28/02/2023",
+            "31/04/2026", "30/04/2026", "31/12/9999", "01/01/0001", "01/01/0000", "31/12/0000",
+            "00/01/2026", "32/01/2026", "01/00/2026", "01/13/2026", "31/06/2026", "31/07/2026",
+            "31/08/2026", "31/09/2026", "31/10/2026", "31/11/2026",
+            "1/01/2026", "01/1/2026", "01-01-2026", "01/01/20a6", "0a/01/2026", "01/01/ 026",
+            "01/01/2026 ", "", "//////////", "01/01/-026", "+1/01/2026",
+        };
+        for (String texto : textos) {
+            LocalDate esperada = segunFormato(texto);
+            int dia = Fechas.diaEpoch(texto);
+            if (esperada == null) {
+                assertEquals(texto, Fechas.NO_VALIDA, dia);
+            } else {
+                assertEquals(texto, esperada.toEpochDay(), dia);
+            }
+            assertEquals(texto, esperada, Fechas.interpretar(texto));
+        }
+        assertEquals(Fechas.NO_VALIDA, Fechas.diaEpoch(null));
+    }
+}
@@ -0,0 +1,123 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Persistencia del GestorDatos (una carpeta de datos solo la puede tener
+ * abierta un gestor), el índice de sugerencias, que se construye sin bloquear,
+ * y el buscador del historial, que solo indexa las completadas más recientes.
+ */
+public class GestorDatosTest {
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    @Test
+    public void segundoGestorNoPuedeAbrirLaMismaCarpeta() throws IOException {
+        Path datos = carpeta.getRoot().toPath();
+        GestorDatos primero = GestorDatos.nuevoAislado();
+        primero.activarPersistencia(datos, ModoDurabilidad.POR_OPERACION);
+        primero.registrarTarea("Del primero", "", Categoria.GENERAL, null);
+
+        GestorDatos segundo = GestorDatos.nuevoAislado();
+        try {
+            segundo.activarPersistencia(datos, ModoDurabilidad.POR_OPERACION);
+            fail("La carpeta ya estaba abierta");
+        } catch (DatosEnUsoException e) {
+            assertEquals(datos, e.getDirectorio());
+        }
+        // El segundo no ha cargado nada ni bloquea nada
+        assertEquals(0, segundo.cantidadPendientes());
+
+        // Al cerrar el primero, la carpeta queda libre y tiene lo que guardó
+        primero.cerrar();
+        segundo.activarPersistencia(datos, ModoDurabilidad.POR_OPERACION);
+        assertEquals(1, segundo.cantidadPendientes());
+        segundo.cerrar();
+    }
+
+    private static List<String> titulos(List<Tarea> tareas) {
+        List<String> titulos = new ArrayList<>();
+        for (Tarea t : tareas) titulos.add(t.getTitulo());
+        return titulos;
+    }
+
+    @Test
+    public void sugerenciasConCambiosMientrasSeConstruye() throws InterruptedException {
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        for (int i = 0; i < 50_000; i++) gestor.registrarTarea("Antigua " + i, "", Categoria.GENERAL, null);
+        // Sin árbol todavía: recorre las pendientes y devuelve las primeras en orden alfabético
+        assertEquals(List.of("Antigua 0", "Antigua 1", "Antigua 10"), titulos(gestor.sugerirTitulos("antigua", 3)));
+
+        // Se construye en otro hilo mientras se crean y completan tareas
+        Thread construir = new Thread(gestor::prepararSugerencias);
+        construir.start();
+        for (int i = 0; i < 2_000; i++) {
+            gestor.registrarTarea("Nueva " + i, "", Categoria.GENERAL, null);
+            gestor.completarTarea(i + 1); // Las "Antigua" tienen los ids 1..50000
+        }
+        construir.join();
+        gestor.prepararSugerencias(); // Por si el hilo terminó antes de los cambios: ya no hace nada
+
+        assertEquals(List.of("Antigua 2000", "Antigua 20000", "Antigua 20001"), titulos(gestor.sugerirTitulos("antigua 2", 3)));
+        assertEquals(List.of("Nueva 0", "Nueva 1"), titulos(gestor.sugerirTitulos("nueva", 2)));
+        // "Antigua 1999" se completó: la primera que queda con ese prefijo es la 19990
+        assertEquals("Antigua 19990", gestor.sugerirTitulos("Antigua 1999", 3).get(0).getTitulo());
+    }
+
+    @Test
+    public void lasFilasSalenDelMismoBloqueoQueElCambio() {
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        Tarea general = gestor.registrarTarea("General", "", Categoria.GENERAL, null);
+        // Categoría > Fecha > Creación: las de HOY van antes que las generales
+        TareaEnFila hoy = gestor.registrarSiNuevaEnFila("Hoy", "", Categoria.HOY, null);
+        assertEquals(0, hoy.getFila());
+        assertEquals(null, gestor.registrarSiNuevaEnFila("hoy", "", Categoria.HOY, null));
+
+        TareaEnFila completada = gestor.completarEnFila(general.getId());
+        assertEquals(1, completada.getFila());
+        assertEquals(general.getId(), completada.getTarea().getId());
+        assertEquals(null, gestor.completarEnFila(general.getId()));
+
+        assertEquals(0, gestor.eliminarEnFila(hoy.getTarea().getId()).getFila());
+        assertEquals(null, gestor.eliminarEnFila(hoy.getTarea().getId()));
+    }
+
+    @Test
+    public void buscarEnElHistorialMasAllaDelIndice() {
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        gestor.setPresupuestoDeshacer(0);
+        int cantidad = GestorDatos.MAXIMO_COMPLETADAS_INDEXADAS + 1000;
+        List<Tarea> lote = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            // Una de cada mil lleva la palabra buscada
+            lote.add(new Tarea(0, (i % 1000 == 7 ? "Buscada " : "Otra ") + i, "", Categoria.GENERAL, null, 0, 0));
+        }
+        gestor.registrarLote(lote);
+        for (long id = 1; id <= cantidad; id++) gestor.completarTarea(id);
+
+        // Las tareas 7, 1007, 2007... en el historial: la más reciente primero, indexadas o no
+        int[] esperados = new int[cantidad / 1000 + 1];
+        int n = 0;
+        for (int numero = cantidad - 1; numero >= 0; numero--) if (numero % 1000 == 7) esperados[n++] = numero;
+        esperados = Arrays.copyOf(esperados, n);
+        assertEquals(Arrays.toString(esperados), Arrays.toString(gestor.buscarCompletadas("buscad")));
+        // Con el índice ya construido, lo mismo
+        assertEquals(Arrays.toString(esperados), Arrays.toString(gestor.buscarCompletadas("BUSCADA")));
+
+        // Una más: entra en el índice
+        gestor.registrarTarea("Buscada última", "", Categoria.GENERAL, null);
+        gestor.completarTarea(cantidad + 1);
+        assertEquals(cantidad, gestor.buscarCompletadas("buscada")[0]);
+    }
+}
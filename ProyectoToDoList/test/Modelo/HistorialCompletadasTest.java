@@ -0,0 +1,95 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * El historial vuelca segmentos en otro hilo: las posiciones tienen que ser
+ * las mismas mientras se escribe, después y aunque el disco falle.
+ */
+public class HistorialCompletadasTest {
+
+    private static final int SEGMENTO = HistorialCompletadas.TAMANO_SEGMENTO;
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    private static Tarea completada(long id) {
+        return new Tarea(id, "Completada " + id, "", Categoria.GENERAL, null, id, id + 1);
+    }
+
+    // La posición 0 es la más reciente: la última agregada
+    private static void comprobarOrden(HistorialCompletadas historial, int cantidad) {
+        assertEquals(cantidad, historial.tamano());
+        for (int i = 0; i < cantidad; i++) assertEquals(cantidad - i, historial.obtener(i).getId());
+    }
+
+    private static long segmentosEnDisco(Path directorio) throws IOException {
+        if (!Files.isDirectory(directorio)) return 0;
+        try (var archivos = Files.list(directorio)) {
+            return archivos.filter(a -> a.getFileName().toString().startsWith("segmento-")).count();
+        }
+    }
+
+    @Test
+    public void vuelcaSegmentosSinPerderElOrden() throws IOException {
+        Path directorio = carpeta.getRoot().toPath().resolve("historial");
+        HistorialCompletadas historial = new HistorialCompletadas(directorio);
+        int cantidad = 3 * SEGMENTO + 10;
+        for (int i = 1; i <= cantidad; i++) {
+            historial.agregar(completada(i));
+            if (i % 1000 == 0) comprobarOrden(historial, i); // También con un volcado en marcha
+        }
+        comprobarOrden(historial, cantidad);
+
+        // Espera al volcado en marcha: luego los segmentos guardados están todos en disco
+        historial.borrarSegmentosFuera();
+        comprobarOrden(historial, cantidad);
+        assertEquals(historial.resumir().segmentos, segmentosEnDisco(directorio));
+        assertEquals(cantidad - historial.resumir().segmentos * SEGMENTO, historial.resumir().recientes.size());
+    }
+
+    @Test
+    public void siElDiscoFallaLasTareasSiguenEnMemoria() throws IOException {
+        // Un archivo donde debería ir la carpeta: ningún segmento se puede escribir
+        Path directorio = carpeta.newFile("no-es-carpeta").toPath().resolve("historial");
+        HistorialCompletadas historial = new HistorialCompletadas(directorio);
+        int cantidad = 5 * SEGMENTO;
+        for (int i = 1; i <= cantidad; i++) historial.agregar(completada(i));
+        historial.borrarSegmentosFuera();
+
+        comprobarOrden(historial, cantidad);
+        assertEquals(0, historial.resumir().segmentos);
+    }
+
+    @Test
+    public void quitarLaMasRecienteDelSegmentoQueSeEscribe() {
+        HistorialCompletadas historial = new HistorialCompletadas(carpeta.getRoot().toPath().resolve("historial"));
+        // Justo al pasar el umbral empieza un volcado de las SEGMENTO más antiguas
+        int cantidad = SEGMENTO + SEGMENTO / 2;
+        for (int i = 1; i <= cantidad; i++) historial.agregar(completada(i));
+
+        // Se deshacen tantas que se llega a las del segmento en marcha: tienen que seguir saliendo
+        for (int i = cantidad; i >= 1; i--) assertEquals(i, historial.quitarMasReciente().getId());
+        assertEquals(0, historial.tamano());
+        assertEquals(null, historial.quitarMasReciente());
+    }
+
+    @Test
+    public void vaciarYRestaurarConUnVolcadoEnMarcha() {
+        HistorialCompletadas historial = new HistorialCompletadas(carpeta.getRoot().toPath().resolve("historial"));
+        int cantidad = 2 * SEGMENTO + SEGMENTO / 2;
+        for (int i = 1; i <= cantidad; i++) historial.agregar(completada(i));
+
+        HistorialCompletadas.Resumen anterior = historial.vaciar();
+        assertEquals(0, historial.tamano());
+        historial.restaurar(anterior);
+        comprobarOrden(historial, cantidad);
+    }
+}
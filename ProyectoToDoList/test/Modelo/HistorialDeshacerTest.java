@@ -0,0 +1,151 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Deshacer y rehacer a través del GestorDatos: lotes, vaciados del historial,
+ * completadas que ya se guardaron en disco y el límite de bytes.
+ */
+public class HistorialDeshacerTest {
+
+    private static final int SEGMENTO = HistorialCompletadas.TAMANO_SEGMENTO;
+    private static final long PRESUPUESTO = 16L * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    private static GestorDatos gestor() {
+        GestorDatos gestor = GestorDatos.nuevoAislado();
+        gestor.setPresupuestoDeshacer(PRESUPUESTO); // Que no dependa de la propiedad del sistema
+        return gestor;
+    }
+
+    private static List<Tarea> borradores(String prefijo, int cantidad) {
+        List<Tarea> lote = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) lote.add(new Tarea(0, prefijo + " " + i, "", Categoria.GENERAL, null, 0, 0));
+        return lote;
+    }
+
+    @Test
+    public void unLoteSeDeshaceYSeRehaceEntero() {
+        GestorDatos gestor = gestor();
+        gestor.registrarTarea("Antes del lote", "", Categoria.HOY, null);
+        assertEquals(3, gestor.registrarLote(borradores("Lote", 3)));
+
+        assertTrue(gestor.deshacer());
+        assertEquals(1, gestor.cantidadPendientes());
+        assertTrue(gestor.esTareaNueva("Lote 0")); // El nombre vuelve a estar libre
+
+        assertTrue(gestor.rehacer());
+        assertEquals(4, gestor.cantidadPendientes());
+        assertFalse(gestor.esTareaNueva("lote 2"));
+        assertFalse(gestor.rehacer());
+
+        // Deshacer dos veces: el lote y la tarea de antes
+        assertTrue(gestor.deshacer());
+        assertTrue(gestor.deshacer());
+        assertEquals(0, gestor.cantidadPendientes());
+        assertFalse(gestor.deshacer());
+        assertNull(gestor.explicarSinDeshacer()); // No se perdió nada: solo no queda más
+    }
+
+    @Test
+    public void vaciarElHistorialSeDeshaceConSusSegmentos() throws IOException {
+        GestorDatos gestor = gestor();
+        gestor.activarPersistencia(carpeta.getRoot().toPath(), ModoDurabilidad.POR_LOTES);
+        int cantidad = 2 * SEGMENTO + 100; // Parte en segmentos de disco y parte en memoria
+        gestor.registrarLote(borradores("Completada", cantidad));
+        for (long id = 1; id <= cantidad; id++) gestor.completarTarea(id);
+        Tarea masReciente = gestor.obtenerCompletada(0);
+        Tarea masAntigua = gestor.obtenerCompletada(cantidad - 1);
+
+        gestor.vaciarCompletadas();
+        assertEquals(0, gestor.cantidadCompletadas());
+        assertTrue(gestor.deshacer());
+        assertEquals(cantidad, gestor.cantidadCompletadas());
+        assertEquals(masReciente.getId(), gestor.obtenerCompletada(0).getId());
+        assertEquals(masAntigua.getId(), gestor.obtenerCompletada(cantidad - 1).getId());
+
+        assertTrue(gestor.rehacer());
+        assertEquals(0, gestor.cantidadCompletadas());
+        assertTrue(gestor.deshacer());
+        gestor.cerrar();
+
+        // Lo deshecho también quedó en el diario
+        GestorDatos otra = gestor();
+        otra.activarPersistencia(carpeta.getRoot().toPath(), ModoDurabilidad.POR_LOTES);
+        assertEquals(cantidad, otra.cantidadCompletadas());
+        assertEquals(masAntigua.getId(), otra.obtenerCompletada(cantidad - 1).getId());
+        otra.cerrar();
+    }
+
+    @Test
+    public void deshacerCompletadasQueYaEstanEnDisco() throws IOException {
+        Path datos = carpeta.getRoot().toPath();
+        GestorDatos gestor = gestor();
+        gestor.activarPersistencia(datos, ModoDurabilidad.POR_LOTES);
+        int cantidad = 3 * SEGMENTO;
+        gestor.registrarLote(borradores("Completada", cantidad));
+        for (long id = 1; id <= cantidad; id++) gestor.completarTarea(id);
+
+        // Se deshacen todas: las de los segmentos vuelven al anillo cuando hace falta
+        for (long id = cantidad; id >= 1; id--) {
+            assertTrue("Completar " + id, gestor.deshacer());
+            assertEquals(id, gestor.obtenerTarea(id).getId()); // Vuelve a estar pendiente
+            assertEquals(id - 1, gestor.cantidadCompletadas());
+        }
+        assertEquals(cantidad, gestor.cantidadPendientes());
+        assertEquals(0, gestor.cantidadCompletadas());
+
+        // Y se rehacen unas cuantas
+        for (int i = 0; i < 10; i++) assertTrue(gestor.rehacer());
+        assertEquals(10, gestor.cantidadCompletadas());
+        gestor.cerrar();
+
+        // Al reproducir el diario se llega a lo mismo (sin leer los segmentos que volvieron al anillo)
+        GestorDatos otra = gestor();
+        otra.activarPersistencia(datos, ModoDurabilidad.POR_LOTES);
+        assertEquals(cantidad - 10, otra.cantidadPendientes());
+        assertEquals(10, otra.cantidadCompletadas());
+        assertEquals(10, otra.obtenerCompletada(0).getId());
+        otra.cerrar();
+    }
+
+    @Test
+    public void elPresupuestoOlvidaLosCambiosMasAntiguos() {
+        GestorDatos gestor = gestor();
+        Tarea ejemplo = new Tarea(1, "Tarea 0", "", Categoria.GENERAL, null, 0, 0);
+        // Caben tres registros (los tres títulos miden lo mismo)
+        long porCambio = 48 + HistorialDeshacer.bytes(ejemplo);
+        gestor.setPresupuestoDeshacer(3 * porCambio);
+        for (int i = 0; i < 5; i++) gestor.registrarTarea("Tarea " + i, "", Categoria.GENERAL, null);
+        assertTrue(gestor.getBytesDeshacer() <= 3 * porCambio);
+
+        assertTrue(gestor.deshacer());
+        assertTrue(gestor.deshacer());
+        assertTrue(gestor.deshacer());
+        assertFalse(gestor.deshacer());
+        assertEquals(2, gestor.cantidadPendientes());
+        assertTrue(gestor.explicarSinDeshacer(), gestor.explicarSinDeshacer().startsWith("Los cambios más antiguos"));
+
+        // Un lote más grande que todo el presupuesto se hace, pero no se puede deshacer
+        gestor.registrarLote(borradores("Grande", 10));
+        assertEquals(12, gestor.cantidadPendientes());
+        assertFalse(gestor.deshacer());
+        assertEquals(0, gestor.getBytesDeshacer());
+
+        gestor.setPresupuestoDeshacer(0);
+        assertEquals("Deshacer está desactivado (la propiedad todolist.deshacer.bytes vale 0).", gestor.explicarSinDeshacer());
+    }
+}
@@ -0,0 +1,92 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * El treap tiene que dar siempre las mismas posiciones que una lista ordenada
+ * normal, con inserciones y borrados en cualquier orden.
+ */
+public class IndicePrioridadTest {
+
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+
+    // Pocas fechas distintas: muchas tareas empatan en categoría y fecha y las separa el id
+    private static Tarea tarea(Random azar, long id) {
+        LocalDate fecha = azar.nextInt(4) == 0 ? null : LocalDate.of(2026, 1, 1).plusDays(azar.nextInt(20));
+        return new Tarea(id, "Tarea " + id, "", CATEGORIAS[azar.nextInt(CATEGORIAS.length)], fecha, id, 0);
+    }
+
+    // Compara el índice entero con la lista: obtener, posicion, posicionSiguiente y el iterador
+    private static void comprobar(IndicePrioridad indice, List<Tarea> ordenadas) {
+        assertEquals(ordenadas.size(), indice.tamano());
+        int i = 0;
+        for (Tarea t : indice) assertEquals(ordenadas.get(i++).getId(), t.getId());
+        for (i = 0; i < ordenadas.size(); i++) {
+            Tarea t = ordenadas.get(i);
+            assertEquals(t.getId(), indice.obtener(i).getId());
+            assertEquals(i, indice.posicion(t));
+            assertEquals(i + 1, indice.posicionSiguiente(t));
+        }
+    }
+
+    @Test
+    public void insertarYBorrarAlAzarComoUnaListaOrdenada() {
+        Random azar = new Random(42);
+        IndicePrioridad indice = new IndicePrioridad();
+        List<Tarea> ordenadas = new ArrayList<>();
+        long siguienteId = 1;
+
+        for (int paso = 0; paso < 20_000; paso++) {
+            if (ordenadas.isEmpty() || azar.nextInt(3) != 0) {
+                Tarea t = tarea(azar, siguienteId++);
+                int esperada = -Collections.binarySearch(ordenadas, t) - 1;
+                ordenadas.add(esperada, t);
+                assertEquals(esperada, indice.insertar(t));
+            } else {
+                int posicion = azar.nextInt(ordenadas.size());
+                Tarea t = ordenadas.remove(posicion);
+                assertEquals(posicion, indice.eliminar(t));
+                assertEquals(-1, indice.posicion(t));
+                // Ya no está, pero sigue sabiendo dónde continuar un recorrido por páginas
+                assertEquals(posicion, indice.posicionSiguiente(t));
+                assertEquals(-1, indice.eliminar(t));
+            }
+            if (paso % 2_000 == 0) comprobar(indice, ordenadas);
+        }
+        comprobar(indice, ordenadas);
+    }
+
+    @Test
+    public void construirDesdeUnaListaOrdenadaYSeguirCambiando() {
+        Random azar = new Random(7);
+        List<Tarea> ordenadas = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) ordenadas.add(tarea(azar, id));
+        Collections.sort(ordenadas);
+
+        IndicePrioridad indice = new IndicePrioridad();
+        indice.construir(new ArrayList<>(ordenadas));
+        comprobar(indice, ordenadas);
+
+        // Después de construir se sigue comportando igual
+        for (int i = 0; i < 1_000; i++) {
+            Tarea t = ordenadas.remove(azar.nextInt(ordenadas.size()));
+            indice.eliminar(t);
+        }
+        for (long id = 5_001; id <= 6_000; id++) {
+            Tarea t = tarea(azar, id);
+            ordenadas.add(-Collections.binarySearch(ordenadas, t) - 1, t);
+            indice.insertar(t);
+        }
+        comprobar(indice, ordenadas);
+
+        indice.vaciar();
+        comprobar(indice, new ArrayList<>());
+    }
+}
@@ -0,0 +1,116 @@
+package Modelo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Los conteos por día del árbol de Fenwick tienen que coincidir con contar a
+ * mano, también después de agrandar() (que rehace el árbol desde las fechas).
+ */
+public class IndiceVencimientosTest {
+
+    // El array empieza con 1 << 15 huecos: las fechas de estos días lo obligan a agrandarse
+    private static final long[] BORDES = { 0, 1, 32_766, 32_767, 32_768, 65_534, 65_535, 65_536, 131_071 };
+    private static final long ULTIMO_DIA = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    private static Tarea tarea(long id, long dia) {
+        return new Tarea(id, "Tarea " + id, "", Categoria.GENERAL, LocalDate.ofEpochDay(dia), 0, 0);
+    }
+
+    private static long diaAlAzar(Random azar) {
+        switch (azar.nextInt(3)) {
+            case 0: return Math.max(0, BORDES[azar.nextInt(BORDES.length)] + azar.nextInt(3) - 1); // Un borde o su vecino
+            case 1: return azar.nextInt(32_768); // Antes del primer agrandar
+            default: return (long) (azar.nextDouble() * (ULTIMO_DIA + 1));
+        }
+    }
+
+    // Cuenta a mano las tareas que vencen entre los dos días (ambos incluidos)
+    private static int contarAMano(List<Tarea> tareas, long desde, long hasta) {
+        int cuantas = 0;
+        for (Tarea t : tareas) {
+            if (t.diaVencimiento() >= desde && t.diaVencimiento() <= hasta) cuantas++;
+        }
+        return cuantas;
+    }
+
+    private static void comprobar(IndiceVencimientos indice, List<Tarea> tareas, Random azar) {
+        assertEquals(tareas.size(), indice.tamano());
+        assertEquals(tareas.size(), indice.contar(null, null));
+        // Rangos que empiezan y acaban justo en los bordes del array de antes y después de agrandar
+        for (long borde : BORDES) {
+            LocalDate fecha = LocalDate.ofEpochDay(borde);
+            assertEquals(contarAMano(tareas, 0, borde), indice.contar(null, fecha));
+            assertEquals(contarAMano(tareas, borde, ULTIMO_DIA), indice.contar(fecha, null));
+            assertEquals(contarAMano(tareas, borde, borde), indice.contar(fecha, fecha));
+        }
+        for (int i = 0; i < 20; i++) {
+            long a = diaAlAzar(azar);
+            long b = diaAlAzar(azar);
+            assertEquals(contarAMano(tareas, Math.min(a, b), Math.max(a, b)),
+                    indice.contar(LocalDate.ofEpochDay(Math.min(a, b)), LocalDate.ofEpochDay(Math.max(a, b))));
+            if (a != b) assertEquals(0, indice.contar(LocalDate.ofEpochDay(Math.max(a, b)), LocalDate.ofEpochDay(Math.min(a, b))));
+        }
+    }
+
+    @Test
+    public void losConteosSobrevivenAAgrandar() {
+        Random azar = new Random(17);
+        IndiceVencimientos indice = new IndiceVencimientos();
+        List<Tarea> tareas = new ArrayList<>();
+        long siguienteId = 1;
+
+        // Primero solo fechas que caben en el array inicial, luego cada vez más lejanas
+        for (int dia = 0; dia < 200; dia++) {
+            Tarea t = tarea(siguienteId++, 32_700 + dia % 68);
+            indice.agregar(t);
+            tareas.add(t);
+        }
+        comprobar(indice, tareas, azar);
+
+        for (int paso = 0; paso < 3_000; paso++) {
+            if (tareas.isEmpty() || azar.nextInt(4) != 0) {
+                Tarea t = tarea(siguienteId++, diaAlAzar(azar));
+                indice.agregar(t);
+                indice.agregar(t); // Repetida: no cuenta dos veces
+                tareas.add(t);
+            } else {
+                Tarea t = tareas.remove(azar.nextInt(tareas.size()));
+                indice.quitar(t);
+                indice.quitar(t); // Ya no está: no resta otra vez
+            }
+            if (paso % 250 == 0) comprobar(indice, tareas, azar);
+        }
+        comprobar(indice, tareas, azar);
+    }
+
+    @Test
+    public void contarPorDiaCruzaElBordeDelArrayViejo() {
+        IndiceVencimientos indice = new IndiceVencimientos();
+        List<Tarea> tareas = new ArrayList<>();
+        // Una tarea el día i y otra cada tres días, alrededor del final del array inicial
+        for (long dia = 32_740; dia < 32_800; dia++) {
+            tareas.add(tarea(tareas.size() + 1, dia));
+            if (dia % 3 == 0) tareas.add(tarea(tareas.size() + 1, dia));
+        }
+        // Se agregan antes las del final: el array se agranda con la mitad aún por llegar
+        for (int i = tareas.size() - 1; i >= 0; i--) indice.agregar(tareas.get(i));
+
+        LocalDate desde = LocalDate.ofEpochDay(32_730);
+        int[] esperado = new int[80];
+        for (int i = 0; i < esperado.length; i++) esperado[i] = contarAMano(tareas, 32_730 + i, 32_730 + i);
+        assertArrayEquals(esperado, indice.contarPorDia(desde, esperado.length));
+
+        // Y una fecha muy lejana (otro agrandar) no cambia los conteos de antes
+        indice.agregar(tarea(tareas.size() + 1, ULTIMO_DIA));
+        assertArrayEquals(esperado, indice.contarPorDia(desde, esperado.length));
+        assertEquals(1, indice.contar(LocalDate.ofEpochDay(ULTIMO_DIA), null));
+        assertEquals(tareas.size() + 1, indice.contar(null, null));
+    }
+}
@@ -0,0 +1,134 @@
+package Modelo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Cada aviso tiene que salir en su tic exacto, ni antes ni después, aunque
+ * haya bajado en cascada desde una rueda grande. Lo delicado son los tics
+ * múltiplos de 64 y de 4096, donde se reparten la segunda y la tercera rueda.
+ */
+public class RuedaTemporizadoresTest {
+
+    private static final int RUEDA_1 = 64;
+    private static final int RUEDA_2 = 64 * 64;
+    private static final int RUEDA_3 = 64 * 64 * 64;
+
+    private static Tarea tarea(long id) {
+        return new Tarea(id, "Tarea " + id, "", Categoria.GENERAL, null, 0, 0);
+    }
+
+    // Avanza tic a tic (un tic = 1 ms) y comprueba que sale justo lo que toca en cada uno
+    private static void avanzarComprobando(RuedaTemporizadores rueda, Map<Long, Long> esperados, long desde, long hasta) {
+        List<Tarea> salen = new ArrayList<>();
+        for (long tic = desde; tic <= hasta; tic++) {
+            salen.clear();
+            rueda.avanzarHasta(tic, salen);
+            for (Tarea t : salen) {
+                Long ticEsperado = esperados.remove(t.getId());
+                assertNotNull("Tarea " + t.getId() + " salió dos veces o estaba cancelada", ticEsperado);
+                assertEquals("Tarea " + t.getId(), (long) ticEsperado, tic);
+            }
+            assertEquals(esperados.size(), rueda.tamano());
+        }
+    }
+
+    @Test
+    public void losBordesDeLasRuedasSalenEnSuTic() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(1, 0);
+        Map<Long, Long> esperados = new HashMap<>();
+        long id = 1;
+        // Justo antes, en y justo después de cada vuelta de la primera y la segunda rueda
+        for (long borde = RUEDA_1; borde <= 3L * RUEDA_2; borde += RUEDA_1) {
+            for (long tic = borde - 1; tic <= borde + 1; tic++) {
+                assertTrue(rueda.programar(tarea(id), tic));
+                esperados.put(id++, tic);
+            }
+        }
+        for (long tic : new long[] { RUEDA_3 - 1, RUEDA_3, RUEDA_3 + 1, RUEDA_3 + RUEDA_2, RUEDA_3 + RUEDA_1 }) {
+            assertTrue(rueda.programar(tarea(id), tic));
+            esperados.put(id++, tic);
+        }
+        assertEquals(esperados.size(), rueda.tamano());
+
+        avanzarComprobando(rueda, esperados, 1, RUEDA_3 + RUEDA_2 + 1);
+        assertTrue(esperados.isEmpty());
+    }
+
+    @Test
+    public void programarDesdeUnTicQueNoEsCero() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(1, 0);
+        Map<Long, Long> esperados = new HashMap<>();
+        List<Tarea> salen = new ArrayList<>();
+        // Con la rueda vacía el reloj salta directamente: se empieza a mitad de una vuelta
+        rueda.avanzarHasta(RUEDA_2 - 100, salen);
+        long actual = RUEDA_2 - 100;
+        assertFalse(rueda.programar(tarea(1), actual)); // Ya pasó
+
+        // Distancias que cruzan el múltiplo de 4096 siguiente estando colgadas en la segunda rueda
+        long id = 1;
+        for (long distancia : new long[] { 1, 63, 64, 65, 99, 100, 101, 163, 164, 165, 4095, 4096, 4097, 4196, 70_000 }) {
+            assertTrue(rueda.programar(tarea(id), actual + distancia));
+            esperados.put(id++, actual + distancia);
+        }
+        avanzarComprobando(rueda, esperados, actual + 1, actual + 70_001);
+        assertTrue(esperados.isEmpty());
+    }
+
+    @Test
+    public void programarCancelarYCambiarAlAzar() {
+        Random azar = new Random(18);
+        RuedaTemporizadores rueda = new RuedaTemporizadores(1, 0);
+        Map<Long, Long> esperados = new HashMap<>();
+        List<Tarea> salen = new ArrayList<>();
+
+        for (long tic = 1; tic <= 3 * RUEDA_2 + 50; tic++) {
+            // Unas cuantas operaciones en cada tic: nuevas, cambios de hora y cancelaciones
+            for (int i = 0; i < 2; i++) {
+                long id = 1 + azar.nextInt(2_000);
+                int operacion = azar.nextInt(4);
+                if (operacion == 0) {
+                    assertEquals(esperados.remove(id) != null, rueda.cancelar(id));
+                } else {
+                    // Distancias cortas, en los bordes de las ruedas o largas
+                    long distancia = operacion == 1 ? 1 + azar.nextInt(RUEDA_1 + 1)
+                            : operacion == 2 ? RUEDA_1 * (1 + azar.nextInt(70)) + azar.nextInt(3) - 1
+                            : 1 + azar.nextInt(2 * RUEDA_2);
+                    assertTrue(rueda.programar(tarea(id), tic - 1 + distancia));
+                    esperados.put(id, tic - 1 + distancia);
+                }
+            }
+            assertEquals(esperados.size(), rueda.tamano());
+
+            salen.clear();
+            rueda.avanzarHasta(tic, salen);
+            for (Tarea t : salen) assertEquals(Long.valueOf(tic), esperados.remove(t.getId()));
+            for (long restante : esperados.values()) assertTrue(restante > tic);
+        }
+    }
+
+    @Test
+    public void nuncaSeAvisaAntesDeTiempo() {
+        // Tics de un segundo que empiezan en el instante 500
+        RuedaTemporizadores rueda = new RuedaTemporizadores(1_000, 500);
+        List<Tarea> salen = new ArrayList<>();
+        assertTrue(rueda.programar(tarea(1), 1_501)); // A mitad del tic 1: sale al empezar el 2
+        assertEquals(1_500, rueda.siguienteTicMs());
+
+        rueda.avanzarHasta(2_499, salen);
+        assertTrue(salen.isEmpty());
+        rueda.avanzarHasta(2_500, salen);
+        assertEquals(1, salen.size());
+        assertEquals(0, rueda.tamano());
+        assertEquals(3_500, rueda.siguienteTicMs());
+    }
+}